@@ -0,0 +1,69 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.jmh;
+
+import io.mapsmessaging.schemas.formatters.MessageFormatter;
+import io.mapsmessaging.schemas.formatters.MessageFormatterFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how Avro parsing scales when every thread shares one formatter. Compare the throughput of
+ * {@link #parseSingleThread()} with {@link #parseAllThreads()}, which runs one thread per available processor, to see
+ * the scaling factor.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvroConcurrencyJMH {
+
+  @Param({"SMALL", "MEDIUM", "LARGE"})
+  private BenchmarkPayloads.Size size;
+
+  private MessageFormatter formatter;
+  private byte[] payload;
+  private String path;
+
+  @Setup
+  public void setup() throws IOException {
+    BenchmarkPayloads.Payload data = BenchmarkPayloads.create("AVRO", size);
+    formatter = MessageFormatterFactory.getInstance().getFormatter(data.getConfig());
+    payload = data.getData();
+    path = data.getLastField();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object parseSingleThread() {
+    return formatter.parse(payload).get(path);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Object parseAllThreads() {
+    return formatter.parse(payload).get(path);
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.gson.Gson;
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import io.mapsmessaging.schemas.config.SchemaConfig;
+import io.mapsmessaging.schemas.config.impl.*;
+import io.mapsmessaging.schemas.formatters.MessageFormatterFactory;
+import io.mapsmessaging.schemas.formatters.impl.EnvelopeFormatter;
+import io.mapsmessaging.schemas.repository.impl.SimpleSchemaRepository;
+import lombok.Getter;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds schema configs and matching payloads for the benchmarks. Each payload is a flat record with fields named f0 to
+ * fN, cycling through long, double and string values, so every format carries the same data. RAW carries the JSON
+ * document as opaque bytes, and ENVELOPE wraps the JSON document in a schema id prefix that is resolved through a
+ * repository set on the {@link MessageFormatterFactory}.
+ */
+public final class BenchmarkPayloads {
+
+  private static final int STRUCT_STRING_LENGTH = 16;
+  private static final int ENVELOPE_SCHEMA_ID = 1;
+
+  /**
+   * The payload sizes, as a number of fields.
+   */
+  public enum Size {
+    SMALL(8),
+    MEDIUM(64),
+    LARGE(512);
+
+    @Getter
+    private final int fields;
+
+    Size(int fields) {
+      this.fields = fields;
+    }
+  }
+
+  /**
+   * A schema config with a payload that it can parse and the path of the last field in the payload.
+   */
+  @Getter
+  public static final class Payload {
+    private final SchemaConfig config;
+    private final byte[] data;
+    private final String lastField;
+
+    Payload(SchemaConfig config, byte[] data, String lastField) {
+      this.config = config;
+      this.data = data;
+      this.lastField = lastField;
+    }
+  }
+
+  /**
+   * Creates the payload for the format and size.
+   *
+   * @param format the formatter name
+   * @param size the payload size
+   * @return the payload
+   * @throws IOException if the payload could not be built
+   */
+  public static Payload create(String format, Size size) throws IOException {
+    Map<String, Object> record = createRecord(size.getFields());
+    String lastField = "f" + (size.getFields() - 1);
+    switch (format.toUpperCase()) {
+      case "JSON":
+        return new Payload(new JsonSchemaConfig(), new Gson().toJson(record).getBytes(StandardCharsets.UTF_8), lastField);
+      case "CBOR":
+        return new Payload(new CborSchemaConfig(), new ObjectMapper(new CBORFactory()).writeValueAsBytes(record), lastField);
+      case "MESSAGEPACK":
+        return new Payload(new MessagePackSchemaConfig(), new ObjectMapper(new MessagePackFactory()).writeValueAsBytes(record), lastField);
+      case "XML":
+        return new Payload(new XmlSchemaConfig(), toXml(record), lastField);
+      case "CSV":
+        return new Payload(new CsvSchemaConfig(String.join(", ", record.keySet()), true), toCsv(record), lastField);
+      case "AVRO":
+        return createAvro(record, lastField);
+      case "PROTOBUF":
+        return createProtoBuf(record, lastField);
+      case "RAW":
+        return new Payload(new RawSchemaConfig(), new Gson().toJson(record).getBytes(StandardCharsets.UTF_8), lastField);
+      case "STRUCT":
+        return createStruct(record, lastField);
+      case "ENVELOPE":
+        return createEnvelope(record, lastField);
+      default:
+        throw new IOException("Unsupported benchmark format " + format);
+    }
+  }
+
+  static Map<String, Object> createRecord(int fields) {
+    Map<String, Object> record = new LinkedHashMap<>();
+    for (int x = 0; x < fields; x++) {
+      record.put("f" + x, createValue(x));
+    }
+    return record;
+  }
+
+  private static Object createValue(int x) {
+    switch (x % 3) {
+      case 0:
+        return x * 1_000_003L;
+      case 1:
+        return x * 1.5;
+      default:
+        return "value-" + x;
+    }
+  }
+
+  private static byte[] toXml(Map<String, Object> record) {
+    StringBuilder sb = new StringBuilder("<?xml version=\"1.0\"?>\n<record>");
+    for (Map.Entry<String, Object> entry : record.entrySet()) {
+      sb.append('<').append(entry.getKey()).append('>').append(entry.getValue()).append("</").append(entry.getKey()).append('>');
+    }
+    sb.append("</record>");
+    return sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] toCsv(Map<String, Object> record) {
+    StringBuilder sb = new StringBuilder();
+    for (Object value : record.values()) {
+      if (sb.length() > 0) {
+        sb.append(',');
+      }
+      if (value instanceof String) {
+        sb.append('"').append(value).append('"');
+      } else {
+        sb.append(value);
+      }
+    }
+    return sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static Payload createStruct(Map<String, Object> record, String lastField) {
+    List<StructFieldConfig> fields = new ArrayList<>();
+    int offset = 0;
+    for (Map.Entry<String, Object> entry : record.entrySet()) {
+      Object value = entry.getValue();
+      if (value instanceof Long) {
+        fields.add(new StructFieldConfig(entry.getKey(), offset, StructFieldConfig.TYPE.INT64));
+      } else if (value instanceof Double) {
+        fields.add(new StructFieldConfig(entry.getKey(), offset, StructFieldConfig.TYPE.DOUBLE));
+      } else {
+        fields.add(new StructFieldConfig(entry.getKey(), offset, StructFieldConfig.TYPE.STRING, STRUCT_STRING_LENGTH));
+      }
+      offset += value instanceof String ? STRUCT_STRING_LENGTH : 8;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(offset).order(ByteOrder.LITTLE_ENDIAN);
+    for (Object value : record.values()) {
+      if (value instanceof Long) {
+        buffer.putLong((Long) value);
+      } else if (value instanceof Double) {
+        buffer.putDouble((Double) value);
+      } else {
+        byte[] text = value.toString().getBytes(StandardCharsets.UTF_8);
+        buffer.put(text).position(buffer.position() + STRUCT_STRING_LENGTH - text.length);
+      }
+    }
+    StructSchemaConfig config = new StructSchemaConfig();
+    config.setFields(fields);
+    return new Payload(config, buffer.array(), lastField);
+  }
+
+  private static Payload createEnvelope(Map<String, Object> record, String lastField) {
+    JsonSchemaConfig inner = new JsonSchemaConfig();
+    inner.setUniqueId(Integer.toString(ENVELOPE_SCHEMA_ID));
+    SimpleSchemaRepository repository = new SimpleSchemaRepository();
+    repository.addSchema("/benchmark", inner);
+    MessageFormatterFactory.getInstance().setSchemaRepository(repository);
+
+    byte[] document = new Gson().toJson(record).getBytes(StandardCharsets.UTF_8);
+    byte[] data = ByteBuffer.allocate(EnvelopeFormatter.HEADER_LENGTH + document.length)
+        .put((byte) 0)
+        .putInt(ENVELOPE_SCHEMA_ID)
+        .put(document)
+        .array();
+    return new Payload(new EnvelopeSchemaConfig(), data, lastField);
+  }
+
+  private static Payload createAvro(Map<String, Object> record, String lastField) throws IOException {
+    StringBuilder sb = new StringBuilder("{\"type\":\"record\",\"name\":\"Record\",\"namespace\":\"io.mapsmessaging.schemas.jmh\",\"fields\":[");
+    boolean first = true;
+    for (Map.Entry<String, Object> entry : record.entrySet()) {
+      if (!first) {
+        sb.append(',');
+      }
+      first = false;
+      sb.append("{\"name\":\"").append(entry.getKey()).append("\",\"type\":\"").append(avroType(entry.getValue())).append("\"}");
+    }
+    sb.append("]}");
+    String schemaDefinition = sb.toString();
+    Schema schema = new Schema.Parser().parse(schemaDefinition);
+    GenericRecord genericRecord = new GenericData.Record(schema);
+    record.forEach(genericRecord::put);
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(stream, null);
+    new GenericDatumWriter<GenericRecord>(schema).write(genericRecord, encoder);
+    encoder.flush();
+
+    AvroSchemaConfig config = new AvroSchemaConfig();
+    config.setSchema(schemaDefinition);
+    return new Payload(config, stream.toByteArray(), lastField);
+  }
+
+  private static String avroType(Object value) {
+    if (value instanceof Long) {
+      return "long";
+    }
+    if (value instanceof Double) {
+      return "double";
+    }
+    return "string";
+  }
+
+  private static Payload createProtoBuf(Map<String, Object> record, String lastField) throws IOException {
+    DescriptorProtos.DescriptorProto.Builder message = DescriptorProtos.DescriptorProto.newBuilder().setName("Record");
+    int number = 1;
+    for (Map.Entry<String, Object> entry : record.entrySet()) {
+      message.addField(FieldDescriptorProto.newBuilder()
+          .setName(entry.getKey())
+          .setNumber(number++)
+          .setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL)
+          .setType(protoBufType(entry.getValue())));
+    }
+    DescriptorProtos.FileDescriptorProto file = DescriptorProtos.FileDescriptorProto.newBuilder()
+        .setName("record.proto")
+        .addMessageType(message)
+        .build();
+    try {
+      Descriptors.Descriptor descriptor = Descriptors.FileDescriptor.buildFrom(file, new Descriptors.FileDescriptor[0]).findMessageTypeByName("Record");
+      DynamicMessage.Builder builder = DynamicMessage.newBuilder(descriptor);
+      record.forEach((key, value) -> builder.setField(descriptor.findFieldByName(key), value));
+
+      ProtoBufSchemaConfig config = new ProtoBufSchemaConfig();
+      config.setMessageName("Record");
+      config.setDescriptorValue(DescriptorProtos.FileDescriptorSet.newBuilder().addFile(file).build().toByteArray());
+      return new Payload(config, builder.build().toByteArray(), lastField);
+    } catch (Descriptors.DescriptorValidationException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private static FieldDescriptorProto.Type protoBufType(Object value) {
+    if (value instanceof Long) {
+      return FieldDescriptorProto.Type.TYPE_INT64;
+    }
+    if (value instanceof Double) {
+      return FieldDescriptorProto.Type.TYPE_DOUBLE;
+    }
+    return FieldDescriptorProto.Type.TYPE_STRING;
+  }
+
+  private BenchmarkPayloads() {
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.jmh;
+
+import io.mapsmessaging.schemas.config.SchemaConfig;
+import io.mapsmessaging.schemas.config.SchemaConfigFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures SchemaConfigFactory.constructConfig for the packed form of each schema type.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigJMH {
+
+  @Param({"JSON", "CSV", "XML", "AVRO", "ProtoBuf"})
+  private String format;
+
+  @Param({"SMALL", "LARGE"})
+  private BenchmarkPayloads.Size size;
+
+  private String packed;
+
+  @Setup
+  public void setup() throws IOException {
+    SchemaConfig config = BenchmarkPayloads.create(format, size).getConfig();
+    config.setUniqueId(UUID.randomUUID());
+    packed = config.pack();
+  }
+
+  @Benchmark
+  public SchemaConfig constructConfig() throws IOException {
+    return SchemaConfigFactory.getInstance().constructConfig(packed);
+  }
+}
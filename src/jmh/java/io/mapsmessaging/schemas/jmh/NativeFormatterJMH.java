@@ -0,0 +1,101 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.jmh;
+
+import com.google.gson.JsonObject;
+import io.mapsmessaging.schemas.config.impl.NativeSchemaConfig;
+import io.mapsmessaging.schemas.formatters.MessageFormatter;
+import io.mapsmessaging.schemas.formatters.MessageFormatterFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the single value native formatter for each of its value types, the array types carry {@value #ARRAY_LENGTH}
+ * elements. Payloads are encoded by the formatter itself.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NativeFormatterJMH {
+
+  private static final int ARRAY_LENGTH = 64;
+
+  @Param({"STRING", "NUMERIC_STRING", "INT8", "INT16", "INT32", "INT64", "FLOAT", "DOUBLE",
+      "INT8_ARRAY", "INT16_ARRAY", "INT32_ARRAY", "INT64_ARRAY", "FLOAT_ARRAY", "DOUBLE_ARRAY"})
+  private NativeSchemaConfig.TYPE type;
+
+  private MessageFormatter formatter;
+  private byte[] payload;
+
+  @Setup
+  public void setup() throws IOException {
+    NativeSchemaConfig config = new NativeSchemaConfig();
+    config.setType(type);
+    formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    formatter.pack(Map.of("value", sampleValue()), stream);
+    payload = stream.toByteArray();
+  }
+
+  private Object sampleValue() {
+    switch (type) {
+      case STRING:
+      case NUMERIC_STRING:
+        return "12345.678";
+      case INT8:
+        return 123;
+      case INT16:
+        return 12345;
+      case INT32:
+        return 123456789;
+      case INT64:
+        return 1234567890123L;
+      case FLOAT:
+      case DOUBLE:
+        return 12345.678;
+      default:
+        List<Number> values = new ArrayList<>(ARRAY_LENGTH);
+        for (int x = 0; x < ARRAY_LENGTH; x++) {
+          values.add(type == NativeSchemaConfig.TYPE.FLOAT_ARRAY || type == NativeSchemaConfig.TYPE.DOUBLE_ARRAY ? x * 1.5 : x);
+        }
+        return values;
+    }
+  }
+
+  @Benchmark
+  public Object parseAndGet() {
+    return formatter.parse(payload).get("value");
+  }
+
+  @Benchmark
+  public JsonObject parseToJson() throws IOException {
+    return formatter.parseToJson(payload);
+  }
+}
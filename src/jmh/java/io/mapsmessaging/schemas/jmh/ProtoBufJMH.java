@@ -0,0 +1,88 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.jmh;
+
+import com.google.protobuf.DescriptorProtos;
+import io.mapsmessaging.schemas.config.impl.ProtoBufSchemaConfig;
+import io.mapsmessaging.schemas.formatters.MessageFormatter;
+import io.mapsmessaging.schemas.formatters.MessageFormatterFactory;
+import io.mapsmessaging.schemas.formatters.ParsedObject;
+import io.mapsmessaging.schemas.formatters.PersonProto;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ProtoBuf formatter parsing with a DynamicMessage against the generated parser of the Person message that
+ * protoc builds for the tests.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProtoBufJMH {
+
+  @Param({"DYNAMIC", "GENERATED"})
+  private String mode;
+
+  private MessageFormatter formatter;
+  private byte[] payload;
+
+  @Setup
+  public void setup() throws IOException {
+    ProtoBufSchemaConfig config = new ProtoBufSchemaConfig();
+    config.setDescriptorValue(DescriptorProtos.FileDescriptorSet.newBuilder()
+        .addFile(PersonProto.getDescriptor().toProto())
+        .build()
+        .toByteArray());
+    config.setMessageName("Person");
+    if (mode.equals("GENERATED")) {
+      config.setMessageClass(PersonProto.Person.class.getName());
+    }
+    formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+    payload = PersonProto.Person.newBuilder()
+        .setStringId("a7f3c2e1-5b4d-4c8a-9e6f-1d2b3c4d5e6f")
+        .setLongId(1234567890123L)
+        .setIntId(123456)
+        .setFloatId(12.5f)
+        .setDoubleId(12345.678)
+        .build()
+        .toByteArray();
+  }
+
+  @Benchmark
+  public ParsedObject parse() {
+    return formatter.parse(payload);
+  }
+
+  @Benchmark
+  public Object parseAndGet() {
+    return formatter.parse(payload).get("doubleId");
+  }
+
+  @Benchmark
+  public Object parseToJson() throws IOException {
+    return formatter.parseToJson(payload);
+  }
+}
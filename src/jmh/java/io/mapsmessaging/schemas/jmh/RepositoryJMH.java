@@ -0,0 +1,85 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.jmh;
+
+import io.mapsmessaging.schemas.config.SchemaConfig;
+import io.mapsmessaging.schemas.config.impl.JsonSchemaConfig;
+import io.mapsmessaging.schemas.config.impl.XmlSchemaConfig;
+import io.mapsmessaging.schemas.repository.impl.SimpleSchemaRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures SimpleSchemaRepository lookups by unique id, context and type.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryJMH {
+
+  @Param({"100", "10000"})
+  private int schemas;
+
+  private SimpleSchemaRepository repository;
+  private String[] uuids;
+  private String[] contexts;
+  private int index;
+
+  @Setup
+  public void setup() {
+    repository = new SimpleSchemaRepository();
+    uuids = new String[schemas];
+    contexts = new String[schemas];
+    for (int x = 0; x < schemas; x++) {
+      SchemaConfig config = (x % 2 == 0) ? new JsonSchemaConfig() : new XmlSchemaConfig();
+      config.setUniqueId(UUID.randomUUID());
+      uuids[x] = config.getUniqueId();
+      contexts[x] = "/root/topic/" + (x % 100);
+      repository.addSchema(contexts[x], config);
+    }
+  }
+
+  private int next() {
+    index = (index + 1) % schemas;
+    return index;
+  }
+
+  @Benchmark
+  public SchemaConfig getSchema() {
+    return repository.getSchema(uuids[next()]);
+  }
+
+  @Benchmark
+  public List<SchemaConfig> getSchemaByContext() {
+    return repository.getSchemaByContext(contexts[next()]);
+  }
+
+  @Benchmark
+  public List<SchemaConfig> getSchemas() {
+    return repository.getSchemas("JSON");
+  }
+}
@@ -56,10 +56,12 @@ import static io.mapsmessaging.schemas.config.SchemaConfigFactory.gson;
     @JsonSubTypes.Type(value = CsvSchemaConfig.class, name = "csv"),
     @JsonSubTypes.Type(value = JsonSchemaConfig.class, name = "json"),
     @JsonSubTypes.Type(value = CborSchemaConfig.class, name = "cbor"),
+    @JsonSubTypes.Type(value = EnvelopeSchemaConfig.class, name = "envelope"),
     @JsonSubTypes.Type(value = MessagePackSchemaConfig.class, name = "messagePack"),
     @JsonSubTypes.Type(value = NativeSchemaConfig.class, name = "native"),
     @JsonSubTypes.Type(value = ProtoBufSchemaConfig.class, name = "protobuf"),
     @JsonSubTypes.Type(value = RawSchemaConfig.class, name = "raw"),
+    @JsonSubTypes.Type(value = StructSchemaConfig.class, name = "struct"),
     @JsonSubTypes.Type(value = XmlSchemaConfig.class, name = "xml")
 })
 @Schema(description = "Abstract base class for all schema configurations",
@@ -69,10 +71,12 @@ import static io.mapsmessaging.schemas.config.SchemaConfigFactory.gson;
         @DiscriminatorMapping(value = "csv", schema = CsvSchemaConfig.class),
         @DiscriminatorMapping(value = "json", schema = JsonSchemaConfig.class),
         @DiscriminatorMapping(value = "cbor", schema = CborSchemaConfig.class),
+        @DiscriminatorMapping(value = "envelope", schema = EnvelopeSchemaConfig.class),
         @DiscriminatorMapping(value = "messagePack", schema = MessagePackSchemaConfig.class),
         @DiscriminatorMapping(value = "native", schema = NativeSchemaConfig.class),
         @DiscriminatorMapping(value = "protobuf", schema = ProtoBufSchemaConfig.class),
         @DiscriminatorMapping(value = "raw", schema = RawSchemaConfig.class),
+        @DiscriminatorMapping(value = "struct", schema = StructSchemaConfig.class),
         @DiscriminatorMapping(value = "xml", schema = XmlSchemaConfig.class)
     })
 
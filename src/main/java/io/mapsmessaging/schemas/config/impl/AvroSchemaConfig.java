@@ -39,11 +39,29 @@ import static io.mapsmessaging.schemas.logging.SchemaLogMessages.AVRO_SCHEMA_NOT
 @Schema(description = "AVRO Schema Configuration")
 public class AvroSchemaConfig extends SchemaConfig {
 
+  private static final String READER_SCHEMA = "readerSchema";
+  private static final String SINGLE_OBJECT_ENCODING = "singleObjectEncoding";
 
   @Getter
   @Setter
   private String schema;
 
+  /**
+   * Optional schema that parsed records are resolved into, allowing messages written with another version of the schema
+   * to be read. When not set the records use the writer schema.
+   */
+  @Getter
+  @Setter
+  private String readerSchema;
+
+  /**
+   * When set, messages carry the Avro single object encoding header, a marker followed by the fingerprint of the writer
+   * schema. Messages are written with the header and parsed using the schema the fingerprint refers to.
+   */
+  @Getter
+  @Setter
+  private boolean singleObjectEncoding;
+
   /**
    * Instantiates a new Avro schema config.
    */
@@ -60,6 +78,12 @@ public class AvroSchemaConfig extends SchemaConfig {
   protected AvroSchemaConfig(Map<String, Object> config) {
     super("AVRO", config);
     this.schema = new String(Base64.getDecoder().decode(config.get(SCHEMA).toString()));
+    Object reader = config.get(READER_SCHEMA);
+    if (reader != null) {
+      this.readerSchema = new String(Base64.getDecoder().decode(reader.toString()));
+    }
+    Object singleObject = config.get(SINGLE_OBJECT_ENCODING);
+    this.singleObjectEncoding = singleObject != null && Boolean.parseBoolean(singleObject.toString());
     setMimeType("application/octet-stream");
   }
 
@@ -73,6 +97,12 @@ public class AvroSchemaConfig extends SchemaConfig {
     JsonObject data = new JsonObject();
     packData(data);
     data.addProperty(SCHEMA, new String(Base64.getEncoder().encode(schema.getBytes())));
+    if (readerSchema != null && !readerSchema.isEmpty()) {
+      data.addProperty(READER_SCHEMA, new String(Base64.getEncoder().encode(readerSchema.getBytes())));
+    }
+    if (singleObjectEncoding) {
+      data.addProperty(SINGLE_OBJECT_ENCODING, true);
+    }
     return data;
   }
 
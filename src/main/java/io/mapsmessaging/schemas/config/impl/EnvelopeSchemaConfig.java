@@ -0,0 +1,109 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.config.impl;
+
+import com.google.gson.JsonObject;
+import io.mapsmessaging.schemas.config.SchemaConfig;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The type Envelope schema config. Messages carry a magic byte followed by a 4 byte big endian schema id, the rest of the
+ * message is parsed by the formatter of the schema the id refers to.
+ */
+@Schema(description = "Schema id prefixed Envelope Configuration")
+public class EnvelopeSchemaConfig extends SchemaConfig {
+
+  private static final String NAME = "ENVELOPE";
+  private static final String MAGIC_BYTE = "magicByte";
+  private static final String SCHEMA_IDS = "schemaIds";
+
+  /**
+   * The value of the first byte of every message.
+   */
+  @Getter
+  @Setter
+  private int magicByte;
+
+  /**
+   * Maps schema ids to the unique id of the schema in the repository. Ids that are not mapped are looked up using the
+   * decimal string of the id.
+   */
+  @Getter
+  @Setter
+  private Map<Integer, String> schemaIds;
+
+  /**
+   * Instantiates a new Envelope schema config.
+   */
+  public EnvelopeSchemaConfig() {
+    super(NAME);
+    schemaIds = new LinkedHashMap<>();
+    setMimeType("application/octet-stream");
+  }
+
+  /**
+   * Instantiates a new Envelope schema config.
+   *
+   * @param config the config
+   */
+  protected EnvelopeSchemaConfig(Map<String, Object> config) {
+    super(NAME, config);
+    schemaIds = new LinkedHashMap<>();
+    Object magic = config.get(MAGIC_BYTE);
+    if (magic instanceof Number) {
+      magicByte = ((Number) magic).intValue();
+    } else if (magic != null) {
+      magicByte = Integer.parseInt(magic.toString());
+    }
+    Object ids = config.get(SCHEMA_IDS);
+    if (ids instanceof Map) {
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) ids).entrySet()) {
+        schemaIds.put(Integer.parseInt(entry.getKey().toString()), entry.getValue().toString());
+      }
+    }
+    setMimeType("application/octet-stream");
+  }
+
+  @Override
+  protected JsonObject packData() throws IOException {
+    JsonObject data = new JsonObject();
+    packData(data);
+    data.addProperty(MAGIC_BYTE, magicByte);
+    if (schemaIds != null && !schemaIds.isEmpty()) {
+      JsonObject ids = new JsonObject();
+      for (Map.Entry<Integer, String> entry : schemaIds.entrySet()) {
+        ids.addProperty(entry.getKey().toString(), entry.getValue());
+      }
+      data.add(SCHEMA_IDS, ids);
+    }
+    return data;
+  }
+
+  protected SchemaConfig getInstance(Map<String, Object> config) {
+    return new EnvelopeSchemaConfig(config);
+  }
+}
@@ -24,6 +24,7 @@ import com.google.gson.JsonParser;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.util.Map;
 
@@ -36,11 +37,19 @@ import static io.mapsmessaging.schemas.config.SchemaConfigFactory.gson;
 public class JsonSchemaConfig extends SimpleSchemaConfig {
 
   private static final String EMPTY_SCHEMA = "{}";
+  private static final String VALIDATION = "validation";
   private static final String NAME = "JSON";
 
   @Getter
   private final String schema;
 
+  /**
+   * The validation policy, null validates every message.
+   */
+  @Getter
+  @Setter
+  private SchemaValidationConfig validation;
+
   /**
    * Instantiates a new Json schema config.
    */
@@ -66,6 +75,12 @@ public class JsonSchemaConfig extends SimpleSchemaConfig {
     } else {
       schema = EMPTY_SCHEMA;
     }
+    Object validationConfig = config.get(VALIDATION);
+    if (validationConfig instanceof Map) {
+      @SuppressWarnings("unchecked")
+      Map<String, Object> validationMap = (Map<String, Object>) validationConfig;
+      validation = new SchemaValidationConfig(validationMap);
+    }
   }
 
   protected SchemaConfig getInstance(Map<String, Object> config) {
@@ -77,6 +92,8 @@ public class JsonSchemaConfig extends SimpleSchemaConfig {
     super.packData(jsonObject);
     JsonObject schemaObject = JsonParser.parseString(schema).getAsJsonObject();
     jsonObject.add("jsonSchema", schemaObject);
-
+    if (validation != null) {
+      jsonObject.add(VALIDATION, validation.pack());
+    }
   }
 }
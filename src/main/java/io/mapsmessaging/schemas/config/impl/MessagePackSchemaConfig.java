@@ -24,6 +24,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.util.Map;
 
@@ -31,11 +32,19 @@ import static io.mapsmessaging.schemas.config.SchemaConfigFactory.gson;
 
 public class MessagePackSchemaConfig extends SimpleSchemaConfig {
 
+  private static final String VALIDATION = "validation";
   private static final String NAME = "MessagePack";
 
   @Getter
   private final String schema;
 
+  /**
+   * The validation policy, null validates every message.
+   */
+  @Getter
+  @Setter
+  private SchemaValidationConfig validation;
+
   public MessagePackSchemaConfig() {
     super(NAME);
     schema = "{}";
@@ -58,6 +67,12 @@ public class MessagePackSchemaConfig extends SimpleSchemaConfig {
     } else {
       schema = "{}";
     }
+    Object validationConfig = config.get(VALIDATION);
+    if (validationConfig instanceof Map) {
+      @SuppressWarnings("unchecked")
+      Map<String, Object> validationMap = (Map<String, Object>) validationConfig;
+      validation = new SchemaValidationConfig(validationMap);
+    }
   }
 
   @Override
@@ -65,6 +80,9 @@ public class MessagePackSchemaConfig extends SimpleSchemaConfig {
     super.packData(jsonObject);
     JsonObject schemaObject = JsonParser.parseString(schema).getAsJsonObject();
     jsonObject.add("jsonSchema", schemaObject);
+    if (validation != null) {
+      jsonObject.add(VALIDATION, validation.pack());
+    }
   }
 
   @Override
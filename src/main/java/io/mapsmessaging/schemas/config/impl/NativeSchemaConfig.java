@@ -27,6 +27,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.io.IOException;
+import java.nio.ByteOrder;
 import java.util.Map;
 
 import static io.mapsmessaging.schemas.logging.SchemaLogMessages.NATIVE_TYPE_UNKNOWN;
@@ -38,10 +39,19 @@ import static io.mapsmessaging.schemas.logging.SchemaLogMessages.NATIVE_TYPE_UNK
 public class NativeSchemaConfig extends SimpleSchemaConfig {
 
   private static final String NAME = "Native";
+  private static final String BYTE_ORDER_KEY = "byteOrder";
+
   @Getter
   @Setter
   private TYPE type;
 
+  /**
+   * The byte order of the binary numeric types, defaults to little endian.
+   */
+  @Getter
+  @Setter
+  private BYTE_ORDER byteOrder = BYTE_ORDER.LITTLE_ENDIAN;
+
   /**
    * Instantiates a new Native schema config.
    */
@@ -57,35 +67,15 @@ public class NativeSchemaConfig extends SimpleSchemaConfig {
   protected NativeSchemaConfig(Map<String, Object> config) {
     super(NAME, config);
     String typeName = (String)config.get("type");
-    switch (typeName.toUpperCase()) {
-      case "STRING":
-        type = TYPE.STRING;
-        break;
-      case "NUMERIC_STRING":
-        type = TYPE.NUMERIC_STRING;
-        break;
-      case "INT8":
-        type = TYPE.INT8;
-        break;
-      case "INT16":
-        type = TYPE.INT16;
-        break;
-      case "INT32":
-        type = TYPE.INT32;
-        break;
-      case "INT64":
-        type = TYPE.INT64;
-        break;
-      case "FLOAT":
-        type = TYPE.FLOAT;
-        break;
-      case "DOUBLE":
-        type = TYPE.DOUBLE;
-        break;
-
-      default:
-        logger.log(NATIVE_TYPE_UNKNOWN, getFormat(), uniqueId);
-        type = TYPE.STRING;
+    try {
+      type = TYPE.valueOf(typeName.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      logger.log(NATIVE_TYPE_UNKNOWN, getFormat(), uniqueId);
+      type = TYPE.STRING;
+    }
+    Object order = config.get(BYTE_ORDER_KEY);
+    if (order != null && order.toString().equalsIgnoreCase(BYTE_ORDER.BIG_ENDIAN.name())) {
+      byteOrder = BYTE_ORDER.BIG_ENDIAN;
     }
   }
 
@@ -98,6 +88,9 @@ public class NativeSchemaConfig extends SimpleSchemaConfig {
     JsonObject data = new JsonObject();
     packData(data);
     data.addProperty("type", type.toString());
+    if (byteOrder == BYTE_ORDER.BIG_ENDIAN) {
+      data.addProperty(BYTE_ORDER_KEY, byteOrder.toString());
+    }
     return data;
   }
 
@@ -140,7 +133,54 @@ public class NativeSchemaConfig extends SimpleSchemaConfig {
     /**
      * Double type.
      */
-    DOUBLE
+    DOUBLE,
+    /**
+     * Packed array of int 8 values.
+     */
+    INT8_ARRAY,
+    /**
+     * Packed array of int 16 values.
+     */
+    INT16_ARRAY,
+    /**
+     * Packed array of int 32 values.
+     */
+    INT32_ARRAY,
+    /**
+     * Packed array of int 64 values.
+     */
+    INT64_ARRAY,
+    /**
+     * Packed array of float values.
+     */
+    FLOAT_ARRAY,
+    /**
+     * Packed array of double values.
+     */
+    DOUBLE_ARRAY
+  }
+
+  /**
+   * The byte order of the binary numeric types.
+   */
+  public enum BYTE_ORDER {
+    /**
+     * Least significant byte first.
+     */
+    LITTLE_ENDIAN,
+    /**
+     * Most significant byte first, network order.
+     */
+    BIG_ENDIAN;
+
+    /**
+     * Gets the matching nio byte order.
+     *
+     * @return the byte order
+     */
+    public ByteOrder toByteOrder() {
+      return this == BIG_ENDIAN ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    }
   }
 }
 
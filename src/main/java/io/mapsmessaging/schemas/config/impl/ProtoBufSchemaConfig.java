@@ -40,6 +40,7 @@ public class ProtoBufSchemaConfig extends SchemaConfig {
 
   private static final String DESCRIPTOR = "descriptor";
   private static final String MESSAGE_NAME = "messageName";
+  private static final String MESSAGE_CLASS = "messageClass";
 
   @Getter
   @Setter
@@ -49,6 +50,14 @@ public class ProtoBufSchemaConfig extends SchemaConfig {
   @Setter
   private String messageName;
 
+  /**
+   * Optional binary name of the protoc generated class for the message, such as "com.example.PersonProto$Person". When
+   * the class can be loaded messages are parsed with its generated parser, otherwise the descriptor is used.
+   */
+  @Getter
+  @Setter
+  private String messageClass;
+
   /**
    * Instantiates a new Proto buf schema config.
    */
@@ -66,6 +75,10 @@ public class ProtoBufSchemaConfig extends SchemaConfig {
     super("ProtoBuf", config);
     messageName = config.getOrDefault(MESSAGE_NAME, "").toString();
     descriptorValue = Base64.getDecoder().decode(config.getOrDefault(DESCRIPTOR, "").toString());
+    Object className = config.get(MESSAGE_CLASS);
+    if (className != null) {
+      messageClass = className.toString();
+    }
     setMimeType("application/octet-stream");
   }
 
@@ -85,6 +98,9 @@ public class ProtoBufSchemaConfig extends SchemaConfig {
     packData(data);
     data.addProperty(DESCRIPTOR, new String(Base64.getEncoder().encode(descriptorValue)));
     data.addProperty(MESSAGE_NAME, messageName);
+    if (messageClass != null && !messageClass.isEmpty()) {
+      data.addProperty(MESSAGE_CLASS, messageClass);
+    }
     return data;
   }
 
@@ -0,0 +1,140 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.config.impl;
+
+import com.google.gson.JsonObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * Controls how often payloads are validated against the JSON schema of a JSON, CBOR or MessagePack config.
+ */
+@Schema(description = "JSON Schema validation policy")
+public class SchemaValidationConfig {
+
+  private static final String POLICY_KEY = "policy";
+  private static final String SAMPLE_RATE = "sampleRate";
+  private static final String MAX_PER_INTERVAL = "maxPerInterval";
+  private static final String INTERVAL = "interval";
+
+  @Getter
+  @Setter
+  private POLICY policy;
+
+  /**
+   * For {@link POLICY#SAMPLED}, one in every sampleRate messages is validated.
+   */
+  @Getter
+  @Setter
+  private int sampleRate;
+
+  /**
+   * For {@link POLICY#FIRST_N_PER_INTERVAL}, the number of messages validated in each interval.
+   */
+  @Getter
+  @Setter
+  private int maxPerInterval;
+
+  /**
+   * For {@link POLICY#FIRST_N_PER_INTERVAL}, the length of the interval in milliseconds.
+   */
+  @Getter
+  @Setter
+  private long interval;
+
+  /**
+   * Instantiates a new Schema validation config that validates every message.
+   */
+  public SchemaValidationConfig() {
+    this(POLICY.ALWAYS);
+  }
+
+  /**
+   * Instantiates a new Schema validation config.
+   *
+   * @param policy the policy
+   */
+  public SchemaValidationConfig(POLICY policy) {
+    this.policy = policy;
+    sampleRate = 100;
+    maxPerInterval = 10;
+    interval = 60_000;
+  }
+
+  /**
+   * Instantiates a new Schema validation config.
+   *
+   * @param config the config
+   */
+  public SchemaValidationConfig(Map<String, Object> config) {
+    this(POLICY.valueOf(config.getOrDefault(POLICY_KEY, POLICY.ALWAYS.name()).toString().toUpperCase()));
+    sampleRate = getInt(config, SAMPLE_RATE, sampleRate);
+    maxPerInterval = getInt(config, MAX_PER_INTERVAL, maxPerInterval);
+    Object value = config.get(INTERVAL);
+    if (value instanceof Number) {
+      interval = ((Number) value).longValue();
+    }
+  }
+
+  /**
+   * Pack the policy into a json object.
+   *
+   * @return the json object
+   */
+  public JsonObject pack() {
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.addProperty(POLICY_KEY, policy.name());
+    jsonObject.addProperty(SAMPLE_RATE, sampleRate);
+    jsonObject.addProperty(MAX_PER_INTERVAL, maxPerInterval);
+    jsonObject.addProperty(INTERVAL, interval);
+    return jsonObject;
+  }
+
+  private static int getInt(Map<String, Object> config, String key, int defaultValue) {
+    Object value = config.get(key);
+    return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+  }
+
+  /**
+   * The enum Policy.
+   */
+  public enum POLICY {
+    /**
+     * Validate every message.
+     */
+    ALWAYS,
+    /**
+     * Validate one in every sampleRate messages.
+     */
+    SAMPLED,
+    /**
+     * Validate the first maxPerInterval messages in each interval.
+     */
+    FIRST_N_PER_INTERVAL,
+    /**
+     * Validate every message on a background thread, dropping validations when the background queue is full.
+     */
+    ASYNC
+  }
+}
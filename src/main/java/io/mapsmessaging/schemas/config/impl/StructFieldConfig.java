@@ -0,0 +1,218 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.config.impl;
+
+import com.google.gson.JsonObject;
+import io.mapsmessaging.schemas.config.impl.NativeSchemaConfig.BYTE_ORDER;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * Describes a single field of a fixed layout binary struct.
+ */
+@Schema(description = "Struct field definition")
+public class StructFieldConfig {
+
+  private static final String NAME = "name";
+  private static final String OFFSET = "offset";
+  private static final String TYPE_KEY = "type";
+  private static final String LENGTH = "length";
+  private static final String BYTE_ORDER_KEY = "byteOrder";
+
+  @Getter
+  @Setter
+  private String name;
+
+  /**
+   * The offset of the field from the start of the payload in bytes.
+   */
+  @Getter
+  @Setter
+  private int offset;
+
+  @Getter
+  @Setter
+  private TYPE type;
+
+  /**
+   * The number of bytes of a STRING or BYTES field, ignored by the numeric types.
+   */
+  @Getter
+  @Setter
+  private int length;
+
+  /**
+   * The byte order of the field, null uses the byte order of the struct.
+   */
+  @Getter
+  @Setter
+  private BYTE_ORDER byteOrder;
+
+  /**
+   * Instantiates a new Struct field config.
+   */
+  public StructFieldConfig() {
+  }
+
+  /**
+   * Instantiates a new Struct field config.
+   *
+   * @param name the name
+   * @param offset the offset
+   * @param type the type
+   */
+  public StructFieldConfig(String name, int offset, TYPE type) {
+    this(name, offset, type, 0);
+  }
+
+  /**
+   * Instantiates a new Struct field config.
+   *
+   * @param name the name
+   * @param offset the offset
+   * @param type the type
+   * @param length the length of a STRING or BYTES field
+   */
+  public StructFieldConfig(String name, int offset, TYPE type, int length) {
+    this.name = name;
+    this.offset = offset;
+    this.type = type;
+    this.length = length;
+  }
+
+  /**
+   * Instantiates a new Struct field config.
+   *
+   * @param config the config
+   */
+  public StructFieldConfig(Map<String, Object> config) {
+    Object value = config.get(NAME);
+    name = value != null ? value.toString() : null;
+    offset = getInt(config, OFFSET);
+    value = config.get(TYPE_KEY);
+    type = value != null ? TYPE.valueOf(value.toString().toUpperCase()) : null;
+    length = getInt(config, LENGTH);
+    value = config.get(BYTE_ORDER_KEY);
+    if (value != null) {
+      byteOrder = BYTE_ORDER.valueOf(value.toString().toUpperCase());
+    }
+  }
+
+  /**
+   * Gets the number of bytes the field occupies.
+   *
+   * @return the size
+   */
+  public int size() {
+    return type.getSize() > 0 ? type.getSize() : length;
+  }
+
+  /**
+   * Pack the field into a json object.
+   *
+   * @return the json object
+   */
+  public JsonObject pack() {
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.addProperty(NAME, name);
+    jsonObject.addProperty(OFFSET, offset);
+    jsonObject.addProperty(TYPE_KEY, type != null ? type.name() : null);
+    if (type != null && type.getSize() == 0) {
+      jsonObject.addProperty(LENGTH, length);
+    }
+    if (byteOrder != null) {
+      jsonObject.addProperty(BYTE_ORDER_KEY, byteOrder.name());
+    }
+    return jsonObject;
+  }
+
+  private static int getInt(Map<String, Object> config, String key) {
+    Object value = config.get(key);
+    if (value instanceof Number) {
+      return ((Number) value).intValue();
+    }
+    return value != null ? Integer.parseInt(value.toString()) : 0;
+  }
+
+  /**
+   * The enum Type.
+   */
+  public enum TYPE {
+    /**
+     * Signed 8 bit integer.
+     */
+    INT8(1),
+    /**
+     * Unsigned 8 bit integer.
+     */
+    UINT8(1),
+    /**
+     * Signed 16 bit integer.
+     */
+    INT16(2),
+    /**
+     * Unsigned 16 bit integer.
+     */
+    UINT16(2),
+    /**
+     * Signed 32 bit integer.
+     */
+    INT32(4),
+    /**
+     * Unsigned 32 bit integer.
+     */
+    UINT32(4),
+    /**
+     * Signed 64 bit integer.
+     */
+    INT64(8),
+    /**
+     * 32 bit IEEE 754 float.
+     */
+    FLOAT(4),
+    /**
+     * 64 bit IEEE 754 double.
+     */
+    DOUBLE(8),
+    /**
+     * Single byte, any non zero value is true.
+     */
+    BOOLEAN(1),
+    /**
+     * Fixed length UTF-8 string, terminated by the first zero byte if shorter than the length.
+     */
+    STRING(0),
+    /**
+     * Fixed length byte array.
+     */
+    BYTES(0);
+
+    @Getter
+    private final int size;
+
+    TYPE(int size) {
+      this.size = size;
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.config.impl;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import io.mapsmessaging.schemas.config.SchemaConfig;
+import io.mapsmessaging.schemas.config.impl.NativeSchemaConfig.BYTE_ORDER;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.mapsmessaging.schemas.logging.SchemaLogMessages.STRUCT_FIELDS_NOT_DEFINED;
+
+/**
+ * The type Struct schema config, a fixed layout binary record such as a packed C struct.
+ */
+@Schema(description = "Struct Schema Configuration")
+public class StructSchemaConfig extends SchemaConfig {
+
+  private static final String NAME = "Struct";
+  private static final String FIELDS = "fields";
+  private static final String BYTE_ORDER_KEY = "byteOrder";
+
+  @Getter
+  @Setter
+  private List<StructFieldConfig> fields;
+
+  /**
+   * The byte order of fields that do not define their own, defaults to little endian.
+   */
+  @Getter
+  @Setter
+  private BYTE_ORDER byteOrder = BYTE_ORDER.LITTLE_ENDIAN;
+
+  /**
+   * Instantiates a new Struct schema config.
+   */
+  public StructSchemaConfig() {
+    super(NAME);
+    fields = new ArrayList<>();
+    setMimeType("application/octet-stream");
+  }
+
+  /**
+   * Instantiates a new Struct schema config.
+   *
+   * @param config the config
+   */
+  protected StructSchemaConfig(Map<String, Object> config) {
+    super(NAME, config);
+    fields = new ArrayList<>();
+    Object list = config.get(FIELDS);
+    if (list instanceof List) {
+      for (Object entry : (List<?>) list) {
+        if (entry instanceof Map) {
+          @SuppressWarnings("unchecked")
+          Map<String, Object> fieldMap = (Map<String, Object>) entry;
+          fields.add(new StructFieldConfig(fieldMap));
+        }
+      }
+    }
+    Object order = config.get(BYTE_ORDER_KEY);
+    if (order != null) {
+      byteOrder = BYTE_ORDER.valueOf(order.toString().toUpperCase());
+    }
+  }
+
+  @Override
+  protected JsonObject packData() throws IOException {
+    if (fields == null || fields.isEmpty()) {
+      logger.log(STRUCT_FIELDS_NOT_DEFINED, format, uniqueId);
+      throw new IOException("No fields specified");
+    }
+    JsonObject data = new JsonObject();
+    packData(data);
+    data.addProperty(BYTE_ORDER_KEY, byteOrder.name());
+    JsonArray array = new JsonArray();
+    for (StructFieldConfig field : fields) {
+      array.add(field.pack());
+    }
+    data.add(FIELDS, array);
+    return data;
+  }
+
+  protected SchemaConfig getInstance(Map<String, Object> config) {
+    return new StructSchemaConfig(config);
+  }
+}
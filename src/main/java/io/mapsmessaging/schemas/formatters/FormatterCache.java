@@ -0,0 +1,233 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters;
+
+import io.mapsmessaging.schemas.config.SchemaConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A bounded, least recently used cache of constructed formatters. Entries are keyed by the schema unique id and then the
+ * version, so all versions of a schema can be dropped without scanning the cache, and the SHA-256 digest of the packed
+ * configuration is checked so that a changed schema with the same id is rebuilt. The digest is computed once per config
+ * instance, so a config should not be changed once it has been used to look up a formatter. Entries are removed when
+ * the cache exceeds its maximum size or when they have not been used within the idle time. Removed formatters are
+ * {@link MessageFormatter#release() released} and marked so that {@link MessageFormatter#isReleased()} tells holders of
+ * the formatter to drop it. Removing a formatter does not change the factory generation, which only tracks repository
+ * changes.
+ */
+class FormatterCache {
+
+  static final int DEFAULT_MAX_ENTRIES = 1024;
+  static final long DEFAULT_IDLE_TIME = 30L * 60L * 1000L;
+
+  private final Map<String, Map<Integer, Entry>> cache;
+  private final LinkedHashSet<Entry> lru; // Least recently used first
+  private final Map<SchemaConfig, byte[]> digests = new WeakHashMap<>();
+  private int maxEntries;
+  private long idleTime;
+
+  FormatterCache() {
+    cache = new HashMap<>();
+    lru = new LinkedHashSet<>();
+    maxEntries = DEFAULT_MAX_ENTRIES;
+    idleTime = DEFAULT_IDLE_TIME;
+  }
+
+  synchronized void configure(int maxEntries, long idleTime) {
+    this.maxEntries = maxEntries;
+    this.idleTime = idleTime;
+    prune(System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the cached formatter for the config, or null if there is no valid entry.
+   *
+   * @param config the config
+   * @return the formatter or null
+   * @throws IOException if the config could not be packed to compute its digest
+   */
+  MessageFormatter get(SchemaConfig config) throws IOException {
+    Entry entry;
+    synchronized (this) {
+      entry = lookup(config);
+      if (entry == null) {
+        return null;
+      }
+      long now = System.currentTimeMillis();
+      if (now - entry.lastAccess > idleTime) {
+        remove(entry);
+        return null;
+      }
+      touch(entry, now);
+      if (entry.config == config) {
+        return entry.formatter;
+      }
+    }
+    // Different config instance with the same id and version, confirm the content has not changed
+    if (MessageDigest.isEqual(entry.digest, digest(config))) {
+      return entry.formatter;
+    }
+    return null;
+  }
+
+  /**
+   * Caches the formatter unless an equal one is already cached. When another caller has already cached a formatter for
+   * the same schema content, that formatter is kept, the one passed in is released and the cached one is returned.
+   *
+   * @param config the config the formatter was built for
+   * @param formatter the newly built formatter
+   * @return the formatter callers should use
+   * @throws IOException if the config could not be packed to compute its digest
+   */
+  MessageFormatter put(SchemaConfig config, MessageFormatter formatter) throws IOException {
+    byte[] digest = digest(config);
+    synchronized (this) {
+      long now = System.currentTimeMillis();
+      Entry existing = lookup(config);
+      if (existing != null && now - existing.lastAccess <= idleTime && MessageDigest.isEqual(existing.digest, digest)) {
+        touch(existing, now);
+        if (existing.formatter != formatter) {
+          release(formatter);
+        }
+        return existing.formatter;
+      }
+      if (existing != null) {
+        remove(existing);
+      }
+      Entry entry = new Entry(config, formatter, digest, now);
+      cache.computeIfAbsent(entry.uniqueId, k -> new HashMap<>()).put(entry.version, entry);
+      lru.add(entry);
+      prune(now);
+      return formatter;
+    }
+  }
+
+  synchronized void invalidate(String uniqueId) {
+    Map<Integer, Entry> versions = cache.remove(uniqueId);
+    if (versions != null) {
+      for (Entry entry : versions.values()) {
+        lru.remove(entry);
+        release(entry.formatter);
+      }
+    }
+  }
+
+  synchronized void invalidateAll() {
+    for (Entry entry : lru) {
+      release(entry.formatter);
+    }
+    lru.clear();
+    cache.clear();
+  }
+
+  synchronized int size() {
+    return lru.size();
+  }
+
+  private Entry lookup(SchemaConfig config) {
+    Map<Integer, Entry> versions = cache.get(config.getUniqueId());
+    return versions != null ? versions.get(config.getVersion()) : null;
+  }
+
+  private void touch(Entry entry, long now) {
+    entry.lastAccess = now;
+    lru.remove(entry);
+    lru.add(entry);
+  }
+
+  private void remove(Entry entry) {
+    unindex(entry);
+    lru.remove(entry);
+    release(entry.formatter);
+  }
+
+  private void unindex(Entry entry) {
+    Map<Integer, Entry> versions = cache.get(entry.uniqueId);
+    if (versions != null && versions.remove(entry.version, entry) && versions.isEmpty()) {
+      cache.remove(entry.uniqueId);
+    }
+  }
+
+  private void prune(long now) {
+    Iterator<Entry> iterator = lru.iterator();
+    while (iterator.hasNext()) {
+      Entry entry = iterator.next();
+      if (lru.size() > maxEntries || now - entry.lastAccess > idleTime) {
+        iterator.remove();
+        unindex(entry);
+        release(entry.formatter);
+      } else {
+        break; // Least recently used first, so the remaining entries are more recent
+      }
+    }
+  }
+
+  private void release(MessageFormatter formatter) {
+    formatter.markReleased();
+    formatter.release();
+  }
+
+  private byte[] digest(SchemaConfig config) throws IOException {
+    synchronized (digests) {
+      byte[] digest = digests.get(config);
+      if (digest != null) {
+        return digest;
+      }
+    }
+    byte[] digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256").digest(config.pack().getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is a required JVM algorithm", e);
+    }
+    synchronized (digests) {
+      digests.put(config, digest);
+    }
+    return digest;
+  }
+
+  private static final class Entry {
+    private final String uniqueId;
+    private final int version;
+    private final SchemaConfig config;
+    private final MessageFormatter formatter;
+    private final byte[] digest;
+    private long lastAccess;
+
+    private Entry(SchemaConfig config, MessageFormatter formatter, byte[] digest, long lastAccess) {
+      this.uniqueId = config.getUniqueId();
+      this.version = config.getVersion();
+      this.config = config;
+      this.formatter = formatter;
+      this.digest = digest;
+      this.lastAccess = lastAccess;
+    }
+  }
+}
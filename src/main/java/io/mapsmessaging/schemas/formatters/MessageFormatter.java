@@ -20,26 +20,50 @@
 
 package io.mapsmessaging.schemas.formatters;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedOutputStream;
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
 import io.mapsmessaging.logging.Logger;
 import io.mapsmessaging.logging.LoggerFactory;
 import io.mapsmessaging.schemas.config.SchemaConfig;
+import io.mapsmessaging.schemas.formatters.walker.FieldPath;
+import io.mapsmessaging.schemas.formatters.walker.IndexedResolver;
+import io.mapsmessaging.schemas.formatters.walker.JsonNodeResolver;
+import io.mapsmessaging.selector.IdentifierResolver;
 
 import java.io.IOException;
-import java.util.Map;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
 
 /**
  * The type Message formatter.
  */
 public abstract class MessageFormatter {
 
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
   protected final Gson gson = new Gson();
   /**
    * The Logger.
    */
   protected Logger logger;
 
+  private volatile boolean released;
+
   /**
    * Instantiates a new Message formatter.
    */
@@ -80,8 +104,499 @@ public abstract class MessageFormatter {
    */
   public abstract ParsedObject parse(byte[] payload);
 
+  /**
+   * Parse a region of the supplied array. Formatters that can read in place override this, the default copies the region
+   * and calls {@link #parse(byte[])}.
+   *
+   * @param payload the payload
+   * @param offset the offset of the first byte to parse
+   * @param length the number of bytes to parse
+   * @return the parsed object
+   */
+  public ParsedObject parse(byte[] payload, int offset, int length) {
+    if (offset == 0 && length == payload.length) {
+      return parse(payload);
+    }
+    return parse(Arrays.copyOfRange(payload, offset, offset + length));
+  }
+
+  /**
+   * Parse the remaining bytes of the buffer, heap buffers are read in place. The position of the buffer is not changed.
+   *
+   * @param buffer the buffer
+   * @return the parsed object
+   */
+  public ParsedObject parse(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return parse(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+    return parse(copy(buffer));
+  }
+
+  /**
+   * Parse only the fields named by the projection. Fields outside the projection may be skipped and return null when
+   * requested. Formatters that are unable to skip fields return the fully parsed object.
+   *
+   * @param payload the payload
+   * @param projection the fields to load
+   * @return the parsed object
+   */
+  public ParsedObject parse(byte[] payload, Projection projection) {
+    return parse(payload, 0, payload.length, projection);
+  }
+
+  /**
+   * Parse only the fields named by the projection from a region of the supplied array.
+   *
+   * @param payload the payload
+   * @param offset the offset of the first byte to parse
+   * @param length the number of bytes to parse
+   * @param projection the fields to load
+   * @return the parsed object
+   */
+  public ParsedObject parse(byte[] payload, int offset, int length, Projection projection) {
+    return parse(payload, offset, length);
+  }
+
+  /**
+   * Parse a payload that may contain multiple records, such as a batch of CSV lines. Formats that only carry a single
+   * record per payload return an iterator over that one record.
+   *
+   * @param payload the payload
+   * @return an iterator over the parsed records
+   */
+  public Iterator<ParsedObject> parseRows(byte[] payload) {
+    return parseRows(payload, 0, payload.length);
+  }
+
+  /**
+   * Parse a region of the supplied array that may contain multiple records.
+   *
+   * @param payload the payload
+   * @param offset the offset of the first byte to parse
+   * @param length the number of bytes to parse
+   * @return an iterator over the parsed records
+   */
+  public Iterator<ParsedObject> parseRows(byte[] payload, int offset, int length) {
+    return List.of(parse(payload, offset, length)).iterator();
+  }
+
+  /**
+   * Parse a region of the supplied array to a json object.
+   *
+   * @param payload the payload
+   * @param offset the offset of the first byte to parse
+   * @param length the number of bytes to parse
+   * @return the json object
+   * @throws IOException the io exception
+   */
+  public JsonObject parseToJson(byte[] payload, int offset, int length) throws IOException {
+    if (offset == 0 && length == payload.length) {
+      return parseToJson(payload);
+    }
+    return parseToJson(Arrays.copyOfRange(payload, offset, offset + length));
+  }
+
+  /**
+   * Parse the remaining bytes of the buffer to a json object. The position of the buffer is not changed.
+   *
+   * @param buffer the buffer
+   * @return the json object
+   * @throws IOException the io exception
+   */
+  public JsonObject parseToJson(ByteBuffer buffer) throws IOException {
+    if (buffer.hasArray()) {
+      return parseToJson(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+    return parseToJson(copy(buffer));
+  }
+
+  /**
+   * Copies the remaining bytes of the buffer without moving its position.
+   *
+   * @param buffer the buffer
+   * @return the byte [ ]
+   */
+  protected static byte[] copy(ByteBuffer buffer) {
+    byte[] tmp = new byte[buffer.remaining()];
+    buffer.duplicate().get(tmp);
+    return tmp;
+  }
+
 
   public abstract Map<String, Object> getFormat();
+
+  /**
+   * Writes the payload as a JSON document, streaming tokens to the output rather than building a JsonObject. The
+   * document has the same shape as {@link #parseToJson(byte[])}, binary values are written as base64 strings.
+   *
+   * @param payload the payload
+   * @param outputStream the stream to write the UTF-8 document to, it is left open
+   * @throws IOException if the payload could not be parsed or the document written
+   */
+  public void writeJson(byte[] payload, OutputStream outputStream) throws IOException {
+    writeJson(payload, 0, payload.length, outputStream);
+  }
+
+  /**
+   * Writes the message held in a slice of the array as a JSON document.
+   *
+   * @param payload the array holding the message
+   * @param offset the offset of the message
+   * @param length the length of the message
+   * @param outputStream the stream to write the UTF-8 document to, it is left open
+   * @throws IOException if the payload could not be parsed or the document written
+   */
+  public void writeJson(byte[] payload, int offset, int length, OutputStream outputStream) throws IOException {
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      writeEvents(payload, offset, length, generator);
+    }
+  }
+
+  /**
+   * Writes the payload as a JSON document to the writer.
+   *
+   * @param payload the payload
+   * @param writer the writer, it is left open
+   * @throws IOException if the payload could not be parsed or the document written
+   */
+  public void writeJson(byte[] payload, Writer writer) throws IOException {
+    writeJson(payload, 0, payload.length, writer);
+  }
+
+  /**
+   * Writes the message held in a slice of the array as a JSON document to the writer.
+   *
+   * @param payload the array holding the message
+   * @param offset the offset of the message
+   * @param length the length of the message
+   * @param writer the writer, it is left open
+   * @throws IOException if the payload could not be parsed or the document written
+   */
+  public void writeJson(byte[] payload, int offset, int length, Writer writer) throws IOException {
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      writeEvents(payload, offset, length, generator);
+    }
+  }
+
+  /**
+   * Encode the values in this format and write them to the stream, the stream is left open. Nested maps and lists are
+   * mapped onto the structure of the format. Formats that are unable to encode throw an IOException.
+   *
+   * @param values the values to encode
+   * @param outputStream the stream to write to
+   * @throws IOException if the values could not be encoded or written
+   */
+  public void pack(Map<String, Object> values, OutputStream outputStream) throws IOException {
+    throw new IOException(getName() + " formatter does not support encoding");
+  }
+
+  /**
+   * Encode a parsed object in this format and write it to the stream.
+   *
+   * @param parsedObject the parsed object
+   * @param outputStream the stream to write to
+   * @throws IOException if the object could not be encoded or written
+   */
+  public void pack(ParsedObject parsedObject, OutputStream outputStream) throws IOException {
+    pack(toMap(parsedObject), outputStream);
+  }
+
+  /**
+   * Encode a json object in this format and write it to the stream.
+   *
+   * @param jsonObject the json object
+   * @param outputStream the stream to write to
+   * @throws IOException if the object could not be encoded or written
+   */
+  public void pack(JsonObject jsonObject, OutputStream outputStream) throws IOException {
+    pack(toMap(jsonObject), outputStream);
+  }
+
+  /**
+   * Encode the values into the buffer, starting at its position. On success the position is moved past the encoded
+   * bytes, if the buffer is too small an IOException is thrown and the position is left unchanged.
+   *
+   * @param values the values to encode
+   * @param buffer the buffer to write to
+   * @return the number of bytes written
+   * @throws IOException if the values could not be encoded or do not fit
+   */
+  public int pack(Map<String, Object> values, ByteBuffer buffer) throws IOException {
+    return write(buffer, outputStream -> pack(values, outputStream));
+  }
+
+  /**
+   * Encode a parsed object into the buffer, starting at its position.
+   *
+   * @param parsedObject the parsed object
+   * @param buffer the buffer to write to
+   * @return the number of bytes written
+   * @throws IOException if the object could not be encoded or does not fit
+   */
+  public int pack(ParsedObject parsedObject, ByteBuffer buffer) throws IOException {
+    return write(buffer, outputStream -> pack(parsedObject, outputStream));
+  }
+
+  /**
+   * Encode a json object into the buffer, starting at its position.
+   *
+   * @param jsonObject the json object
+   * @param buffer the buffer to write to
+   * @return the number of bytes written
+   * @throws IOException if the object could not be encoded or does not fit
+   */
+  public int pack(JsonObject jsonObject, ByteBuffer buffer) throws IOException {
+    return write(buffer, outputStream -> pack(jsonObject, outputStream));
+  }
+
+  private static int write(ByteBuffer buffer, Encoding encoding) throws IOException {
+    int start = buffer.position();
+    try {
+      encoding.write(new ByteBufferBackedOutputStream(buffer));
+    } catch (BufferOverflowException e) {
+      buffer.position(start);
+      throw new IOException("Buffer too small for the encoded message", e);
+    } catch (IOException | RuntimeException e) {
+      buffer.position(start);
+      throw e;
+    }
+    return buffer.position() - start;
+  }
+
+  /**
+   * Converts a parsed object into a tree of maps, lists and values, nested resolvers become maps.
+   *
+   * @param parsedObject the parsed object
+   * @return the map
+   */
+  @SuppressWarnings("unchecked")
+  protected static Map<String, Object> toMap(ParsedObject parsedObject) {
+    Object referenced = parsedObject.getReferenced();
+    if (referenced instanceof Map) {
+      return (Map<String, Object>) referenced;
+    }
+    if (referenced instanceof JsonObject) {
+      return toMap((JsonObject) referenced);
+    }
+    if (referenced instanceof JsonNode && ((JsonNode) referenced).isObject()) {
+      return (Map<String, Object>) JsonNodeResolver.toJava((JsonNode) referenced);
+    }
+    return walk(parsedObject);
+  }
+
+  private static Map<String, Object> walk(IdentifierResolver resolver) {
+    Map<String, Object> map = new LinkedHashMap<>();
+    for (String key : resolver.getKeys()) {
+      Object value;
+      if (resolver instanceof IndexedResolver) {
+        value = ((IndexedResolver) resolver).get(key, FieldPath.Step.NO_INDEX);
+      } else {
+        value = resolver.get(key);
+      }
+      map.put(key, toValue(value));
+    }
+    return map;
+  }
+
+  private static Object toValue(Object value) {
+    if (value instanceof IdentifierResolver) {
+      return walk((IdentifierResolver) value);
+    }
+    if (value instanceof List) {
+      List<?> source = (List<?>) value;
+      List<Object> list = new ArrayList<>(source.size());
+      for (Object entry : source) {
+        list.add(toValue(entry));
+      }
+      return list;
+    }
+    return value;
+  }
+
+  /**
+   * Converts a json object into a tree of maps, lists and values. Integral numbers become Long, or BigInteger if they
+   * do not fit, other numbers become Double.
+   *
+   * @param jsonObject the json object
+   * @return the map
+   */
+  protected static Map<String, Object> toMap(JsonObject jsonObject) {
+    Map<String, Object> map = new LinkedHashMap<>();
+    for (Map.Entry<String, JsonElement> entry : jsonObject.entrySet()) {
+      map.put(entry.getKey(), toValue(entry.getValue()));
+    }
+    return map;
+  }
+
+  private static Object toValue(JsonElement element) {
+    if (element == null || element.isJsonNull()) {
+      return null;
+    }
+    if (element.isJsonObject()) {
+      return toMap(element.getAsJsonObject());
+    }
+    if (element.isJsonArray()) {
+      JsonArray array = element.getAsJsonArray();
+      List<Object> list = new ArrayList<>(array.size());
+      for (JsonElement entry : array) {
+        list.add(toValue(entry));
+      }
+      return list;
+    }
+    JsonPrimitive primitive = element.getAsJsonPrimitive();
+    if (primitive.isBoolean()) {
+      return primitive.getAsBoolean();
+    }
+    if (primitive.isNumber()) {
+      String text = primitive.getAsString();
+      if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+        BigInteger value = new BigInteger(text);
+        return value.bitLength() < 64 ? (Object) value.longValue() : value;
+      }
+      return primitive.getAsDouble();
+    }
+    return primitive.getAsString();
+  }
+
+  /**
+   * Writes the payload as a stream of structure events, used by the {@link Transcoder} to move a message into another
+   * format without building a tree. Formats read by a Jackson parser copy the tokens straight across, by default the
+   * payload is parsed and the result walked.
+   *
+   * @param payload the payload
+   * @param offset the offset of the message
+   * @param length the length of the message
+   * @param generator the generator to write the events to
+   * @throws IOException if the payload could not be parsed or the events written
+   */
+  protected void writeEvents(byte[] payload, int offset, int length, JsonGenerator generator) throws IOException {
+    ParsedObject parsedObject = parse(payload, offset, length);
+    if (parsedObject instanceof DefaultParser) {
+      throw new IOException("Unable to parse " + getName() + " payload");
+    }
+    writeValue(generator, toMap(parsedObject));
+  }
+
+  /**
+   * Creates a generator that writes this format to the stream, leaving the stream open when the generator is closed.
+   *
+   * @param outputStream the stream to write to
+   * @return the generator or null if the format is not written from structure events
+   * @throws IOException if the generator could not be created
+   */
+  protected JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+    return null;
+  }
+
+  /**
+   * Copies the document from a Jackson parser of the factory to the generator, token by token. Only a single object
+   * is accepted, as parse does, so arrays, scalars and data after the object throw an IOException. Trailing data is
+   * only found once the object has been copied, so the generator may already hold it when the exception is thrown.
+   *
+   * @param factory the factory for the source format
+   * @param payload the payload
+   * @param offset the offset of the document
+   * @param length the length of the document
+   * @param generator the generator to write the events to
+   * @throws IOException if the document is not a single object or could not be read or written
+   */
+  protected static void copyEvents(JsonFactory factory, byte[] payload, int offset, int length, JsonGenerator generator) throws IOException {
+    try (JsonParser parser = factory.createParser(payload, offset, length)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Expected an object");
+      }
+      generator.copyCurrentStructure(parser);
+      if (parser.nextToken() != null) {
+        throw new IOException("Unexpected data after the object");
+      }
+    }
+  }
+
+  /**
+   * Writes a tree of maps, lists, arrays, resolvers and values to the generator.
+   *
+   * @param generator the generator
+   * @param value the value to write
+   * @throws IOException if the value could not be written
+   */
+  protected static void writeValue(JsonGenerator generator, Object value) throws IOException {
+    if (value == null) {
+      generator.writeNull();
+    } else if (value instanceof CharSequence) {
+      generator.writeString(value.toString());
+    } else if (value instanceof Boolean) {
+      generator.writeBoolean((Boolean) value);
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      generator.writeNumber(((Number) value).longValue());
+    } else if (value instanceof Double) {
+      generator.writeNumber((Double) value);
+    } else if (value instanceof Float) {
+      generator.writeNumber((Float) value);
+    } else if (value instanceof BigInteger) {
+      generator.writeNumber((BigInteger) value);
+    } else if (value instanceof BigDecimal) {
+      generator.writeNumber((BigDecimal) value);
+    } else if (value instanceof byte[]) {
+      generator.writeBinary((byte[]) value);
+    } else if (value instanceof ByteBuffer) {
+      generator.writeBinary(copy((ByteBuffer) value));
+    } else if (value instanceof Map) {
+      generator.writeStartObject();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        generator.writeFieldName(String.valueOf(entry.getKey()));
+        writeValue(generator, entry.getValue());
+      }
+      generator.writeEndObject();
+    } else if (value instanceof IdentifierResolver) {
+      writeValue(generator, walk((IdentifierResolver) value));
+    } else if (value instanceof Collection) {
+      generator.writeStartArray();
+      for (Object entry : (Collection<?>) value) {
+        writeValue(generator, entry);
+      }
+      generator.writeEndArray();
+    } else if (value.getClass().isArray()) {
+      int size = Array.getLength(value);
+      generator.writeStartArray();
+      for (int x = 0; x < size; x++) {
+        writeValue(generator, Array.get(value, x));
+      }
+      generator.writeEndArray();
+    } else {
+      generator.writeString(value.toString());
+    }
+  }
+
+  private interface Encoding {
+    void write(OutputStream outputStream) throws IOException;
+  }
+
+  /**
+   * Releases any shared resources held by this formatter. Called by the {@link MessageFormatterFactory} when the
+   * formatter is removed from its cache, callers that create formatters without a unique id may call it once they are
+   * done with the formatter, otherwise the resources are released when the formatter is garbage collected. The formatter
+   * remains usable after it has been released.
+   */
+  public void release() {
+    // Nothing shared by default
+  }
+
+  /**
+   * Checks if the {@link MessageFormatterFactory} has removed this formatter from its cache and released it. Anything
+   * that holds on to a cached formatter checks this before using it again, and asks the factory for a current formatter
+   * once it is set.
+   *
+   * @return true if the formatter has been removed from the factory cache
+   */
+  public boolean isReleased() {
+    return released;
+  }
+
+  void markReleased() {
+    released = true;
+  }
+
   /**
    * The type Default parser.
    */
@@ -98,6 +613,17 @@ public abstract class MessageFormatter {
       this.payload = payload;
     }
 
+    /**
+     * Instantiates a new Default parser from a region of an array.
+     *
+     * @param payload the payload
+     * @param offset the offset
+     * @param length the length
+     */
+    public DefaultParser(byte[] payload, int offset, int length) {
+      this.payload = (offset == 0 && length == payload.length) ? payload : Arrays.copyOfRange(payload, offset, offset + length);
+    }
+
     @Override
     public Object getReferenced() {
       return payload;
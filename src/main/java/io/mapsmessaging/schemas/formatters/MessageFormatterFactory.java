@@ -21,11 +21,14 @@
 package io.mapsmessaging.schemas.formatters;
 
 import io.mapsmessaging.schemas.config.SchemaConfig;
+import io.mapsmessaging.schemas.repository.SchemaRepository;
+import lombok.Getter;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The type Message formatter factory.
@@ -42,8 +45,18 @@ public class MessageFormatterFactory {
   }
 
   private final List<MessageFormatter> messageFormatters;
+  private final FormatterCache formatterCache;
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * The repository formatters may use to find schemas a message refers to, such as the writer schema named by the
+   * fingerprint of an Avro single object encoded message. May be null.
+   */
+  @Getter
+  private volatile SchemaRepository schemaRepository;
 
   private MessageFormatterFactory() {
+    formatterCache = new FormatterCache();
     messageFormatters = new ArrayList<>();
     ServiceLoader<MessageFormatter> messageFormatterServiceLoader = ServiceLoader.load(MessageFormatter.class);
     for (MessageFormatter messageFormatter : messageFormatterServiceLoader) {
@@ -51,6 +64,28 @@ public class MessageFormatterFactory {
     }
   }
 
+  /**
+   * Sets the repository formatters use to find the schemas a message refers to.
+   *
+   * @param schemaRepository the repository, may be null
+   */
+  public void setSchemaRepository(SchemaRepository schemaRepository) {
+    this.schemaRepository = schemaRepository;
+    generation.incrementAndGet();
+  }
+
+  /**
+   * Gets a counter that changes whenever a schema is invalidated or the schema repository is replaced. Anything that
+   * caches lookups made through the repository compares it with the value it last saw and drops stale entries, so it
+   * only needs to go back to the repository after a change. Formatters evicted from the cache do not change it, holders
+   * of a formatter check {@link MessageFormatter#isReleased()} instead.
+   *
+   * @return the generation
+   */
+  public long getGeneration() {
+    return generation.get();
+  }
+
   public List<String> getFormatters() {
     List<String> formatList = new ArrayList<>();
     for (MessageFormatter messageFormatter : messageFormatters) {
@@ -61,19 +96,73 @@ public class MessageFormatterFactory {
 
 
   /**
-   * Gets formatter.
+   * Gets formatter. Formatters for configs with a unique id are cached, so repeated calls for the same schema id and
+   * version return the same instance without reparsing the schema.
    *
    * @param config the config
    * @return the formatter
    * @throws IOException the io exception
    */
   public MessageFormatter getFormatter(SchemaConfig config) throws IOException {
+    boolean cacheable = config.getUniqueId() != null;
+    if (cacheable) {
+      MessageFormatter cached = formatterCache.get(config);
+      if (cached != null) {
+        return cached;
+      }
+    }
     for (MessageFormatter formatter : messageFormatters) {
       if (formatter.getName().equalsIgnoreCase(config.getFormat())) {
-        return formatter.getInstance(config);
+        MessageFormatter instance = formatter.getInstance(config);
+        if (cacheable) {
+          // Another caller may have built the same formatter meanwhile, only one instance is kept
+          return formatterCache.put(config, instance);
+        }
+        return instance;
       }
     }
     throw new IOException("Unknown format config received");
   }
-}
 
+  /**
+   * Sets the limits of the formatter cache.
+   *
+   * @param maxEntries the maximum number of cached formatters
+   * @param idleTime the time, in milliseconds, an unused formatter is kept for
+   */
+  public void configureCache(int maxEntries, long idleTime) {
+    formatterCache.configure(maxEntries, idleTime);
+  }
+
+  /**
+   * Advances the {@link #getGeneration() generation} without touching the cached formatters. Repositories call this when
+   * a new schema is added, since no cached formatter can have been built from it.
+   */
+  public void advanceGeneration() {
+    generation.incrementAndGet();
+  }
+
+  /**
+   * Removes any cached formatter for the schema and advances the {@link #getGeneration() generation}. Repositories call
+   * this when a schema is changed or removed.
+   *
+   * @param uniqueId the schema unique id
+   */
+  public void invalidate(String uniqueId) {
+    formatterCache.invalidate(uniqueId);
+    generation.incrementAndGet();
+  }
+
+  /**
+   * Removes all cached formatters and advances the {@link #getGeneration() generation}. Repositories call this when all
+   * of their schemas are removed.
+   */
+  public void invalidateAll() {
+    formatterCache.invalidateAll();
+    generation.incrementAndGet();
+  }
+
+  int getCacheSize() {
+    return formatterCache.size();
+  }
+}
@@ -20,10 +20,108 @@
 
 package io.mapsmessaging.schemas.formatters;
 
+import io.mapsmessaging.schemas.formatters.walker.FieldPath;
+import io.mapsmessaging.schemas.formatters.walker.StructureWalker;
+import io.mapsmessaging.schemas.formatters.walker.TypedResolver;
+import io.mapsmessaging.schemas.formatters.walker.TypedValues;
 import io.mapsmessaging.selector.IdentifierResolver;
 
 public interface ParsedObject extends IdentifierResolver {
 
   Object getReferenced();
 
+  /**
+   * Get the value at the compiled path. Callers that repeatedly look up the same path should compile it once with
+   * {@link FieldPath#compile(String)} and use this method.
+   *
+   * @param path the compiled path
+   * @return the value or null if not found
+   */
+  default Object get(FieldPath path) {
+    return StructureWalker.locateObject(this, path);
+  }
+
+  /**
+   * Checks if the path resolves to a value.
+   *
+   * @param key the path
+   * @return true if the value exists and is not null
+   */
+  default boolean isPresent(String key) {
+    FieldPath path = FieldPath.compile(key);
+    IdentifierResolver parent = StructureWalker.locateParent(this, path);
+    if (parent instanceof TypedResolver) {
+      FieldPath.Step step = path.getStep(path.size() - 1);
+      return ((TypedResolver) parent).isPresent(step.getName(), step.getIndex());
+    }
+    return get(path) != null;
+  }
+
+  /**
+   * Get the value at the path as a long, without boxing when the underlying resolver supports it.
+   *
+   * @param key the path
+   * @param defaultValue the value returned if the path is missing or not numeric
+   * @return the value
+   */
+  default long getLong(String key, long defaultValue) {
+    FieldPath path = FieldPath.compile(key);
+    IdentifierResolver parent = StructureWalker.locateParent(this, path);
+    if (parent instanceof TypedResolver) {
+      FieldPath.Step step = path.getStep(path.size() - 1);
+      return ((TypedResolver) parent).getLong(step.getName(), step.getIndex(), defaultValue);
+    }
+    return TypedValues.toLong(get(path), defaultValue);
+  }
+
+  /**
+   * Get the value at the path as a double, without boxing when the underlying resolver supports it.
+   *
+   * @param key the path
+   * @param defaultValue the value returned if the path is missing or not numeric
+   * @return the value
+   */
+  default double getDouble(String key, double defaultValue) {
+    FieldPath path = FieldPath.compile(key);
+    IdentifierResolver parent = StructureWalker.locateParent(this, path);
+    if (parent instanceof TypedResolver) {
+      FieldPath.Step step = path.getStep(path.size() - 1);
+      return ((TypedResolver) parent).getDouble(step.getName(), step.getIndex(), defaultValue);
+    }
+    return TypedValues.toDouble(get(path), defaultValue);
+  }
+
+  /**
+   * Get the value at the path as a boolean.
+   *
+   * @param key the path
+   * @param defaultValue the value returned if the path is missing or not a boolean
+   * @return the value
+   */
+  default boolean getBoolean(String key, boolean defaultValue) {
+    FieldPath path = FieldPath.compile(key);
+    IdentifierResolver parent = StructureWalker.locateParent(this, path);
+    if (parent instanceof TypedResolver) {
+      FieldPath.Step step = path.getStep(path.size() - 1);
+      return ((TypedResolver) parent).getBoolean(step.getName(), step.getIndex(), defaultValue);
+    }
+    return TypedValues.toBoolean(get(path), defaultValue);
+  }
+
+  /**
+   * Get the scalar value at the path as a string.
+   *
+   * @param key the path
+   * @return the value or null if the path is missing or not a scalar
+   */
+  default String getString(String key) {
+    FieldPath path = FieldPath.compile(key);
+    IdentifierResolver parent = StructureWalker.locateParent(this, path);
+    if (parent instanceof TypedResolver) {
+      FieldPath.Step step = path.getStep(path.size() - 1);
+      return ((TypedResolver) parent).getString(step.getName(), step.getIndex());
+    }
+    return TypedValues.toString(get(path));
+  }
+
 }
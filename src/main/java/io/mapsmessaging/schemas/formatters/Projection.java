@@ -0,0 +1,175 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters;
+
+import java.util.*;
+
+/**
+ * A prepared set of field paths that a caller intends to read from a parsed object. Formatters that support projection use
+ * it to skip over any field that is not named, so only the requested part of the payload is materialized.
+ * <p>
+ * Paths use the same syntax as {@link ParsedObject#get(String)}, for example "a.b[3].c". Array indexes are ignored when
+ * projecting, the whole array is loaded. A path that names a parent includes all of its children.
+ * <p>
+ * Instances are immutable and are intended to be created once and reused for every message.
+ */
+public final class Projection {
+
+  private final Map<String, Projection> fields;
+  private final int hashCode;
+
+  /**
+   * Creates a projection for the supplied paths.
+   *
+   * @param paths the paths
+   * @return the projection
+   */
+  public static Projection of(String... paths) {
+    return of(Arrays.asList(paths));
+  }
+
+  /**
+   * Creates a projection for the supplied paths.
+   *
+   * @param paths the paths
+   * @return the projection
+   */
+  public static Projection of(Collection<String> paths) {
+    Map<String, Object> tree = new LinkedHashMap<>();
+    for (String path : paths) {
+      add(tree, path);
+    }
+    return build(tree);
+  }
+
+  private Projection(Map<String, Projection> fields) {
+    this.fields = Collections.unmodifiableMap(fields);
+    this.hashCode = fields.hashCode();
+  }
+
+  /**
+   * Checks if the field is part of the projection.
+   *
+   * @param name the field name
+   * @return true if the field is required
+   */
+  public boolean contains(String name) {
+    return fields.containsKey(name);
+  }
+
+  /**
+   * Gets the projection to apply to the children of the named field.
+   *
+   * @param name the field name
+   * @return the child projection or null if the entire field is required
+   */
+  public Projection getChild(String name) {
+    return fields.get(name);
+  }
+
+  /**
+   * Gets the top level field names.
+   *
+   * @return the field names
+   */
+  public Set<String> getFieldNames() {
+    return fields.keySet();
+  }
+
+  /**
+   * Gets the number of top level fields.
+   *
+   * @return the size
+   */
+  public int size() {
+    return fields.size();
+  }
+
+  /**
+   * Checks if the projection names no fields.
+   *
+   * @return true if empty
+   */
+  public boolean isEmpty() {
+    return fields.isEmpty();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof Projection && ((Projection) o).fields.equals(fields);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return fields.toString();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void add(Map<String, Object> tree, String path) {
+    Map<String, Object> current = tree;
+    int start = 0;
+    while (start <= path.length()) {
+      int end = path.indexOf('.', start);
+      boolean last = end < 0;
+      if (last) {
+        end = path.length();
+      }
+      String name = stripIndex(path.substring(start, end));
+      if (last) {
+        current.put(name, Boolean.TRUE);
+        return;
+      }
+      Object existing = current.get(name);
+      if (existing == Boolean.TRUE) {
+        return; // The parent is already fully required
+      }
+      if (existing == null) {
+        existing = new LinkedHashMap<String, Object>();
+        current.put(name, existing);
+      }
+      current = (Map<String, Object>) existing;
+      start = end + 1;
+    }
+  }
+
+  private static String stripIndex(String name) {
+    int index = name.indexOf('[');
+    return (index < 0) ? name.trim() : name.substring(0, index).trim();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Projection build(Map<String, Object> tree) {
+    Map<String, Projection> fields = new LinkedHashMap<>();
+    for (Map.Entry<String, Object> entry : tree.entrySet()) {
+      Object value = entry.getValue();
+      fields.put(entry.getKey(), value instanceof Map ? build((Map<String, Object>) value) : null);
+    }
+    return new Projection(fields);
+  }
+}
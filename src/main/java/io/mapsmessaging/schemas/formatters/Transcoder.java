@@ -0,0 +1,112 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Converts messages from one format to another. When the target is written from structure events, such as JSON, CBOR
+ * and MessagePack, the source streams its events straight into the target generator so no intermediate tree is built.
+ * Jackson based sources copy tokens from their parser, Avro and ProtoBuf walk the decoded record. Other targets are
+ * encoded from the parsed object, which lets a format take its own shortcut for objects it already understands.
+ * <p>
+ * A transcoder holds no state of its own and is thread safe if the formatters are.
+ */
+@Getter
+public class Transcoder {
+
+  private final MessageFormatter source;
+  private final MessageFormatter target;
+
+  /**
+   * Instantiates a new Transcoder.
+   *
+   * @param source the formatter for incoming messages
+   * @param target the formatter for outgoing messages
+   */
+  public Transcoder(MessageFormatter source, MessageFormatter target) {
+    this.source = source;
+    this.target = target;
+  }
+
+  /**
+   * Transcode the payload.
+   *
+   * @param payload the payload in the source format
+   * @return the message in the target format
+   * @throws IOException if the payload could not be parsed or encoded
+   */
+  public byte[] transcode(byte[] payload) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(64, payload.length + (payload.length >> 1)));
+    transcode(payload, 0, payload.length, outputStream);
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Transcode the remaining bytes of the buffer, the position of the buffer is not changed.
+   *
+   * @param buffer the payload in the source format
+   * @param outputStream the stream to write the message to
+   * @throws IOException if the payload could not be parsed or encoded
+   */
+  public void transcode(ByteBuffer buffer, OutputStream outputStream) throws IOException {
+    if (buffer.hasArray()) {
+      transcode(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), outputStream);
+    } else {
+      byte[] payload = MessageFormatter.copy(buffer);
+      transcode(payload, 0, payload.length, outputStream);
+    }
+  }
+
+  /**
+   * Transcode a message held in a slice of the array and write it to the stream, the stream is left open.
+   *
+   * @param payload the array holding the message
+   * @param offset the offset of the message
+   * @param length the length of the message
+   * @param outputStream the stream to write the message to
+   * @throws IOException if the payload could not be parsed or encoded
+   */
+  public void transcode(byte[] payload, int offset, int length, OutputStream outputStream) throws IOException {
+    if (source == target) {
+      outputStream.write(payload, offset, length);
+      return;
+    }
+    JsonGenerator generator = target.createGenerator(outputStream);
+    if (generator != null) {
+      try (generator) {
+        source.writeEvents(payload, offset, length, generator);
+      }
+      return;
+    }
+    ParsedObject parsedObject = source.parse(payload, offset, length);
+    if (parsedObject instanceof MessageFormatter.DefaultParser) {
+      throw new IOException("Unable to parse " + source.getName() + " payload");
+    }
+    target.pack(parsedObject, outputStream);
+  }
+}
@@ -20,26 +20,46 @@
 
 package io.mapsmessaging.schemas.formatters.impl;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.AvroSchemaConfig;
 import io.mapsmessaging.schemas.formatters.MessageFormatter;
 import io.mapsmessaging.schemas.formatters.ParsedObject;
+import io.mapsmessaging.schemas.formatters.Projection;
+import io.mapsmessaging.schemas.formatters.walker.FieldPath;
 import io.mapsmessaging.schemas.formatters.walker.MapResolver;
+import io.mapsmessaging.schemas.formatters.walker.TypedResolver;
+import io.mapsmessaging.schemas.formatters.walker.TypedValues;
+import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericFixed;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.*;
 import org.apache.avro.util.Utf8;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.mapsmessaging.schemas.logging.SchemaLogMessages.FORMATTER_UNEXPECTED_OBJECT;
 
@@ -48,9 +68,23 @@ import static io.mapsmessaging.schemas.logging.SchemaLogMessages.FORMATTER_UNEXP
  */
 public class AvroFormatter extends MessageFormatter {
 
+  private static final int MAX_PROJECTIONS = 64;
+  private static final int MAX_POOLED_DECODERS = 256;
+  private static final OutputStream NULL_STREAM = OutputStream.nullOutputStream();
+  private static final InputStream NULL_INPUT_STREAM = InputStream.nullInputStream();
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
   private final DatumReader<GenericRecord> datumReader;
+  private final DatumWriter<GenericRecord> datumWriter;
   private final Schema schema;
-  private BinaryDecoder decoder;
+  private final Schema readerSchema;
+  private final boolean singleObject;
+  private final byte[] header;
+  private final long fingerprint;
+  private final Cleaner.Cleanable schemaRegistration;
+  private final Map<Projection, DatumReader<GenericRecord>> projectedReaders = new ConcurrentHashMap<>();
+  private final Queue<CodecState> decoderPool = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pooled = new AtomicInteger();
 
 
   /**
@@ -58,48 +92,575 @@ public class AvroFormatter extends MessageFormatter {
    */
   public AvroFormatter() {
     datumReader = null;
+    datumWriter = null;
     schema = null;
-    decoder = null;
+    readerSchema = null;
+    singleObject = false;
+    header = null;
+    fingerprint = 0;
+    schemaRegistration = null;
   }
 
   /**
    * Instantiates a new Avro formatter.
    *
    * @param schemaDefinition the schema definition
+   * @throws IOException if the schema could not be parsed
+   */
+  AvroFormatter(String schemaDefinition) throws IOException {
+    this(schemaDefinition, null, false);
+  }
+
+  /**
+   * Instantiates a new Avro formatter that resolves messages written with the schema into records of the reader schema,
+   * for example to read messages from an older version of a schema with the current one.
+   *
+   * @param schemaDefinition the schema the messages are written with
+   * @param readerDefinition the schema of the parsed records, or null to use the writer schema
+   * @param singleObject true if messages carry the single object encoding header
+   * @throws IOException if a schema could not be parsed or the reader can not read the writer schema
    */
-  AvroFormatter(String schemaDefinition) {
-    schema = new Schema.Parser().parse(schemaDefinition);
-    datumReader = new GenericDatumReader<>(schema);
+  AvroFormatter(String schemaDefinition, String readerDefinition, boolean singleObject) throws IOException {
+    try {
+      schema = new Schema.Parser().parse(schemaDefinition);
+      readerSchema = (readerDefinition == null || readerDefinition.isEmpty()) ? schema : new Schema.Parser().parse(readerDefinition);
+    } catch (AvroRuntimeException e) {
+      throw new IOException("Invalid schema, " + e.getMessage(), e);
+    }
+    datumReader = AvroReaderCache.get(schema, readerSchema);
+    datumWriter = new GenericDatumWriter<>(schema);
+    this.singleObject = singleObject;
+    fingerprint = AvroSchemaIndex.getInstance().register(schema);
+    schemaRegistration = AvroSchemaIndex.getInstance().track(this, fingerprint);
+    header = AvroSchemaIndex.header(fingerprint);
+  }
+
+  @Override
+  public ParsedObject parse(byte[] payload) {
+    return parse(payload, 0, payload.length);
+  }
+
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length) {
+    CodecState state = acquire();
+    try {
+      // The record is handed to the caller, so it can not be reused
+      return new AvroResolver(read(null, payload, offset, length, state));
+    } catch (IOException | AvroRuntimeException e) {
+      logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
+      return new DefaultParser(payload, offset, length);
+    } finally {
+      release(state);
+    }
   }
 
+  /**
+   * Decodes only the projected fields. A reader schema holding just those fields is derived from the projection, so
+   * the resolving decoder skips everything else at the binary level, nested records are projected the same way.
+   */
   @Override
-  public synchronized ParsedObject parse(byte[] payload) {
+  public ParsedObject parse(byte[] payload, int offset, int length, Projection projection) {
+    CodecState state = acquire();
     try {
-      decoder = DecoderFactory.get().binaryDecoder(payload, decoder);
-      GenericRecord genericRecord = datumReader.read(null, decoder);
-      return new AvroResolver(genericRecord);
-    } catch (IOException e) {
+      int bodyOffset = offset;
+      int bodyLength = length;
+      if (singleObject && AvroSchemaIndex.hasHeader(payload, offset, length)) {
+        if (AvroSchemaIndex.readFingerprint(payload, offset) != fingerprint) {
+          return new AvroResolver(read(null, payload, offset, length, state)); // Another schema version, resolve it all
+        }
+        bodyOffset += AvroSchemaIndex.HEADER_LENGTH;
+        bodyLength -= AvroSchemaIndex.HEADER_LENGTH;
+      }
+      return new AvroResolver(getProjectedReader(projection).read(null, state.wrap(payload, bodyOffset, bodyLength)));
+    } catch (IOException | AvroRuntimeException e) {
+      logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
+      return new DefaultParser(payload, offset, length);
+    } finally {
+      release(state);
+    }
+  }
+
+  /**
+   * Parses a message written with another version of the schema, resolving it into records of this formatter's
+   * reader schema. The resolution is computed once per schema pair and shared.
+   *
+   * @param payload the array holding the message
+   * @param offset the offset of the message
+   * @param length the length of the message
+   * @param writerSchema the schema the message was written with
+   * @return the parsed object
+   * @throws IOException if the message could not be decoded or the schemas are incompatible
+   */
+  public ParsedObject parse(byte[] payload, int offset, int length, Schema writerSchema) throws IOException {
+    DatumReader<GenericRecord> reader = AvroReaderCache.get(writerSchema, readerSchema);
+    if (singleObject && AvroSchemaIndex.hasHeader(payload, offset, length)) {
+      offset += AvroSchemaIndex.HEADER_LENGTH;
+      length -= AvroSchemaIndex.HEADER_LENGTH;
+    }
+    CodecState state = acquire();
+    try {
+      return new AvroResolver(reader.read(null, state.wrap(payload, offset, length)));
+    } catch (AvroRuntimeException e) {
+      throw new IOException("Unable to decode record, " + e.getMessage(), e);
+    } finally {
+      release(state);
+    }
+  }
+
+  /**
+   * Decodes the message, when single object encoding is enabled the header selects the writer schema. Messages written
+   * with this formatter's schema use its reader, other fingerprints are looked up in the {@link AvroSchemaIndex} and
+   * resolved into the reader schema. Messages without the header are decoded with this formatter's schema.
+   */
+  private GenericRecord read(GenericRecord reuse, byte[] payload, int offset, int length, CodecState state) throws IOException {
+    if (!singleObject || !AvroSchemaIndex.hasHeader(payload, offset, length)) {
+      return datumReader.read(reuse, state.wrap(payload, offset, length));
+    }
+    long writerFingerprint = AvroSchemaIndex.readFingerprint(payload, offset);
+    DatumReader<GenericRecord> reader = datumReader;
+    if (writerFingerprint != fingerprint) {
+      Schema writerSchema = AvroSchemaIndex.getInstance().getSchema(writerFingerprint);
+      if (writerSchema == null) {
+        throw new IOException("Unknown writer schema fingerprint " + Long.toHexString(writerFingerprint));
+      }
+      reader = AvroReaderCache.get(writerSchema, readerSchema);
+    }
+    return reader.read(reuse, state.wrap(payload, offset + AvroSchemaIndex.HEADER_LENGTH, length - AvroSchemaIndex.HEADER_LENGTH));
+  }
+
+  private DatumReader<GenericRecord> getProjectedReader(Projection projection) throws IOException {
+    DatumReader<GenericRecord> reader = projectedReaders.get(projection);
+    if (reader == null) {
+      reader = AvroReaderCache.get(schema, project(readerSchema, projection));
+      if (projectedReaders.size() >= MAX_PROJECTIONS) {
+        projectedReaders.clear();
+      }
+      projectedReaders.put(projection, reader);
+    }
+    return reader;
+  }
+
+  private static Schema project(Schema recordSchema, Projection projection) {
+    List<Schema.Field> fields = new ArrayList<>();
+    for (Schema.Field field : recordSchema.getFields()) {
+      if (projection.contains(field.name())) {
+        Projection child = projection.getChild(field.name());
+        fields.add(new Schema.Field(field, child == null ? field.schema() : projectType(field.schema(), child)));
+      }
+    }
+    Schema projected = Schema.createRecord(recordSchema.getName(), recordSchema.getDoc(), recordSchema.getNamespace(), recordSchema.isError(), fields);
+    for (String alias : recordSchema.getAliases()) {
+      projected.addAlias(alias);
+    }
+    return projected;
+  }
+
+  private static Schema projectType(Schema type, Projection projection) {
+    switch (type.getType()) {
+      case RECORD:
+        return project(type, projection);
+      case ARRAY:
+        return Schema.createArray(projectType(type.getElementType(), projection));
+      case UNION:
+        List<Schema> types = new ArrayList<>();
+        for (Schema branch : type.getTypes()) {
+          types.add(projectType(branch, projection));
+        }
+        return Schema.createUnion(types);
+      default:
+        return type;
+    }
+  }
+
+  @Override
+  public ParsedObject parse(ByteBuffer buffer) {
+    if (buffer.hasArray() || singleObject) {
+      return super.parse(buffer);
+    }
+    CodecState state = acquire();
+    try {
+      // The record is handed to the caller, so it can not be reused
+      return new AvroResolver(datumReader.read(null, state.wrap(new ByteBufferBackedInputStream(buffer.duplicate()))));
+    } catch (IOException | AvroRuntimeException e) {
+      byte[] payload = copy(buffer);
       logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
       return new DefaultParser(payload);
+    } finally {
+      state.unwrapStream();
+      release(state);
     }
   }
 
   @Override
   public JsonObject parseToJson(byte[] payload) throws IOException {
-    GenericRecord genericRecord = (GenericRecord) parse(payload).getReferenced();
+    return parseToJson(payload, 0, payload.length);
+  }
+
+  @Override
+  public JsonObject parseToJson(byte[] payload, int offset, int length) throws IOException {
+    CodecState state = acquire();
+    try {
+      // The record does not escape this call, so the pooled instance can be reused
+      state.genericRecord = read(state.genericRecord, payload, offset, length, state);
+      return toJson(state.genericRecord);
+    } catch (AvroRuntimeException e) {
+      throw new IOException("Unable to decode record, " + e.getMessage(), e);
+    } finally {
+      release(state);
+    }
+  }
+
+  @Override
+  public JsonObject parseToJson(ByteBuffer buffer) throws IOException {
+    if (buffer.hasArray() || singleObject) {
+      return super.parseToJson(buffer);
+    }
+    CodecState state = acquire();
+    try {
+      // The record does not escape this call, so the pooled instance can be reused
+      state.genericRecord = datumReader.read(state.genericRecord, state.wrap(new ByteBufferBackedInputStream(buffer.duplicate())));
+      return toJson(state.genericRecord);
+    } catch (AvroRuntimeException e) {
+      throw new IOException("Unable to decode record, " + e.getMessage(), e);
+    } finally {
+      state.unwrapStream();
+      release(state);
+    }
+  }
+
+  private JsonObject toJson(GenericRecord genericRecord) throws IOException {
     ByteArrayOutputStream stream = new ByteArrayOutputStream(1024);
-    Encoder jsonEncoder = EncoderFactory.get().jsonEncoder(schema, stream);
-    GenericDatumWriter<GenericRecord> writer = new GenericDatumWriter<>(schema);
+    Encoder jsonEncoder = EncoderFactory.get().jsonEncoder(genericRecord.getSchema(), stream);
+    GenericDatumWriter<GenericRecord> writer = new GenericDatumWriter<>(genericRecord.getSchema());
     writer.write(genericRecord, jsonEncoder);
     jsonEncoder.flush();
     String jsonString = stream.toString(StandardCharsets.UTF_8);
     return JsonParser.parseString(jsonString).getAsJsonObject();
   }
 
+  /**
+   * Writes the same document as {@link #parseToJson(byte[], int, int)}, so a union value that is not null is wrapped in
+   * an object named after its branch, as the Avro JSON encoding does. Bytes and fixed values are written as base64
+   * strings rather than the Avro encoding's ISO-8859-1 strings.
+   */
+  @Override
+  public void writeJson(byte[] payload, int offset, int length, OutputStream outputStream) throws IOException {
+    if (schema == null) {
+      super.writeJson(payload, offset, length, outputStream);
+      return;
+    }
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      writeRecord(payload, offset, length, generator, true);
+    }
+  }
+
+  @Override
+  public void writeJson(byte[] payload, int offset, int length, Writer writer) throws IOException {
+    if (schema == null) {
+      super.writeJson(payload, offset, length, writer);
+      return;
+    }
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      writeRecord(payload, offset, length, generator, true);
+    }
+  }
+
+  /**
+   * Decodes into a pooled record and walks it with the schema, so no JSON text or tree is produced. Union values are
+   * written bare, so the target format can encode them as plain values.
+   */
+  @Override
+  protected void writeEvents(byte[] payload, int offset, int length, JsonGenerator generator) throws IOException {
+    if (schema == null) {
+      super.writeEvents(payload, offset, length, generator);
+      return;
+    }
+    writeRecord(payload, offset, length, generator, false);
+  }
+
+  private void writeRecord(byte[] payload, int offset, int length, JsonGenerator generator, boolean wrapUnions) throws IOException {
+    CodecState state = acquire();
+    try {
+      state.genericRecord = read(state.genericRecord, payload, offset, length, state);
+      writeDatum(generator, readerSchema, state.genericRecord, wrapUnions);
+    } catch (AvroRuntimeException e) {
+      throw new IOException("Unable to decode record, " + e.getMessage(), e);
+    } finally {
+      release(state);
+    }
+  }
+
+  private static void writeDatum(JsonGenerator generator, Schema datumSchema, Object value, boolean wrapUnions) throws IOException {
+    switch (datumSchema.getType()) {
+      case RECORD:
+        GenericRecord genericRecord = (GenericRecord) value;
+        generator.writeStartObject();
+        for (Schema.Field field : datumSchema.getFields()) {
+          generator.writeFieldName(field.name());
+          writeDatum(generator, field.schema(), genericRecord.get(field.pos()), wrapUnions);
+        }
+        generator.writeEndObject();
+        break;
+      case ARRAY:
+        generator.writeStartArray();
+        for (Object entry : (Collection<?>) value) {
+          writeDatum(generator, datumSchema.getElementType(), entry, wrapUnions);
+        }
+        generator.writeEndArray();
+        break;
+      case MAP:
+        generator.writeStartObject();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+          generator.writeFieldName(entry.getKey().toString());
+          writeDatum(generator, datumSchema.getValueType(), entry.getValue(), wrapUnions);
+        }
+        generator.writeEndObject();
+        break;
+      case UNION:
+        Schema branch = datumSchema.getTypes().get(GenericData.get().resolveUnion(datumSchema, value));
+        if (wrapUnions && branch.getType() != Schema.Type.NULL) {
+          generator.writeStartObject();
+          generator.writeFieldName(branch.getFullName());
+          writeDatum(generator, branch, value, true);
+          generator.writeEndObject();
+        } else {
+          writeDatum(generator, branch, value, wrapUnions);
+        }
+        break;
+      case STRING:
+      case ENUM:
+        generator.writeString(value.toString());
+        break;
+      case BYTES:
+        ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        generator.writeBinary(bytes);
+        break;
+      case FIXED:
+        generator.writeBinary(((GenericFixed) value).bytes());
+        break;
+      case INT:
+        generator.writeNumber((Integer) value);
+        break;
+      case LONG:
+        generator.writeNumber((Long) value);
+        break;
+      case FLOAT:
+        generator.writeNumber((Float) value);
+        break;
+      case DOUBLE:
+        generator.writeNumber((Double) value);
+        break;
+      case BOOLEAN:
+        generator.writeBoolean((Boolean) value);
+        break;
+      default:
+        generator.writeNull();
+        break;
+    }
+  }
+
+  @Override
+  public void pack(Map<String, Object> values, OutputStream outputStream) throws IOException {
+    if (schema == null) {
+      super.pack(values, outputStream);
+      return;
+    }
+    write(toRecord(schema, values), outputStream);
+  }
+
+  @Override
+  public void pack(ParsedObject parsedObject, OutputStream outputStream) throws IOException {
+    Object referenced = parsedObject.getReferenced();
+    if (schema != null && referenced instanceof GenericRecord && ((GenericRecord) referenced).getSchema().equals(schema)) {
+      write((GenericRecord) referenced, outputStream);
+    } else {
+      super.pack(parsedObject, outputStream);
+    }
+  }
+
+  private void write(GenericRecord genericRecord, OutputStream outputStream) throws IOException {
+    CodecState state = acquire();
+    try {
+      if (singleObject) {
+        outputStream.write(header);
+      }
+      datumWriter.write(genericRecord, state.wrap(outputStream));
+    } catch (AvroRuntimeException | ClassCastException e) {
+      throw new IOException("Unable to encode record, " + e.getMessage(), e);
+    } finally {
+      state.encoder = EncoderFactory.get().directBinaryEncoder(NULL_STREAM, state.encoder); // Drop the callers stream
+      release(state);
+    }
+  }
+
+  /**
+   * Builds a record for the schema from a map, converting values to the types the schema expects.
+   */
+  private static GenericRecord toRecord(Schema recordSchema, Map<?, ?> values) throws IOException {
+    GenericData.Record genericRecord = new GenericData.Record(recordSchema);
+    for (Schema.Field field : recordSchema.getFields()) {
+      Object value = values.get(field.name());
+      if (value == null && field.hasDefaultValue()) {
+        genericRecord.put(field.pos(), GenericData.get().getDefaultValue(field));
+      } else {
+        genericRecord.put(field.pos(), convert(field.schema(), value, field.name()));
+      }
+    }
+    return genericRecord;
+  }
+
+  private static Object convert(Schema fieldSchema, Object value, String name) throws IOException {
+    switch (fieldSchema.getType()) {
+      case NULL:
+        return null;
+      case UNION:
+        return convertUnion(fieldSchema, value, name);
+      default:
+        break;
+    }
+    if (value == null) {
+      throw new IOException("No value supplied for " + name);
+    }
+    try {
+      switch (fieldSchema.getType()) {
+        case RECORD:
+          if (value instanceof GenericRecord) {
+            return value;
+          }
+          return toRecord(fieldSchema, (Map<?, ?>) value);
+        case ARRAY:
+          Collection<?> source = (Collection<?>) value;
+          GenericData.Array<Object> array = new GenericData.Array<>(source.size(), fieldSchema);
+          for (Object entry : source) {
+            array.add(convert(fieldSchema.getElementType(), entry, name));
+          }
+          return array;
+        case MAP:
+          Map<String, Object> map = new LinkedHashMap<>();
+          for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            map.put(entry.getKey().toString(), convert(fieldSchema.getValueType(), entry.getValue(), name));
+          }
+          return map;
+        case ENUM:
+          return new GenericData.EnumSymbol(fieldSchema, value.toString());
+        case FIXED:
+          return new GenericData.Fixed(fieldSchema, toBytes(value));
+        case BYTES:
+          return ByteBuffer.wrap(toBytes(value));
+        case STRING:
+          return value.toString();
+        case INT:
+          return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString().trim());
+        case LONG:
+          return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString().trim());
+        case FLOAT:
+          return value instanceof Number ? ((Number) value).floatValue() : Float.parseFloat(value.toString().trim());
+        case DOUBLE:
+          return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString().trim());
+        case BOOLEAN:
+          return value instanceof Boolean ? value : Boolean.parseBoolean(value.toString().trim());
+        default:
+          throw new IOException("Unsupported type " + fieldSchema.getType() + " for " + name);
+      }
+    } catch (ClassCastException | NumberFormatException e) {
+      throw new IOException("Value of " + name + " does not match " + fieldSchema.getType(), e);
+    }
+  }
+
+  private static Object convertUnion(Schema union, Object value, String name) throws IOException {
+    if (value == null) {
+      if (union.getIndexNamed(Schema.Type.NULL.getName()) != null) {
+        return null;
+      }
+      throw new IOException("No value supplied for " + name);
+    }
+    // Prefer a branch that matches the value as is, before trying the conversions
+    for (int pass = 0; pass < 2; pass++) {
+      for (Schema branch : union.getTypes()) {
+        if (branch.getType() != Schema.Type.NULL && (pass == 1 || matches(branch.getType(), value))) {
+          try {
+            Object converted = convert(branch, value, name);
+            if (GenericData.get().validate(branch, converted)) {
+              return converted;
+            }
+          } catch (IOException | AvroRuntimeException e) {
+            // Try the next branch
+          }
+        }
+      }
+    }
+    throw new IOException("Value of " + name + " does not match any type of the union");
+  }
+
+  private static boolean matches(Schema.Type type, Object value) {
+    switch (type) {
+      case RECORD:
+      case MAP:
+        return value instanceof Map || value instanceof GenericRecord;
+      case ARRAY:
+        return value instanceof Collection;
+      case STRING:
+      case ENUM:
+        return value instanceof CharSequence;
+      case BYTES:
+      case FIXED:
+        return value instanceof byte[] || value instanceof ByteBuffer;
+      case INT:
+      case LONG:
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+      case FLOAT:
+      case DOUBLE:
+        return value instanceof Number;
+      case BOOLEAN:
+        return value instanceof Boolean;
+      default:
+        return false;
+    }
+  }
+
+  private static byte[] toBytes(Object value) {
+    if (value instanceof byte[]) {
+      return (byte[]) value;
+    }
+    if (value instanceof ByteBuffer) {
+      ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      return bytes;
+    }
+    return value.toString().getBytes(StandardCharsets.ISO_8859_1); // Matches the Avro JSON encoding of bytes
+  }
+
+  private CodecState acquire() {
+    CodecState state = decoderPool.poll();
+    if (state == null) {
+      return new CodecState();
+    }
+    pooled.decrementAndGet();
+    return state;
+  }
+
+  private void release(CodecState state) {
+    if (pooled.incrementAndGet() <= MAX_POOLED_DECODERS) {
+      decoderPool.offer(state);
+    } else {
+      pooled.decrementAndGet();
+    }
+  }
+
+  @Override
+  public void release() {
+    if (schemaRegistration != null) {
+      schemaRegistration.clean(); // Only unregisters the first time
+    }
+  }
+
   @Override
   public MessageFormatter getInstance(SchemaConfig config) throws IOException {
     AvroSchemaConfig avroSchemaConfig = (AvroSchemaConfig) config;
-    return new AvroFormatter(avroSchemaConfig.getSchema());
+    return new AvroFormatter(avroSchemaConfig.getSchema(), avroSchemaConfig.getReaderSchema(), avroSchemaConfig.isSingleObjectEncoding());
   }
 
   @Override
@@ -109,13 +670,13 @@ public class AvroFormatter extends MessageFormatter {
 
   @Override
   public Map<String, Object> getFormat() {
-    if (schema == null || schema.getType() != Schema.Type.RECORD) {
+    if (readerSchema == null || readerSchema.getType() != Schema.Type.RECORD) {
       return Map.of();
     }
 
     Map<String, Object> result = new java.util.LinkedHashMap<>();
 
-    for (Schema.Field field : schema.getFields()) {
+    for (Schema.Field field : readerSchema.getFields()) {
       Map<String, Object> fieldInfo = new java.util.LinkedHashMap<>();
       fieldInfo.put("type", field.schema().getType().getName());
       fieldInfo.put("doc", field.doc());
@@ -127,10 +688,38 @@ public class AvroFormatter extends MessageFormatter {
   }
 
 
+  private static final class CodecState {
+    private BinaryDecoder decoder;
+    private BinaryDecoder streamDecoder;
+    private BinaryEncoder encoder;
+    private GenericRecord genericRecord;
+
+    private BinaryDecoder wrap(byte[] payload, int offset, int length) {
+      decoder = DecoderFactory.get().binaryDecoder(payload, offset, length, decoder);
+      return decoder;
+    }
+
+    private BinaryDecoder wrap(InputStream inputStream) {
+      streamDecoder = DecoderFactory.get().directBinaryDecoder(inputStream, streamDecoder);
+      return streamDecoder;
+    }
+
+    private void unwrapStream() {
+      if (streamDecoder != null) {
+        streamDecoder = DecoderFactory.get().directBinaryDecoder(NULL_INPUT_STREAM, streamDecoder); // Drop the callers buffer
+      }
+    }
+
+    private BinaryEncoder wrap(OutputStream outputStream) {
+      encoder = EncoderFactory.get().directBinaryEncoder(outputStream, encoder);
+      return encoder;
+    }
+  }
+
   /**
    * The type Avro resolver.
    */
-  public static class AvroResolver implements ParsedObject {
+  public static class AvroResolver implements ParsedObject, TypedResolver {
 
     private final GenericRecord genericRecord;
 
@@ -144,36 +733,63 @@ public class AvroFormatter extends MessageFormatter {
     }
 
     @Override
-    public Object get(String s) {
-      String lookup = s;
-      boolean isArray = false;
-      if (s.endsWith("]")) {
-        lookup = s.substring(0, s.indexOf("["));
-        isArray = true;
-      }
-      if (genericRecord.hasField(lookup)) {
-        Object val = genericRecord.get(lookup);
-        if (val instanceof List && isArray) {
-          String index = s.substring(s.indexOf("[") + 1, s.indexOf("]"));
-          var idx = Integer.parseInt(index.trim());
-          if (((List) val).size() > idx) {
-            val = ((List) val).get(idx);
-          } else {
-            return null;
-          }
-        }
-        if (val instanceof GenericRecord) {
-          return new AvroResolver((GenericRecord) val);
-        }
-        if (val instanceof Map) {
-          return new MapResolver((Map) val);
-        }
-        if (val instanceof Utf8) {
-          return val.toString();
+    public Object get(String name, int index) {
+      Object val = raw(name, index);
+      if (val instanceof GenericRecord) {
+        return new AvroResolver((GenericRecord) val);
+      }
+      if (val instanceof Map) {
+        return new MapResolver((Map) val);
+      }
+      if (val instanceof Utf8) {
+        return val.toString();
+      }
+      return val;
+    }
+
+    @Override
+    public boolean isPresent(String name, int index) {
+      return raw(name, index) != null;
+    }
+
+    @Override
+    public long getLong(String name, int index, long defaultValue) {
+      return TypedValues.toLong(raw(name, index), defaultValue);
+    }
+
+    @Override
+    public double getDouble(String name, int index, double defaultValue) {
+      return TypedValues.toDouble(raw(name, index), defaultValue);
+    }
+
+    @Override
+    public boolean getBoolean(String name, int index, boolean defaultValue) {
+      return TypedValues.toBoolean(raw(name, index), defaultValue);
+    }
+
+    @Override
+    public String getString(String name, int index) {
+      Object val = raw(name, index);
+      if (val instanceof GenericData.EnumSymbol) {
+        return val.toString();
+      }
+      return TypedValues.toString(val);
+    }
+
+    private Object raw(String name, int index) {
+      Schema.Field field = genericRecord.getSchema().getField(name);
+      if (field == null) {
+        return null;
+      }
+      Object val = genericRecord.get(field.pos());
+      if (index != FieldPath.Step.NO_INDEX && val instanceof List) {
+        List<?> list = (List<?>) val;
+        if (index >= list.size()) {
+          return null;
         }
-        return val;
+        val = list.get(index);
       }
-      return null;
+      return val;
     }
 
     @Override
@@ -0,0 +1,102 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DatumReader;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A process wide cache of the datum readers that resolve data written with one schema into another, keyed by the
+ * writer and reader schema pair. Avro builds the resolving grammar for a pair on first use and keeps it per reader, so
+ * sharing the reader means each pair is only resolved once however many formatters, projections or schema versions
+ * need it.
+ */
+final class AvroReaderCache {
+
+  private static final int MAX_CACHED = 256;
+  private static final Map<Key, DatumReader<GenericRecord>> CACHE = new ConcurrentHashMap<>();
+
+  /**
+   * Gets the reader that decodes data written with the writer schema into records of the reader schema.
+   *
+   * @param writer the schema the data was written with
+   * @param reader the schema of the records to return
+   * @return the datum reader
+   * @throws IOException if data written with the writer schema can not be read with the reader schema
+   */
+  static DatumReader<GenericRecord> get(Schema writer, Schema reader) throws IOException {
+    Key key = new Key(writer, reader);
+    DatumReader<GenericRecord> datumReader = CACHE.get(key);
+    if (datumReader == null) {
+      if (!writer.equals(reader)) {
+        SchemaCompatibility.SchemaPairCompatibility compatibility = SchemaCompatibility.checkReaderWriterCompatibility(reader, writer);
+        if (compatibility.getType() != SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE) {
+          throw new IOException("Reader schema " + reader.getFullName() + " can not read the writer schema, " + compatibility.getDescription());
+        }
+      }
+      datumReader = new GenericDatumReader<>(writer, reader);
+      if (CACHE.size() >= MAX_CACHED) {
+        CACHE.clear();
+      }
+      CACHE.put(key, datumReader);
+    }
+    return datumReader;
+  }
+
+  private AvroReaderCache() {
+  }
+
+  private static final class Key {
+    private final Schema writer;
+    private final Schema reader;
+    private final int hashCode;
+
+    private Key(Schema writer, Schema reader) {
+      this.writer = writer;
+      this.reader = reader;
+      hashCode = 31 * writer.hashCode() + reader.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return writer.equals(key.writer) && reader.equals(key.reader);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
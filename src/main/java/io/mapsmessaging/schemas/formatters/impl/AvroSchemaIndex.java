@@ -0,0 +1,277 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import io.mapsmessaging.schemas.config.SchemaConfig;
+import io.mapsmessaging.schemas.config.impl.AvroSchemaConfig;
+import io.mapsmessaging.schemas.formatters.MessageFormatter;
+import io.mapsmessaging.schemas.formatters.MessageFormatterFactory;
+import io.mapsmessaging.schemas.repository.SchemaRepository;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the CRC-64-AVRO fingerprints carried in the Avro single object encoding header to writer schemas. Schemas used
+ * by Avro formatters are registered as the formatters are built and reference counted, so a schema is removed once the
+ * last formatter using it has been released, or has become unreachable without being released. Any other fingerprint is looked up in an index of the
+ * schema repository set on the {@link MessageFormatterFactory}. The index is only rebuilt when the factory
+ * {@link MessageFormatterFactory#getGeneration() generation} shows the repository has changed, so every message,
+ * including one with an unknown fingerprint, is dispatched with map lookups and never scans the repository.
+ */
+public final class AvroSchemaIndex {
+
+  /**
+   * The length of the single object encoding header, the two byte marker followed by the 8 byte fingerprint.
+   */
+  public static final int HEADER_LENGTH = 10;
+
+  private static final byte MARKER_0 = (byte) 0xC3;
+  private static final byte MARKER_1 = (byte) 0x01;
+  private static final AvroSchemaIndex INSTANCE = new AvroSchemaIndex();
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  private final Map<Long, Registration> registered = new ConcurrentHashMap<>();
+  private volatile Map<Long, Entry> repositoryIndex = Map.of();
+  private volatile long indexedGeneration = -1;
+  private Map<String, Entry> parsed = new HashMap<>();
+
+  public static AvroSchemaIndex getInstance() {
+    return INSTANCE;
+  }
+
+  private AvroSchemaIndex() {
+  }
+
+  /**
+   * Computes the CRC-64-AVRO fingerprint of the canonical form of the schema.
+   *
+   * @param schema the schema
+   * @return the fingerprint
+   */
+  public static long fingerprint(Schema schema) {
+    return SchemaNormalization.parsingFingerprint64(schema);
+  }
+
+  /**
+   * Checks if the message starts with the single object encoding header.
+   *
+   * @param payload the array holding the message
+   * @param offset the offset of the message
+   * @param length the length of the message
+   * @return true if the header is present
+   */
+  public static boolean hasHeader(byte[] payload, int offset, int length) {
+    return length >= HEADER_LENGTH && payload[offset] == MARKER_0 && payload[offset + 1] == MARKER_1;
+  }
+
+  /**
+   * Reads the little endian fingerprint from the header, the caller must check the header is present.
+   *
+   * @param payload the array holding the message
+   * @param offset the offset of the message
+   * @return the fingerprint
+   */
+  public static long readFingerprint(byte[] payload, int offset) {
+    long fingerprint = 0;
+    for (int x = HEADER_LENGTH - 1; x >= 2; x--) {
+      fingerprint = (fingerprint << 8) | (payload[offset + x] & 0xffL);
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Builds the single object encoding header for the fingerprint.
+   *
+   * @param fingerprint the schema fingerprint
+   * @return the header
+   */
+  public static byte[] header(long fingerprint) {
+    byte[] header = new byte[HEADER_LENGTH];
+    header[0] = MARKER_0;
+    header[1] = MARKER_1;
+    for (int x = 2; x < HEADER_LENGTH; x++) {
+      header[x] = (byte) fingerprint;
+      fingerprint >>>= 8;
+    }
+    return header;
+  }
+
+  /**
+   * Adds a schema to the index, or increments its reference count if it is already registered. Each call must be
+   * matched by a call to {@link #unregister(long)}.
+   *
+   * @param schema the schema
+   * @return the fingerprint of the schema
+   */
+  public long register(Schema schema) {
+    long fingerprint = fingerprint(schema);
+    registered.compute(fingerprint, (key, registration) -> {
+      if (registration == null) {
+        registration = new Registration(schema);
+      }
+      registration.references++;
+      return registration;
+    });
+    return fingerprint;
+  }
+
+  /**
+   * Decrements the reference count of the registered schema, removing it when it is no longer used.
+   *
+   * @param fingerprint the fingerprint returned by {@link #register(Schema)}
+   */
+  public void unregister(long fingerprint) {
+    registered.computeIfPresent(fingerprint, (key, registration) -> --registration.references > 0 ? registration : null);
+  }
+
+  /**
+   * Ties a registration to its owner. The registration is removed when the returned cleanable is run, or when the owner
+   * becomes unreachable if it never is, so formatters dropped without being released do not keep their schema indexed.
+   *
+   * @param owner the object holding the registration
+   * @param fingerprint the fingerprint returned by {@link #register(Schema)}
+   * @return the cleanable, running it more than once only unregisters the schema once
+   */
+  Cleaner.Cleanable track(Object owner, long fingerprint) {
+    return CLEANER.register(owner, () -> unregister(fingerprint));
+  }
+
+  /**
+   * Gets the writer schema for the fingerprint, from the registered schemas or the schema repository.
+   *
+   * @param fingerprint the fingerprint
+   * @return the schema or null if no schema has the fingerprint
+   */
+  public Schema getSchema(long fingerprint) {
+    Registration registration = registered.get(fingerprint);
+    if (registration != null) {
+      return registration.schema;
+    }
+    Entry entry = getIndex().get(fingerprint);
+    return entry != null ? entry.schema : null;
+  }
+
+  /**
+   * Gets the formatter for the repository schema that wrote the message, using the fingerprint in its header.
+   *
+   * @param payload the array holding the message
+   * @param offset the offset of the message
+   * @param length the length of the message
+   * @return the formatter or null if the message has no header or the schema is not in the repository
+   * @throws IOException if the formatter could not be created
+   */
+  public MessageFormatter getFormatter(byte[] payload, int offset, int length) throws IOException {
+    if (!hasHeader(payload, offset, length)) {
+      return null;
+    }
+    Entry entry = getIndex().get(readFingerprint(payload, offset));
+    if (entry == null) {
+      return null;
+    }
+    return MessageFormatterFactory.getInstance().getFormatter(entry.config);
+  }
+
+  /**
+   * Removes all entries, repository schemas are indexed again when next needed.
+   */
+  public synchronized void clear() {
+    registered.clear();
+    repositoryIndex = Map.of();
+    parsed = new HashMap<>();
+    indexedGeneration = -1;
+  }
+
+  private Map<Long, Entry> getIndex() {
+    long generation = MessageFormatterFactory.getInstance().getGeneration();
+    if (generation != indexedGeneration) {
+      rebuild(generation);
+    }
+    return repositoryIndex;
+  }
+
+  /**
+   * Indexes the Avro schemas in the repository, dropping any that have been removed. Schemas that were indexed before and
+   * have not changed are not parsed again.
+   */
+  private synchronized void rebuild(long generation) {
+    if (generation == indexedGeneration) {
+      return; // Another thread has already rebuilt it
+    }
+    Map<Long, Entry> index = new HashMap<>();
+    Map<String, Entry> parsedSchemas = new HashMap<>();
+    SchemaRepository repository = MessageFormatterFactory.getInstance().getSchemaRepository();
+    if (repository != null) {
+      for (SchemaConfig config : repository.getSchemas("AVRO")) {
+        if (!(config instanceof AvroSchemaConfig)) {
+          continue;
+        }
+        String key = config.getUniqueId() + "/" + config.getVersion();
+        String source = ((AvroSchemaConfig) config).getSchema();
+        if (source == null) {
+          continue;
+        }
+        Entry entry = parsed.get(key);
+        if (entry != null && entry.source.equals(source)) {
+          entry = new Entry(entry.schema, config, source);
+        } else {
+          try {
+            entry = new Entry(new Schema.Parser().parse(source), config, source);
+          } catch (AvroRuntimeException e) {
+            continue; // Not a valid schema, it can never match a fingerprint
+          }
+        }
+        parsedSchemas.put(key, entry);
+        index.put(fingerprint(entry.schema), entry);
+      }
+    }
+    parsed = parsedSchemas;
+    repositoryIndex = index;
+    indexedGeneration = generation;
+  }
+
+  private static final class Registration {
+    private final Schema schema;
+    private int references;
+
+    private Registration(Schema schema) {
+      this.schema = schema;
+    }
+  }
+
+  private static final class Entry {
+    private final Schema schema;
+    private final SchemaConfig config;
+    private final String source;
+
+    private Entry(Schema schema, SchemaConfig config, String source) {
+      this.schema = schema;
+      this.config = config;
+      this.source = source;
+    }
+  }
+}
@@ -20,80 +20,172 @@
 
 package io.mapsmessaging.schemas.formatters.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.networknt.schema.JsonSchema;
-import com.networknt.schema.JsonSchemaFactory;
-import com.networknt.schema.SpecVersion;
-import com.networknt.schema.ValidationMessage;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.CborSchemaConfig;
+import io.mapsmessaging.schemas.config.impl.SchemaValidationConfig;
 import io.mapsmessaging.schemas.formatters.MessageFormatter;
 import io.mapsmessaging.schemas.formatters.ParsedObject;
+import io.mapsmessaging.schemas.formatters.Projection;
+import io.mapsmessaging.schemas.formatters.validation.CompiledJsonSchema;
+import io.mapsmessaging.schemas.formatters.validation.JsonSchemaCache;
+import io.mapsmessaging.schemas.formatters.validation.SchemaValidator;
+import io.mapsmessaging.schemas.formatters.walker.JsonNodeResolver;
 import io.mapsmessaging.schemas.formatters.walker.MapResolver;
 import io.mapsmessaging.schemas.formatters.walker.StructuredResolver;
+import lombok.Getter;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
-import java.util.Set;
 
 import static io.mapsmessaging.schemas.logging.SchemaLogMessages.FORMATTER_UNEXPECTED_OBJECT;
-import static io.mapsmessaging.schemas.logging.SchemaLogMessages.JSON_PARSE_EXCEPTION;
 
 public class CborFormatter extends MessageFormatter {
 
+  private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+  private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(CBOR_FACTORY);
+  private static final ObjectWriter CBOR_WRITER = CBOR_MAPPER.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
   private final JsonNode schemaNode;
-  private final JsonSchema schema;
+  @Getter
+  private final SchemaValidator validator;
 
   public CborFormatter() {
     schemaNode = null;
-    schema = null;
+    validator = null;
   }
 
   public CborFormatter(String schemaString) throws IOException {
-    ObjectMapper objectMapper = new ObjectMapper();
-    schemaNode = objectMapper.readTree(schemaString);
-    schema = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7).getSchema(schemaNode);
+    this(schemaString, null);
+  }
+
+  public CborFormatter(String schemaString, SchemaValidationConfig validation) throws IOException {
+    CompiledJsonSchema compiled = JsonSchemaCache.get(schemaString);
+    schemaNode = compiled.getSchemaNode();
+    validator = compiled.isValidating() ? new SchemaValidator(getName(), compiled, validation) : null;
   }
 
   @Override
   public ParsedObject parse(byte[] payload) {
+    return parse(payload, 0, payload.length);
+  }
+
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length) {
     try {
-      ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
-      Map<String, Object> map = cborMapper.readValue(payload, Map.class);
-
-      if (schema != null) {
-        JsonNode node = cborMapper.readTree(payload);
-        Set<ValidationMessage> validationResult = schema.validate(node);
-        if (!validationResult.isEmpty()) {
-          logger.log(JSON_PARSE_EXCEPTION, getName(), validationResult);
-          return new DefaultParser(payload);
-        }
+      JsonNode tree = CBOR_MAPPER.readTree(payload, offset, length);
+      ParsedObject resolver = createResolver(tree);
+      if (validator != null && validator.select() && !validator.validate(() -> tree)) {
+        return new DefaultParser(payload, offset, length);
       }
+      return resolver;
+    } catch (Exception e) {
+      logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
+      return new DefaultParser(payload, offset, length);
+    }
+  }
 
-      Gson gson = new Gson();
-      JsonObject json = gson.toJsonTree(map).getAsJsonObject();
-      return new StructuredResolver(new MapResolver(map), json);
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length, Projection projection) {
+    if (validator != null) {
+      return parse(payload, offset, length); // Validation needs the entire document
+    }
+    try {
+      Map<String, Object> map = ProjectionReader.read(CBOR_FACTORY, payload, offset, length, projection, ProjectionReader.JACKSON_NUMBERS);
+      return new StructuredResolver(new MapResolver(map), map);
     } catch (Exception e) {
+      logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
+      return new DefaultParser(payload, offset, length);
+    }
+  }
+
+  @Override
+  public ParsedObject parse(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return super.parse(buffer);
+    }
+    try {
+      JsonNode tree = CBOR_MAPPER.readTree(new ByteBufferBackedInputStream(buffer.duplicate()));
+      ParsedObject resolver = createResolver(tree);
+      if (validator != null && validator.select() && !validator.validate(() -> tree)) {
+        return new DefaultParser(copy(buffer));
+      }
+      return resolver;
+    } catch (Exception e) {
+      byte[] payload = copy(buffer);
       logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
       return new DefaultParser(payload);
     }
   }
 
+  private ParsedObject createResolver(JsonNode tree) throws IOException {
+    if (tree == null || !tree.isObject()) {
+      throw new IOException("Expected a CBOR map");
+    }
+    return new JsonNodeResolver(tree);
+  }
+
   @Override
   public JsonObject parseToJson(byte[] payload) throws IOException {
-    ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
-    Map<String, Object> map = cborMapper.readValue(payload, Map.class);
-    return JsonParser.parseString(new Gson().toJson(map)).getAsJsonObject();
+    return parseToJson(payload, 0, payload.length);
+  }
+
+  @Override
+  public JsonObject parseToJson(byte[] payload, int offset, int length) throws IOException {
+    Map<String, Object> map = CBOR_MAPPER.readValue(payload, offset, length, Map.class);
+    return gson.toJsonTree(map).getAsJsonObject();
+  }
+
+  @Override
+  public JsonObject parseToJson(ByteBuffer buffer) throws IOException {
+    if (buffer.hasArray()) {
+      return super.parseToJson(buffer);
+    }
+    Map<String, Object> map = CBOR_MAPPER.readValue(new ByteBufferBackedInputStream(buffer.duplicate()), Map.class);
+    return gson.toJsonTree(map).getAsJsonObject();
+  }
+
+  @Override
+  public void pack(Map<String, Object> values, OutputStream outputStream) throws IOException {
+    CBOR_WRITER.writeValue(outputStream, values);
+  }
+
+  @Override
+  public void pack(ParsedObject parsedObject, OutputStream outputStream) throws IOException {
+    Object referenced = parsedObject.getReferenced();
+    if (referenced instanceof JsonNode) {
+      CBOR_WRITER.writeValue(outputStream, referenced);
+    } else {
+      super.pack(parsedObject, outputStream);
+    }
+  }
+
+  @Override
+  protected void writeEvents(byte[] payload, int offset, int length, JsonGenerator generator) throws IOException {
+    if (validator != null) {
+      super.writeEvents(payload, offset, length, generator); // Parse so the document is validated
+    } else {
+      copyEvents(CBOR_FACTORY, payload, offset, length, generator);
+    }
+  }
+
+  @Override
+  protected JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+    return CBOR_FACTORY.createGenerator(outputStream).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
   }
 
   @Override
   public MessageFormatter getInstance(SchemaConfig config) throws IOException {
-    return new CborFormatter(((CborSchemaConfig) config).getSchema());
+    CborSchemaConfig cborSchemaConfig = (CborSchemaConfig) config;
+    return new CborFormatter(cborSchemaConfig.getSchema(), cborSchemaConfig.getValidation());
   }
 
   @Override
@@ -20,33 +20,40 @@
 
 package io.mapsmessaging.schemas.formatters.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.gson.JsonObject;
-import com.univocity.parsers.csv.CsvParser;
-import com.univocity.parsers.csv.CsvParserSettings;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.CsvSchemaConfig;
 import io.mapsmessaging.schemas.formatters.MessageFormatter;
 import io.mapsmessaging.schemas.formatters.ParsedObject;
-import io.mapsmessaging.schemas.formatters.walker.MapResolver;
+import io.mapsmessaging.schemas.formatters.walker.IndexedResolver;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
  * The type Csv formatter.
+ * <p>
+ * Rows are scanned directly in the byte array. Values may be quoted with '"', using "" as an escaped quote, unquoted
+ * values are trimmed and empty values are returned as null. Values are only decoded, as UTF-8, when they are read.
  */
 public class CsvFormatter extends MessageFormatter {
 
+  private static final byte DELIMITER = ',';
+  private static final byte QUOTE = '"';
+
   private final String[] keys;
+  private final Map<String, Integer> columns;
   private final boolean interpretNumericStrings;
-  private final CsvParser parser;
 
   /**
    * Instantiates a new Csv formatter.
    */
   public CsvFormatter() {
     keys = new String[0];
-    parser = null;
+    columns = Map.of();
     interpretNumericStrings = false;
   }
 
@@ -64,15 +71,48 @@ public class CsvFormatter extends MessageFormatter {
     }
     String[] tmp = new String[header.size()];
     keys = header.toArray(tmp);
+    Map<String, Integer> map = new HashMap<>();
+    for (int x = 0; x < keys.length; x++) {
+      map.putIfAbsent(keys[x], x);
+    }
+    columns = Collections.unmodifiableMap(map);
     this.interpretNumericStrings = interpretNumericStrings;
-    CsvParserSettings settings = new CsvParserSettings();
-    parser = new CsvParser(settings);
+  }
+
+  @Override
+  public ParsedObject parse(byte[] payload) {
+    return parse(payload, 0, payload.length);
+  }
 
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length) {
+    int end = offset + length;
+    CsvRow row = new CsvRow(payload, keys.length);
+    scanRow(payload, skipLineBreaks(payload, offset, end), end, row);
+    return row;
   }
 
   @Override
-  public synchronized ParsedObject parse(byte[] payload) {
-    return new MapResolver(parseToMap(payload), interpretNumericStrings);
+  public Iterator<ParsedObject> parseRows(byte[] payload, int offset, int length) {
+    int end = offset + length;
+    return new Iterator<>() {
+      private int position = skipLineBreaks(payload, offset, end);
+
+      @Override
+      public boolean hasNext() {
+        return position < end;
+      }
+
+      @Override
+      public ParsedObject next() {
+        if (position >= end) {
+          throw new NoSuchElementException();
+        }
+        CsvRow row = new CsvRow(payload, keys.length);
+        position = skipLineBreaks(payload, scanRow(payload, position, end, row), end);
+        return row;
+      }
+    };
   }
 
   @Override
@@ -88,6 +128,61 @@ public class CsvFormatter extends MessageFormatter {
     return jsonObject;
   }
 
+  @Override
+  protected void writeEvents(byte[] payload, int offset, int length, JsonGenerator generator) throws IOException {
+    ParsedObject parsedObject = parse(payload, offset, length);
+    generator.writeStartObject();
+    for (String key : keys) {
+      Object value = parsedObject.get(key);
+      if (value != null) {
+        generator.writeFieldName(key);
+        writeValue(generator, value);
+      }
+    }
+    generator.writeEndObject();
+  }
+
+  /**
+   * Writes the values as a single row in header order, terminated by a line feed. Missing values are left empty and
+   * values containing a delimiter, quote, line break or surrounding blanks are quoted.
+   */
+  @Override
+  public void pack(Map<String, Object> values, OutputStream outputStream) throws IOException {
+    StringBuilder row = new StringBuilder();
+    for (int x = 0; x < keys.length; x++) {
+      if (x > 0) {
+        row.append((char) DELIMITER);
+      }
+      Object value = values.get(keys[x]);
+      if (value != null) {
+        appendValue(row, value.toString());
+      }
+    }
+    row.append('\n');
+    outputStream.write(row.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void appendValue(StringBuilder row, String value) {
+    boolean quote = !value.isEmpty() && (isBlank((byte) value.charAt(0)) || isBlank((byte) value.charAt(value.length() - 1)));
+    for (int x = 0; x < value.length() && !quote; x++) {
+      char c = value.charAt(x);
+      quote = c == DELIMITER || c == QUOTE || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      row.append(value);
+      return;
+    }
+    row.append((char) QUOTE);
+    for (int x = 0; x < value.length(); x++) {
+      char c = value.charAt(x);
+      if (c == QUOTE) {
+        row.append((char) QUOTE);
+      }
+      row.append(c);
+    }
+    row.append((char) QUOTE);
+  }
+
   @Override
   public MessageFormatter getInstance(SchemaConfig config) throws IOException {
     CsvSchemaConfig csvSchemaConfig = (CsvSchemaConfig) config;
@@ -99,15 +194,6 @@ public class CsvFormatter extends MessageFormatter {
     return "CSV";
   }
 
-  private Map<String, Object> parseToMap(byte[] payload) {
-    String[] values = parser.parseLine(new String(payload));
-    Map<String, Object> map = new LinkedHashMap<>();
-    for (int x = 0; x < (Math.min(values.length, keys.length)); x++) {
-      map.put(keys[x], values[x]);
-    }
-    return map;
-  }
-
   @Override
   public Map<String, Object> getFormat() {
     Map<String, Object> format = new LinkedHashMap<>();
@@ -119,4 +205,157 @@ public class CsvFormatter extends MessageFormatter {
     return format;
   }
 
+  private static int skipLineBreaks(byte[] payload, int position, int end) {
+    while (position < end && (payload[position] == '\n' || payload[position] == '\r')) {
+      position++;
+    }
+    return position;
+  }
+
+  /**
+   * Scans a single row, recording the bounds of each column, and returns the position after the row.
+   */
+  private static int scanRow(byte[] payload, int position, int end, CsvRow row) {
+    int column = 0;
+    while (position < end) {
+      while (position < end && isBlank(payload[position])) {
+        position++;
+      }
+      int start;
+      int stop;
+      boolean escaped = false;
+      if (position < end && payload[position] == QUOTE) {
+        start = ++position;
+        while (position < end) {
+          if (payload[position] == QUOTE) {
+            if (position + 1 < end && payload[position + 1] == QUOTE) {
+              escaped = true;
+              position += 2;
+              continue;
+            }
+            break;
+          }
+          position++;
+        }
+        stop = position;
+        while (position < end && payload[position] != DELIMITER && !isLineBreak(payload[position])) {
+          position++; // Skip the closing quote and anything up to the delimiter
+        }
+      } else {
+        start = position;
+        while (position < end && payload[position] != DELIMITER && !isLineBreak(payload[position])) {
+          position++;
+        }
+        stop = position;
+        while (stop > start && isBlank(payload[stop - 1])) {
+          stop--;
+        }
+      }
+      row.setColumn(column++, start, stop, escaped);
+      if (position >= end || isLineBreak(payload[position])) {
+        return position;
+      }
+      position++; // Skip the delimiter
+      if (position == end) {
+        row.setColumn(column, position, position, false); // Trailing delimiter, an empty final column
+      }
+    }
+    return position;
+  }
+
+  private static boolean isBlank(byte b) {
+    return b == ' ' || b == '\t';
+  }
+
+  private static boolean isLineBreak(byte b) {
+    return b == '\n' || b == '\r';
+  }
+
+  /**
+   * A single CSV row, holding the column offsets into the original payload. Values are decoded on first access.
+   */
+  private final class CsvRow implements ParsedObject, IndexedResolver {
+
+    private final byte[] payload;
+    private final int[] bounds;
+    private final boolean[] escaped;
+    private final Object[] values;
+    private int size;
+
+    private CsvRow(byte[] payload, int width) {
+      this.payload = payload;
+      bounds = new int[width * 2];
+      escaped = new boolean[width];
+      values = new Object[width];
+    }
+
+    private void setColumn(int column, int start, int stop, boolean hasEscapes) {
+      if (column < values.length) {
+        bounds[column * 2] = start;
+        bounds[column * 2 + 1] = stop;
+        escaped[column] = hasEscapes;
+        size = column + 1;
+      }
+    }
+
+    @Override
+    public Object get(String name, int index) {
+      Integer column = columns.get(name);
+      if (column == null) {
+        return null;
+      }
+      return getColumn(column);
+    }
+
+    private Object getColumn(int column) {
+      if (column >= size) {
+        return null;
+      }
+      Object value = values[column];
+      if (value == null) {
+        value = decode(column);
+        values[column] = value;
+      }
+      return value;
+    }
+
+    private Object decode(int column) {
+      int start = bounds[column * 2];
+      int length = bounds[column * 2 + 1] - start;
+      if (length == 0) {
+        return null;
+      }
+      String value = new String(payload, start, length, StandardCharsets.UTF_8);
+      if (escaped[column]) {
+        value = value.replace("\"\"", "\"");
+      }
+      if (interpretNumericStrings) {
+        try {
+          return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+          // We can ignore this since we don't actually know if it is numeric or not
+        }
+        try {
+          return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+          // We can ignore this since we don't actually know if it is numeric or not
+        }
+      }
+      return value;
+    }
+
+    @Override
+    public List<String> getKeys() {
+      return new ArrayList<>(Arrays.asList(keys).subList(0, size));
+    }
+
+    @Override
+    public Object getReferenced() {
+      Map<String, Object> map = new LinkedHashMap<>();
+      for (int x = 0; x < size; x++) {
+        map.put(keys[x], getColumn(x));
+      }
+      return map;
+    }
+  }
 }
@@ -0,0 +1,245 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import com.google.gson.JsonObject;
+import io.mapsmessaging.schemas.config.SchemaConfig;
+import io.mapsmessaging.schemas.config.impl.EnvelopeSchemaConfig;
+import io.mapsmessaging.schemas.formatters.MessageFormatter;
+import io.mapsmessaging.schemas.formatters.MessageFormatterFactory;
+import io.mapsmessaging.schemas.formatters.ParsedObject;
+import io.mapsmessaging.schemas.formatters.Projection;
+import io.mapsmessaging.schemas.repository.SchemaRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.mapsmessaging.schemas.logging.SchemaLogMessages.FORMATTER_UNEXPECTED_OBJECT;
+
+/**
+ * The type Envelope formatter. Messages start with a magic byte and a 4 byte big endian schema id, the id is resolved
+ * through the schema repository set on the {@link MessageFormatterFactory} and the rest of the message is handed to the
+ * formatter of that schema in place. Resolved formatters are kept in a map keyed on the primitive id, so after the first
+ * message for an id dispatch does not create strings or query the repository. The map is dropped whenever the
+ * {@link MessageFormatterFactory#getGeneration() generation} changes, so schemas removed or replaced in the repository
+ * are not used again, and a formatter evicted from the factory cache is {@link MessageFormatter#isReleased() released}
+ * and resolved again on its own without dropping the rest of the map. Ids the repository does not know are remembered
+ * for {@link #MISS_RETRY_TIME}, or until the generation changes, so a stream of unknown ids does not query the
+ * repository on every message.
+ */
+public class EnvelopeFormatter extends MessageFormatter {
+
+  /**
+   * The length of the prefix, the magic byte followed by the schema id.
+   */
+  public static final int HEADER_LENGTH = 5;
+
+  /**
+   * The time, in milliseconds, an id the repository could not resolve is reported as unknown before it is looked up
+   * again.
+   */
+  public static final long MISS_RETRY_TIME = 10_000L;
+
+  private static final int MAX_MISSES = 1024;
+
+  private final byte magicByte;
+  private final Map<Integer, String> schemaIds;
+  private final IntFormatterMap formatters;
+  private final Map<Integer, Long> misses;
+  private volatile long generation;
+
+  /**
+   * Instantiates a new Envelope formatter.
+   */
+  public EnvelopeFormatter() {
+    magicByte = 0;
+    schemaIds = Map.of();
+    formatters = new IntFormatterMap();
+    misses = new ConcurrentHashMap<>();
+    generation = -1;
+  }
+
+  /**
+   * Instantiates a new Envelope formatter.
+   *
+   * @param config the config
+   */
+  public EnvelopeFormatter(EnvelopeSchemaConfig config) {
+    magicByte = (byte) config.getMagicByte();
+    schemaIds = config.getSchemaIds() != null ? Map.copyOf(config.getSchemaIds()) : Map.of();
+    formatters = new IntFormatterMap();
+    misses = new ConcurrentHashMap<>();
+    generation = -1;
+  }
+
+  /**
+   * Reads the schema id from the prefix, the caller must check the prefix is present.
+   *
+   * @param payload the array holding the message
+   * @param offset the offset of the message
+   * @return the schema id
+   */
+  public static int readSchemaId(byte[] payload, int offset) {
+    return ((payload[offset + 1] & 0xff) << 24) | ((payload[offset + 2] & 0xff) << 16) | ((payload[offset + 3] & 0xff) << 8) | (payload[offset + 4] & 0xff);
+  }
+
+  /**
+   * Gets the formatter for the schema the message refers to.
+   *
+   * @param payload the array holding the message
+   * @param offset the offset of the message
+   * @param length the length of the message
+   * @return the formatter
+   * @throws IOException if the message has no prefix or the schema id can not be resolved
+   */
+  public MessageFormatter getFormatter(byte[] payload, int offset, int length) throws IOException {
+    if (length < HEADER_LENGTH || payload[offset] != magicByte) {
+      throw new IOException("Message does not start with the envelope prefix");
+    }
+    int schemaId = readSchemaId(payload, offset);
+    long current = MessageFormatterFactory.getInstance().getGeneration();
+    if (current != generation) {
+      clear();
+      generation = current;
+    }
+    MessageFormatter formatter = formatters.get(schemaId);
+    if (formatter == null || formatter.isReleased()) {
+      formatter = load(schemaId, current);
+    }
+    return formatter;
+  }
+
+  /**
+   * Removes the resolved formatters and the remembered unknown ids, ids are resolved through the repository again when
+   * next seen.
+   */
+  public void clear() {
+    formatters.clear();
+    misses.clear();
+  }
+
+  private MessageFormatter load(int schemaId, long current) throws IOException {
+    Long retry = misses.get(schemaId);
+    if (retry != null && retry > System.currentTimeMillis()) {
+      throw new IOException("Unknown schema id " + schemaId);
+    }
+    MessageFormatterFactory factory = MessageFormatterFactory.getInstance();
+    SchemaRepository repository = factory.getSchemaRepository();
+    if (repository == null) {
+      throw new IOException("No schema repository to resolve schema id " + schemaId);
+    }
+    String uniqueId = schemaIds.getOrDefault(schemaId, Integer.toString(schemaId));
+    SchemaConfig config = repository.getSchema(uniqueId);
+    if (config == null) {
+      if (factory.getGeneration() == current) { // A schema added since the lookup must not be hidden by the miss
+        if (misses.size() >= MAX_MISSES) {
+          misses.clear();
+        }
+        misses.put(schemaId, System.currentTimeMillis() + MISS_RETRY_TIME);
+      }
+      throw new IOException("Unknown schema id " + schemaId);
+    }
+    MessageFormatter formatter = factory.getFormatter(config);
+    if (factory.getGeneration() == current) { // Otherwise the formatter may already be stale, resolve it again next time
+      misses.remove(schemaId);
+      formatters.put(schemaId, formatter);
+    }
+    return formatter;
+  }
+
+  @Override
+  public ParsedObject parse(byte[] payload) {
+    return parse(payload, 0, payload.length);
+  }
+
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length) {
+    try {
+      return getFormatter(payload, offset, length).parse(payload, offset + HEADER_LENGTH, length - HEADER_LENGTH);
+    } catch (IOException e) {
+      logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), e.getMessage());
+      return new DefaultParser(payload, offset, length);
+    }
+  }
+
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length, Projection projection) {
+    try {
+      return getFormatter(payload, offset, length).parse(payload, offset + HEADER_LENGTH, length - HEADER_LENGTH, projection);
+    } catch (IOException e) {
+      logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), e.getMessage());
+      return new DefaultParser(payload, offset, length);
+    }
+  }
+
+  @Override
+  public Iterator<ParsedObject> parseRows(byte[] payload, int offset, int length) {
+    try {
+      return getFormatter(payload, offset, length).parseRows(payload, offset + HEADER_LENGTH, length - HEADER_LENGTH);
+    } catch (IOException e) {
+      logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), e.getMessage());
+      return List.<ParsedObject>of(new DefaultParser(payload, offset, length)).iterator();
+    }
+  }
+
+  @Override
+  public JsonObject parseToJson(byte[] payload) throws IOException {
+    return parseToJson(payload, 0, payload.length);
+  }
+
+  @Override
+  public JsonObject parseToJson(byte[] payload, int offset, int length) throws IOException {
+    return getFormatter(payload, offset, length).parseToJson(payload, offset + HEADER_LENGTH, length - HEADER_LENGTH);
+  }
+
+  @Override
+  public void writeJson(byte[] payload, int offset, int length, OutputStream outputStream) throws IOException {
+    getFormatter(payload, offset, length).writeJson(payload, offset + HEADER_LENGTH, length - HEADER_LENGTH, outputStream);
+  }
+
+  @Override
+  public void writeJson(byte[] payload, int offset, int length, Writer writer) throws IOException {
+    getFormatter(payload, offset, length).writeJson(payload, offset + HEADER_LENGTH, length - HEADER_LENGTH, writer);
+  }
+
+  /**
+   * The layout depends on the schema each message refers to, so there is no single format to report.
+   */
+  @Override
+  public Map<String, Object> getFormat() {
+    return Map.of();
+  }
+
+  @Override
+  public MessageFormatter getInstance(SchemaConfig config) {
+    return new EnvelopeFormatter((EnvelopeSchemaConfig) config);
+  }
+
+  @Override
+  public String getName() {
+    return "ENVELOPE";
+  }
+}
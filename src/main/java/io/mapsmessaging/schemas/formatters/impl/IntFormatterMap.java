@@ -0,0 +1,118 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import io.mapsmessaging.schemas.formatters.MessageFormatter;
+
+/**
+ * An open addressing map from primitive int keys to formatters. Lookups read an immutable table without locking or
+ * boxing the key, updates are rare and copy the table before publishing it.
+ */
+final class IntFormatterMap {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private volatile Table table = new Table(INITIAL_CAPACITY);
+
+  /**
+   * Gets the formatter mapped to the key.
+   *
+   * @param key the key
+   * @return the formatter or null if the key is not mapped
+   */
+  MessageFormatter get(int key) {
+    Table current = table;
+    int mask = current.keys.length - 1;
+    int slot = mix(key) & mask;
+    MessageFormatter value;
+    while ((value = current.values[slot]) != null) {
+      if (current.keys[slot] == key) {
+        return value;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return null;
+  }
+
+  /**
+   * Maps the key to the formatter, replacing any existing mapping.
+   *
+   * @param key the key
+   * @param formatter the formatter
+   */
+  synchronized void put(int key, MessageFormatter formatter) {
+    Table current = table;
+    int capacity = current.keys.length;
+    if ((current.size + 1) * 2 > capacity) {
+      capacity <<= 1;
+    }
+    Table next = new Table(capacity);
+    for (int x = 0; x < current.keys.length; x++) {
+      if (current.values[x] != null) {
+        next.insert(current.keys[x], current.values[x]);
+      }
+    }
+    next.insert(key, formatter);
+    table = next;
+  }
+
+  /**
+   * Removes all mappings.
+   */
+  synchronized void clear() {
+    table = new Table(INITIAL_CAPACITY);
+  }
+
+  int size() {
+    return table.size;
+  }
+
+  private static int mix(int key) {
+    int hash = key * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+  private static final class Table {
+    private final int[] keys;
+    private final MessageFormatter[] values;
+    private int size;
+
+    private Table(int capacity) {
+      keys = new int[capacity];
+      values = new MessageFormatter[capacity];
+    }
+
+    private void insert(int key, MessageFormatter formatter) {
+      int mask = keys.length - 1;
+      int slot = mix(key) & mask;
+      while (values[slot] != null) {
+        if (keys[slot] == key) {
+          values[slot] = formatter;
+          return;
+        }
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = formatter;
+      size++;
+    }
+  }
+}
@@ -20,84 +20,120 @@
 
 package io.mapsmessaging.schemas.formatters.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.Gson;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import com.networknt.schema.JsonSchema;
-import com.networknt.schema.JsonSchemaFactory;
-import com.networknt.schema.SpecVersion;
-import com.networknt.schema.ValidationMessage;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.JsonSchemaConfig;
+import io.mapsmessaging.schemas.config.impl.SchemaValidationConfig;
 import io.mapsmessaging.schemas.formatters.MessageFormatter;
 import io.mapsmessaging.schemas.formatters.ParsedObject;
+import io.mapsmessaging.schemas.formatters.Projection;
+import io.mapsmessaging.schemas.formatters.validation.CompiledJsonSchema;
+import io.mapsmessaging.schemas.formatters.validation.JsonSchemaCache;
+import io.mapsmessaging.schemas.formatters.validation.SchemaValidator;
 import io.mapsmessaging.schemas.formatters.walker.MapResolver;
 import io.mapsmessaging.schemas.formatters.walker.StructuredResolver;
+import lombok.Getter;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Map;
-import java.util.Set;
 
 import static io.mapsmessaging.schemas.logging.SchemaLogMessages.FORMATTER_UNEXPECTED_OBJECT;
-import static io.mapsmessaging.schemas.logging.SchemaLogMessages.JSON_PARSE_EXCEPTION;
 
 /**
- * The type Json formatter.
+ * The type Json formatter. Messages are resolved from a structural tape over the UTF-8 bytes, so values are only decoded
+ * when they are requested and the referenced object is the original document. The tape keeps reading the bytes after
+ * parse returns, so a direct buffer is copied to the heap once when it is parsed.
  */
 public class JsonFormatter extends MessageFormatter {
 
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final ObjectWriter OBJECT_WRITER = OBJECT_MAPPER.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
   private final JsonNode schemaNode;
-  private final JsonSchema schema;
-  private final JsonSchemaFactory schemaFactory;
+  @Getter
+  private final SchemaValidator validator;
 
   /**
    * Instantiates a new Json formatter.
    */
   public JsonFormatter() {
     schemaNode = null;
-    schema = null;
-    schemaFactory = null;
+    validator = null;
   }
 
 
-  public JsonFormatter(String schemaString) throws JsonProcessingException {
-    ObjectMapper objectMapper = new ObjectMapper();
-
-    // Convert byte[] schema to JsonNode
-    schemaNode = objectMapper.readTree(schemaString);
+  public JsonFormatter(String schemaString) throws IOException {
+    this(schemaString, null);
+  }
 
-    // Create JsonSchema instance
-    schemaFactory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
-    schema = schemaFactory.getSchema(schemaNode);
+  public JsonFormatter(String schemaString, SchemaValidationConfig validation) throws IOException {
+    CompiledJsonSchema compiled = JsonSchemaCache.get(schemaString);
+    schemaNode = compiled.getSchemaNode();
+    validator = compiled.isValidating() ? new SchemaValidator(getName(), compiled, validation) : null;
   }
 
   @Override
   public ParsedObject parse(byte[] payload) {
+    return parse(payload, 0, payload.length);
+  }
+
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length) {
     try {
-      String jsonString = new String(payload, StandardCharsets.UTF_8);
-      JsonObject json = JsonParser.parseString(jsonString).getAsJsonObject();
-
-      if (schema != null) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        JsonNode jsonNode = objectMapper.readTree(jsonString);
-        Set<ValidationMessage> validationResult = schema.validate(jsonNode);
-        if (!validationResult.isEmpty()) {
-          logger.log(JSON_PARSE_EXCEPTION, getName(), validationResult);
-          // return new DefaultParser(payload);
+      // Always resolve from the tape, so values have the same types whether or not the message is validated
+      JsonTape tape = JsonTape.build(payload, offset, length);
+      if (validator != null && validator.select()) {
+        if (validator.isAsync()) {
+          // The payload may be reused once parse returns, so the queued validation reads its own copy
+          byte[] document = Arrays.copyOfRange(payload, offset, offset + length);
+          validator.validate(() -> OBJECT_MAPPER.readTree(document));
+        } else {
+          // Built from the tape, so the document is only scanned once. Failures are logged and counted, the message is
+          // still delivered
+          validator.validate(() -> tape.toTree(0));
         }
       }
+      return new JsonTapeResolver(tape, 0);
+    } catch (Exception e) {
+      logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
+      return new DefaultParser(payload, offset, length);
+    }
+  }
 
-      Gson gson = new Gson();
-      @SuppressWarnings("unchecked")
-      Map<String, Object> map = gson.fromJson(json, Map.class);
-      return new StructuredResolver(new MapResolver(map), json);
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length, Projection projection) {
+    if (validator != null) {
+      return parse(payload, offset, length); // Validation needs the entire document
+    }
+    try {
+      Map<String, Object> map = ProjectionReader.read(JSON_FACTORY, payload, offset, length, projection, ProjectionReader.TAPE_NUMBERS);
+      return new StructuredResolver(new MapResolver(map), map);
     } catch (Exception e) {
       logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
-      return new DefaultParser(payload);
+      return new DefaultParser(payload, offset, length);
+    }
+  }
+
+  private JsonObject readJson(InputStream inputStream) throws IOException {
+    try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+      return JsonParser.parseReader(reader).getAsJsonObject();
     }
   }
 
@@ -127,14 +163,84 @@ public class JsonFormatter extends MessageFormatter {
   }
   @Override
   public JsonObject parseToJson(byte[] payload) throws IOException {
-    return JsonParser.parseString(new String(payload, StandardCharsets.UTF_8)).getAsJsonObject();
+    return parseToJson(payload, 0, payload.length);
+  }
+
+  @Override
+  public JsonObject parseToJson(byte[] payload, int offset, int length) throws IOException {
+    return readJson(new ByteArrayInputStream(payload, offset, length));
+  }
+
+  @Override
+  public JsonObject parseToJson(ByteBuffer buffer) throws IOException {
+    if (buffer.hasArray()) {
+      return super.parseToJson(buffer);
+    }
+    return readJson(new ByteBufferBackedInputStream(buffer.duplicate()));
   }
 
 
+  @Override
+  public void pack(Map<String, Object> values, OutputStream outputStream) throws IOException {
+    OBJECT_WRITER.writeValue(outputStream, values);
+  }
+
+  @Override
+  public void pack(ParsedObject parsedObject, OutputStream outputStream) throws IOException {
+    Object referenced = parsedObject.getReferenced();
+    if (parsedObject instanceof JsonTapeResolver) {
+      outputStream.write((byte[]) referenced); // Already a JSON document
+    } else if (referenced instanceof JsonNode) {
+      OBJECT_WRITER.writeValue(outputStream, referenced);
+    } else {
+      super.pack(parsedObject, outputStream);
+    }
+  }
+
+  /**
+   * Without a validator the payload is already the JSON document, so once a single scan has confirmed it is a well
+   * formed JSON object it is passed through untouched. With a validator the document is parsed and written from its
+   * structure, so it is validated like any other parse. Either way arrays, scalars and malformed documents throw an
+   * IOException and nothing is written.
+   */
+  @Override
+  public void writeJson(byte[] payload, int offset, int length, OutputStream outputStream) throws IOException {
+    if (validator != null) {
+      super.writeJson(payload, offset, length, outputStream);
+      return;
+    }
+    JsonTape.build(payload, offset, length);
+    outputStream.write(payload, offset, length);
+  }
+
+  @Override
+  public void writeJson(byte[] payload, int offset, int length, Writer writer) throws IOException {
+    if (validator != null) {
+      super.writeJson(payload, offset, length, writer);
+      return;
+    }
+    JsonTape.build(payload, offset, length);
+    writer.write(new String(payload, offset, length, StandardCharsets.UTF_8));
+  }
+
+  @Override
+  protected void writeEvents(byte[] payload, int offset, int length, JsonGenerator generator) throws IOException {
+    if (validator != null) {
+      super.writeEvents(payload, offset, length, generator); // Parse so the document is validated
+    } else {
+      copyEvents(JSON_FACTORY, payload, offset, length, generator);
+    }
+  }
+
+  @Override
+  protected JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+    return JSON_FACTORY.createGenerator(outputStream).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  }
+
   @Override
   public MessageFormatter getInstance(SchemaConfig config) throws IOException {
     JsonSchemaConfig jsonSchemaConfig = (JsonSchemaConfig) config;
-    return new JsonFormatter(jsonSchemaConfig.getSchema());
+    return new JsonFormatter(jsonSchemaConfig.getSchema(), jsonSchemaConfig.getValidation());
   }
 
   @Override
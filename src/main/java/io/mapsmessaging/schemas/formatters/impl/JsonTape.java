@@ -0,0 +1,637 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A compact structural index over a UTF-8 JSON document. The document is scanned once and every value is recorded as a
+ * node on the tape. Scalars use three ints: the type, the offset of the first byte and the offset after the last byte.
+ * Objects and arrays use four: the type, the offset of the opening bracket, the tape index after their last child and the
+ * offset after the closing bracket. Object children alternate between key and value nodes. Strings and numbers are only
+ * decoded when they are read.
+ */
+final class JsonTape {
+
+  static final int NODE_SIZE = 3;
+  static final int CONTAINER_SIZE = 4;
+
+  static final int OBJECT = 1;
+  static final int ARRAY = 2;
+  static final int STRING = 3;
+  static final int NUMBER = 4;
+  static final int TRUE = 5;
+  static final int FALSE = 6;
+  static final int NULL = 7;
+
+  // Set on a STRING node when the string contains escape sequences
+  static final int ESCAPED = 0x100;
+  // Set on a NUMBER node when the number has a fraction or exponent
+  static final int DECIMAL = 0x100;
+
+  private static final int TYPE_MASK = 0xff;
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  private static final int MAX_DEPTH = 512;
+
+  final byte[] payload;
+  final int offset;
+  final int length;
+  private int[] tape;
+  private int size;
+  private int position;
+  private final int end;
+
+  /**
+   * Builds the tape for the document, which must have an object at the top level.
+   *
+   * @param payload the payload
+   * @param offset the offset of the document
+   * @param length the length of the document
+   * @return the tape
+   * @throws IOException if the document is not a valid JSON object
+   */
+  static JsonTape build(byte[] payload, int offset, int length) throws IOException {
+    JsonTape jsonTape = new JsonTape(payload, offset, length);
+    jsonTape.skipWhitespace();
+    if (jsonTape.position >= jsonTape.end || payload[jsonTape.position] != '{') {
+      throw new IOException("Expected a JSON object");
+    }
+    jsonTape.readValue(0);
+    jsonTape.skipWhitespace();
+    if (jsonTape.position != jsonTape.end) {
+      throw new IOException("Unexpected data after the JSON object at " + jsonTape.position);
+    }
+    return jsonTape;
+  }
+
+  private JsonTape(byte[] payload, int offset, int length) {
+    this.payload = payload;
+    this.offset = offset;
+    this.length = length;
+    this.end = offset + length;
+    this.position = offset;
+    tape = new int[Math.max(32, length / 2)];
+  }
+
+  int type(int node) {
+    return tape[node] & TYPE_MASK;
+  }
+
+  boolean flagged(int node) {
+    return (tape[node] & ~TYPE_MASK) != 0;
+  }
+
+  int start(int node) {
+    return tape[node + 1];
+  }
+
+  int end(int node) {
+    return tape[node + 2];
+  }
+
+  /**
+   * Gets the offset after the closing bracket of an object or array node.
+   *
+   * @param node the container node
+   * @return the end offset
+   */
+  int containerEnd(int node) {
+    return tape[node + 3];
+  }
+
+  /**
+   * Gets the tape index of the first child of an object or array node.
+   *
+   * @param node the container node
+   * @return the first child, equal to {@link #next(int)} if the container is empty
+   */
+  int firstChild(int node) {
+    return node + CONTAINER_SIZE;
+  }
+
+  /**
+   * Gets the tape index of the node following this node and all of its children.
+   *
+   * @param node the node
+   * @return the next node
+   */
+  int next(int node) {
+    int type = type(node);
+    return (type == OBJECT || type == ARRAY) ? tape[node + 2] : node + NODE_SIZE;
+  }
+
+  /**
+   * Finds the value node for the key in the object node.
+   *
+   * @param node the object node
+   * @param name the key
+   * @return the value node or -1 if the key is not present
+   */
+  int find(int node, String name) {
+    int limit = tape[node + 2];
+    int child = firstChild(node);
+    while (child < limit) {
+      int value = child + NODE_SIZE;
+      if (keyEquals(child, name)) {
+        return value;
+      }
+      child = next(value);
+    }
+    return -1;
+  }
+
+  /**
+   * Finds the entry at the index in the array node.
+   *
+   * @param node the array node
+   * @param index the index
+   * @return the entry node or -1 if the index is out of range
+   */
+  int element(int node, int index) {
+    int limit = tape[node + 2];
+    int child = firstChild(node);
+    for (int x = 0; x < index && child < limit; x++) {
+      child = next(child);
+    }
+    return child < limit ? child : -1;
+  }
+
+  private boolean keyEquals(int node, String name) {
+    int start = tape[node + 1];
+    int stop = tape[node + 2];
+    int len = stop - start;
+    if (len < name.length()) {
+      return false;
+    }
+    if (flagged(node)) {
+      return decodeString(node).equals(name);
+    }
+    if (len != name.length()) {
+      // Only possible for multibyte characters, so compare the decoded form
+      return new String(payload, start, len, StandardCharsets.UTF_8).equals(name);
+    }
+    for (int x = 0; x < len; x++) {
+      byte b = payload[start + x];
+      if (b < 0) {
+        return new String(payload, start, len, StandardCharsets.UTF_8).equals(name);
+      }
+      if (b != name.charAt(x)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  String decodeString(int node) {
+    int start = tape[node + 1];
+    int stop = tape[node + 2];
+    if (!flagged(node)) {
+      return new String(payload, start, stop - start, StandardCharsets.UTF_8);
+    }
+    StringBuilder sb = new StringBuilder(stop - start);
+    int runStart = start;
+    int x = start;
+    while (x < stop) {
+      if (payload[x] != '\\') {
+        x++;
+        continue;
+      }
+      if (x > runStart) {
+        sb.append(new String(payload, runStart, x - runStart, StandardCharsets.UTF_8));
+      }
+      char escape = (char) payload[x + 1];
+      x += 2;
+      switch (escape) {
+        case 'b':
+          sb.append('\b');
+          break;
+        case 'f':
+          sb.append('\f');
+          break;
+        case 'n':
+          sb.append('\n');
+          break;
+        case 'r':
+          sb.append('\r');
+          break;
+        case 't':
+          sb.append('\t');
+          break;
+        case 'u':
+          sb.append((char) Integer.parseInt(new String(payload, x, 4, StandardCharsets.US_ASCII), 16));
+          x += 4;
+          break;
+        default:
+          sb.append(escape);
+          break;
+      }
+      runStart = x;
+    }
+    if (stop > runStart) {
+      sb.append(new String(payload, runStart, stop - runStart, StandardCharsets.UTF_8));
+    }
+    return sb.toString();
+  }
+
+  Number decodeNumber(int node) {
+    int start = tape[node + 1];
+    int stop = tape[node + 2];
+    if (!flagged(node) && stop - start < 19) {
+      return longValue(node);
+    }
+    String text = new String(payload, start, stop - start, StandardCharsets.US_ASCII);
+    if (!flagged(node)) {
+      try {
+        return Long.parseLong(text);
+      } catch (NumberFormatException e) {
+        // Too large for a long, fall through to a double
+      }
+    }
+    return Double.parseDouble(text);
+  }
+
+  /**
+   * Decodes a NUMBER node as a long without boxing. Decimal values are truncated.
+   *
+   * @param node the number node
+   * @return the value
+   */
+  long longValue(int node) {
+    int start = tape[node + 1];
+    int stop = tape[node + 2];
+    if (flagged(node) || stop - start >= 19) {
+      return decodeNumber(node).longValue();
+    }
+    long value = 0;
+    boolean negative = payload[start] == '-';
+    for (int x = negative ? start + 1 : start; x < stop; x++) {
+      value = value * 10 + (payload[x] - '0');
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Decodes a NUMBER node as a double. Plain decimals with up to 15 significant digits are computed directly, which is
+   * exact since both the digits and the power of ten are exactly representable, anything else is passed to
+   * {@link Double#parseDouble(String)}.
+   *
+   * @param node the number node
+   * @return the value
+   */
+  double doubleValue(int node) {
+    int start = tape[node + 1];
+    int stop = tape[node + 2];
+    if (!flagged(node)) {
+      return stop - start < 19 ? (double) longValue(node) : decodeNumber(node).doubleValue();
+    }
+    boolean negative = payload[start] == '-';
+    long mantissa = 0;
+    int digits = 0;
+    int fraction = -1;
+    for (int x = negative ? start + 1 : start; x < stop; x++) {
+      byte b = payload[x];
+      if (b == '.') {
+        fraction = 0;
+      } else if (b >= '0' && b <= '9') {
+        mantissa = mantissa * 10 + (b - '0');
+        if (mantissa != 0) {
+          digits++;
+        }
+        if (fraction >= 0) {
+          fraction++;
+        }
+      } else {
+        return decodeNumber(node).doubleValue(); // Exponent
+      }
+    }
+    if (digits > 15 || fraction > 22 || fraction < 0) {
+      return decodeNumber(node).doubleValue();
+    }
+    double value = mantissa / POWERS_OF_TEN[fraction];
+    return negative ? -value : value;
+  }
+
+  /**
+   * Builds a Jackson tree from the tape without scanning the document again. Integers are narrowed to the smallest of int, long
+   * or big integer and decimals become doubles, matching what an {@code ObjectMapper} would read.
+   *
+   * @param node the node to start from, 0 for the whole document
+   * @return the tree
+   */
+  JsonNode toTree(int node) {
+    JsonNodeFactory factory = JsonNodeFactory.instance;
+    switch (type(node)) {
+      case OBJECT:
+        ObjectNode objectNode = factory.objectNode();
+        int limit = tape[node + 2];
+        int child = firstChild(node);
+        while (child < limit) {
+          int value = child + NODE_SIZE;
+          objectNode.set(decodeString(child), toTree(value));
+          child = next(value);
+        }
+        return objectNode;
+
+      case ARRAY:
+        ArrayNode arrayNode = factory.arrayNode();
+        for (int entry = firstChild(node); entry < tape[node + 2]; entry = next(entry)) {
+          arrayNode.add(toTree(entry));
+        }
+        return arrayNode;
+
+      case STRING:
+        return factory.textNode(decodeString(node));
+
+      case NUMBER:
+        if (flagged(node)) {
+          return factory.numberNode(doubleValue(node));
+        }
+        Number number = decodeNumber(node);
+        if (number instanceof Long) {
+          long value = number.longValue();
+          return value == (int) value ? factory.numberNode((int) value) : factory.numberNode(value);
+        }
+        return factory.numberNode(new BigInteger(new String(payload, start(node), end(node) - start(node), StandardCharsets.US_ASCII)));
+
+      case TRUE:
+        return factory.booleanNode(true);
+
+      case FALSE:
+        return factory.booleanNode(false);
+
+      default:
+        return factory.nullNode();
+    }
+  }
+
+  //<editor-fold desc="Scanner">
+  private void readValue(int depth) throws IOException {
+    if (depth > MAX_DEPTH) {
+      throw new IOException("JSON document nested too deeply");
+    }
+    skipWhitespace();
+    if (position >= end) {
+      throw new IOException("Unexpected end of JSON document");
+    }
+    byte b = payload[position];
+    switch (b) {
+      case '{':
+        readObject(depth);
+        break;
+      case '[':
+        readArray(depth);
+        break;
+      case '"':
+        readString();
+        break;
+      case 't':
+        readLiteral(TRUE, "true");
+        break;
+      case 'f':
+        readLiteral(FALSE, "false");
+        break;
+      case 'n':
+        readLiteral(NULL, "null");
+        break;
+      default:
+        if (b == '-' || (b >= '0' && b <= '9')) {
+          readNumber();
+        } else {
+          throw new IOException("Unexpected character at " + position);
+        }
+        break;
+    }
+  }
+
+  private void readObject(int depth) throws IOException {
+    int node = addContainer(OBJECT);
+    position++;
+    skipWhitespace();
+    if (position < end && payload[position] == '}') {
+      position++;
+      closeContainer(node);
+      return;
+    }
+    while (true) {
+      skipWhitespace();
+      if (position >= end || payload[position] != '"') {
+        throw new IOException("Expected an object key at " + position);
+      }
+      readString();
+      skipWhitespace();
+      expect(':');
+      readValue(depth + 1);
+      skipWhitespace();
+      if (position < end && payload[position] == ',') {
+        position++;
+        continue;
+      }
+      expect('}');
+      closeContainer(node);
+      return;
+    }
+  }
+
+  private void readArray(int depth) throws IOException {
+    int node = addContainer(ARRAY);
+    position++;
+    skipWhitespace();
+    if (position < end && payload[position] == ']') {
+      position++;
+      closeContainer(node);
+      return;
+    }
+    while (true) {
+      readValue(depth + 1);
+      skipWhitespace();
+      if (position < end && payload[position] == ',') {
+        position++;
+        continue;
+      }
+      expect(']');
+      closeContainer(node);
+      return;
+    }
+  }
+
+  private void readString() throws IOException {
+    int start = ++position;
+    int flags = 0;
+    while (position < end) {
+      byte b = payload[position];
+      if (b == '"') {
+        add(STRING | flags, start, position);
+        position++;
+        return;
+      }
+      if (b == '\\') {
+        flags = ESCAPED;
+        readEscape();
+      } else {
+        position++;
+      }
+    }
+    throw new IOException("Unterminated string at " + start);
+  }
+
+  private void readEscape() throws IOException {
+    int start = position++;
+    if (position >= end) {
+      throw new IOException("Unterminated escape at " + start);
+    }
+    switch (payload[position++]) {
+      case '"':
+      case '\\':
+      case '/':
+      case 'b':
+      case 'f':
+      case 'n':
+      case 'r':
+      case 't':
+        return;
+      case 'u':
+        if (position + 4 > end) {
+          throw new IOException("Invalid unicode escape at " + start);
+        }
+        for (int x = 0; x < 4; x++) {
+          if (Character.digit(payload[position++], 16) < 0) {
+            throw new IOException("Invalid unicode escape at " + start);
+          }
+        }
+        return;
+      default:
+        throw new IOException("Invalid escape at " + start);
+    }
+  }
+
+  /**
+   * Scans a number against the JSON grammar {@code -?(0|[1-9][0-9]*)(.[0-9]+)?([eE][+-]?[0-9]+)?} so the decoders can
+   * rely on the node being well-formed.
+   */
+  private void readNumber() throws IOException {
+    int start = position;
+    int flags = 0;
+    if (payload[position] == '-') {
+      position++;
+    }
+    if (position < end && payload[position] == '0') {
+      position++;
+    } else if (readDigits() == 0) {
+      throw new IOException("Invalid number at " + start);
+    }
+    if (position < end && payload[position] == '.') {
+      flags = DECIMAL;
+      position++;
+      if (readDigits() == 0) {
+        throw new IOException("Invalid number at " + start);
+      }
+    }
+    if (position < end && (payload[position] == 'e' || payload[position] == 'E')) {
+      flags = DECIMAL;
+      position++;
+      if (position < end && (payload[position] == '+' || payload[position] == '-')) {
+        position++;
+      }
+      if (readDigits() == 0) {
+        throw new IOException("Invalid number at " + start);
+      }
+    }
+    add(NUMBER | flags, start, position);
+  }
+
+  private int readDigits() {
+    int start = position;
+    while (position < end && payload[position] >= '0' && payload[position] <= '9') {
+      position++;
+    }
+    return position - start;
+  }
+
+  private void readLiteral(int type, String literal) throws IOException {
+    int start = position;
+    if (end - position < literal.length()) {
+      throw new IOException("Invalid literal at " + start);
+    }
+    for (int x = 0; x < literal.length(); x++) {
+      if (payload[position + x] != literal.charAt(x)) {
+        throw new IOException("Invalid literal at " + start);
+      }
+    }
+    position += literal.length();
+    add(type, start, position);
+  }
+
+  private void expect(char c) throws IOException {
+    if (position >= end || payload[position] != c) {
+      throw new IOException("Expected '" + c + "' at " + position);
+    }
+    position++;
+  }
+
+  private void skipWhitespace() {
+    while (position < end) {
+      byte b = payload[position];
+      if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+        return;
+      }
+      position++;
+    }
+  }
+
+  private void add(int type, int start, int stop) {
+    ensureCapacity(NODE_SIZE);
+    tape[size++] = type;
+    tape[size++] = start;
+    tape[size++] = stop;
+  }
+
+  private int addContainer(int type) {
+    ensureCapacity(CONTAINER_SIZE);
+    int node = size;
+    tape[size++] = type;
+    tape[size++] = position;
+    size += 2; // Filled in by closeContainer
+    return node;
+  }
+
+  private void closeContainer(int node) {
+    tape[node + 2] = size;
+    tape[node + 3] = position;
+  }
+
+  private void ensureCapacity(int required) {
+    if (size + required > tape.length) {
+      tape = Arrays.copyOf(tape, tape.length * 2);
+    }
+  }
+  //</editor-fold>
+}
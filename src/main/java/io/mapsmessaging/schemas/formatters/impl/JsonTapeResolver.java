@@ -0,0 +1,214 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import io.mapsmessaging.schemas.formatters.ParsedObject;
+import io.mapsmessaging.schemas.formatters.walker.FieldPath;
+import io.mapsmessaging.schemas.formatters.walker.StructureWalker;
+import io.mapsmessaging.schemas.formatters.walker.TypedResolver;
+import io.mapsmessaging.schemas.formatters.walker.TypedValues;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves fields of a JSON object directly from a {@link JsonTape}. Nothing is decoded until a field is requested, and
+ * only the requested value is decoded. The referenced object is the raw UTF-8 bytes of the object.
+ */
+final class JsonTapeResolver implements ParsedObject, TypedResolver {
+
+  private final JsonTape tape;
+  private final int node;
+
+  JsonTapeResolver(JsonTape tape, int node) {
+    this.tape = tape;
+    this.node = node;
+  }
+
+  @Override
+  public Object get(String key) {
+    return StructureWalker.locateObject(this, FieldPath.compile(key));
+  }
+
+  @Override
+  public Object get(String name, int index) {
+    int value = tape.find(node, name);
+    if (value < 0) {
+      return null;
+    }
+    if (tape.type(value) == JsonTape.ARRAY) {
+      if (index == FieldPath.Step.NO_INDEX) {
+        return toJava(value);
+      }
+      int entry = tape.element(value, index);
+      return entry < 0 ? null : resolve(entry);
+    }
+    return resolve(value);
+  }
+
+  @Override
+  public boolean isPresent(String name, int index) {
+    int value = valueNode(name, index);
+    return value >= 0 && tape.type(value) != JsonTape.NULL;
+  }
+
+  @Override
+  public long getLong(String name, int index, long defaultValue) {
+    int value = valueNode(name, index);
+    if (value < 0) {
+      return defaultValue;
+    }
+    switch (tape.type(value)) {
+      case JsonTape.NUMBER:
+        return tape.longValue(value);
+      case JsonTape.STRING:
+        return TypedValues.toLong(tape.decodeString(value), defaultValue);
+      default:
+        return defaultValue;
+    }
+  }
+
+  @Override
+  public double getDouble(String name, int index, double defaultValue) {
+    int value = valueNode(name, index);
+    if (value < 0) {
+      return defaultValue;
+    }
+    switch (tape.type(value)) {
+      case JsonTape.NUMBER:
+        return tape.doubleValue(value);
+      case JsonTape.STRING:
+        return TypedValues.toDouble(tape.decodeString(value), defaultValue);
+      default:
+        return defaultValue;
+    }
+  }
+
+  @Override
+  public boolean getBoolean(String name, int index, boolean defaultValue) {
+    int value = valueNode(name, index);
+    if (value < 0) {
+      return defaultValue;
+    }
+    switch (tape.type(value)) {
+      case JsonTape.TRUE:
+        return true;
+      case JsonTape.FALSE:
+        return false;
+      case JsonTape.STRING:
+        return TypedValues.toBoolean(tape.decodeString(value), defaultValue);
+      default:
+        return defaultValue;
+    }
+  }
+
+  @Override
+  public String getString(String name, int index) {
+    int value = valueNode(name, index);
+    if (value < 0) {
+      return null;
+    }
+    switch (tape.type(value)) {
+      case JsonTape.STRING:
+        return tape.decodeString(value);
+      case JsonTape.NUMBER:
+      case JsonTape.TRUE:
+      case JsonTape.FALSE:
+        return new String(tape.payload, tape.start(value), tape.end(value) - tape.start(value), StandardCharsets.US_ASCII);
+      default:
+        return null;
+    }
+  }
+
+  private int valueNode(String name, int index) {
+    int value = tape.find(node, name);
+    if (value >= 0 && index != FieldPath.Step.NO_INDEX && tape.type(value) == JsonTape.ARRAY) {
+      return tape.element(value, index);
+    }
+    return value;
+  }
+
+  @Override
+  public List<String> getKeys() {
+    List<String> keys = new ArrayList<>();
+    int limit = tape.next(node);
+    int child = tape.firstChild(node);
+    while (child < limit) {
+      keys.add(tape.decodeString(child));
+      child = tape.next(child + JsonTape.NODE_SIZE);
+    }
+    return keys;
+  }
+
+  @Override
+  public Object getReferenced() {
+    int start = tape.start(node);
+    int end = tape.containerEnd(node);
+    if (start == 0 && end == tape.payload.length) {
+      return tape.payload;
+    }
+    return Arrays.copyOfRange(tape.payload, start, end);
+  }
+
+  private Object resolve(int value) {
+    if (tape.type(value) == JsonTape.OBJECT) {
+      return new JsonTapeResolver(tape, value);
+    }
+    return toJava(value);
+  }
+
+  private Object toJava(int value) {
+    switch (tape.type(value)) {
+      case JsonTape.STRING:
+        return tape.decodeString(value);
+      case JsonTape.NUMBER:
+        return tape.decodeNumber(value);
+      case JsonTape.TRUE:
+        return Boolean.TRUE;
+      case JsonTape.FALSE:
+        return Boolean.FALSE;
+      case JsonTape.OBJECT:
+        Map<String, Object> map = new LinkedHashMap<>();
+        int limit = tape.next(value);
+        int child = tape.firstChild(value);
+        while (child < limit) {
+          map.put(tape.decodeString(child), toJava(child + JsonTape.NODE_SIZE));
+          child = tape.next(child + JsonTape.NODE_SIZE);
+        }
+        return map;
+      case JsonTape.ARRAY:
+        List<Object> list = new ArrayList<>();
+        int end = tape.next(value);
+        int entry = tape.firstChild(value);
+        while (entry < end) {
+          list.add(toJava(entry));
+          entry = tape.next(entry);
+        }
+        return list;
+      default:
+        return null;
+    }
+  }
+}
@@ -20,80 +20,163 @@
 
 package io.mapsmessaging.schemas.formatters.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.Gson;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.networknt.schema.JsonSchema;
-import com.networknt.schema.JsonSchemaFactory;
-import com.networknt.schema.SpecVersion;
-import com.networknt.schema.ValidationMessage;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.MessagePackSchemaConfig;
+import io.mapsmessaging.schemas.config.impl.SchemaValidationConfig;
 import io.mapsmessaging.schemas.formatters.MessageFormatter;
 import io.mapsmessaging.schemas.formatters.ParsedObject;
+import io.mapsmessaging.schemas.formatters.Projection;
+import io.mapsmessaging.schemas.formatters.validation.CompiledJsonSchema;
+import io.mapsmessaging.schemas.formatters.validation.JsonSchemaCache;
+import io.mapsmessaging.schemas.formatters.validation.SchemaValidator;
 import io.mapsmessaging.schemas.formatters.walker.MapResolver;
 import io.mapsmessaging.schemas.formatters.walker.StructuredResolver;
+import lombok.Getter;
 import org.msgpack.jackson.dataformat.MessagePackFactory;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Map;
-import java.util.Set;
 
 import static io.mapsmessaging.schemas.logging.SchemaLogMessages.FORMATTER_UNEXPECTED_OBJECT;
-import static io.mapsmessaging.schemas.logging.SchemaLogMessages.JSON_PARSE_EXCEPTION;
 
+/**
+ * The type MessagePack formatter. Messages are resolved by a cursor over the encoded bytes, so only the entries that are
+ * requested are decoded. The cursor needs the bytes in an array, so a direct buffer is copied to the heap once when it
+ * is parsed. msgpack-core can only read direct memory in place through JDK internals that are not exported by default,
+ * and streaming it would copy the entry bytes again on every lookup.
+ */
 public class MessagePackFormatter extends MessageFormatter {
 
+  private static final MessagePackFactory MESSAGE_PACK_FACTORY = new MessagePackFactory();
+  private static final ObjectMapper MESSAGE_PACK_MAPPER = new ObjectMapper(MESSAGE_PACK_FACTORY);
+  private static final ObjectWriter MESSAGE_PACK_WRITER = MESSAGE_PACK_MAPPER.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
   private final JsonNode schemaNode;
-  private final JsonSchema schema;
+  @Getter
+  private final SchemaValidator validator;
 
   public MessagePackFormatter() {
     schemaNode = null;
-    schema = null;
+    validator = null;
   }
 
   public MessagePackFormatter(String schemaString) throws IOException {
-    ObjectMapper objectMapper = new ObjectMapper();
-    schemaNode = objectMapper.readTree(schemaString);
-    schema = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7).getSchema(schemaNode);
+    this(schemaString, null);
+  }
+
+  public MessagePackFormatter(String schemaString, SchemaValidationConfig validation) throws IOException {
+    CompiledJsonSchema compiled = JsonSchemaCache.get(schemaString);
+    schemaNode = compiled.getSchemaNode();
+    validator = compiled.isValidating() ? new SchemaValidator(getName(), compiled, validation) : null;
   }
 
   @Override
   public ParsedObject parse(byte[] payload) {
+    return parse(payload, 0, payload.length);
+  }
+
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length) {
     try {
-      ObjectMapper messagePackMapper = new ObjectMapper(new MessagePackFactory());
-      Map<String, Object> map = messagePackMapper.readValue(payload, Map.class);
-
-      if (schema != null) {
-        JsonNode node = messagePackMapper.readTree(payload);
-        Set<ValidationMessage> validationResult = schema.validate(node);
-        if (!validationResult.isEmpty()) {
-          logger.log(JSON_PARSE_EXCEPTION, getName(), validationResult);
-          return new DefaultParser(payload);
-        }
+      // Always resolve with the cursor, so values have the same types whether or not the message is validated
+      if (validator == null || !validator.select()) {
+        return MessagePackResolver.create(payload, offset, length);
+      }
+      if (validator.isAsync()) {
+        // The payload may be reused once parse returns, so the queued validation reads its own copy
+        ParsedObject resolver = MessagePackResolver.create(payload, offset, length);
+        byte[] document = Arrays.copyOfRange(payload, offset, offset + length);
+        validator.validate(() -> MESSAGE_PACK_MAPPER.readTree(document));
+        return resolver;
       }
+      // Checking the map and building the tree for the validator is a single pass over the payload
+      JsonNode tree = MessagePackResolver.readTree(payload, offset, length);
+      if (!validator.validate(() -> tree)) {
+        return new DefaultParser(payload, offset, length);
+      }
+      return MessagePackResolver.wrap(payload, offset, length);
+    } catch (Exception e) {
+      logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
+      return new DefaultParser(payload, offset, length);
+    }
+  }
 
-      Gson gson = new Gson();
-      JsonObject json = gson.toJsonTree(map).getAsJsonObject();
-      return new StructuredResolver(new MapResolver(map), json);
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length, Projection projection) {
+    if (validator != null) {
+      return parse(payload, offset, length); // Validation needs the entire document
+    }
+    try {
+      Map<String, Object> map = ProjectionReader.read(MESSAGE_PACK_FACTORY, payload, offset, length, projection, ProjectionReader.CURSOR_NUMBERS);
+      return new StructuredResolver(new MapResolver(map), map);
     } catch (Exception e) {
       logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
-      return new DefaultParser(payload);
+      return new DefaultParser(payload, offset, length);
     }
   }
 
   @Override
   public JsonObject parseToJson(byte[] payload) throws IOException {
-    ObjectMapper messagePackMapper = new ObjectMapper(new MessagePackFactory());
-    Map<String, Object> map = messagePackMapper.readValue(payload, Map.class);
-    return JsonParser.parseString(new Gson().toJson(map)).getAsJsonObject();
+    return parseToJson(payload, 0, payload.length);
+  }
+
+  @Override
+  public JsonObject parseToJson(byte[] payload, int offset, int length) throws IOException {
+    Map<String, Object> map = MESSAGE_PACK_MAPPER.readValue(payload, offset, length, Map.class);
+    return gson.toJsonTree(map).getAsJsonObject();
+  }
+
+  @Override
+  public JsonObject parseToJson(ByteBuffer buffer) throws IOException {
+    if (buffer.hasArray()) {
+      return super.parseToJson(buffer);
+    }
+    Map<String, Object> map = MESSAGE_PACK_MAPPER.readValue(new ByteBufferBackedInputStream(buffer.duplicate()), Map.class);
+    return gson.toJsonTree(map).getAsJsonObject();
+  }
+
+  @Override
+  public void pack(Map<String, Object> values, OutputStream outputStream) throws IOException {
+    MESSAGE_PACK_WRITER.writeValue(outputStream, values);
+  }
+
+  @Override
+  public void pack(ParsedObject parsedObject, OutputStream outputStream) throws IOException {
+    Object referenced = parsedObject.getReferenced();
+    if (referenced instanceof JsonNode) {
+      MESSAGE_PACK_WRITER.writeValue(outputStream, referenced);
+    } else {
+      super.pack(parsedObject, outputStream);
+    }
+  }
+
+  @Override
+  protected void writeEvents(byte[] payload, int offset, int length, JsonGenerator generator) throws IOException {
+    if (validator != null) {
+      super.writeEvents(payload, offset, length, generator); // Parse so the document is validated
+    } else {
+      copyEvents(MESSAGE_PACK_FACTORY, payload, offset, length, generator);
+    }
+  }
+
+  @Override
+  protected JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+    return MESSAGE_PACK_FACTORY.createGenerator(outputStream).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
   }
 
   @Override
   public MessageFormatter getInstance(SchemaConfig config) throws IOException {
-    return new MessagePackFormatter(((MessagePackSchemaConfig) config).getSchema());
+    MessagePackSchemaConfig messagePackSchemaConfig = (MessagePackSchemaConfig) config;
+    return new MessagePackFormatter(messagePackSchemaConfig.getSchema(), messagePackSchemaConfig.getValidation());
   }
 
   @Override
@@ -0,0 +1,429 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.mapsmessaging.schemas.formatters.ParsedObject;
+import io.mapsmessaging.schemas.formatters.walker.FieldPath;
+import io.mapsmessaging.schemas.formatters.walker.StructureWalker;
+import io.mapsmessaging.schemas.formatters.walker.TypedResolver;
+import io.mapsmessaging.schemas.formatters.walker.TypedValues;
+import org.msgpack.core.MessageFormat;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessageUnpacker;
+import org.msgpack.value.IntegerValue;
+import org.msgpack.value.ValueType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves fields of a MessagePack map by walking the encoded bytes with a {@link MessageUnpacker}. Entries that are not
+ * requested are skipped without being decoded, nested maps are resolved over the same bytes and binary or extension
+ * values are returned as read only {@link ByteBuffer} slices of the payload.
+ */
+final class MessagePackResolver implements ParsedObject, TypedResolver {
+
+  private final byte[] payload;
+  private final int offset;
+  private final int length;
+
+  /**
+   * Checks that the payload holds a single, well formed MessagePack map and returns a resolver for it.
+   *
+   * @param payload the payload
+   * @param offset the offset of the map
+   * @param length the length of the map
+   * @return the resolver
+   * @throws IOException if the payload is not a MessagePack map
+   */
+  static MessagePackResolver create(byte[] payload, int offset, int length) throws IOException {
+    try (MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(payload, offset, length)) {
+      if (!unpacker.hasNext() || unpacker.getNextFormat().getValueType() != ValueType.MAP) {
+        throw new IOException("Expected a MessagePack map");
+      }
+      unpacker.skipValue();
+      if (unpacker.getTotalReadBytes() != length) {
+        throw new IOException("Unexpected data after the MessagePack map");
+      }
+    }
+    return new MessagePackResolver(payload, offset, length);
+  }
+
+  /**
+   * Checks the payload as {@link #create(byte[], int, int)} does and decodes the map into a Jackson tree in the same pass,
+   * so a validated message is only read once.
+   *
+   * @param payload the payload
+   * @param offset the offset of the map
+   * @param length the length of the map
+   * @return the tree
+   * @throws IOException if the payload is not a MessagePack map
+   */
+  static JsonNode readTree(byte[] payload, int offset, int length) throws IOException {
+    try (MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(payload, offset, length)) {
+      if (!unpacker.hasNext() || unpacker.getNextFormat().getValueType() != ValueType.MAP) {
+        throw new IOException("Expected a MessagePack map");
+      }
+      JsonNode tree = toTree(unpacker);
+      if (unpacker.getTotalReadBytes() != length) {
+        throw new IOException("Unexpected data after the MessagePack map");
+      }
+      return tree;
+    }
+  }
+
+  /**
+   * Gets a resolver for a payload that has already been checked by {@link #readTree(byte[], int, int)}.
+   *
+   * @param payload the payload
+   * @param offset the offset of the map
+   * @param length the length of the map
+   * @return the resolver
+   */
+  static MessagePackResolver wrap(byte[] payload, int offset, int length) {
+    return new MessagePackResolver(payload, offset, length);
+  }
+
+  private MessagePackResolver(byte[] payload, int offset, int length) {
+    this.payload = payload;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  @Override
+  public Object get(String key) {
+    return StructureWalker.locateObject(this, FieldPath.compile(key));
+  }
+
+  @Override
+  public Object get(String name, int index) {
+    try (MessageUnpacker unpacker = seek(name, index)) {
+      return unpacker != null ? readValue(unpacker) : null;
+    } catch (IOException e) {
+      // The map was checked when the resolver was created, so treat any failure here as not found
+      return null;
+    }
+  }
+
+  @Override
+  public boolean isPresent(String name, int index) {
+    try (MessageUnpacker unpacker = seek(name, index)) {
+      return unpacker != null && unpacker.getNextFormat().getValueType() != ValueType.NIL;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public long getLong(String name, int index, long defaultValue) {
+    try (MessageUnpacker unpacker = seek(name, index)) {
+      if (unpacker == null) {
+        return defaultValue;
+      }
+      MessageFormat format = unpacker.getNextFormat();
+      switch (format.getValueType()) {
+        case INTEGER:
+          return format == MessageFormat.UINT64 ? unpacker.unpackBigInteger().longValue() : unpacker.unpackLong();
+        case FLOAT:
+          return (long) unpacker.unpackDouble();
+        case STRING:
+          return TypedValues.toLong(unpacker.unpackString(), defaultValue);
+        default:
+          return defaultValue;
+      }
+    } catch (IOException e) {
+      return defaultValue;
+    }
+  }
+
+  @Override
+  public double getDouble(String name, int index, double defaultValue) {
+    try (MessageUnpacker unpacker = seek(name, index)) {
+      if (unpacker == null) {
+        return defaultValue;
+      }
+      MessageFormat format = unpacker.getNextFormat();
+      switch (format.getValueType()) {
+        case INTEGER:
+          return format == MessageFormat.UINT64 ? unpacker.unpackBigInteger().doubleValue() : unpacker.unpackLong();
+        case FLOAT:
+          return unpacker.unpackDouble();
+        case STRING:
+          return TypedValues.toDouble(unpacker.unpackString(), defaultValue);
+        default:
+          return defaultValue;
+      }
+    } catch (IOException e) {
+      return defaultValue;
+    }
+  }
+
+  @Override
+  public boolean getBoolean(String name, int index, boolean defaultValue) {
+    try (MessageUnpacker unpacker = seek(name, index)) {
+      if (unpacker == null) {
+        return defaultValue;
+      }
+      switch (unpacker.getNextFormat().getValueType()) {
+        case BOOLEAN:
+          return unpacker.unpackBoolean();
+        case STRING:
+          return TypedValues.toBoolean(unpacker.unpackString(), defaultValue);
+        default:
+          return defaultValue;
+      }
+    } catch (IOException e) {
+      return defaultValue;
+    }
+  }
+
+  @Override
+  public String getString(String name, int index) {
+    try (MessageUnpacker unpacker = seek(name, index)) {
+      if (unpacker == null) {
+        return null;
+      }
+      switch (unpacker.getNextFormat().getValueType()) {
+        case STRING:
+          return unpacker.unpackString();
+        case INTEGER:
+        case FLOAT:
+        case BOOLEAN:
+          return TypedValues.toString(toJava(unpacker));
+        default:
+          return null;
+      }
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Positions a new unpacker at the value of the named entry, or at the indexed entry if the value is an array.
+   *
+   * @param name the key
+   * @param index the array index or {@link FieldPath.Step#NO_INDEX}
+   * @return the unpacker, which the caller must close, or null if the entry was not found
+   * @throws IOException if the map could not be read
+   */
+  private MessageUnpacker seek(String name, int index) throws IOException {
+    byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(payload, offset, length);
+    try {
+      int size = unpacker.unpackMapHeader();
+      for (int x = 0; x < size; x++) {
+        if (keyEquals(unpacker, nameBytes, name)) {
+          if (index == FieldPath.Step.NO_INDEX || unpacker.getNextFormat().getValueType() != ValueType.ARRAY) {
+            return unpacker;
+          }
+          if (index < unpacker.unpackArrayHeader()) {
+            unpacker.skipValue(index);
+            return unpacker;
+          }
+          break;
+        }
+        unpacker.skipValue();
+      }
+    } catch (IOException e) {
+      unpacker.close();
+      throw e;
+    }
+    unpacker.close();
+    return null;
+  }
+
+  @Override
+  public List<String> getKeys() {
+    List<String> keys = new ArrayList<>();
+    try (MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(payload, offset, length)) {
+      int size = unpacker.unpackMapHeader();
+      for (int x = 0; x < size; x++) {
+        keys.add(readKey(unpacker));
+        unpacker.skipValue();
+      }
+    } catch (IOException e) {
+      // Return the keys found so far
+    }
+    return keys;
+  }
+
+  @Override
+  public Object getReferenced() {
+    if (offset == 0 && length == payload.length) {
+      return payload;
+    }
+    return Arrays.copyOfRange(payload, offset, offset + length);
+  }
+
+  private boolean keyEquals(MessageUnpacker unpacker, byte[] nameBytes, String name) throws IOException {
+    if (unpacker.getNextFormat().getValueType() != ValueType.STRING) {
+      return name.equals(unpacker.unpackValue().toString());
+    }
+    int len = unpacker.unpackRawStringHeader();
+    int start = position(unpacker);
+    unpacker.readPayloadAsReference(len);
+    return Arrays.equals(payload, start, start + len, nameBytes, 0, nameBytes.length);
+  }
+
+  private String readKey(MessageUnpacker unpacker) throws IOException {
+    if (unpacker.getNextFormat().getValueType() == ValueType.STRING) {
+      return unpacker.unpackString();
+    }
+    return unpacker.unpackValue().toString();
+  }
+
+  private Object readValue(MessageUnpacker unpacker) throws IOException {
+    if (unpacker.getNextFormat().getValueType() == ValueType.MAP) {
+      int start = position(unpacker);
+      unpacker.skipValue();
+      return new MessagePackResolver(payload, start, position(unpacker) - start);
+    }
+    return toJava(unpacker);
+  }
+
+  private Object toJava(MessageUnpacker unpacker) throws IOException {
+    MessageFormat format = unpacker.getNextFormat();
+    switch (format.getValueType()) {
+      case NIL:
+        unpacker.unpackNil();
+        return null;
+
+      case BOOLEAN:
+        return unpacker.unpackBoolean();
+
+      case INTEGER:
+        if (format == MessageFormat.UINT64) {
+          IntegerValue value = unpacker.unpackValue().asIntegerValue();
+          return value.isInLongRange() ? (Object) value.toLong() : value.toBigInteger();
+        }
+        return unpacker.unpackLong();
+
+      case FLOAT:
+        if (format == MessageFormat.FLOAT32) {
+          return unpacker.unpackFloat();
+        }
+        return unpacker.unpackDouble();
+
+      case STRING:
+        return unpacker.unpackString();
+
+      case BINARY:
+        return slice(unpacker, unpacker.unpackBinaryHeader());
+
+      case EXTENSION:
+        return slice(unpacker, unpacker.unpackExtensionTypeHeader().getLength());
+
+      case ARRAY:
+        int size = unpacker.unpackArrayHeader();
+        List<Object> list = new ArrayList<>(size);
+        for (int x = 0; x < size; x++) {
+          list.add(toJava(unpacker));
+        }
+        return list;
+
+      case MAP:
+        int entries = unpacker.unpackMapHeader();
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int x = 0; x < entries; x++) {
+          map.put(readKey(unpacker), toJava(unpacker));
+        }
+        return map;
+
+      default:
+        unpacker.skipValue();
+        return null;
+    }
+  }
+
+  private static JsonNode toTree(MessageUnpacker unpacker) throws IOException {
+    JsonNodeFactory factory = JsonNodeFactory.instance;
+    MessageFormat format = unpacker.getNextFormat();
+    switch (format.getValueType()) {
+      case NIL:
+        unpacker.unpackNil();
+        return factory.nullNode();
+
+      case BOOLEAN:
+        return factory.booleanNode(unpacker.unpackBoolean());
+
+      case INTEGER:
+        if (format == MessageFormat.UINT64) {
+          IntegerValue value = unpacker.unpackValue().asIntegerValue();
+          return value.isInLongRange() ? factory.numberNode(value.toLong()) : factory.numberNode(value.toBigInteger());
+        }
+        long value = unpacker.unpackLong();
+        return value == (int) value ? factory.numberNode((int) value) : factory.numberNode(value);
+
+      case FLOAT:
+        return factory.numberNode(unpacker.unpackDouble());
+
+      case STRING:
+        return factory.textNode(unpacker.unpackString());
+
+      case BINARY:
+        return factory.binaryNode(unpacker.readPayload(unpacker.unpackBinaryHeader()));
+
+      case EXTENSION:
+        return factory.binaryNode(unpacker.readPayload(unpacker.unpackExtensionTypeHeader().getLength()));
+
+      case ARRAY:
+        int size = unpacker.unpackArrayHeader();
+        ArrayNode arrayNode = factory.arrayNode(size);
+        for (int x = 0; x < size; x++) {
+          arrayNode.add(toTree(unpacker));
+        }
+        return arrayNode;
+
+      case MAP:
+        int entries = unpacker.unpackMapHeader();
+        ObjectNode objectNode = factory.objectNode();
+        for (int x = 0; x < entries; x++) {
+          String key = unpacker.getNextFormat().getValueType() == ValueType.STRING ? unpacker.unpackString() : unpacker.unpackValue().toString();
+          objectNode.set(key, toTree(unpacker));
+        }
+        return objectNode;
+
+      default:
+        unpacker.skipValue();
+        return factory.nullNode();
+    }
+  }
+
+  private ByteBuffer slice(MessageUnpacker unpacker, int len) throws IOException {
+    int start = position(unpacker);
+    unpacker.readPayloadAsReference(len);
+    return ByteBuffer.wrap(payload, start, len).slice().asReadOnlyBuffer();
+  }
+
+  private int position(MessageUnpacker unpacker) {
+    return offset + (int) unpacker.getTotalReadBytes();
+  }
+}
@@ -20,14 +20,26 @@
 
 package io.mapsmessaging.schemas.formatters.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.gson.JsonObject;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.NativeSchemaConfig;
 import io.mapsmessaging.schemas.config.impl.NativeSchemaConfig.TYPE;
 import io.mapsmessaging.schemas.formatters.MessageFormatter;
 import io.mapsmessaging.schemas.formatters.ParsedObject;
+import io.mapsmessaging.schemas.formatters.walker.FieldPath;
+import io.mapsmessaging.schemas.formatters.walker.TypedValues;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Map;
 
 import static io.mapsmessaging.schemas.logging.SchemaLogMessages.FORMATTER_UNEXPECTED_OBJECT;
@@ -51,16 +63,30 @@ public class NativeFormatter extends MessageFormatter {
   }
 
   /**
-   * Instantiates a new Native formatter.
+   * Instantiates a new little endian Native formatter.
    *
    * @param type the type
    * @throws IOException the io exception
    */
   public NativeFormatter(TYPE type) throws IOException {
+    this(type, ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Instantiates a new Native formatter.
+   *
+   * @param type the type
+   * @param byteOrder the byte order of the binary numeric types
+   * @throws IOException the io exception
+   */
+  public NativeFormatter(TYPE type, ByteOrder byteOrder) throws IOException {
     this.type = type;
     if (type == null) {
       throw new IOException("Invalid type specified");
     }
+    if (byteOrder == null) {
+      byteOrder = ByteOrder.LITTLE_ENDIAN;
+    }
     switch (type) {
       default:
       case STRING:
@@ -72,68 +98,148 @@ public class NativeFormatter extends MessageFormatter {
         break;
 
       case INT64:
-        encoderDecoder = new IntEncoderDecoder(8);
+        encoderDecoder = new IntEncoderDecoder(8, byteOrder);
         break;
 
       case INT32:
-        encoderDecoder = new IntEncoderDecoder(4);
+        encoderDecoder = new IntEncoderDecoder(4, byteOrder);
         break;
 
       case INT16:
-        encoderDecoder = new IntEncoderDecoder(2);
+        encoderDecoder = new IntEncoderDecoder(2, byteOrder);
         break;
 
       case INT8:
-        encoderDecoder = new IntEncoderDecoder(1);
+        encoderDecoder = new IntEncoderDecoder(1, byteOrder);
         break;
 
       case FLOAT:
-        encoderDecoder = new FloatEncoderDecoder();
+        encoderDecoder = new FloatEncoderDecoder(byteOrder);
         break;
 
       case DOUBLE:
-        encoderDecoder = new DoubleEncoderDecoder();
+        encoderDecoder = new DoubleEncoderDecoder(byteOrder);
+        break;
+
+      case INT8_ARRAY:
+        encoderDecoder = new ByteArrayEncoderDecoder();
+        break;
+
+      case INT16_ARRAY:
+        encoderDecoder = new ShortArrayEncoderDecoder(byteOrder);
+        break;
+
+      case INT32_ARRAY:
+        encoderDecoder = new IntArrayEncoderDecoder(byteOrder);
+        break;
+
+      case INT64_ARRAY:
+        encoderDecoder = new LongArrayEncoderDecoder(byteOrder);
+        break;
+
+      case FLOAT_ARRAY:
+        encoderDecoder = new FloatArrayEncoderDecoder(byteOrder);
+        break;
+
+      case DOUBLE_ARRAY:
+        encoderDecoder = new DoubleArrayEncoderDecoder(byteOrder);
         break;
     }
   }
 
-  private static long readFromByteArray(byte[] payload, int size) {
+  /**
+   * Reads a signed integer of the given size. Payloads shorter than the size are read a byte at a time, in little endian
+   * the bytes present are the least significant and in big endian they are right aligned.
+   */
+  private static long readFromByteArray(byte[] payload, int offset, int length, int size, VarHandle handle, ByteOrder order) {
+    if (length >= size) {
+      switch (size) {
+        case 8:
+          return (long) handle.get(payload, offset);
+        case 4:
+          return (int) handle.get(payload, offset);
+        case 2:
+          return (short) handle.get(payload, offset);
+        default:
+          return payload[offset];
+      }
+    }
     long val = 0;
     int x = 0;
-    while (x < payload.length && x < size) {
-      long t = (payload[x] & 0xff);
-      t = t << (x * 8);
-      val = val | t;
+    while (x < length) {
+      long t = (payload[offset + x] & 0xff);
+      if (order == ByteOrder.LITTLE_ENDIAN) {
+        val = val | (t << (x * 8));
+      } else {
+        val = (val << 8) | t;
+      }
       x++;
     }
     return val;
   }
 
+  private static VarHandle integerView(int size, ByteOrder order) {
+    switch (size) {
+      case 8:
+        return MethodHandles.byteArrayViewVarHandle(long[].class, order);
+      case 4:
+        return MethodHandles.byteArrayViewVarHandle(int[].class, order);
+      case 2:
+        return MethodHandles.byteArrayViewVarHandle(short[].class, order);
+      default:
+        return null;
+    }
+  }
+
   @Override
   public ParsedObject parse(byte[] payload) {
-    return new ParsedObject() {
-      @Override
-      public Object getReferenced() {
-        return payload;
-      }
+    return parse(payload, 0, payload.length);
+  }
 
-      @Override
-      public Object get(String s) {
-        try {
-          return encoderDecoder != null ? encoderDecoder.decode(payload) : null;
-        } catch (Exception e) {
-          logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
-          return null;
-        }
-      }
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length) {
+    return new NativeParsedObject(payload, offset, length, null);
+  }
 
-    };
+  /**
+   * The scalar types only decode their leading bytes, so a direct buffer longer than the scalar is parsed from a copy of
+   * just those bytes. The rest of the message is copied only if the referenced bytes are requested.
+   */
+  @Override
+  public ParsedObject parse(ByteBuffer buffer) {
+    int width = encoderDecoder != null ? encoderDecoder.width() : -1;
+    if (buffer.hasArray() || width < 0 || buffer.remaining() <= width) {
+      return super.parse(buffer);
+    }
+    byte[] scalar = new byte[width];
+    buffer.duplicate().get(scalar);
+    return new NativeParsedObject(scalar, 0, width, buffer.slice());
   }
 
   @Override
   public JsonObject parseToJson(byte[] payload) throws IOException {
+    return toJson(parse(payload));
+  }
+
+  @Override
+  public JsonObject parseToJson(byte[] payload, int offset, int length) throws IOException {
+    return toJson(parse(payload, offset, length));
+  }
+
+  @Override
+  protected void writeEvents(byte[] payload, int offset, int length, JsonGenerator generator) throws IOException {
+    Object value = parse(payload, offset, length).get(VALUE);
+    generator.writeStartObject();
+    if (value != null) {
+      generator.writeFieldName(VALUE);
+      writeValue(generator, value);
+    }
+    generator.writeEndObject();
+  }
+
+  private JsonObject toJson(ParsedObject parsedObject) {
     JsonObject jsonObject = new JsonObject();
-    Object value = parse(payload).get(VALUE);
+    Object value = parsedObject.get(VALUE);
     if (value != null) {
       jsonObject.add(VALUE, gson.toJsonTree(value));
     } else {
@@ -143,10 +249,56 @@ public class NativeFormatter extends MessageFormatter {
     return jsonObject;
   }
 
+  /**
+   * Encodes the "value" entry. The array types accept a primitive array, an object array or a list of numbers.
+   */
+  @Override
+  public void pack(Map<String, Object> values, OutputStream outputStream) throws IOException {
+    pack(values.get(VALUE), outputStream);
+  }
+
+  @Override
+  public void pack(ParsedObject parsedObject, OutputStream outputStream) throws IOException {
+    pack(parsedObject.get(VALUE), outputStream);
+  }
+
+  private void pack(Object value, OutputStream outputStream) throws IOException {
+    if (encoderDecoder == null) {
+      throw new IOException(getName() + " formatter has no type to encode");
+    }
+    if (value == null) {
+      throw new IOException("No value supplied");
+    }
+    encoderDecoder.encode(value, outputStream);
+  }
+
+  private static long toLong(Object value) throws IOException {
+    if (value instanceof Number) {
+      return ((Number) value).longValue();
+    }
+    try {
+      return Long.parseLong(value.toString().trim());
+    } catch (NumberFormatException e) {
+      throw new IOException("Value is not an integer " + value, e);
+    }
+  }
+
+  private static double toDouble(Object value) throws IOException {
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    try {
+      return Double.parseDouble(value.toString().trim());
+    } catch (NumberFormatException e) {
+      throw new IOException("Value is not numeric " + value, e);
+    }
+  }
+
   @Override
   public MessageFormatter getInstance(SchemaConfig config) throws IOException {
     NativeSchemaConfig schemaConfig = (NativeSchemaConfig) config;
-    return new NativeFormatter(schemaConfig.getType());
+    NativeSchemaConfig.BYTE_ORDER byteOrder = schemaConfig.getByteOrder();
+    return new NativeFormatter(schemaConfig.getType(), byteOrder != null ? byteOrder.toByteOrder() : ByteOrder.LITTLE_ENDIAN);
   }
 
   @Override
@@ -168,6 +320,108 @@ public class NativeFormatter extends MessageFormatter {
     );
   }
 
+  /**
+   * The parsed native value, every key resolves to the single value. For the array types a key with an index, such as
+   * "value[3]", resolves to that element, which is read directly from the payload. The typed accessors decode straight
+   * to the primitive without boxing.
+   */
+  private final class NativeParsedObject implements ParsedObject {
+
+    private final byte[] payload;
+    private final int offset;
+    private final int length;
+    private final ByteBuffer message;
+
+    private NativeParsedObject(byte[] payload, int offset, int length, ByteBuffer message) {
+      this.payload = payload;
+      this.offset = offset;
+      this.length = length;
+      this.message = message;
+    }
+
+    @Override
+    public Object getReferenced() {
+      if (message != null) {
+        return copy(message); // Only the scalar was copied when parsing
+      }
+      if (offset == 0 && length == payload.length) {
+        return payload;
+      }
+      return Arrays.copyOfRange(payload, offset, offset + length);
+    }
+
+    @Override
+    public Object get(String s) {
+      try {
+        if (encoderDecoder instanceof ArrayEncoderDecoder && hasIndex(s)) {
+          ArrayEncoderDecoder array = (ArrayEncoderDecoder) encoderDecoder;
+          int position = array.position(offset, length, index(s));
+          return position >= 0 ? array.element(payload, position) : null;
+        }
+        return encoderDecoder != null ? encoderDecoder.decode(payload, offset, length) : null;
+      } catch (Exception e) {
+        logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
+        return null;
+      }
+    }
+
+    @Override
+    public boolean isPresent(String key) {
+      if (encoderDecoder instanceof ArrayEncoderDecoder && hasIndex(key)) {
+        return ((ArrayEncoderDecoder) encoderDecoder).position(offset, length, index(key)) >= 0;
+      }
+      return encoderDecoder != null;
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+      try {
+        if (encoderDecoder instanceof ArrayEncoderDecoder && hasIndex(key)) {
+          ArrayEncoderDecoder array = (ArrayEncoderDecoder) encoderDecoder;
+          int position = array.position(offset, length, index(key));
+          return position >= 0 ? array.elementLong(payload, position) : defaultValue;
+        }
+        return encoderDecoder != null ? encoderDecoder.decodeLong(payload, offset, length, defaultValue) : defaultValue;
+      } catch (Exception e) {
+        logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
+        return defaultValue;
+      }
+    }
+
+    @Override
+    public double getDouble(String key, double defaultValue) {
+      try {
+        if (encoderDecoder instanceof ArrayEncoderDecoder && hasIndex(key)) {
+          ArrayEncoderDecoder array = (ArrayEncoderDecoder) encoderDecoder;
+          int position = array.position(offset, length, index(key));
+          return position >= 0 ? array.elementDouble(payload, position) : defaultValue;
+        }
+        return encoderDecoder != null ? encoderDecoder.decodeDouble(payload, offset, length, defaultValue) : defaultValue;
+      } catch (Exception e) {
+        logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
+        return defaultValue;
+      }
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+      return TypedValues.toBoolean(get(key), defaultValue);
+    }
+
+    @Override
+    public String getString(String key) {
+      return TypedValues.toString(get(key));
+    }
+
+    private boolean hasIndex(String key) {
+      return key.endsWith("]");
+    }
+
+    private int index(String key) {
+      FieldPath path = FieldPath.compile(key);
+      return path.getStep(path.size() - 1).getIndex();
+    }
+  }
 
   /**
    * The interface Native encoder decoder.
@@ -178,9 +432,55 @@ public class NativeFormatter extends MessageFormatter {
      * Decode object.
      *
      * @param payload the payload
+     * @param offset the offset of the value
+     * @param length the number of bytes holding the value
      * @return the object
      */
-    Object decode(byte[] payload);
+    Object decode(byte[] payload, int offset, int length);
+
+    /**
+     * Encode the value and write it to the stream.
+     *
+     * @param value the value
+     * @param outputStream the stream to write to
+     * @throws IOException if the value does not match the type or could not be written
+     */
+    void encode(Object value, OutputStream outputStream) throws IOException;
+
+    /**
+     * Decode the value as a long.
+     *
+     * @param payload the payload
+     * @param offset the offset of the value
+     * @param length the number of bytes holding the value
+     * @param defaultValue the value returned if the value is not numeric
+     * @return the long
+     */
+    default long decodeLong(byte[] payload, int offset, int length, long defaultValue) {
+      return TypedValues.toLong(decode(payload, offset, length), defaultValue);
+    }
+
+    /**
+     * Decode the value as a double.
+     *
+     * @param payload the payload
+     * @param offset the offset of the value
+     * @param length the number of bytes holding the value
+     * @param defaultValue the value returned if the value is not numeric
+     * @return the double
+     */
+    default double decodeDouble(byte[] payload, int offset, int length, double defaultValue) {
+      return TypedValues.toDouble(decode(payload, offset, length), defaultValue);
+    }
+
+    /**
+     * Gets the number of leading bytes the value is decoded from, any bytes after them are ignored.
+     *
+     * @return the width or -1 if the value is decoded from the whole payload
+     */
+    default int width() {
+      return -1;
+    }
   }
 
   /**
@@ -189,8 +489,13 @@ public class NativeFormatter extends MessageFormatter {
   static class StringEncoderDecoder implements NativeEncoderDecoder {
 
     @Override
-    public Object decode(byte[] payload) {
-      return new String(payload);
+    public Object decode(byte[] payload, int offset, int length) {
+      return new String(payload, offset, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void encode(Object value, OutputStream outputStream) throws IOException {
+      outputStream.write(value.toString().getBytes(StandardCharsets.UTF_8));
     }
 
   }
@@ -201,8 +506,8 @@ public class NativeFormatter extends MessageFormatter {
   static class StringNumericEncoderDecoder implements NativeEncoderDecoder {
 
     @Override
-    public Object decode(byte[] payload) {
-      String val = new String(payload).trim();
+    public Object decode(byte[] payload, int offset, int length) {
+      String val = new String(payload, offset, length, StandardCharsets.UTF_8).trim();
       if (val.equals("NaN")) {
         return Double.NaN;
       }
@@ -211,6 +516,12 @@ public class NativeFormatter extends MessageFormatter {
       }
       return Long.parseLong(val);
     }
+
+    @Override
+    public void encode(Object value, OutputStream outputStream) throws IOException {
+      Object number = value instanceof Number ? value : toDouble(value);
+      outputStream.write(number.toString().getBytes(StandardCharsets.UTF_8));
+    }
   }
 
   /**
@@ -219,19 +530,70 @@ public class NativeFormatter extends MessageFormatter {
   static class IntEncoderDecoder implements NativeEncoderDecoder {
 
     private final int size;
+    private final ByteOrder order;
+    private final VarHandle handle;
 
     /**
      * Instantiates a new Int encoder decoder.
      *
      * @param size the size
+     * @param order the byte order
      */
-    public IntEncoderDecoder(int size) {
+    public IntEncoderDecoder(int size, ByteOrder order) {
       this.size = size;
+      this.order = order;
+      this.handle = integerView(size, order);
     }
 
     @Override
-    public Object decode(byte[] payload) {
-      long result = readFromByteArray(payload, size);
+    public long decodeLong(byte[] payload, int offset, int length, long defaultValue) {
+      long result = readFromByteArray(payload, offset, length, size, handle, order);
+      switch (size) {
+        case 4:
+          return (int) result;
+        case 2:
+          return (short) result;
+        case 1:
+          return (byte) result;
+        default:
+          return result;
+      }
+    }
+
+    @Override
+    public double decodeDouble(byte[] payload, int offset, int length, double defaultValue) {
+      return decodeLong(payload, offset, length, 0);
+    }
+
+    @Override
+    public int width() {
+      return size;
+    }
+
+    @Override
+    public void encode(Object value, OutputStream outputStream) throws IOException {
+      long val = toLong(value);
+      byte[] tmp = new byte[size];
+      switch (size) {
+        case 8:
+          handle.set(tmp, 0, val);
+          break;
+        case 4:
+          handle.set(tmp, 0, (int) val);
+          break;
+        case 2:
+          handle.set(tmp, 0, (short) val);
+          break;
+        default:
+          tmp[0] = (byte) val;
+          break;
+      }
+      outputStream.write(tmp);
+    }
+
+    @Override
+    public Object decode(byte[] payload, int offset, int length) {
+      long result = readFromByteArray(payload, offset, length, size, handle, order);
       switch (size) {
         case 8:
           return result;
@@ -255,11 +617,46 @@ public class NativeFormatter extends MessageFormatter {
    */
   static class FloatEncoderDecoder implements NativeEncoderDecoder {
 
+    private final ByteOrder order;
+    private final VarHandle handle;
+
+    /**
+     * Instantiates a new Float encoder decoder.
+     *
+     * @param order the byte order
+     */
+    public FloatEncoderDecoder(ByteOrder order) {
+      this.order = order;
+      this.handle = integerView(4, order);
+    }
+
     @Override
-    public Object decode(byte[] payload) {
-      long val = readFromByteArray(payload, 4);
+    public Object decode(byte[] payload, int offset, int length) {
+      long val = readFromByteArray(payload, offset, length, 4, handle, order);
       return Float.intBitsToFloat((int) val);
     }
+
+    @Override
+    public long decodeLong(byte[] payload, int offset, int length, long defaultValue) {
+      return (long) decodeDouble(payload, offset, length, defaultValue);
+    }
+
+    @Override
+    public double decodeDouble(byte[] payload, int offset, int length, double defaultValue) {
+      return Float.intBitsToFloat((int) readFromByteArray(payload, offset, length, 4, handle, order));
+    }
+
+    @Override
+    public int width() {
+      return 4;
+    }
+
+    @Override
+    public void encode(Object value, OutputStream outputStream) throws IOException {
+      byte[] tmp = new byte[4];
+      handle.set(tmp, 0, Float.floatToRawIntBits((float) toDouble(value)));
+      outputStream.write(tmp);
+    }
   }
 
   /**
@@ -267,10 +664,492 @@ public class NativeFormatter extends MessageFormatter {
    */
   static class DoubleEncoderDecoder implements NativeEncoderDecoder {
 
+    private final ByteOrder order;
+    private final VarHandle handle;
+
+    /**
+     * Instantiates a new Double encoder decoder.
+     *
+     * @param order the byte order
+     */
+    public DoubleEncoderDecoder(ByteOrder order) {
+      this.order = order;
+      this.handle = integerView(8, order);
+    }
+
     @Override
-    public Object decode(byte[] payload) {
-      long val = readFromByteArray(payload, 8);
+    public Object decode(byte[] payload, int offset, int length) {
+      long val = readFromByteArray(payload, offset, length, 8, handle, order);
       return Double.longBitsToDouble(val);
     }
+
+    @Override
+    public long decodeLong(byte[] payload, int offset, int length, long defaultValue) {
+      return (long) decodeDouble(payload, offset, length, defaultValue);
+    }
+
+    @Override
+    public double decodeDouble(byte[] payload, int offset, int length, double defaultValue) {
+      return Double.longBitsToDouble(readFromByteArray(payload, offset, length, 8, handle, order));
+    }
+
+    @Override
+    public int width() {
+      return 8;
+    }
+
+    @Override
+    public void encode(Object value, OutputStream outputStream) throws IOException {
+      byte[] tmp = new byte[8];
+      handle.set(tmp, 0, Double.doubleToRawLongBits(toDouble(value)));
+      outputStream.write(tmp);
+    }
+  }
+
+  /**
+   * Base of the packed array decoders. The whole array is copied out through a typed buffer view in one bulk operation,
+   * single elements are read in place through a byte array view handle. Trailing bytes that do not make up a full
+   * element are ignored.
+   */
+  abstract static class ArrayEncoderDecoder implements NativeEncoderDecoder {
+
+    protected final int elementSize;
+    protected final ByteOrder order;
+
+    /**
+     * Instantiates a new Array encoder decoder.
+     *
+     * @param elementSize the number of bytes in each element
+     * @param order the byte order
+     */
+    protected ArrayEncoderDecoder(int elementSize, ByteOrder order) {
+      this.elementSize = elementSize;
+      this.order = order;
+    }
+
+    /**
+     * Gets the number of elements in the payload.
+     *
+     * @param length the number of bytes holding the array
+     * @return the count
+     */
+    int count(int length) {
+      return length / elementSize;
+    }
+
+    /**
+     * Gets the position in the payload of the element.
+     *
+     * @param offset the offset of the array
+     * @param length the number of bytes holding the array
+     * @param index the element index
+     * @return the position or -1 if the index is out of range
+     */
+    int position(int offset, int length, int index) {
+      if (index < 0 || index >= count(length)) {
+        return -1;
+      }
+      return offset + index * elementSize;
+    }
+
+    /**
+     * Wraps the complete elements of the payload in a buffer with the configured byte order.
+     *
+     * @param payload the payload
+     * @param offset the offset of the array
+     * @param length the number of bytes holding the array
+     * @return the buffer
+     */
+    protected ByteBuffer view(byte[] payload, int offset, int length) {
+      return ByteBuffer.wrap(payload, offset, count(length) * elementSize).order(order);
+    }
+
+    @Override
+    public void encode(Object value, OutputStream outputStream) throws IOException {
+      byte[] bytes;
+      if (value instanceof Collection) {
+        Collection<?> list = (Collection<?>) value;
+        bytes = new byte[list.size() * elementSize];
+        int position = 0;
+        for (Object entry : list) {
+          put(bytes, position, entry);
+          position += elementSize;
+        }
+      } else if (value.getClass().isArray()) {
+        int count = Array.getLength(value);
+        bytes = new byte[count * elementSize];
+        if (!putAll(ByteBuffer.wrap(bytes).order(order), value)) {
+          for (int x = 0; x < count; x++) {
+            put(bytes, x * elementSize, Array.get(value, x));
+          }
+        }
+      } else {
+        throw new IOException("Expected an array or list of values");
+      }
+      outputStream.write(bytes);
+    }
+
+    /**
+     * Bulk copies a primitive array of the element type into the buffer.
+     *
+     * @param buffer the buffer, sized to hold the array
+     * @param array the array
+     * @return false if the array is not of the element type
+     */
+    abstract boolean putAll(ByteBuffer buffer, Object array);
+
+    /**
+     * Writes a single element.
+     *
+     * @param target the target array
+     * @param position the position of the element
+     * @param value the value
+     * @throws IOException if the value is not numeric
+     */
+    abstract void put(byte[] target, int position, Object value) throws IOException;
+
+    /**
+     * Reads the element at the position.
+     *
+     * @param payload the payload
+     * @param position the position of the element
+     * @return the element
+     */
+    abstract Object element(byte[] payload, int position);
+
+    /**
+     * Reads the element at the position as a long.
+     *
+     * @param payload the payload
+     * @param position the position of the element
+     * @return the element
+     */
+    abstract long elementLong(byte[] payload, int position);
+
+    /**
+     * Reads the element at the position as a double.
+     *
+     * @param payload the payload
+     * @param position the position of the element
+     * @return the element
+     */
+    abstract double elementDouble(byte[] payload, int position);
+  }
+
+  /**
+   * The type Byte array encoder decoder.
+   */
+  static class ByteArrayEncoderDecoder extends ArrayEncoderDecoder {
+
+    /**
+     * Instantiates a new Byte array encoder decoder.
+     */
+    public ByteArrayEncoderDecoder() {
+      super(1, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public Object decode(byte[] payload, int offset, int length) {
+      return Arrays.copyOfRange(payload, offset, offset + length);
+    }
+
+    @Override
+    boolean putAll(ByteBuffer buffer, Object array) {
+      if (array instanceof byte[]) {
+        buffer.put((byte[]) array);
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    void put(byte[] target, int position, Object value) throws IOException {
+      target[position] = (byte) toLong(value);
+    }
+
+    @Override
+    Object element(byte[] payload, int position) {
+      return payload[position];
+    }
+
+    @Override
+    long elementLong(byte[] payload, int position) {
+      return payload[position];
+    }
+
+    @Override
+    double elementDouble(byte[] payload, int position) {
+      return payload[position];
+    }
+  }
+
+  /**
+   * The type Short array encoder decoder.
+   */
+  static class ShortArrayEncoderDecoder extends ArrayEncoderDecoder {
+
+    private final VarHandle handle;
+
+    /**
+     * Instantiates a new Short array encoder decoder.
+     *
+     * @param order the byte order
+     */
+    public ShortArrayEncoderDecoder(ByteOrder order) {
+      super(2, order);
+      handle = MethodHandles.byteArrayViewVarHandle(short[].class, order);
+    }
+
+    @Override
+    public Object decode(byte[] payload, int offset, int length) {
+      short[] values = new short[count(length)];
+      view(payload, offset, length).asShortBuffer().get(values);
+      return values;
+    }
+
+    @Override
+    boolean putAll(ByteBuffer buffer, Object array) {
+      if (array instanceof short[]) {
+        buffer.asShortBuffer().put((short[]) array);
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    void put(byte[] target, int position, Object value) throws IOException {
+      handle.set(target, position, (short) toLong(value));
+    }
+
+    @Override
+    Object element(byte[] payload, int position) {
+      return (short) handle.get(payload, position);
+    }
+
+    @Override
+    long elementLong(byte[] payload, int position) {
+      return (short) handle.get(payload, position);
+    }
+
+    @Override
+    double elementDouble(byte[] payload, int position) {
+      return (short) handle.get(payload, position);
+    }
+  }
+
+  /**
+   * The type Int array encoder decoder.
+   */
+  static class IntArrayEncoderDecoder extends ArrayEncoderDecoder {
+
+    private final VarHandle handle;
+
+    /**
+     * Instantiates a new Int array encoder decoder.
+     *
+     * @param order the byte order
+     */
+    public IntArrayEncoderDecoder(ByteOrder order) {
+      super(4, order);
+      handle = MethodHandles.byteArrayViewVarHandle(int[].class, order);
+    }
+
+    @Override
+    public Object decode(byte[] payload, int offset, int length) {
+      int[] values = new int[count(length)];
+      view(payload, offset, length).asIntBuffer().get(values);
+      return values;
+    }
+
+    @Override
+    boolean putAll(ByteBuffer buffer, Object array) {
+      if (array instanceof int[]) {
+        buffer.asIntBuffer().put((int[]) array);
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    void put(byte[] target, int position, Object value) throws IOException {
+      handle.set(target, position, (int) toLong(value));
+    }
+
+    @Override
+    Object element(byte[] payload, int position) {
+      return (int) handle.get(payload, position);
+    }
+
+    @Override
+    long elementLong(byte[] payload, int position) {
+      return (int) handle.get(payload, position);
+    }
+
+    @Override
+    double elementDouble(byte[] payload, int position) {
+      return (int) handle.get(payload, position);
+    }
+  }
+
+  /**
+   * The type Long array encoder decoder.
+   */
+  static class LongArrayEncoderDecoder extends ArrayEncoderDecoder {
+
+    private final VarHandle handle;
+
+    /**
+     * Instantiates a new Long array encoder decoder.
+     *
+     * @param order the byte order
+     */
+    public LongArrayEncoderDecoder(ByteOrder order) {
+      super(8, order);
+      handle = MethodHandles.byteArrayViewVarHandle(long[].class, order);
+    }
+
+    @Override
+    public Object decode(byte[] payload, int offset, int length) {
+      long[] values = new long[count(length)];
+      view(payload, offset, length).asLongBuffer().get(values);
+      return values;
+    }
+
+    @Override
+    boolean putAll(ByteBuffer buffer, Object array) {
+      if (array instanceof long[]) {
+        buffer.asLongBuffer().put((long[]) array);
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    void put(byte[] target, int position, Object value) throws IOException {
+      handle.set(target, position, toLong(value));
+    }
+
+    @Override
+    Object element(byte[] payload, int position) {
+      return (long) handle.get(payload, position);
+    }
+
+    @Override
+    long elementLong(byte[] payload, int position) {
+      return (long) handle.get(payload, position);
+    }
+
+    @Override
+    double elementDouble(byte[] payload, int position) {
+      return (long) handle.get(payload, position);
+    }
+  }
+
+  /**
+   * The type Float array encoder decoder.
+   */
+  static class FloatArrayEncoderDecoder extends ArrayEncoderDecoder {
+
+    private final VarHandle handle;
+
+    /**
+     * Instantiates a new Float array encoder decoder.
+     *
+     * @param order the byte order
+     */
+    public FloatArrayEncoderDecoder(ByteOrder order) {
+      super(4, order);
+      handle = MethodHandles.byteArrayViewVarHandle(float[].class, order);
+    }
+
+    @Override
+    public Object decode(byte[] payload, int offset, int length) {
+      float[] values = new float[count(length)];
+      view(payload, offset, length).asFloatBuffer().get(values);
+      return values;
+    }
+
+    @Override
+    boolean putAll(ByteBuffer buffer, Object array) {
+      if (array instanceof float[]) {
+        buffer.asFloatBuffer().put((float[]) array);
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    void put(byte[] target, int position, Object value) throws IOException {
+      handle.set(target, position, (float) toDouble(value));
+    }
+
+    @Override
+    Object element(byte[] payload, int position) {
+      return (float) handle.get(payload, position);
+    }
+
+    @Override
+    long elementLong(byte[] payload, int position) {
+      return (long) (float) handle.get(payload, position);
+    }
+
+    @Override
+    double elementDouble(byte[] payload, int position) {
+      return (float) handle.get(payload, position);
+    }
+  }
+
+  /**
+   * The type Double array encoder decoder.
+   */
+  static class DoubleArrayEncoderDecoder extends ArrayEncoderDecoder {
+
+    private final VarHandle handle;
+
+    /**
+     * Instantiates a new Double array encoder decoder.
+     *
+     * @param order the byte order
+     */
+    public DoubleArrayEncoderDecoder(ByteOrder order) {
+      super(8, order);
+      handle = MethodHandles.byteArrayViewVarHandle(double[].class, order);
+    }
+
+    @Override
+    public Object decode(byte[] payload, int offset, int length) {
+      double[] values = new double[count(length)];
+      view(payload, offset, length).asDoubleBuffer().get(values);
+      return values;
+    }
+
+    @Override
+    boolean putAll(ByteBuffer buffer, Object array) {
+      if (array instanceof double[]) {
+        buffer.asDoubleBuffer().put((double[]) array);
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    void put(byte[] target, int position, Object value) throws IOException {
+      handle.set(target, position, toDouble(value));
+    }
+
+    @Override
+    Object element(byte[] payload, int position) {
+      return (double) handle.get(payload, position);
+    }
+
+    @Override
+    long elementLong(byte[] payload, int position) {
+      return (long) (double) handle.get(payload, position);
+    }
+
+    @Override
+    double elementDouble(byte[] payload, int position) {
+      return (double) handle.get(payload, position);
+    }
   }
 }
@@ -0,0 +1,167 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.mapsmessaging.schemas.formatters.Projection;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams a Jackson token source, only materializing the fields named in the projection. Skipped fields are passed over
+ * with {@link JsonParser#skipChildren()} and parsing stops once every requested top level field has been found.
+ */
+final class ProjectionReader {
+
+  /**
+   * Reads the current number token as the type the formatter resolves it to when the whole message is parsed.
+   */
+  @FunctionalInterface
+  interface NumberReader {
+    Object read(JsonParser parser) throws IOException;
+  }
+
+  /**
+   * Numbers as Jackson reads them, matching the formatters that resolve from a Jackson tree.
+   */
+  static final NumberReader JACKSON_NUMBERS = JsonParser::getNumberValue;
+
+  /**
+   * Numbers as the JSON tape resolves them, integers as Long and everything else, including integers too large for a
+   * long, as Double.
+   */
+  static final NumberReader TAPE_NUMBERS = parser -> {
+    JsonParser.NumberType type = parser.getNumberType();
+    if (type == JsonParser.NumberType.INT || type == JsonParser.NumberType.LONG) {
+      return parser.getLongValue();
+    }
+    return parser.getDoubleValue();
+  };
+
+  /**
+   * Numbers as the MessagePack cursor resolves them, integers as Long unless they only fit a BigInteger and floats
+   * keep their encoded width.
+   */
+  static final NumberReader CURSOR_NUMBERS = parser -> {
+    switch (parser.getNumberType()) {
+      case INT:
+      case LONG:
+        return parser.getLongValue();
+      case BIG_INTEGER:
+        return parser.getBigIntegerValue();
+      case FLOAT:
+        return parser.getFloatValue();
+      default:
+        return parser.getDoubleValue();
+    }
+  };
+
+  static Map<String, Object> read(JsonFactory factory, byte[] payload, int offset, int length, Projection projection, NumberReader numbers) throws IOException {
+    try (JsonParser parser = factory.createParser(payload, offset, length)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Expected an object");
+      }
+      return readObject(parser, projection, numbers, false);
+    }
+  }
+
+  private static Map<String, Object> readObject(JsonParser parser, Projection projection, NumberReader numbers, boolean nested) throws IOException {
+    Map<String, Object> map = new LinkedHashMap<>();
+    int found = 0;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String name = parser.currentName();
+      JsonToken token = parser.nextToken();
+      if (!projection.contains(name)) {
+        parser.skipChildren();
+        continue;
+      }
+      Projection child = projection.getChild(name);
+      if (child != null && token == JsonToken.START_OBJECT) {
+        map.put(name, readObject(parser, child, numbers, true));
+      } else {
+        map.put(name, readValue(parser, token, numbers));
+      }
+      found++;
+      if (found == projection.size()) {
+        if (nested) {
+          skipRemaining(parser);
+        }
+        break;
+      }
+    }
+    return map;
+  }
+
+  private static void skipRemaining(JsonParser parser) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      parser.nextToken();
+      parser.skipChildren();
+    }
+  }
+
+  static Object readValue(JsonParser parser, JsonToken token, NumberReader numbers) throws IOException {
+    switch (token) {
+      case START_OBJECT:
+        Map<String, Object> map = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String name = parser.currentName();
+          map.put(name, readValue(parser, parser.nextToken(), numbers));
+        }
+        return map;
+
+      case START_ARRAY:
+        List<Object> list = new ArrayList<>();
+        JsonToken next;
+        while ((next = parser.nextToken()) != JsonToken.END_ARRAY) {
+          list.add(readValue(parser, next, numbers));
+        }
+        return list;
+
+      case VALUE_STRING:
+        return parser.getText();
+
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return numbers.read(parser);
+
+      case VALUE_TRUE:
+        return Boolean.TRUE;
+
+      case VALUE_FALSE:
+        return Boolean.FALSE;
+
+      case VALUE_EMBEDDED_OBJECT:
+        return parser.getEmbeddedObject();
+
+      default:
+        return null;
+    }
+  }
+
+  private ProjectionReader() {
+  }
+}
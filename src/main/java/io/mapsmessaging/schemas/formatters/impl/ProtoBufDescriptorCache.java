@@ -0,0 +1,135 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.Descriptors.DescriptorValidationException;
+import com.google.protobuf.Descriptors.FileDescriptor;
+
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * A process wide cache of the {@link FileDescriptor}s built from descriptor set images, keyed by the SHA-256 of the image.
+ * Schemas that share a descriptor set, for example with different message names, share a single descriptor graph.
+ * Entries are reference counted and removed once the last formatter using them has been released, or has become
+ * unreachable without being released.
+ */
+final class ProtoBufDescriptorCache {
+
+  private static final Map<String, Entry> CACHE = new HashMap<>();
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  /**
+   * Computes the cache key for the descriptor image.
+   *
+   * @param descriptorImage the serialized FileDescriptorSet
+   * @return the key
+   */
+  static String key(byte[] descriptorImage) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(descriptorImage));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is a required JVM algorithm", e);
+    }
+  }
+
+  /**
+   * Returns the descriptor for the image, building it if it is not already cached, and increments its reference count.
+   *
+   * @param key the key computed by {@link #key(byte[])}
+   * @param descriptorImage the serialized FileDescriptorSet
+   * @return the file descriptor of the last file in the set
+   * @throws IOException if the image could not be parsed or the descriptors do not validate
+   */
+  static synchronized FileDescriptor acquire(String key, byte[] descriptorImage) throws IOException {
+    Entry entry = CACHE.get(key);
+    if (entry == null) {
+      entry = new Entry(build(descriptorImage));
+      CACHE.put(key, entry);
+    }
+    entry.references++;
+    return entry.descriptor;
+  }
+
+  /**
+   * Decrements the reference count for the key, removing the descriptor when it is no longer used.
+   *
+   * @param key the key
+   */
+  static synchronized void release(String key) {
+    Entry entry = CACHE.get(key);
+    if (entry != null && --entry.references <= 0) {
+      CACHE.remove(key);
+    }
+  }
+
+  /**
+   * Ties a reference acquired for the key to its owner. The reference is released when the returned cleanable is run,
+   * or when the owner becomes unreachable if it never is, so owners that are dropped without being released, such as
+   * formatters built outside the formatter cache, do not keep the descriptor cached.
+   *
+   * @param owner the object holding the reference
+   * @param key the key
+   * @return the cleanable, running it more than once only releases the reference once
+   */
+  static Cleaner.Cleanable register(Object owner, String key) {
+    return CLEANER.register(owner, () -> release(key));
+  }
+
+  static synchronized boolean contains(String key) {
+    return CACHE.containsKey(key);
+  }
+
+  private static FileDescriptor build(byte[] descriptorImage) throws IOException {
+    try {
+      DescriptorProtos.FileDescriptorSet set = DescriptorProtos.FileDescriptorSet.parseFrom(descriptorImage);
+      if (set.getFileCount() == 0) {
+        throw new IOException("Descriptor set contains no files");
+      }
+      FileDescriptor[] dependencies = new FileDescriptor[set.getFileCount() - 1];
+      for (int i = 0; i < dependencies.length; i++) {
+        dependencies[i] = FileDescriptor.buildFrom(set.getFile(i), Arrays.copyOf(dependencies, i));
+      }
+      return FileDescriptor.buildFrom(set.getFile(set.getFileCount() - 1), dependencies);
+    } catch (DescriptorValidationException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private static final class Entry {
+    private final FileDescriptor descriptor;
+    private int references;
+
+    private Entry(FileDescriptor descriptor) {
+      this.descriptor = descriptor;
+    }
+  }
+
+  private ProtoBufDescriptorCache() {
+  }
+}
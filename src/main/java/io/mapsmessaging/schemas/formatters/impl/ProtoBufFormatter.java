@@ -20,44 +20,71 @@
 
 package io.mapsmessaging.schemas.formatters.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
-import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.Descriptors;
-import com.google.protobuf.Descriptors.DescriptorValidationException;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.DynamicMessage;
-import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.ProtoBufSchemaConfig;
 import io.mapsmessaging.schemas.formatters.MessageFormatter;
 import io.mapsmessaging.schemas.formatters.ParsedObject;
-import io.mapsmessaging.schemas.formatters.walker.MapResolver;
-import io.mapsmessaging.schemas.formatters.walker.StructuredResolver;
+import io.mapsmessaging.schemas.formatters.Projection;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
 import java.util.*;
-import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.mapsmessaging.schemas.logging.SchemaLogMessages.FORMATTER_UNEXPECTED_OBJECT;
+import static io.mapsmessaging.schemas.logging.SchemaLogMessages.PROTOBUF_MESSAGE_CLASS_UNAVAILABLE;
 
 /**
  * The type Proto buf formatter.
  */
 public class ProtoBufFormatter extends MessageFormatter {
 
+  private static final int MAX_PROJECTIONS = 64;
+  private static final int MAX_POOLED_BUFFERS = 64;
+  private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+
   private final String messageName;
   private final FileDescriptor descriptor;
+  private final Descriptors.Descriptor messageType;
+  private final Map<Descriptors.Descriptor, Map<String, FieldDescriptor>> fieldIndex;
+  private final Parser<? extends Message> parser;
+  private final Message prototype;
+  private final Descriptors.Descriptor parsedType;
+  private final Map<Descriptors.Descriptor, Map<String, FieldDescriptor>> parsedIndex;
+  private final Map<Projection, BitSet> projectedFields = new ConcurrentHashMap<>();
+  private final Cleaner.Cleanable descriptorReference;
+  private final Queue<byte[]> bufferPool = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pooled = new AtomicInteger();
 
   /**
    * Instantiates a new Proto buf formatter.
    */
   public ProtoBufFormatter() {
     messageName = "";
+    descriptorReference = null;
     descriptor = null;
+    messageType = null;
+    fieldIndex = Map.of();
+    parser = null;
+    prototype = null;
+    parsedType = null;
+    parsedIndex = Map.of();
   }
 
   /**
@@ -68,11 +95,72 @@ public class ProtoBufFormatter extends MessageFormatter {
    * @throws IOException the io exception
    */
   ProtoBufFormatter(String messageName, byte[] descriptorImage) throws IOException {
+    this(messageName, descriptorImage, null);
+  }
+
+  /**
+   * Instantiates a new Proto buf formatter that parses with the generated message class when it is available.
+   *
+   * @param messageName the message name
+   * @param descriptorImage the descriptor image
+   * @param messageClass the binary name of the generated message class, may be null
+   * @throws IOException the io exception
+   */
+  ProtoBufFormatter(String messageName, byte[] descriptorImage, String messageClass) throws IOException {
+    this.messageName = messageName;
+    String descriptorKey = ProtoBufDescriptorCache.key(descriptorImage);
+    descriptor = ProtoBufDescriptorCache.acquire(descriptorKey, descriptorImage);
+    descriptorReference = ProtoBufDescriptorCache.register(this, descriptorKey);
+    messageType = descriptor.findMessageTypeByName(messageName);
+    fieldIndex = messageType != null ? ProtoBufResolver.buildFieldIndex(messageType) : Map.of();
+    Message defaultInstance = loadDefaultInstance(messageClass);
+    if (defaultInstance != null) {
+      parser = defaultInstance.getParserForType();
+      prototype = defaultInstance;
+      parsedType = defaultInstance.getDescriptorForType();
+      parsedIndex = ProtoBufResolver.buildFieldIndex(parsedType);
+    } else {
+      parser = null;
+      prototype = messageType != null ? DynamicMessage.getDefaultInstance(messageType) : null;
+      parsedType = messageType;
+      parsedIndex = fieldIndex;
+    }
+  }
+
+  /**
+   * Loads the default instance of the generated class, which supplies the generated parser. Generated messages resolve
+   * fields through the accessor table protoc builds for the class, rather than the map lookups of a DynamicMessage.
+   */
+  private Message loadDefaultInstance(String messageClass) {
+    if (messageClass == null || messageClass.isEmpty() || messageType == null) {
+      return null;
+    }
     try {
-      this.descriptor = loadDescFile(descriptorImage);
-      this.messageName = messageName;
-    } catch (DescriptorValidationException e) {
-      throw new IOException(e);
+      ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+      if (classLoader == null) {
+        classLoader = ProtoBufFormatter.class.getClassLoader();
+      }
+      Class<?> type = Class.forName(messageClass, true, classLoader);
+      if (!Message.class.isAssignableFrom(type)) {
+        logger.log(PROTOBUF_MESSAGE_CLASS_UNAVAILABLE, messageClass, "not a protobuf message");
+        return null;
+      }
+      Message defaultInstance = (Message) type.getMethod("getDefaultInstance").invoke(null);
+      if (!defaultInstance.getDescriptorForType().getFullName().equals(messageType.getFullName())) {
+        logger.log(PROTOBUF_MESSAGE_CLASS_UNAVAILABLE, messageClass, "does not match " + messageType.getFullName());
+        return null;
+      }
+      return defaultInstance;
+    } catch (ReflectiveOperationException | LinkageError e) {
+      logger.log(PROTOBUF_MESSAGE_CLASS_UNAVAILABLE, messageClass, e.toString());
+      return null;
+    }
+  }
+
+  @Override
+  public void release() {
+    if (descriptorReference != null) {
+      descriptorReference.clean(); // Only releases the first time
     }
   }
 
@@ -86,13 +174,12 @@ public class ProtoBufFormatter extends MessageFormatter {
       return Map.of();
     }
 
-    Descriptors.Descriptor messageDescriptor = descriptor.findMessageTypeByName(messageName);
-    if (messageDescriptor == null) {
+    if (messageType == null) {
       return Map.of();
     }
 
     Map<String, Object> format = new LinkedHashMap<>();
-    for (FieldDescriptor field : messageDescriptor.getFields()) {
+    for (FieldDescriptor field : messageType.getFields()) {
       Map<String, Object> fieldInfo = new LinkedHashMap<>();
       fieldInfo.put("type", field.getType().name());
       fieldInfo.put("label", field.isRepeated() ? "repeated" : "optional");
@@ -105,50 +192,393 @@ public class ProtoBufFormatter extends MessageFormatter {
 
   @Override
   public ParsedObject parse(byte[] payload) {
+    return parse(payload, 0, payload.length);
+  }
+
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length) {
+    try {
+      return parse(CodedInputStream.newInstance(payload, offset, length));
+    } catch (IOException e) {
+      logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
+      return new DefaultParser(payload, offset, length);
+    }
+  }
+
+  @Override
+  public ParsedObject parse(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return super.parse(buffer);
+    }
     try {
-      DynamicMessage message = DynamicMessage.parseFrom(descriptor.findMessageTypeByName(messageName), payload);
-      ParsedObject parsed = new MapResolver(convertToMap(message));
-      return new StructuredResolver(parsed, message);
-    } catch (InvalidProtocolBufferException e) {
+      return parse(CodedInputStream.newInstance(buffer.duplicate()));
+    } catch (IOException e) {
+      byte[] payload = copy(buffer);
       logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
       return new DefaultParser(payload);
     }
   }
 
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length, Projection projection) {
+    try {
+      BitSet wanted = getProjectedFields(messageType, projection);
+      // Merge the wanted fields straight from the payload, adjacent fields are merged as a single range
+      Message.Builder builder = prototype.newBuilderForType();
+      CodedInputStream inputStream = CodedInputStream.newInstance(payload, offset, length);
+      int rangeStart = 0;
+      int rangeEnd = 0;
+      while (true) {
+        int fieldStart = inputStream.getTotalBytesRead();
+        int tag = inputStream.readTag();
+        if (tag == 0) {
+          break;
+        }
+        inputStream.skipField(tag);
+        if (wanted.get(tag >>> 3)) {
+          if (fieldStart != rangeEnd) {
+            mergeRange(builder, payload, offset, rangeStart, rangeEnd);
+            rangeStart = fieldStart;
+          }
+          rangeEnd = inputStream.getTotalBytesRead();
+        }
+      }
+      mergeRange(builder, payload, offset, rangeStart, rangeEnd);
+      Message message = builder.buildPartial();
+      return new ProtoBufResolver(message, parsedIndex);
+    } catch (IOException e) {
+      logger.log(FORMATTER_UNEXPECTED_OBJECT, getName(), payload);
+      return new DefaultParser(payload, offset, length);
+    }
+  }
+
+  private static void mergeRange(Message.Builder builder, byte[] payload, int offset, int start, int end) throws IOException {
+    if (end > start) {
+      builder.mergeFrom(payload, offset + start, end - start);
+    }
+  }
+
+  private BitSet getProjectedFields(Descriptors.Descriptor type, Projection projection) {
+    BitSet wanted = projectedFields.get(projection);
+    if (wanted == null) {
+      wanted = new BitSet();
+      for (String name : projection.getFieldNames()) {
+        FieldDescriptor field = type.findFieldByName(name);
+        if (field != null) {
+          wanted.set(field.getNumber());
+        }
+      }
+      if (projectedFields.size() >= MAX_PROJECTIONS) {
+        projectedFields.clear();
+      }
+      projectedFields.put(projection, wanted);
+    }
+    return wanted;
+  }
+
+  private ParsedObject parse(CodedInputStream inputStream) throws IOException {
+    return new ProtoBufResolver(readMessage(inputStream), parsedIndex);
+  }
+
+  private Message readMessage(CodedInputStream inputStream) throws IOException {
+    if (parser != null) {
+      return parser.parseFrom(inputStream);
+    }
+    return DynamicMessage.parseFrom(messageType, inputStream);
+  }
+
   @Override
   public JsonObject parseToJson(byte[] payload) {
-    DynamicMessage dynamicMessage = (DynamicMessage) (parse(payload)).getReferenced();
-    return convertToJson(dynamicMessage);
+    Message message = (Message) (parse(payload)).getReferenced();
+    return convertToJson(message);
   }
 
   @Override
-  public MessageFormatter getInstance(SchemaConfig config) throws IOException {
-    ProtoBufSchemaConfig protoBufSchemaConfig = (ProtoBufSchemaConfig) config;
-    return new ProtoBufFormatter(protoBufSchemaConfig.getMessageName(), protoBufSchemaConfig.getDescriptorValue());
+  public JsonObject parseToJson(byte[] payload, int offset, int length) {
+    Message message = (Message) (parse(payload, offset, length)).getReferenced();
+    return convertToJson(message);
+  }
+
+  @Override
+  public JsonObject parseToJson(ByteBuffer buffer) {
+    Message message = (Message) (parse(buffer)).getReferenced();
+    return convertToJson(message);
   }
 
-  private FileDescriptor loadDescFile(byte[] descriptorImage) throws IOException, DescriptorValidationException {
-    DescriptorProtos.FileDescriptorSet set;
-    List<FileDescriptor> dependencyFileDescriptorList;
-    try (InputStream fin = new ByteArrayInputStream(descriptorImage)) {
-      set = DescriptorProtos.FileDescriptorSet.parseFrom(fin);
-      dependencyFileDescriptorList = new ArrayList<>();
-      for (int i = 0; i < set.getFileCount() - 1; i++) {
-        dependencyFileDescriptorList.add(FileDescriptor.buildFrom(set.getFile(i), dependencyFileDescriptorList.toArray(new FileDescriptor[i])));
+  /**
+   * Walks the decoded message field by field, without building a JSON tree.
+   */
+  @Override
+  protected void writeEvents(byte[] payload, int offset, int length, JsonGenerator generator) throws IOException {
+    if (messageType == null) {
+      super.writeEvents(payload, offset, length, generator);
+      return;
+    }
+    writeMessage(generator, readMessage(CodedInputStream.newInstance(payload, offset, length)));
+  }
+
+  private static void writeMessage(JsonGenerator generator, Message message) throws IOException {
+    generator.writeStartObject();
+    for (Map.Entry<FieldDescriptor, Object> entry : message.getAllFields().entrySet()) {
+      FieldDescriptor field = entry.getKey();
+      generator.writeFieldName(field.getName());
+      if (field.isMapField()) {
+        FieldDescriptor keyField = field.getMessageType().findFieldByNumber(1);
+        FieldDescriptor valueField = field.getMessageType().findFieldByNumber(2);
+        generator.writeStartObject();
+        for (Object mapEntry : (Collection<?>) entry.getValue()) {
+          Message pair = (Message) mapEntry;
+          generator.writeFieldName(pair.getField(keyField).toString());
+          writeField(generator, valueField, pair.getField(valueField));
+        }
+        generator.writeEndObject();
+      } else if (field.isRepeated()) {
+        generator.writeStartArray();
+        for (Object value : (Collection<?>) entry.getValue()) {
+          writeField(generator, field, value);
+        }
+        generator.writeEndArray();
+      } else {
+        writeField(generator, field, entry.getValue());
       }
     }
-    return Descriptors.FileDescriptor.buildFrom(set.getFile(set.getFileCount() - 1), dependencyFileDescriptorList.toArray(new FileDescriptor[0]));
+    generator.writeEndObject();
   }
 
-  private JsonObject convertToJson(DynamicMessage message) {
+  private static void writeField(JsonGenerator generator, FieldDescriptor field, Object value) throws IOException {
+    switch (field.getJavaType()) {
+      case MESSAGE:
+        writeMessage(generator, (Message) value);
+        break;
+      case ENUM:
+        generator.writeString(((Descriptors.EnumValueDescriptor) value).getName());
+        break;
+      case BYTE_STRING:
+        generator.writeBinary(((ByteString) value).toByteArray());
+        break;
+      case STRING:
+        generator.writeString((String) value);
+        break;
+      case BOOLEAN:
+        generator.writeBoolean((Boolean) value);
+        break;
+      case FLOAT:
+        generator.writeNumber((Float) value);
+        break;
+      case DOUBLE:
+        generator.writeNumber((Double) value);
+        break;
+      default:
+        generator.writeNumber(((Number) value).longValue());
+        break;
+    }
+  }
+
+  @Override
+  public void pack(Map<String, Object> values, OutputStream outputStream) throws IOException {
+    write(build(values), outputStream);
+  }
+
+  @Override
+  public void pack(ParsedObject parsedObject, OutputStream outputStream) throws IOException {
+    Message message = asMessage(parsedObject);
+    if (message != null) {
+      write(message, outputStream);
+    } else {
+      super.pack(parsedObject, outputStream);
+    }
+  }
+
+  @Override
+  public int pack(Map<String, Object> values, ByteBuffer buffer) throws IOException {
+    return write(build(values), buffer);
+  }
+
+  @Override
+  public int pack(ParsedObject parsedObject, ByteBuffer buffer) throws IOException {
+    Message message = asMessage(parsedObject);
+    return write(message != null ? message : build(toMap(parsedObject)), buffer);
+  }
+
+  private Message asMessage(ParsedObject parsedObject) {
+    Object referenced = parsedObject.getReferenced();
+    if (messageType != null && referenced instanceof Message) {
+      Descriptors.Descriptor type = ((Message) referenced).getDescriptorForType();
+      if (type == messageType || type == parsedType) {
+        return (Message) referenced;
+      }
+    }
+    return null;
+  }
+
+  private Message build(Map<?, ?> values) throws IOException {
+    if (messageType == null) {
+      throw new IOException("No message type " + messageName + " found in the descriptor");
+    }
+    return build(messageType, values);
+  }
+
+  /**
+   * Serializes the message into a pooled buffer and copies it to the stream in a single write.
+   */
+  private void write(Message message, OutputStream outputStream) throws IOException {
+    int size = message.getSerializedSize();
+    byte[] buffer = acquire(size);
+    try {
+      CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(buffer, 0, size);
+      message.writeTo(codedOutputStream);
+      codedOutputStream.checkNoSpaceLeft();
+      outputStream.write(buffer, 0, size);
+    } finally {
+      release(buffer);
+    }
+  }
+
+  private int write(Message message, ByteBuffer buffer) throws IOException {
+    int size = message.getSerializedSize();
+    if (buffer.remaining() < size) {
+      throw new IOException("Buffer too small for the encoded message");
+    }
+    CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(buffer);
+    message.writeTo(codedOutputStream);
+    codedOutputStream.flush();
+    return size;
+  }
+
+  private byte[] acquire(int size) {
+    byte[] buffer = bufferPool.poll();
+    if (buffer != null) {
+      pooled.decrementAndGet();
+      if (buffer.length >= size) {
+        return buffer;
+      }
+    }
+    return new byte[Math.max(size, 256)];
+  }
+
+  private void release(byte[] buffer) {
+    if (buffer.length <= MAX_POOLED_BUFFER_SIZE && pooled.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+      bufferPool.offer(buffer);
+    } else if (buffer.length <= MAX_POOLED_BUFFER_SIZE) {
+      pooled.decrementAndGet();
+    }
+  }
+
+  private Message build(Descriptors.Descriptor type, Map<?, ?> values) throws IOException {
+    DynamicMessage.Builder builder = DynamicMessage.newBuilder(type);
+    Map<String, FieldDescriptor> fields = fieldIndex.get(type);
+    for (Map.Entry<?, ?> entry : values.entrySet()) {
+      String name = entry.getKey().toString();
+      FieldDescriptor field = fields != null ? fields.get(name) : type.findFieldByName(name);
+      Object value = entry.getValue();
+      if (field == null || value == null) {
+        continue; // Unknown fields are not encoded
+      }
+      if (field.isMapField()) {
+        Descriptors.Descriptor entryType = field.getMessageType();
+        for (Map.Entry<?, ?> mapEntry : ((Map<?, ?>) value).entrySet()) {
+          DynamicMessage.Builder entryBuilder = DynamicMessage.newBuilder(entryType);
+          FieldDescriptor keyField = entryType.findFieldByNumber(1);
+          FieldDescriptor valueField = entryType.findFieldByNumber(2);
+          entryBuilder.setField(keyField, convert(keyField, mapEntry.getKey()));
+          entryBuilder.setField(valueField, convert(valueField, mapEntry.getValue()));
+          builder.addRepeatedField(field, entryBuilder.build());
+        }
+      } else if (field.isRepeated()) {
+        for (Object entryValue : toCollection(value, name)) {
+          builder.addRepeatedField(field, convert(field, entryValue));
+        }
+      } else {
+        builder.setField(field, convert(field, value));
+      }
+    }
+    return builder.build();
+  }
+
+  private static Collection<?> toCollection(Object value, String name) throws IOException {
+    if (value instanceof Collection) {
+      return (Collection<?>) value;
+    }
+    if (value instanceof Object[]) {
+      return Arrays.asList((Object[]) value);
+    }
+    throw new IOException("Repeated field " + name + " requires a list");
+  }
+
+  private Object convert(FieldDescriptor field, Object value) throws IOException {
+    try {
+      switch (field.getJavaType()) {
+        case INT:
+          return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString().trim());
+        case LONG:
+          return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString().trim());
+        case FLOAT:
+          return value instanceof Number ? ((Number) value).floatValue() : Float.parseFloat(value.toString().trim());
+        case DOUBLE:
+          return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString().trim());
+        case BOOLEAN:
+          return value instanceof Boolean ? value : Boolean.parseBoolean(value.toString().trim());
+        case STRING:
+          return value.toString();
+        case BYTE_STRING:
+          return toByteString(value);
+        case ENUM:
+          return toEnum(field, value);
+        case MESSAGE:
+          if (value instanceof Message) {
+            return value;
+          }
+          return build(field.getMessageType(), (Map<?, ?>) value);
+        default:
+          throw new IOException("Unsupported type for field " + field.getName());
+      }
+    } catch (ClassCastException | NumberFormatException e) {
+      throw new IOException("Value of " + field.getName() + " does not match " + field.getJavaType(), e);
+    }
+  }
+
+  private static ByteString toByteString(Object value) {
+    if (value instanceof ByteString) {
+      return (ByteString) value;
+    }
+    if (value instanceof byte[]) {
+      return ByteString.copyFrom((byte[]) value);
+    }
+    if (value instanceof ByteBuffer) {
+      return ByteString.copyFrom(((ByteBuffer) value).duplicate());
+    }
+    return ByteString.copyFrom(Base64.getDecoder().decode(value.toString()));
+  }
+
+  private static Descriptors.EnumValueDescriptor toEnum(FieldDescriptor field, Object value) throws IOException {
+    if (value instanceof Descriptors.EnumValueDescriptor) {
+      return (Descriptors.EnumValueDescriptor) value;
+    }
+    Descriptors.EnumDescriptor enumType = field.getEnumType();
+    Descriptors.EnumValueDescriptor enumValue = value instanceof Number
+        ? enumType.findValueByNumber(((Number) value).intValue())
+        : enumType.findValueByName(value.toString());
+    if (enumValue == null) {
+      throw new IOException("Unknown value " + value + " for enum field " + field.getName());
+    }
+    return enumValue;
+  }
+
+  @Override
+  public MessageFormatter getInstance(SchemaConfig config) throws IOException {
+    ProtoBufSchemaConfig protoBufSchemaConfig = (ProtoBufSchemaConfig) config;
+    return new ProtoBufFormatter(protoBufSchemaConfig.getMessageName(), protoBufSchemaConfig.getDescriptorValue(), protoBufSchemaConfig.getMessageClass());
+  }
+
+  private JsonObject convertToJson(Message message) {
     JsonObject jsonObject = new JsonObject();
     for (Map.Entry<FieldDescriptor, Object> entry : message.getAllFields().entrySet()) {
       String key = entry.getKey().getName();
       Object value = entry.getValue();
       if (value instanceof Collection) {
         jsonObject.add(key, convertToJson((Collection<?>) value));
-      } else if (value instanceof DynamicMessage) {
-        jsonObject.add(key, convertToJson((DynamicMessage) value));
+      } else if (value instanceof Message) {
+        jsonObject.add(key, convertToJson((Message) value));
       } else {
         jsonObject.add(key, gson.toJsonTree(value));
       }
@@ -159,35 +589,12 @@ public class ProtoBufFormatter extends MessageFormatter {
   private JsonArray convertToJson(Collection<?> collection) {
     JsonArray jsonArray = new JsonArray();
     for (Object obj : collection) {
-      if (obj instanceof DynamicMessage) {
-        jsonArray.add(convertToJson((DynamicMessage) obj));
+      if (obj instanceof Message) {
+        jsonArray.add(convertToJson((Message) obj));
       } else {
         jsonArray.add(gson.toJsonTree(obj));
       }
     }
     return jsonArray;
   }
-
-
-  private Map<String, Object> convertToMap(DynamicMessage message) {
-    Map<String, Object> map = new LinkedHashMap<>();
-    for (Entry<FieldDescriptor, Object> entry : message.getAllFields().entrySet()) {
-      if (entry.getValue() instanceof Collection) {
-        map.put(entry.getKey().getName(), createMap((Collection) entry.getValue()));
-      } else {
-        map.put(entry.getKey().getName(), entry.getValue());
-      }
-    }
-    return map;
-  }
-
-  private List<Map<String, Object>> createMap(Collection<Object> collection) {
-    List<Map<String, Object>> list = new ArrayList<>();
-    for (Object obj : collection) {
-      if (obj instanceof DynamicMessage) {
-        list.add(convertToMap((DynamicMessage) obj));
-      }
-    }
-    return list;
-  }
-}
\ No newline at end of file
+}
@@ -0,0 +1,183 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import io.mapsmessaging.schemas.formatters.ParsedObject;
+import io.mapsmessaging.schemas.formatters.walker.FieldPath;
+import io.mapsmessaging.schemas.formatters.walker.StructureWalker;
+import io.mapsmessaging.schemas.formatters.walker.TypedResolver;
+import io.mapsmessaging.schemas.formatters.walker.TypedValues;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves fields directly from a protobuf message using field descriptors that were looked up when the formatter was
+ * created. Nested messages are only wrapped in a resolver when they are accessed.
+ */
+final class ProtoBufResolver implements ParsedObject, TypedResolver {
+
+  private final Message message;
+  private final Map<Descriptors.Descriptor, Map<String, FieldDescriptor>> fieldIndex;
+
+  /**
+   * Builds the field name index for the message type and every message type reachable from it.
+   *
+   * @param type the message type
+   * @return the index
+   */
+  static Map<Descriptors.Descriptor, Map<String, FieldDescriptor>> buildFieldIndex(Descriptors.Descriptor type) {
+    Map<Descriptors.Descriptor, Map<String, FieldDescriptor>> index = new HashMap<>();
+    addFields(type, index);
+    return index;
+  }
+
+  private static void addFields(Descriptors.Descriptor type, Map<Descriptors.Descriptor, Map<String, FieldDescriptor>> index) {
+    if (index.containsKey(type)) {
+      return; // Recursive message types
+    }
+    Map<String, FieldDescriptor> fields = new HashMap<>();
+    index.put(type, fields);
+    for (FieldDescriptor field : type.getFields()) {
+      fields.put(field.getName(), field);
+      if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+        addFields(field.getMessageType(), index);
+      }
+    }
+  }
+
+  ProtoBufResolver(Message message, Map<Descriptors.Descriptor, Map<String, FieldDescriptor>> fieldIndex) {
+    this.message = message;
+    this.fieldIndex = fieldIndex;
+  }
+
+  @Override
+  public Object get(String key) {
+    return StructureWalker.locateObject(this, FieldPath.compile(key));
+  }
+
+  @Override
+  public Object get(String name, int index) {
+    FieldDescriptor field = findField(name);
+    if (field == null) {
+      return null;
+    }
+    if (field.isRepeated()) {
+      int count = message.getRepeatedFieldCount(field);
+      if (index == FieldPath.Step.NO_INDEX) {
+        List<Object> list = new ArrayList<>(count);
+        for (int x = 0; x < count; x++) {
+          list.add(convert(message.getRepeatedField(field, x)));
+        }
+        return list;
+      }
+      return index < count ? convert(message.getRepeatedField(field, index)) : null;
+    }
+    if (!message.hasField(field)) {
+      return null;
+    }
+    return convert(message.getField(field));
+  }
+
+  @Override
+  public boolean isPresent(String name, int index) {
+    return raw(name, index) != null;
+  }
+
+  @Override
+  public long getLong(String name, int index, long defaultValue) {
+    return TypedValues.toLong(raw(name, index), defaultValue);
+  }
+
+  @Override
+  public double getDouble(String name, int index, double defaultValue) {
+    return TypedValues.toDouble(raw(name, index), defaultValue);
+  }
+
+  @Override
+  public boolean getBoolean(String name, int index, boolean defaultValue) {
+    return TypedValues.toBoolean(raw(name, index), defaultValue);
+  }
+
+  @Override
+  public String getString(String name, int index) {
+    Object value = raw(name, index);
+    if (value instanceof Descriptors.EnumValueDescriptor) {
+      return ((Descriptors.EnumValueDescriptor) value).getName();
+    }
+    return TypedValues.toString(value);
+  }
+
+  @Override
+  public List<String> getKeys() {
+    List<String> keys = new ArrayList<>();
+    for (FieldDescriptor field : message.getAllFields().keySet()) {
+      keys.add(field.getName());
+    }
+    return keys;
+  }
+
+  @Override
+  public Object getReferenced() {
+    return message;
+  }
+
+  /**
+   * Looks up a single value without converting it, repeated fields without an index return null.
+   */
+  private Object raw(String name, int index) {
+    FieldDescriptor field = findField(name);
+    if (field == null) {
+      return null;
+    }
+    if (field.isRepeated()) {
+      if (index == FieldPath.Step.NO_INDEX || index >= message.getRepeatedFieldCount(field)) {
+        return null;
+      }
+      return message.getRepeatedField(field, index);
+    }
+    return message.hasField(field) ? message.getField(field) : null;
+  }
+
+  private FieldDescriptor findField(String name) {
+    Descriptors.Descriptor type = message.getDescriptorForType();
+    Map<String, FieldDescriptor> fields = fieldIndex.get(type);
+    if (fields == null) {
+      return type.findFieldByName(name);
+    }
+    return fields.get(name);
+  }
+
+  private Object convert(Object value) {
+    if (value instanceof Message) {
+      return new ProtoBufResolver((Message) value, fieldIndex);
+    }
+    if (value instanceof Descriptors.EnumValueDescriptor) {
+      return ((Descriptors.EnumValueDescriptor) value).getName();
+    }
+    return value;
+  }
+}
@@ -20,12 +20,15 @@
 
 package io.mapsmessaging.schemas.formatters.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.gson.JsonObject;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.formatters.MessageFormatter;
 import io.mapsmessaging.schemas.formatters.ParsedObject;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Base64;
 import java.util.Map;
 
@@ -34,6 +37,8 @@ import java.util.Map;
  */
 public class RawFormatter extends MessageFormatter {
 
+  private static final String PAYLOAD = "payload";
+
   /**
    * Instantiates a new Raw formatter.
    */
@@ -50,10 +55,18 @@ public class RawFormatter extends MessageFormatter {
   public JsonObject parseToJson(byte[] payload) {
     JsonObject obj = new JsonObject();
     String encoded = Base64.getEncoder().encodeToString(payload);
-    obj.addProperty("payload", encoded);
+    obj.addProperty(PAYLOAD, encoded);
     return obj;
   }
 
+  @Override
+  protected void writeEvents(byte[] payload, int offset, int length, JsonGenerator generator) throws IOException {
+    generator.writeStartObject();
+    generator.writeFieldName(PAYLOAD);
+    generator.writeBinary(payload, offset, length);
+    generator.writeEndObject();
+  }
+
   @Override
   public ParsedObject parse(byte[] payload) {
     return new ParsedObject() {
@@ -69,6 +82,38 @@ public class RawFormatter extends MessageFormatter {
     };
   }
 
+  /**
+   * Writes the "payload" entry, which may be a byte array, a ByteBuffer or a base64 string as produced by
+   * {@link #parseToJson(byte[])}.
+   */
+  @Override
+  public void pack(Map<String, Object> values, OutputStream outputStream) throws IOException {
+    Object payload = values.get(PAYLOAD);
+    if (payload instanceof byte[]) {
+      outputStream.write((byte[]) payload);
+    } else if (payload instanceof ByteBuffer) {
+      outputStream.write(copy((ByteBuffer) payload));
+    } else if (payload != null) {
+      try {
+        outputStream.write(Base64.getDecoder().decode(payload.toString()));
+      } catch (IllegalArgumentException e) {
+        throw new IOException("Payload is not base64 encoded", e);
+      }
+    } else {
+      throw new IOException("No payload supplied");
+    }
+  }
+
+  @Override
+  public void pack(ParsedObject parsedObject, OutputStream outputStream) throws IOException {
+    Object referenced = parsedObject.getReferenced();
+    if (referenced instanceof byte[]) {
+      outputStream.write((byte[]) referenced);
+    } else {
+      super.pack(parsedObject, outputStream);
+    }
+  }
+
   @Override
   public MessageFormatter getInstance(SchemaConfig config) throws IOException {
     return this;
@@ -77,7 +122,7 @@ public class RawFormatter extends MessageFormatter {
   @Override
   public Map<String, Object> getFormat() {
     return Map.of(
-        "payload", Map.of(
+        PAYLOAD, Map.of(
             "type", "base64",
             "info", "Opaque binary data; no schema available"
         )
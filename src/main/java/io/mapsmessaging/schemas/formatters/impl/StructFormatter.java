@@ -0,0 +1,487 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.gson.JsonObject;
+import io.mapsmessaging.schemas.config.SchemaConfig;
+import io.mapsmessaging.schemas.config.impl.StructFieldConfig;
+import io.mapsmessaging.schemas.config.impl.StructSchemaConfig;
+import io.mapsmessaging.schemas.formatters.MessageFormatter;
+import io.mapsmessaging.schemas.formatters.ParsedObject;
+import io.mapsmessaging.schemas.formatters.walker.FieldPath;
+import io.mapsmessaging.schemas.formatters.walker.TypedResolver;
+import io.mapsmessaging.schemas.formatters.walker.TypedValues;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The type Struct formatter. The field offsets are resolved when the formatter is created, so parsing does no work and
+ * each field is read directly from the payload when it is requested. Fields that extend past the end of a short payload
+ * return null.
+ */
+public class StructFormatter extends MessageFormatter {
+
+  private final Map<String, FieldReader> fields;
+  private final List<String> names;
+  private final int recordSize;
+
+  /**
+   * Instantiates a new Struct formatter.
+   */
+  public StructFormatter() {
+    fields = Map.of();
+    names = List.of();
+    recordSize = 0;
+  }
+
+  /**
+   * Instantiates a new Struct formatter.
+   *
+   * @param config the config
+   * @throws IOException if the field definitions are invalid
+   */
+  public StructFormatter(StructSchemaConfig config) throws IOException {
+    if (config.getFields() == null || config.getFields().isEmpty()) {
+      throw new IOException("No fields specified");
+    }
+    ByteOrder defaultOrder = config.getByteOrder() != null ? config.getByteOrder().toByteOrder() : ByteOrder.LITTLE_ENDIAN;
+    Map<String, FieldReader> map = new HashMap<>();
+    List<String> list = new ArrayList<>();
+    int end = 0;
+    for (StructFieldConfig field : config.getFields()) {
+      String name = field.getName();
+      if (name == null || name.isEmpty() || field.getType() == null) {
+        throw new IOException("Field requires a name and type");
+      }
+      if (field.getOffset() < 0 || field.size() <= 0) {
+        throw new IOException("Invalid offset or length for field " + name);
+      }
+      ByteOrder order = field.getByteOrder() != null ? field.getByteOrder().toByteOrder() : defaultOrder;
+      if (map.put(name, new FieldReader(field, order)) != null) {
+        throw new IOException("Duplicate field " + name);
+      }
+      list.add(name);
+      end = Math.max(end, field.getOffset() + field.size());
+    }
+    fields = map;
+    names = Collections.unmodifiableList(list);
+    recordSize = end;
+  }
+
+  @Override
+  public ParsedObject parse(byte[] payload) {
+    return new StructResolver(payload, 0, payload.length);
+  }
+
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length) {
+    return new StructResolver(payload, offset, length);
+  }
+
+  @Override
+  public JsonObject parseToJson(byte[] payload) throws IOException {
+    return parseToJson(payload, 0, payload.length);
+  }
+
+  @Override
+  public JsonObject parseToJson(byte[] payload, int offset, int length) throws IOException {
+    JsonObject jsonObject = new JsonObject();
+    for (String name : names) {
+      FieldReader reader = fields.get(name);
+      if (reader.fits(length)) {
+        jsonObject.add(name, gson.toJsonTree(reader.read(payload, offset)));
+      }
+    }
+    return jsonObject;
+  }
+
+  @Override
+  protected void writeEvents(byte[] payload, int offset, int length, JsonGenerator generator) throws IOException {
+    generator.writeStartObject();
+    for (String name : names) {
+      FieldReader reader = fields.get(name);
+      if (reader.fits(length)) {
+        generator.writeFieldName(name);
+        writeValue(generator, reader.read(payload, offset));
+      }
+    }
+    generator.writeEndObject();
+  }
+
+  /**
+   * Writes a record of the fixed layout. Fields missing from the map, and any gaps between fields, are zero filled.
+   */
+  @Override
+  public void pack(Map<String, Object> values, OutputStream outputStream) throws IOException {
+    byte[] record = new byte[recordSize];
+    for (String name : names) {
+      Object value = values.get(name);
+      if (value != null) {
+        fields.get(name).write(record, value);
+      }
+    }
+    outputStream.write(record);
+  }
+
+  @Override
+  public Map<String, Object> getFormat() {
+    Map<String, Object> format = new LinkedHashMap<>();
+    for (String name : names) {
+      FieldReader reader = fields.get(name);
+      format.put(name, Map.of(
+          "type", reader.type.name().toLowerCase(),
+          "offset", reader.offset,
+          "length", reader.size
+      ));
+    }
+    return format;
+  }
+
+  @Override
+  public MessageFormatter getInstance(SchemaConfig config) throws IOException {
+    return new StructFormatter((StructSchemaConfig) config);
+  }
+
+  @Override
+  public String getName() {
+    return "Struct";
+  }
+
+  /**
+   * Resolves fields straight from the payload using the precomputed readers.
+   */
+  private final class StructResolver implements ParsedObject, TypedResolver {
+
+    private final byte[] payload;
+    private final int offset;
+    private final int length;
+
+    private StructResolver(byte[] payload, int offset, int length) {
+      this.payload = payload;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public Object get(String key) {
+      FieldReader reader = fields.get(key);
+      if (reader != null) {
+        return reader.fits(length) ? reader.read(payload, offset) : null;
+      }
+      FieldPath path = FieldPath.compile(key);
+      if (path.size() != 1) {
+        return null; // Structs are flat
+      }
+      FieldPath.Step step = path.getStep(0);
+      return get(step.getName(), step.getIndex());
+    }
+
+    @Override
+    public Object get(String name, int index) {
+      FieldReader reader = find(name);
+      if (reader == null) {
+        return null;
+      }
+      if (index != FieldPath.Step.NO_INDEX && reader.type == StructFieldConfig.TYPE.BYTES) {
+        return index < reader.size ? (long) payload[offset + reader.offset + index] : null;
+      }
+      return reader.read(payload, offset);
+    }
+
+    @Override
+    public boolean isPresent(String key) {
+      FieldReader reader = fields.get(key);
+      return reader != null ? reader.fits(length) : ParsedObject.super.isPresent(key);
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+      FieldReader reader = fields.get(key);
+      if (reader != null) {
+        return reader.fits(length) ? reader.readLong(payload, offset, defaultValue) : defaultValue;
+      }
+      return ParsedObject.super.getLong(key, defaultValue);
+    }
+
+    @Override
+    public double getDouble(String key, double defaultValue) {
+      FieldReader reader = fields.get(key);
+      if (reader != null) {
+        return reader.fits(length) ? reader.readDouble(payload, offset, defaultValue) : defaultValue;
+      }
+      return ParsedObject.super.getDouble(key, defaultValue);
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+      return getBoolean(key, FieldPath.Step.NO_INDEX, defaultValue);
+    }
+
+    @Override
+    public String getString(String key) {
+      return getString(key, FieldPath.Step.NO_INDEX);
+    }
+
+    @Override
+    public boolean isPresent(String name, int index) {
+      FieldReader reader = find(name);
+      return reader != null && (index == FieldPath.Step.NO_INDEX || reader.type != StructFieldConfig.TYPE.BYTES || index < reader.size);
+    }
+
+    @Override
+    public long getLong(String name, int index, long defaultValue) {
+      FieldReader reader = find(name);
+      if (reader == null) {
+        return defaultValue;
+      }
+      if (index != FieldPath.Step.NO_INDEX && reader.type == StructFieldConfig.TYPE.BYTES) {
+        return index < reader.size ? payload[offset + reader.offset + index] : defaultValue;
+      }
+      return reader.readLong(payload, offset, defaultValue);
+    }
+
+    @Override
+    public double getDouble(String name, int index, double defaultValue) {
+      FieldReader reader = find(name);
+      if (reader == null) {
+        return defaultValue;
+      }
+      if (index != FieldPath.Step.NO_INDEX && reader.type == StructFieldConfig.TYPE.BYTES) {
+        return index < reader.size ? payload[offset + reader.offset + index] : defaultValue;
+      }
+      return reader.readDouble(payload, offset, defaultValue);
+    }
+
+    @Override
+    public boolean getBoolean(String name, int index, boolean defaultValue) {
+      FieldReader reader = find(name);
+      if (reader == null || reader.type == StructFieldConfig.TYPE.BYTES) {
+        return defaultValue;
+      }
+      if (reader.type == StructFieldConfig.TYPE.BOOLEAN) {
+        return payload[offset + reader.offset] != 0;
+      }
+      return TypedValues.toBoolean(reader.read(payload, offset), defaultValue);
+    }
+
+    @Override
+    public String getString(String name, int index) {
+      FieldReader reader = find(name);
+      return reader != null ? TypedValues.toString(reader.read(payload, offset)) : null;
+    }
+
+    @Override
+    public List<String> getKeys() {
+      return names;
+    }
+
+    @Override
+    public Object getReferenced() {
+      if (offset == 0 && length == payload.length) {
+        return payload;
+      }
+      return Arrays.copyOfRange(payload, offset, offset + length);
+    }
+
+    private FieldReader find(String name) {
+      FieldReader reader = fields.get(name);
+      return reader != null && reader.fits(length) ? reader : null;
+    }
+  }
+
+  /**
+   * Reads a single field at a fixed offset. The numeric types are read through a byte array view handle with the byte
+   * order of the field.
+   */
+  private static final class FieldReader {
+
+    private final StructFieldConfig.TYPE type;
+    private final int offset;
+    private final int size;
+    private final VarHandle handle;
+
+    private FieldReader(StructFieldConfig field, ByteOrder order) {
+      type = field.getType();
+      offset = field.getOffset();
+      size = field.size();
+      handle = view(type, order);
+    }
+
+    private static VarHandle view(StructFieldConfig.TYPE type, ByteOrder order) {
+      switch (type) {
+        case INT16:
+        case UINT16:
+          return MethodHandles.byteArrayViewVarHandle(short[].class, order);
+        case INT32:
+        case UINT32:
+          return MethodHandles.byteArrayViewVarHandle(int[].class, order);
+        case INT64:
+          return MethodHandles.byteArrayViewVarHandle(long[].class, order);
+        case FLOAT:
+          return MethodHandles.byteArrayViewVarHandle(float[].class, order);
+        case DOUBLE:
+          return MethodHandles.byteArrayViewVarHandle(double[].class, order);
+        default:
+          return null;
+      }
+    }
+
+    boolean fits(int length) {
+      return offset + size <= length;
+    }
+
+    Object read(byte[] payload, int base) {
+      switch (type) {
+        case FLOAT:
+        case DOUBLE:
+          return readDouble(payload, base, 0);
+        case BOOLEAN:
+          return payload[base + offset] != 0;
+        case STRING:
+          return readString(payload, base);
+        case BYTES:
+          return Arrays.copyOfRange(payload, base + offset, base + offset + size);
+        default:
+          return readLong(payload, base, 0);
+      }
+    }
+
+    long readLong(byte[] payload, int base, long defaultValue) {
+      int position = base + offset;
+      switch (type) {
+        case INT8:
+          return payload[position];
+        case UINT8:
+          return payload[position] & 0xff;
+        case INT16:
+          return (short) handle.get(payload, position);
+        case UINT16:
+          return (short) handle.get(payload, position) & 0xffff;
+        case INT32:
+          return (int) handle.get(payload, position);
+        case UINT32:
+          return (int) handle.get(payload, position) & 0xffffffffL;
+        case INT64:
+          return (long) handle.get(payload, position);
+        case FLOAT:
+          return (long) (float) handle.get(payload, position);
+        case DOUBLE:
+          return (long) (double) handle.get(payload, position);
+        case BOOLEAN:
+          return payload[position] != 0 ? 1 : 0;
+        case STRING:
+          return TypedValues.toLong(readString(payload, base), defaultValue);
+        default:
+          return defaultValue;
+      }
+    }
+
+    double readDouble(byte[] payload, int base, double defaultValue) {
+      int position = base + offset;
+      switch (type) {
+        case FLOAT:
+          return (float) handle.get(payload, position);
+        case DOUBLE:
+          return (double) handle.get(payload, position);
+        case STRING:
+          return TypedValues.toDouble(readString(payload, base), defaultValue);
+        case BYTES:
+          return defaultValue;
+        default:
+          return readLong(payload, base, 0);
+      }
+    }
+
+    void write(byte[] record, Object value) throws IOException {
+      switch (type) {
+        case FLOAT:
+          handle.set(record, offset, (float) toDouble(value));
+          break;
+        case DOUBLE:
+          handle.set(record, offset, toDouble(value));
+          break;
+        case INT16:
+        case UINT16:
+          handle.set(record, offset, (short) toLong(value));
+          break;
+        case INT32:
+        case UINT32:
+          handle.set(record, offset, (int) toLong(value));
+          break;
+        case INT64:
+          handle.set(record, offset, toLong(value));
+          break;
+        case BOOLEAN:
+          record[offset] = (byte) (TypedValues.toBoolean(value, false) ? 1 : 0);
+          break;
+        case STRING:
+          byte[] text = value.toString().getBytes(StandardCharsets.UTF_8);
+          System.arraycopy(text, 0, record, offset, Math.min(text.length, size)); // Truncated or NUL padded
+          break;
+        case BYTES:
+          byte[] data = value instanceof byte[] ? (byte[]) value : Base64.getDecoder().decode(value.toString());
+          System.arraycopy(data, 0, record, offset, Math.min(data.length, size));
+          break;
+        default:
+          record[offset] = (byte) toLong(value);
+          break;
+      }
+    }
+
+    private long toLong(Object value) throws IOException {
+      if (value instanceof Boolean) {
+        return Boolean.TRUE.equals(value) ? 1 : 0;
+      }
+      if (value instanceof Number) {
+        return ((Number) value).longValue();
+      }
+      return (long) toDouble(value);
+    }
+
+    private double toDouble(Object value) throws IOException {
+      if (value instanceof Number) {
+        return ((Number) value).doubleValue();
+      }
+      try {
+        return Double.parseDouble(value.toString().trim());
+      } catch (NumberFormatException e) {
+        throw new IOException("Field at offset " + offset + " expects a number, found " + value, e);
+      }
+    }
+
+    private String readString(byte[] payload, int base) {
+      int start = base + offset;
+      int end = start;
+      int limit = start + size;
+      while (end < limit && payload[end] != 0) {
+        end++;
+      }
+      return new String(payload, start, end - start, StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -20,49 +20,56 @@
 
 package io.mapsmessaging.schemas.formatters.impl;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.XmlSchemaConfig;
 import io.mapsmessaging.schemas.formatters.MessageFormatter;
 import io.mapsmessaging.schemas.formatters.ParsedObject;
 import io.mapsmessaging.schemas.formatters.walker.MapResolver;
 import io.mapsmessaging.schemas.formatters.walker.StructuredResolver;
-import org.w3c.dom.Document;
-import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import static io.mapsmessaging.schemas.logging.SchemaLogMessages.*;
+import static io.mapsmessaging.schemas.logging.SchemaLogMessages.FORMATTER_UNEXPECTED_OBJECT;
+import static io.mapsmessaging.schemas.logging.SchemaLogMessages.XML_PARSE_EXCEPTION;
 
 /**
  * The type Xml formatter.
+ * <p>
+ * Documents are read in a single pass with a StAX reader and converted directly into a tree of maps, lists and values.
+ * The root element is dropped, attributes and child elements become entries, repeated elements become lists and
+ * numeric text is converted to Integer, Long or Double. The reader factory is thread safe, so parsing is not synchronized.
  */
 public class XmlFormatter extends MessageFormatter {
 
   private static final String NAME = "XML";
+  private static final String TEXT_KEY = "";
+  private static final String DEFAULT_ROOT = "message";
 
-  private final DocumentBuilder parser;
+  private final XMLInputFactory inputFactory;
+  private final XMLOutputFactory outputFactory;
   private final String root;
 
   /**
    * Instantiates a new Xml formatter.
    */
   public XmlFormatter() {
-    parser = null;
+    inputFactory = null;
+    outputFactory = null;
     root = "";
   }
 
@@ -70,20 +77,16 @@ public class XmlFormatter extends MessageFormatter {
    * Instantiates a new Xml formatter.
    *
    * @param config the config
-   * @throws IOException the io exception
    */
-  XmlFormatter(XmlSchemaConfig config) throws IOException {
-    try {
-      DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-      dbf.setNamespaceAware(config.isNamespaceAware());
-      dbf.setValidating(config.isValidating());
-      dbf.setCoalescing(config.isCoalescing());
-      parser = dbf.newDocumentBuilder();
-      root = config.getRootEntry();
-    } catch (ParserConfigurationException e) {
-      logger.log(XML_CONFIGURATION_EXCEPTION, e);
-      throw new IOException(e);
-    }
+  XmlFormatter(XmlSchemaConfig config) {
+    inputFactory = XMLInputFactory.newFactory();
+    inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, config.isNamespaceAware());
+    inputFactory.setProperty(XMLInputFactory.IS_VALIDATING, config.isValidating());
+    inputFactory.setProperty(XMLInputFactory.IS_COALESCING, config.isCoalescing());
+    inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, config.isValidating());
+    outputFactory = XMLOutputFactory.newFactory();
+    root = config.getRootEntry();
   }
 
   public String getName() {
@@ -92,56 +95,33 @@ public class XmlFormatter extends MessageFormatter {
 
   @Override
   public JsonObject parseToJson(byte[] payload) {
-    try {
-      ObjectMapper xmlMapper = new XmlMapper();
-      Map<String, Object> map = xmlMapper.readValue(payload, new TypeReference<>() {
-      });
-      if (map.size() == 1 && map.values().iterator().next() instanceof Map) {
-        map = (Map<String, Object>) map.values().iterator().next();
-      }
-
-      Object cleaned = coerceTypes(map);
-      JsonElement jsonElement = gson.toJsonTree(cleaned);
-      JsonObject rootObject = jsonElement.getAsJsonObject();
-
-      if (root != null && !root.isEmpty() && rootObject.has(root)) {
-        return rootObject.getAsJsonObject(root);
-      }
+    return parseToJson(payload, 0, payload.length);
+  }
 
-      return rootObject;
-    } catch (Exception e) {
+  @Override
+  public JsonObject parseToJson(byte[] payload, int offset, int length) {
+    try {
+      return gson.toJsonTree(readDocument(payload, offset, length)).getAsJsonObject();
+    } catch (XMLStreamException e) {
       logger.log(FORMATTER_UNEXPECTED_OBJECT, getName());
       return new JsonObject();
     }
   }
 
   @Override
-  public synchronized ParsedObject parse(byte[] payload) {
-    try {
-      Document document = parser.parse(new ByteArrayInputStream(payload));
-      JsonObject jsonObject = parseToJson(payload);
-      Type type = new TypeToken<Map<String, Object>>() {
-      }.getType();
-      Map<String, Object> map = gson.fromJson(jsonObject, type);
+  public ParsedObject parse(byte[] payload) {
+    return parse(payload, 0, payload.length);
+  }
 
-      if (root != null && !root.isEmpty() && map.containsKey(root)) {
-        map = (Map<String, Object>) map.get(root);
-      }
-      return new StructuredResolver(new MapResolver(map), document);
-    } catch (IOException | SAXException e) {
+  @Override
+  public ParsedObject parse(byte[] payload, int offset, int length) {
+    try {
+      Map<String, Object> map = readDocument(payload, offset, length);
+      return new StructuredResolver(new MapResolver(map), map);
+    } catch (XMLStreamException e) {
       logger.log(XML_PARSE_EXCEPTION, getName(), e);
     }
-    return new ParsedObject() {
-      @Override
-      public Object getReferenced() {
-        return payload;
-      }
-
-      @Override
-      public Object get(String s) {
-        return null;
-      }
-    };
+    return new DefaultParser(payload, offset, length);
   }
 
   @Override
@@ -157,47 +137,190 @@ public class XmlFormatter extends MessageFormatter {
   }
 
 
+  /**
+   * Writes the values as a document, using the configured root entry as the document element. Maps become child
+   * elements, lists become repeated elements and the "" entry becomes the text of its element.
+   */
   @Override
-  public MessageFormatter getInstance(SchemaConfig config) throws IOException {
-    return new XmlFormatter((XmlSchemaConfig) config);
+  public void pack(Map<String, Object> values, OutputStream outputStream) throws IOException {
+    if (outputFactory == null) {
+      super.pack(values, outputStream);
+      return;
+    }
+    try {
+      XMLStreamWriter writer = outputFactory.createXMLStreamWriter(outputStream, "UTF-8");
+      try {
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.writeStartElement(root != null && !root.isEmpty() ? root : DEFAULT_ROOT);
+        writeEntries(writer, values);
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.flush();
+      } finally {
+        writer.close(); // Does not close the underlying stream
+      }
+    } catch (XMLStreamException e) {
+      throw new IOException("Unable to write XML document", e);
+    }
   }
 
-  private Object coerceTypes(Object value) {
-    if (value instanceof Map) {
-      Map<String, Object> result = new LinkedHashMap<>();
-      ((Map<?, ?>) value).forEach((k, v) -> result.put(String.valueOf(k), coerceTypes(v)));
-      return result;
+  private void writeEntries(XMLStreamWriter writer, Map<?, ?> values) throws XMLStreamException {
+    Object text = values.get(TEXT_KEY);
+    for (Map.Entry<?, ?> entry : values.entrySet()) {
+      String name = entry.getKey().toString();
+      if (!name.equals(TEXT_KEY)) {
+        writeValue(writer, name, entry.getValue());
+      }
+    }
+    if (text != null) {
+      writer.writeCharacters(text.toString());
     }
+  }
 
-    if (value instanceof List) {
-      List<Object> list = new ArrayList<>();
-      for (Object item : (List<?>) value) {
-        list.add(coerceTypes(item));
+  private void writeValue(XMLStreamWriter writer, String name, Object value) throws XMLStreamException {
+    if (value instanceof Collection) {
+      for (Object entry : (Collection<?>) value) {
+        writeValue(writer, name, entry);
+      }
+    } else if (value == null) {
+      writer.writeEmptyElement(name);
+    } else {
+      writer.writeStartElement(name);
+      if (value instanceof Map) {
+        writeEntries(writer, (Map<?, ?>) value);
+      } else if (value instanceof byte[]) {
+        writer.writeCharacters(Base64.getEncoder().encodeToString((byte[]) value));
+      } else {
+        writer.writeCharacters(value.toString());
       }
-      return list;
+      writer.writeEndElement();
     }
+  }
 
-    if (value instanceof String) {
-      String s = (String) value;
-      // Try parsing to Integer, Long, or Double
-      try {
-        return Integer.parseInt(s);
-      } catch (NumberFormatException ignored) {
-        // lets drop through, maybe long or double will work
+  @Override
+  public MessageFormatter getInstance(SchemaConfig config) {
+    return new XmlFormatter((XmlSchemaConfig) config);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> readDocument(byte[] payload, int offset, int length) throws XMLStreamException {
+    XMLStreamReader reader = inputFactory.createXMLStreamReader(new ByteArrayInputStream(payload, offset, length));
+    try {
+      while (reader.hasNext() && reader.next() != XMLStreamConstants.START_ELEMENT) {
+        // Skip the prolog, comments and processing instructions
       }
-      try {
-        return Long.parseLong(s);
-      } catch (NumberFormatException ignored) {
-        // lets drop through, maybe double will work
+      if (!reader.isStartElement()) {
+        throw new XMLStreamException("No root element found");
       }
-      try {
-        return Double.parseDouble(s);
-      } catch (NumberFormatException ignored) {
-        // assume a string
+      Object value = readElement(reader);
+      Map<String, Object> map;
+      if (value instanceof Map) {
+        map = (Map<String, Object>) value;
+      } else {
+        map = new LinkedHashMap<>();
+        map.put(TEXT_KEY, value);
+      }
+      if (map.size() == 1 && map.values().iterator().next() instanceof Map) {
+        map = (Map<String, Object>) map.values().iterator().next();
+      }
+      if (root != null && !root.isEmpty() && map.get(root) instanceof Map) {
+        map = (Map<String, Object>) map.get(root);
+      }
+      return map;
+    } finally {
+      reader.close();
+    }
+  }
+
+  private Object readElement(XMLStreamReader reader) throws XMLStreamException {
+    Map<String, Object> map = null;
+    int attributes = reader.getAttributeCount();
+    if (attributes > 0) {
+      map = new LinkedHashMap<>();
+      for (int x = 0; x < attributes; x++) {
+        map.put(reader.getAttributeLocalName(x), coerce(reader.getAttributeValue(x)));
+      }
+    }
+    StringBuilder text = null;
+    while (reader.hasNext()) {
+      int event = reader.next();
+      switch (event) {
+        case XMLStreamConstants.START_ELEMENT:
+          if (map == null) {
+            map = new LinkedHashMap<>();
+          }
+          String name = reader.getLocalName();
+          add(map, name, readElement(reader));
+          break;
+
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.CDATA:
+        case XMLStreamConstants.SPACE:
+          if (text == null) {
+            text = new StringBuilder();
+          }
+          text.append(reader.getText());
+          break;
+
+        case XMLStreamConstants.END_ELEMENT:
+          return complete(map, text);
+
+        default:
+          break;
       }
-      return s;
     }
-    return value;
+    throw new XMLStreamException("Unexpected end of document");
   }
 
-}
\ No newline at end of file
+  private Object complete(Map<String, Object> map, StringBuilder text) {
+    String value = (text == null) ? "" : text.toString();
+    if (map == null) {
+      return value.isBlank() ? "" : coerce(value);
+    }
+    if (!value.isBlank()) {
+      map.put(TEXT_KEY, coerce(value.trim()));
+    }
+    return map;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void add(Map<String, Object> map, String name, Object value) {
+    Object existing = map.get(name);
+    if (existing == null) {
+      map.put(name, value);
+    } else if (existing instanceof RepeatedList) {
+      ((List<Object>) existing).add(value);
+    } else {
+      List<Object> list = new RepeatedList();
+      list.add(existing);
+      list.add(value);
+      map.put(name, list);
+    }
+  }
+
+  private Object coerce(String s) {
+    // Try parsing to Integer, Long, or Double
+    try {
+      return Integer.parseInt(s);
+    } catch (NumberFormatException ignored) {
+      // lets drop through, maybe long or double will work
+    }
+    try {
+      return Long.parseLong(s);
+    } catch (NumberFormatException ignored) {
+      // lets drop through, maybe double will work
+    }
+    try {
+      return Double.parseDouble(s);
+    } catch (NumberFormatException ignored) {
+      // assume a string
+    }
+    return s;
+  }
+
+  /**
+   * Marks a list created from repeated elements, so a value that is itself a list is not extended.
+   */
+  private static final class RepeatedList extends ArrayList<Object> {
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.ValidationMessage;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * A parsed JSON schema together with its compiled validator. Instances are immutable and shared between formatters by
+ * the {@link JsonSchemaCache}.
+ */
+public final class CompiledJsonSchema {
+
+  @Getter
+  private final JsonNode schemaNode;
+  private final JsonSchema schema;
+
+  CompiledJsonSchema(JsonNode schemaNode, JsonSchema schema) {
+    this.schemaNode = schemaNode;
+    this.schema = schema;
+  }
+
+  /**
+   * Checks if the schema has any constraints to validate. An empty schema accepts every document.
+   *
+   * @return true if documents need to be validated
+   */
+  public boolean isValidating() {
+    return schema != null;
+  }
+
+  /**
+   * Validates an already parsed document.
+   *
+   * @param document the document
+   * @return the validation failures, empty if the document is valid
+   */
+  public Set<ValidationMessage> validate(JsonNode document) {
+    if (schema == null) {
+      return Set.of();
+    }
+    return schema.validate(document);
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A process wide cache of compiled JSON schemas keyed by the SHA-256 of the schema text, so formatters for the same schema
+ * share a single compiled validator.
+ */
+public final class JsonSchemaCache {
+
+  private static final int MAX_CACHED = 1024;
+  private static final Map<String, CompiledJsonSchema> CACHE = new ConcurrentHashMap<>();
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final JsonSchemaFactory SCHEMA_FACTORY = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
+
+  /**
+   * Gets the compiled schema for the schema text, compiling it if it has not been seen before.
+   *
+   * @param schemaString the JSON schema
+   * @return the compiled schema
+   * @throws IOException if the schema is not valid JSON
+   */
+  public static CompiledJsonSchema get(String schemaString) throws IOException {
+    String key = key(schemaString);
+    CompiledJsonSchema compiled = CACHE.get(key);
+    if (compiled == null) {
+      JsonNode schemaNode = OBJECT_MAPPER.readTree(schemaString);
+      // An empty object or true accepts every document, so there is nothing to validate. A false schema rejects them all
+      boolean acceptsAll = (schemaNode.isObject() && schemaNode.isEmpty()) || (schemaNode.isBoolean() && schemaNode.booleanValue());
+      compiled = new CompiledJsonSchema(schemaNode, acceptsAll ? null : SCHEMA_FACTORY.getSchema(schemaNode));
+      if (CACHE.size() >= MAX_CACHED) {
+        CACHE.clear();
+      }
+      CACHE.put(key, compiled);
+    }
+    return compiled;
+  }
+
+  private static String key(String schemaString) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(schemaString.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is a required JVM algorithm", e);
+    }
+  }
+
+  private JsonSchemaCache() {
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.ValidationMessage;
+import io.mapsmessaging.logging.Logger;
+import io.mapsmessaging.logging.LoggerFactory;
+import io.mapsmessaging.schemas.config.impl.SchemaValidationConfig;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.mapsmessaging.schemas.logging.SchemaLogMessages.FORMATTER_UNEXPECTED_OBJECT;
+import static io.mapsmessaging.schemas.logging.SchemaLogMessages.JSON_PARSE_EXCEPTION;
+
+/**
+ * Applies a {@link SchemaValidationConfig} policy to a compiled JSON schema. The formatter calls {@link #select()} for
+ * each message and only builds a document for {@link #validate(DocumentSource)} when it returns true. Results are
+ * counted rather than returned when validation runs in the background.
+ */
+public class SchemaValidator {
+
+  private static final int ASYNC_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+  private static final int ASYNC_QUEUE_SIZE = 1024;
+  private static final ThreadPoolExecutor ASYNC_EXECUTOR = createExecutor();
+
+  private final Logger logger = LoggerFactory.getLogger(SchemaValidator.class);
+  private final String formatName;
+  private final CompiledJsonSchema schema;
+  private final SchemaValidationConfig.POLICY policy;
+  private final int sampleRate;
+  private final int maxPerInterval;
+  private final long interval;
+
+  private final AtomicLong sampleCounter = new AtomicLong();
+  private final AtomicLong intervalStart = new AtomicLong();
+  private final AtomicInteger intervalCount = new AtomicInteger();
+
+  private final LongAdder validated = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder skipped = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+
+  /**
+   * Instantiates a new Schema validator.
+   *
+   * @param formatName the name of the format, used when logging failures
+   * @param schema the compiled schema
+   * @param config the policy, null validates every message
+   */
+  public SchemaValidator(String formatName, CompiledJsonSchema schema, SchemaValidationConfig config) {
+    this.formatName = formatName;
+    this.schema = schema;
+    if (config == null) {
+      config = new SchemaValidationConfig();
+    }
+    policy = config.getPolicy();
+    sampleRate = Math.max(1, config.getSampleRate());
+    maxPerInterval = config.getMaxPerInterval();
+    interval = Math.max(1, config.getInterval());
+  }
+
+  /**
+   * Decides whether the current message should be validated, and counts it as skipped if not.
+   *
+   * @return true if the message should be passed to {@link #validate(DocumentSource)}
+   */
+  public boolean select() {
+    boolean selected;
+    switch (policy) {
+      case SAMPLED:
+        selected = sampleCounter.getAndIncrement() % sampleRate == 0;
+        break;
+      case FIRST_N_PER_INTERVAL:
+        selected = withinInterval();
+        break;
+      default:
+        selected = true;
+        break;
+    }
+    if (!selected) {
+      skipped.increment();
+    }
+    return selected;
+  }
+
+  /**
+   * Checks if validation runs on a background thread. Formatters should then pass a source that does not depend on
+   * buffers the caller may reuse.
+   *
+   * @return true if validation is asynchronous
+   */
+  public boolean isAsync() {
+    return policy == SchemaValidationConfig.POLICY.ASYNC;
+  }
+
+  /**
+   * Validates the document. Asynchronous validation is queued, or dropped if the queue is full, and always returns true.
+   *
+   * @param source the source of the document
+   * @return false if the document was validated synchronously and failed
+   */
+  public boolean validate(DocumentSource source) {
+    if (!isAsync()) {
+      return run(source);
+    }
+    try {
+      ASYNC_EXECUTOR.execute(() -> run(source));
+    } catch (RejectedExecutionException e) {
+      dropped.increment();
+    }
+    return true;
+  }
+
+  public long getValidatedCount() {
+    return validated.sum();
+  }
+
+  public long getFailedCount() {
+    return failed.sum();
+  }
+
+  public long getSkippedCount() {
+    return skipped.sum();
+  }
+
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  private boolean run(DocumentSource source) {
+    Set<ValidationMessage> validationResult;
+    try {
+      validationResult = schema.validate(source.read());
+    } catch (IOException e) {
+      failed.increment();
+      logger.log(FORMATTER_UNEXPECTED_OBJECT, formatName, e.getMessage());
+      return false;
+    }
+    validated.increment();
+    if (!validationResult.isEmpty()) {
+      failed.increment();
+      logger.log(JSON_PARSE_EXCEPTION, formatName, validationResult);
+      return false;
+    }
+    return true;
+  }
+
+  private boolean withinInterval() {
+    long now = System.currentTimeMillis();
+    long start = intervalStart.get();
+    if (now - start >= interval && intervalStart.compareAndSet(start, now)) {
+      intervalCount.set(0);
+    }
+    return intervalCount.incrementAndGet() <= maxPerInterval;
+  }
+
+  private static ThreadPoolExecutor createExecutor() {
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        ASYNC_THREADS,
+        ASYNC_THREADS,
+        30,
+        TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(ASYNC_QUEUE_SIZE),
+        runnable -> {
+          Thread thread = new Thread(runnable, "SchemaValidator-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Supplies the document to validate, allowing formatters to defer building it until validation runs.
+   */
+  @FunctionalInterface
+  public interface DocumentSource {
+
+    /**
+     * Reads the document.
+     *
+     * @return the document
+     * @throws IOException if the document could not be read
+     */
+    JsonNode read() throws IOException;
+  }
+}
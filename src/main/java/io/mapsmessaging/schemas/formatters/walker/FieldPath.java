@@ -0,0 +1,150 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.walker;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compiled field path such as "a.b[3].c". The path is split into its steps once and the result is cached, so repeated
+ * lookups with the same path string do not need to split the string or parse the array indexes again.
+ */
+public final class FieldPath {
+
+  private static final int MAX_CACHED = 1024;
+  private static final Map<String, FieldPath> CACHE = new ConcurrentHashMap<>();
+
+  private final String path;
+  private final Step[] steps;
+
+  /**
+   * Compiles the path, returning a cached instance if the path has been seen before.
+   *
+   * @param path the path
+   * @return the field path
+   */
+  public static FieldPath compile(String path) {
+    FieldPath fieldPath = CACHE.get(path);
+    if (fieldPath == null) {
+      fieldPath = new FieldPath(path);
+      if (CACHE.size() >= MAX_CACHED) {
+        CACHE.clear();
+      }
+      CACHE.put(path, fieldPath);
+    }
+    return fieldPath;
+  }
+
+  private FieldPath(String path) {
+    this.path = path;
+    List<Step> list = new ArrayList<>();
+    int start = 0;
+    while (start <= path.length()) {
+      int end = path.indexOf('.', start);
+      if (end < 0) {
+        end = path.length();
+      }
+      list.add(Step.parse(path.substring(start, end)));
+      start = end + 1;
+    }
+    steps = list.toArray(new Step[0]);
+  }
+
+  /**
+   * Gets the number of steps in the path.
+   *
+   * @return the size
+   */
+  public int size() {
+    return steps.length;
+  }
+
+  /**
+   * Gets the step at the supplied position.
+   *
+   * @param index the index
+   * @return the step
+   */
+  public Step getStep(int index) {
+    return steps[index];
+  }
+
+  @Override
+  public String toString() {
+    return path;
+  }
+
+  /**
+   * A single step in the path, a field name with an optional array index.
+   */
+  @Getter
+  public static final class Step {
+
+    /**
+     * The value of index when the step does not address an array entry.
+     */
+    public static final int NO_INDEX = -1;
+
+    private final String segment;
+    private final String name;
+    private final int index;
+
+    /**
+     * Parses a single path segment, such as "b[3]".
+     *
+     * @param segment the segment
+     * @return the step
+     */
+    public static Step parse(String segment) {
+      if (segment.endsWith("]")) {
+        int open = segment.indexOf('[');
+        if (open >= 0) {
+          try {
+            int index = Integer.parseInt(segment.substring(open + 1, segment.indexOf(']')).trim());
+            return new Step(segment, segment.substring(0, open), index);
+          } catch (NumberFormatException e) {
+            // Not a valid index, treat the entire segment as the name
+          }
+        }
+      }
+      return new Step(segment, segment, NO_INDEX);
+    }
+
+    private Step(String segment, String name, int index) {
+      this.segment = segment;
+      this.name = name;
+      this.index = index;
+    }
+
+    /**
+     * Checks if the step addresses an array entry.
+     *
+     * @return true if an index was supplied
+     */
+    public boolean isIndexed() {
+      return index != NO_INDEX;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.walker;
+
+import io.mapsmessaging.selector.IdentifierResolver;
+
+/**
+ * A resolver that can look up a field using a pre-parsed name and array index, avoiding the need to parse "name[idx]"
+ * strings on every call.
+ */
+public interface IndexedResolver extends IdentifierResolver {
+
+  /**
+   * Get the value of the named field.
+   *
+   * @param name the field name
+   * @param index the array index or {@link FieldPath.Step#NO_INDEX}
+   * @return the value or null if not found
+   */
+  Object get(String name, int index);
+
+  @Override
+  default Object get(String key) {
+    FieldPath.Step step = FieldPath.Step.parse(key);
+    return get(step.getName(), step.getIndex());
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.walker;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.mapsmessaging.schemas.formatters.ParsedObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves fields directly from a Jackson tree, so a single decoded tree can be used for both schema validation and
+ * lookups.
+ */
+public class JsonNodeResolver implements ParsedObject, TypedResolver {
+
+  private final JsonNode node;
+
+  /**
+   * Instantiates a new Json node resolver.
+   *
+   * @param node the object node
+   */
+  public JsonNodeResolver(JsonNode node) {
+    this.node = node;
+  }
+
+  @Override
+  public Object get(String key) {
+    return StructureWalker.locateObject(this, FieldPath.compile(key));
+  }
+
+  @Override
+  public Object get(String name, int index) {
+    JsonNode value = valueNode(name, index);
+    if (value == null) {
+      return null;
+    }
+    if (value.isObject()) {
+      return new JsonNodeResolver(value);
+    }
+    return toJava(value);
+  }
+
+  @Override
+  public boolean isPresent(String name, int index) {
+    JsonNode value = valueNode(name, index);
+    return value != null && !value.isNull();
+  }
+
+  @Override
+  public long getLong(String name, int index, long defaultValue) {
+    JsonNode value = valueNode(name, index);
+    if (value == null) {
+      return defaultValue;
+    }
+    if (value.isNumber()) {
+      return value.longValue();
+    }
+    return value.isTextual() ? TypedValues.toLong(value.textValue(), defaultValue) : defaultValue;
+  }
+
+  @Override
+  public double getDouble(String name, int index, double defaultValue) {
+    JsonNode value = valueNode(name, index);
+    if (value == null) {
+      return defaultValue;
+    }
+    if (value.isNumber()) {
+      return value.doubleValue();
+    }
+    return value.isTextual() ? TypedValues.toDouble(value.textValue(), defaultValue) : defaultValue;
+  }
+
+  @Override
+  public boolean getBoolean(String name, int index, boolean defaultValue) {
+    JsonNode value = valueNode(name, index);
+    if (value == null) {
+      return defaultValue;
+    }
+    if (value.isBoolean()) {
+      return value.booleanValue();
+    }
+    return value.isTextual() ? TypedValues.toBoolean(value.textValue(), defaultValue) : defaultValue;
+  }
+
+  @Override
+  public String getString(String name, int index) {
+    JsonNode value = valueNode(name, index);
+    if (value == null || !value.isValueNode() || value.isNull() || value.isBinary()) {
+      return null;
+    }
+    return value.asText();
+  }
+
+  private JsonNode valueNode(String name, int index) {
+    JsonNode value = node.get(name);
+    if (value != null && value.isArray() && index != FieldPath.Step.NO_INDEX) {
+      return value.get(index);
+    }
+    return value;
+  }
+
+  @Override
+  public List<String> getKeys() {
+    List<String> keys = new ArrayList<>();
+    node.fieldNames().forEachRemaining(keys::add);
+    return keys;
+  }
+
+  @Override
+  public Object getReferenced() {
+    return node;
+  }
+
+  /**
+   * Converts the node to the equivalent Java value, containers are converted to maps and lists.
+   *
+   * @param value the value
+   * @return the java value
+   */
+  public static Object toJava(JsonNode value) {
+    if (value.isTextual()) {
+      return value.textValue();
+    }
+    if (value.isNumber()) {
+      return value.numberValue();
+    }
+    if (value.isBoolean()) {
+      return value.booleanValue();
+    }
+    if (value.isBinary()) {
+      try {
+        return value.binaryValue();
+      } catch (IOException e) {
+        return null; // Binary nodes always hold their bytes, so this can not happen
+      }
+    }
+    if (value.isObject()) {
+      Map<String, Object> map = new LinkedHashMap<>();
+      Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> entry = fields.next();
+        map.put(entry.getKey(), toJava(entry.getValue()));
+      }
+      return map;
+    }
+    if (value.isArray()) {
+      List<Object> list = new ArrayList<>(value.size());
+      for (JsonNode entry : value) {
+        list.add(toJava(entry));
+      }
+      return list;
+    }
+    return null;
+  }
+}
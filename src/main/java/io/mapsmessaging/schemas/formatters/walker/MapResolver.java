@@ -29,7 +29,7 @@ import java.util.Map;
 /**
  * The type Map resolver.
  */
-public class MapResolver implements ParsedObject {
+public class MapResolver implements ParsedObject, IndexedResolver {
 
   private final Map<String, Object> map;
   private final boolean parseStringNumerics;
@@ -61,28 +61,19 @@ public class MapResolver implements ParsedObject {
   }
 
   @Override
-  public Object get(String s) {
-    String lookup = s;
-    boolean isArray = false;
-    if (s.endsWith("]")) {
-      lookup = s.substring(0, s.indexOf("["));
-      isArray = true;
+  public Object get(String name, int index) {
+    Object val = map.get(name);
+    if (val == null) {
+      return null;
     }
-    if (map.containsKey(lookup)) {
-      Object val = map.get(lookup);
-      if (val instanceof List && isArray) {
-        String index = s.substring(s.indexOf("[") + 1, s.indexOf("]"));
-        var idx = Integer.parseInt(index.trim());
-        List<Object> vList = (List<Object>) val;
-        if (vList.size() > idx) {
-          val = vList.get(idx);
-        } else {
-          return null;
-        }
+    if (index != FieldPath.Step.NO_INDEX && val instanceof List) {
+      List<Object> vList = (List<Object>) val;
+      if (index >= vList.size()) {
+        return null;
       }
-      return parseValue(val);
+      val = vList.get(index);
     }
-    return null;
+    return parseValue(val);
   }
 
   private Object parseValue(Object val) {
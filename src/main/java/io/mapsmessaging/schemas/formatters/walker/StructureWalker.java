@@ -53,6 +53,53 @@ public class StructureWalker {
     return parse(context);
   }
 
+  /**
+   * Locate object using a compiled path.
+   *
+   * @param resolver the resolver
+   * @param path the compiled path
+   * @return the object
+   */
+  public static Object locateObject(IdentifierResolver resolver, FieldPath path) {
+    Object context = null;
+    for (int x = 0; x < path.size(); x++) {
+      FieldPath.Step step = path.getStep(x);
+      if (resolver instanceof IndexedResolver) {
+        context = ((IndexedResolver) resolver).get(step.getName(), step.getIndex());
+      } else {
+        context = resolver.get(step.getSegment());
+      }
+      if (context instanceof IdentifierResolver) {
+        resolver = (IdentifierResolver) context;
+      }
+    }
+    return parse(context);
+  }
+
+  /**
+   * Locates the resolver that holds the last step of the path, following the same rules as
+   * {@link #locateObject(IdentifierResolver, FieldPath)}.
+   *
+   * @param resolver the resolver
+   * @param path the compiled path
+   * @return the resolver for the last step
+   */
+  public static IdentifierResolver locateParent(IdentifierResolver resolver, FieldPath path) {
+    for (int x = 0; x < path.size() - 1; x++) {
+      FieldPath.Step step = path.getStep(x);
+      Object context;
+      if (resolver instanceof IndexedResolver) {
+        context = ((IndexedResolver) resolver).get(step.getName(), step.getIndex());
+      } else {
+        context = resolver.get(step.getSegment());
+      }
+      if (context instanceof IdentifierResolver) {
+        resolver = (IdentifierResolver) context;
+      }
+    }
+    return resolver;
+  }
+
   private static Object parse(Object lookup) {
     if (lookup == null) {
       return null;
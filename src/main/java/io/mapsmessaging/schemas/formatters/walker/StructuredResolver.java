@@ -23,7 +23,6 @@ package io.mapsmessaging.schemas.formatters.walker;
 import io.mapsmessaging.schemas.formatters.ParsedObject;
 import io.mapsmessaging.selector.IdentifierResolver;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -47,14 +46,12 @@ public class StructuredResolver implements ParsedObject {
 
   @Override
   public Object get(String s) {
-    List<String> keys = new ArrayList<>();
+    return StructureWalker.locateObject(resolver, FieldPath.compile(s));
+  }
 
-    if (s.contains(".")) {
-      keys.addAll(List.of(s.split("\\.")));
-    } else {
-      keys.add(s);
-    }
-    return StructureWalker.locateObject(resolver, keys);
+  @Override
+  public Object get(FieldPath path) {
+    return StructureWalker.locateObject(resolver, path);
   }
 
   public List<String> getKeys() {
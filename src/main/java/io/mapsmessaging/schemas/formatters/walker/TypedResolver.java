@@ -0,0 +1,77 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.walker;
+
+/**
+ * A resolver that can return primitive values for a field without boxing them or converting them to strings. The
+ * {@link io.mapsmessaging.schemas.formatters.ParsedObject} typed accessors walk to the resolver holding the last step of
+ * the path and call these methods when it implements this interface.
+ */
+public interface TypedResolver extends IndexedResolver {
+
+  /**
+   * Checks if the field exists and is not null.
+   *
+   * @param name the field name
+   * @param index the array index or {@link FieldPath.Step#NO_INDEX}
+   * @return true if the field has a value
+   */
+  boolean isPresent(String name, int index);
+
+  /**
+   * Gets the field as a long. Decimal values are truncated and numeric strings are parsed.
+   *
+   * @param name the field name
+   * @param index the array index or {@link FieldPath.Step#NO_INDEX}
+   * @param defaultValue the value returned if the field is missing or not numeric
+   * @return the value
+   */
+  long getLong(String name, int index, long defaultValue);
+
+  /**
+   * Gets the field as a double. Numeric strings are parsed.
+   *
+   * @param name the field name
+   * @param index the array index or {@link FieldPath.Step#NO_INDEX}
+   * @param defaultValue the value returned if the field is missing or not numeric
+   * @return the value
+   */
+  double getDouble(String name, int index, double defaultValue);
+
+  /**
+   * Gets the field as a boolean. The strings "true" and "false" are accepted.
+   *
+   * @param name the field name
+   * @param index the array index or {@link FieldPath.Step#NO_INDEX}
+   * @param defaultValue the value returned if the field is missing or not a boolean
+   * @return the value
+   */
+  boolean getBoolean(String name, int index, boolean defaultValue);
+
+  /**
+   * Gets a scalar field as a string.
+   *
+   * @param name the field name
+   * @param index the array index or {@link FieldPath.Step#NO_INDEX}
+   * @return the value or null if the field is missing or not a scalar
+   */
+  String getString(String name, int index);
+}
@@ -0,0 +1,114 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.walker;
+
+/**
+ * Conversions used by the typed accessors when the value has already been decoded to an object.
+ */
+public final class TypedValues {
+
+  /**
+   * Converts the value to a long.
+   *
+   * @param value the value
+   * @param defaultValue the value returned if the value is null or not numeric
+   * @return the long
+   */
+  public static long toLong(Object value, long defaultValue) {
+    if (value instanceof Number) {
+      return ((Number) value).longValue();
+    }
+    if (value instanceof CharSequence) {
+      String text = value.toString().trim();
+      try {
+        return Long.parseLong(text);
+      } catch (NumberFormatException e) {
+        // Not an integer, try it as a decimal
+      }
+      try {
+        return (long) Double.parseDouble(text);
+      } catch (NumberFormatException e) {
+        // Not numeric
+      }
+    }
+    return defaultValue;
+  }
+
+  /**
+   * Converts the value to a double.
+   *
+   * @param value the value
+   * @param defaultValue the value returned if the value is null or not numeric
+   * @return the double
+   */
+  public static double toDouble(Object value, double defaultValue) {
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    if (value instanceof CharSequence) {
+      try {
+        return Double.parseDouble(value.toString().trim());
+      } catch (NumberFormatException e) {
+        // Not numeric
+      }
+    }
+    return defaultValue;
+  }
+
+  /**
+   * Converts the value to a boolean.
+   *
+   * @param value the value
+   * @param defaultValue the value returned if the value is null or not a boolean
+   * @return the boolean
+   */
+  public static boolean toBoolean(Object value, boolean defaultValue) {
+    if (value instanceof Boolean) {
+      return (Boolean) value;
+    }
+    if (value instanceof CharSequence) {
+      String text = value.toString();
+      if (text.equalsIgnoreCase("true")) {
+        return true;
+      }
+      if (text.equalsIgnoreCase("false")) {
+        return false;
+      }
+    }
+    return defaultValue;
+  }
+
+  /**
+   * Converts a scalar value to a string.
+   *
+   * @param value the value
+   * @return the string or null if the value is null or not a scalar
+   */
+  public static String toString(Object value) {
+    if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean || value instanceof Character) {
+      return value.toString();
+    }
+    return null;
+  }
+
+  private TypedValues() {
+  }
+}
@@ -35,12 +35,14 @@ public enum SchemaLogMessages implements LogMessage {
   NATIVE_TYPE_UNKNOWN(LEVEL.WARN, SCHEMA_CATEGORY.CONFIG, "Type for {} not defined for Schema Id {}"),
   PROTOBUF_DESCRIPTOR_NOT_DEFINED(LEVEL.WARN, SCHEMA_CATEGORY.CONFIG, "No {} descriptor defined for Schema Id {}"),
   PROTOBUF_MESSAGE_NAME_NOT_DEFINED(LEVEL.WARN, SCHEMA_CATEGORY.CONFIG, "No {} message name defined for Schema Id {}"),
+  STRUCT_FIELDS_NOT_DEFINED(LEVEL.WARN, SCHEMA_CATEGORY.CONFIG, "No {} fields defined for Schema Id {}"),
   //</editor-fold>
 
   //<editor-fold desc="Formatter specific log messages">
   AVRO_PARSE_EXCEPTION(LEVEL.ERROR, SCHEMA_CATEGORY.FORMATTER, "Avro format raised exception during parsing, {}"),
   FORMATTER_UNEXPECTED_OBJECT(LEVEL.ERROR, SCHEMA_CATEGORY.FORMATTER, "{} formatter unable to parse object, unexpected data {}"),
   PROTOBUF_PARSE_EXCEPTION(LEVEL.ERROR, SCHEMA_CATEGORY.FORMATTER, "Protobuf format raised exception during parsing {}"),
+  PROTOBUF_MESSAGE_CLASS_UNAVAILABLE(LEVEL.WARN, SCHEMA_CATEGORY.FORMATTER, "Protobuf message class {} can not be used, parsing with the descriptor instead, {}"),
   XML_CONFIGURATION_EXCEPTION(LEVEL.ERROR, SCHEMA_CATEGORY.FORMATTER, "XML formatter raised exception during construction {}"),
   XML_PARSE_EXCEPTION(LEVEL.ERROR, SCHEMA_CATEGORY.FORMATTER, "XML formatter raised exception during parsing {}"),
   JSON_PARSE_EXCEPTION(LEVEL.ERROR, SCHEMA_CATEGORY.FORMATTER, "JSON formatter raised exception during parsing {} with the following error(s) {}"),
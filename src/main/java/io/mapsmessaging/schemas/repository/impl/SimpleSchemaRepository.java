@@ -21,6 +21,7 @@
 package io.mapsmessaging.schemas.repository.impl;
 
 import io.mapsmessaging.schemas.config.SchemaConfig;
+import io.mapsmessaging.schemas.formatters.MessageFormatterFactory;
 import io.mapsmessaging.schemas.repository.SchemaRepository;
 import lombok.NonNull;
 
@@ -54,6 +55,7 @@ public class SimpleSchemaRepository implements SchemaRepository {
       config = existing;
     } else {
       mapByUUID.put(config.getUniqueId(), config);
+      MessageFormatterFactory.getInstance().advanceGeneration(); // Lets indexes of the repository see the new schema
     }
     List<SchemaConfig> list = mapByContext.computeIfAbsent(context, k -> new ArrayList<>());
     list.add(config);
@@ -95,6 +97,7 @@ public class SimpleSchemaRepository implements SchemaRepository {
   @Override
   public void removeSchema(@NonNull String uuid) {
     SchemaConfig config = mapByUUID.remove(uuid);
+    MessageFormatterFactory.getInstance().invalidate(uuid);
     if (config != null) {
       for (List<SchemaConfig> list : mapByContext.values()) {
         list.remove(config);
@@ -104,6 +107,7 @@ public class SimpleSchemaRepository implements SchemaRepository {
 
   @Override
   public void removeAllSchemas() {
+    MessageFormatterFactory.getInstance().invalidateAll();
     mapByUUID.clear();
     mapByContext.clear();
   }
@@ -67,6 +67,24 @@ public class TestAvroConfig extends GeneralBaseTest {
     Assertions.assertEquals(getSchema(), config.getSchema());
   }
 
+  @Test
+  void readerSchemaRoundTrip() throws IOException {
+    AvroSchemaConfig config = new AvroSchemaConfig();
+    config.setSchema(getSchema());
+    config.setReaderSchema(getSchema());
+    config.setSingleObjectEncoding(true);
+    setBaseConfig(config);
+    AvroSchemaConfig parsed = (AvroSchemaConfig) SchemaConfigFactory.getInstance().constructConfig(config.pack());
+    Assertions.assertEquals(getSchema(), parsed.getReaderSchema());
+    Assertions.assertTrue(parsed.isSingleObjectEncoding());
+
+    config.setReaderSchema(null);
+    config.setSingleObjectEncoding(false);
+    parsed = (AvroSchemaConfig) SchemaConfigFactory.getInstance().constructConfig(config.pack());
+    Assertions.assertNull(parsed.getReaderSchema());
+    Assertions.assertFalse(parsed.isSingleObjectEncoding());
+  }
+
   @Test
   void invalidConfig() {
     AvroSchemaConfig config = new AvroSchemaConfig();
@@ -0,0 +1,56 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.config;
+
+import io.mapsmessaging.schemas.config.impl.EnvelopeSchemaConfig;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class TestEnvelopeConfig extends GeneralBaseTest {
+
+  Map<String, Object> getProperties() {
+    Map<String, Object> props = new LinkedHashMap<>();
+    props.put("format", "ENVELOPE");
+    props.put("magicByte", 3);
+    props.put("schemaIds", Map.of("42", "sensor-v1", "43", "sensor-v2"));
+    return props;
+  }
+
+  @Override
+  SchemaConfig buildConfig() {
+    EnvelopeSchemaConfig config = new EnvelopeSchemaConfig();
+    setBaseConfig(config);
+    config.setMagicByte(3);
+    config.setSchemaIds(Map.of(42, "sensor-v1", 43, "sensor-v2"));
+    return config;
+  }
+
+  @Override
+  void validate(SchemaConfig schemaConfig) {
+    Assertions.assertTrue(schemaConfig instanceof EnvelopeSchemaConfig);
+    EnvelopeSchemaConfig config = (EnvelopeSchemaConfig) schemaConfig;
+    Assertions.assertEquals(3, config.getMagicByte());
+    Assertions.assertEquals(Map.of(42, "sensor-v1", 43, "sensor-v2"), config.getSchemaIds());
+  }
+
+}
@@ -20,9 +20,13 @@
 
 package io.mapsmessaging.schemas.config;
 
+import com.google.gson.JsonObject;
 import io.mapsmessaging.schemas.config.impl.JsonSchemaConfig;
+import io.mapsmessaging.schemas.config.impl.SchemaValidationConfig;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -46,4 +50,26 @@ class TestJsonConfig extends GeneralBaseTest {
     Assertions.assertInstanceOf(JsonSchemaConfig.class, schemaConfig);
   }
 
-}
\ No newline at end of file
+  @Test
+  void validationPolicyRoundTrip() throws IOException {
+    JsonSchemaConfig config = new JsonSchemaConfig();
+    setBaseConfig(config);
+    SchemaValidationConfig validation = new SchemaValidationConfig(SchemaValidationConfig.POLICY.SAMPLED);
+    validation.setSampleRate(25);
+    config.setValidation(validation);
+
+    JsonSchemaConfig parsed = (JsonSchemaConfig) SchemaConfigFactory.getInstance().constructConfig(wrap(config));
+    Assertions.assertEquals(SchemaValidationConfig.POLICY.SAMPLED, parsed.getValidation().getPolicy());
+    Assertions.assertEquals(25, parsed.getValidation().getSampleRate());
+
+    JsonSchemaConfig unset = new JsonSchemaConfig();
+    setBaseConfig(unset);
+    Assertions.assertNull(((JsonSchemaConfig) SchemaConfigFactory.getInstance().constructConfig(wrap(unset))).getValidation());
+  }
+
+  private static String wrap(SchemaConfig config) throws IOException {
+    JsonObject schema = new JsonObject();
+    schema.add("schema", config.packData());
+    return schema.toString();
+  }
+}
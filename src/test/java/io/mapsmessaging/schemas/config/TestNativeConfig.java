@@ -23,6 +23,7 @@ package io.mapsmessaging.schemas.config;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import io.mapsmessaging.schemas.config.impl.NativeSchemaConfig;
+import io.mapsmessaging.schemas.config.impl.NativeSchemaConfig.BYTE_ORDER;
 import io.mapsmessaging.schemas.config.impl.NativeSchemaConfig.TYPE;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -67,6 +68,28 @@ class TestNativeConfig extends GeneralBaseTest {
     Assertions.assertThrowsExactly(IOException.class, config::pack);
   }
 
+  @Test
+  void byteOrderRoundTrip() throws IOException {
+    NativeSchemaConfig config = new NativeSchemaConfig();
+    config.setType(TYPE.FLOAT_ARRAY);
+    config.setByteOrder(BYTE_ORDER.BIG_ENDIAN);
+    setBaseConfig(config);
+    JsonObject jsonObject = JsonParser.parseString(config.pack()).getAsJsonObject();
+    Assertions.assertEquals("BIG_ENDIAN", jsonObject.getAsJsonObject("schema").get("byteOrder").getAsString());
+
+    Map<String, Object> props = new LinkedHashMap<>();
+    props.put("format", "Native");
+    props.put("type", TYPE.FLOAT_ARRAY.toString());
+    props.put("byteOrder", "big_endian");
+    props.put("uuid", UUID.randomUUID());
+    Map<String, Object> schema = new LinkedHashMap<>();
+    schema.put("schema", props);
+    NativeSchemaConfig parsed = (NativeSchemaConfig) SchemaConfigFactory.getInstance().constructConfig(schema);
+    Assertions.assertEquals(TYPE.FLOAT_ARRAY, parsed.getType());
+    Assertions.assertEquals(BYTE_ORDER.BIG_ENDIAN, parsed.getByteOrder());
+    Assertions.assertEquals(BYTE_ORDER.LITTLE_ENDIAN, new NativeSchemaConfig().getByteOrder());
+  }
+
   @Test
   void checkAllTypes() throws IOException {
     for (TYPE type : NativeSchemaConfig.TYPE.values()) {
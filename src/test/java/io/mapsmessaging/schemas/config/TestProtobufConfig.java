@@ -72,6 +72,18 @@ class TestProtobufConfig extends GeneralBaseTest {
     return baos.toByteArray();
   }
 
+  @Test
+  void messageClassRoundTrip() throws IOException {
+    ProtoBufSchemaConfig config = (ProtoBufSchemaConfig) buildConfig();
+    config.setMessageClass("io.mapsmessaging.schemas.formatters.PersonProto$Person");
+    ProtoBufSchemaConfig parsed = (ProtoBufSchemaConfig) SchemaConfigFactory.getInstance().constructConfig(config.pack());
+    Assertions.assertEquals("io.mapsmessaging.schemas.formatters.PersonProto$Person", parsed.getMessageClass());
+
+    config.setMessageClass(null);
+    parsed = (ProtoBufSchemaConfig) SchemaConfigFactory.getInstance().constructConfig(config.pack());
+    Assertions.assertNull(parsed.getMessageClass());
+  }
+
   @Test
   void invalidConfigWithName() {
     ProtoBufSchemaConfig config = new ProtoBufSchemaConfig();
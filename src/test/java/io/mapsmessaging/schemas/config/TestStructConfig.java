@@ -0,0 +1,89 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.config;
+
+import io.mapsmessaging.schemas.config.impl.NativeSchemaConfig.BYTE_ORDER;
+import io.mapsmessaging.schemas.config.impl.StructFieldConfig;
+import io.mapsmessaging.schemas.config.impl.StructSchemaConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+class TestStructConfig extends GeneralBaseTest {
+
+  Map<String, Object> getProperties() {
+    Map<String, Object> props = new LinkedHashMap<>();
+    props.put("format", "Struct");
+    props.put("byteOrder", "BIG_ENDIAN");
+    props.put("fields", List.of(
+        Map.of("name", "id", "offset", 0, "type", "UINT16"),
+        Map.of("name", "temperature", "offset", 2, "type", "FLOAT", "byteOrder", "LITTLE_ENDIAN"),
+        Map.of("name", "label", "offset", 6, "type", "STRING", "length", 8)
+    ));
+    return props;
+  }
+
+  @Override
+  SchemaConfig buildConfig() {
+    StructSchemaConfig config = new StructSchemaConfig();
+    config.setByteOrder(BYTE_ORDER.BIG_ENDIAN);
+    StructFieldConfig temperature = new StructFieldConfig("temperature", 2, StructFieldConfig.TYPE.FLOAT);
+    temperature.setByteOrder(BYTE_ORDER.LITTLE_ENDIAN);
+    config.setFields(List.of(
+        new StructFieldConfig("id", 0, StructFieldConfig.TYPE.UINT16),
+        temperature,
+        new StructFieldConfig("label", 6, StructFieldConfig.TYPE.STRING, 8)
+    ));
+    setBaseConfig(config);
+    return config;
+  }
+
+  @Override
+  void validate(SchemaConfig schemaConfig) {
+    Assertions.assertInstanceOf(StructSchemaConfig.class, schemaConfig);
+    StructSchemaConfig config = (StructSchemaConfig) schemaConfig;
+    Assertions.assertEquals(BYTE_ORDER.BIG_ENDIAN, config.getByteOrder());
+    List<StructFieldConfig> fields = config.getFields();
+    Assertions.assertEquals(3, fields.size());
+    Assertions.assertEquals("id", fields.get(0).getName());
+    Assertions.assertEquals(StructFieldConfig.TYPE.UINT16, fields.get(0).getType());
+    Assertions.assertNull(fields.get(0).getByteOrder());
+    Assertions.assertEquals(2, fields.get(1).getOffset());
+    Assertions.assertEquals(BYTE_ORDER.LITTLE_ENDIAN, fields.get(1).getByteOrder());
+    Assertions.assertEquals(8, fields.get(2).getLength());
+    Assertions.assertEquals(8, fields.get(2).size());
+  }
+
+  @Test
+  void invalidConfig() {
+    StructSchemaConfig config = new StructSchemaConfig();
+    config.setUniqueId(UUID.randomUUID());
+    config.setExpiresAfter(LocalDateTime.now().plusDays(10));
+    config.setNotBefore(LocalDateTime.now().minusDays(10));
+    Assertions.assertThrowsExactly(IOException.class, config::pack);
+  }
+}
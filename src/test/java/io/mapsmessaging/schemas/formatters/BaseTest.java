@@ -19,6 +19,7 @@ package io.mapsmessaging.schemas.formatters;
 
 import com.github.javafaker.Faker;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.selector.ParseException;
 import io.mapsmessaging.selector.SelectorParser;
@@ -27,9 +28,15 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -117,6 +124,30 @@ public abstract class BaseTest {
   }
 
 
+  @Test
+  void testWriteJson() throws IOException {
+    List<byte[]> packed = packList(data);
+    SchemaConfig schemaConfig = getSchema();
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(schemaConfig);
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    StringWriter writer = new StringWriter();
+    for (int x = 0; x < 100; x++) {
+      Person p = data.get(x);
+      stream.reset();
+      formatter.writeJson(packed.get(x), stream);
+      writer.getBuffer().setLength(0);
+      formatter.writeJson(packed.get(x), writer);
+      Assertions.assertEquals(stream.toString(StandardCharsets.UTF_8), writer.toString());
+
+      JsonObject jsonObject = JsonParser.parseString(writer.toString()).getAsJsonObject();
+      validateValues(p.getStringId(), jsonObject.get("stringId").getAsString());
+      validateValues(p.getLongId(), jsonObject.get("longId").getAsLong());
+      validateValues(p.getIntId(), jsonObject.get("intId").getAsInt());
+      validateValues(p.getFloatId(), jsonObject.get("floatId").getAsFloat());
+      validateValues(p.getDoubleId(), jsonObject.get("doubleId").getAsDouble());
+    }
+  }
+
   @Test
   void testGetFormatMap() throws IOException {
     SchemaConfig schemaConfig = getSchema();
@@ -160,6 +191,101 @@ public abstract class BaseTest {
     System.err.println("Time per event " + unitWork + UNIT[scale]);
   }
 
+  @Test
+  void testSliceFormatters() throws IOException {
+    List<byte[]> packed = packList(data);
+    SchemaConfig schemaConfig = getSchema();
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(schemaConfig);
+    for (int x = 0; x < 100; x++) {
+      byte[] payload = packed.get(x);
+      byte[] framed = new byte[payload.length + 17];
+      Arrays.fill(framed, (byte) 0x7f);
+      System.arraycopy(payload, 0, framed, 7, payload.length);
+
+      ByteBuffer direct = ByteBuffer.allocateDirect(framed.length);
+      direct.put(framed);
+      direct.position(7).limit(7 + payload.length);
+      ByteBuffer heap = ByteBuffer.wrap(framed, 7, payload.length);
+
+      Person p = data.get(x);
+      for (ParsedObject parsedObject : List.of(formatter.parse(framed, 7, payload.length), formatter.parse(heap), formatter.parse(direct))) {
+        validateValues(p.getStringId(), parsedObject.get("stringId"));
+        validateValues(p.getLongId(), parsedObject.get("longId"));
+        validateValues(p.getIntId(), parsedObject.get("intId"));
+        validateValues(p.getFloatId(), parsedObject.get("floatId"));
+        validateValues(p.getDoubleId(), parsedObject.get("doubleId"));
+      }
+      Assertions.assertEquals(7, direct.position());
+      Assertions.assertEquals(7, heap.position());
+
+      for (JsonObject jsonObject : List.of(formatter.parseToJson(framed, 7, payload.length), formatter.parseToJson(heap), formatter.parseToJson(direct))) {
+        validateValues(p.getStringId(), jsonObject.get("stringId").getAsString());
+        validateValues(p.getLongId(), jsonObject.get("longId").getAsLong());
+        validateValues(p.getDoubleId(), jsonObject.get("doubleId").getAsDouble());
+      }
+    }
+  }
+
+  @Test
+  void testProjectedFormatters() throws IOException {
+    List<byte[]> packed = packList(data);
+    SchemaConfig schemaConfig = getSchema();
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(schemaConfig);
+    Projection projection = Projection.of("stringId", "longId", "doubleId");
+    for (int x = 0; x < 100; x++) {
+      ParsedObject parsedObject = formatter.parse(packed.get(x), projection);
+      Person p = data.get(x);
+      validateValues(p.getStringId(), parsedObject.get("stringId"));
+      validateValues(p.getLongId(), parsedObject.get("longId"));
+      validateValues(p.getDoubleId(), parsedObject.get("doubleId"));
+
+      // A projection resolves the same value types as a full parse and does not build a Gson tree
+      ParsedObject full = formatter.parse(packed.get(x));
+      Assertions.assertEquals(full.get("longId").getClass(), parsedObject.get("longId").getClass());
+      Assertions.assertEquals(full.get("doubleId").getClass(), parsedObject.get("doubleId").getClass());
+      Assertions.assertFalse(parsedObject.getReferenced() instanceof JsonObject);
+    }
+  }
+
+  @Test
+  void testEncodeRoundTrip() throws IOException {
+    SchemaConfig schemaConfig = getSchema();
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(schemaConfig);
+    ByteBuffer buffer = ByteBuffer.allocate(10240);
+    for (int x = 0; x < 100; x++) {
+      Person p = data.get(x);
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("stringId", p.getStringId());
+      map.put("longId", p.getLongId());
+      map.put("intId", p.getIntId());
+      map.put("floatId", p.getFloatId());
+      map.put("doubleId", p.getDoubleId());
+
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      formatter.pack(map, stream);
+      ParsedObject parsedObject = formatter.parse(stream.toByteArray());
+      validatePerson(p, parsedObject);
+
+      // Re-encode the parsed object, which may take a format specific shortcut
+      stream.reset();
+      formatter.pack(parsedObject, stream);
+      validatePerson(p, formatter.parse(stream.toByteArray()));
+
+      buffer.clear().position(3);
+      int written = formatter.pack(map, buffer);
+      Assertions.assertEquals(3 + written, buffer.position());
+      validatePerson(p, formatter.parse(buffer.array(), 3, written));
+    }
+  }
+
+  private void validatePerson(Person p, ParsedObject parsedObject) {
+    validateValues(p.getStringId(), parsedObject.get("stringId"));
+    validateValues(p.getLongId(), parsedObject.get("longId"));
+    validateValues(p.getIntId(), parsedObject.get("intId"));
+    validateValues(p.getFloatId(), parsedObject.get("floatId"));
+    validateValues(p.getDoubleId(), parsedObject.get("doubleId"));
+  }
+
   @Test
   void testParallelFormatters() throws IOException {
     long start = System.currentTimeMillis();
@@ -20,18 +20,45 @@
 
 package io.mapsmessaging.schemas.formatters;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.TestAvroConfig;
 import io.mapsmessaging.schemas.config.impl.AvroSchemaConfig;
+import io.mapsmessaging.schemas.formatters.impl.AvroFormatter;
+import io.mapsmessaging.schemas.formatters.impl.AvroSchemaIndex;
+import io.mapsmessaging.schemas.repository.impl.SimpleSchemaRepository;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
 import org.apache.avro.io.Encoder;
 import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.message.BinaryMessageEncoder;
 import org.apache.avro.specific.SpecificDatumWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 class TestAvroFormatter extends BaseTest {
 
@@ -66,4 +93,292 @@ class TestAvroFormatter extends BaseTest {
     avroSchemaConfig.setSchema(TestAvroConfig.getSchema());
     return avroSchemaConfig;
   }
+
+  private static final String SENSOR_V1 = "{\"type\":\"record\",\"name\":\"Sensor\",\"fields\":[" +
+      "{\"name\":\"name\",\"type\":\"string\"}," +
+      "{\"name\":\"count\",\"type\":\"int\"}," +
+      "{\"name\":\"latest\",\"type\":{\"type\":\"record\",\"name\":\"Reading\",\"fields\":[" +
+      "{\"name\":\"value\",\"type\":\"double\"},{\"name\":\"label\",\"type\":\"string\"}]}}," +
+      "{\"name\":\"history\",\"type\":{\"type\":\"array\",\"items\":\"Reading\"}}]}";
+
+  private static final String SENSOR_V2 = "{\"type\":\"record\",\"name\":\"Sensor\",\"fields\":[" +
+      "{\"name\":\"name\",\"type\":\"string\"}," +
+      "{\"name\":\"count\",\"type\":\"long\"}," +
+      "{\"name\":\"unit\",\"type\":\"string\",\"default\":\"C\"}]}";
+
+  private byte[] packSensor(Schema schema, int count) throws IOException {
+    Schema readingSchema = schema.getField("latest").schema();
+    GenericRecord latest = new GenericData.Record(readingSchema);
+    latest.put("value", count * 1.5);
+    latest.put("label", "reading-" + count);
+    GenericRecord sensor = new GenericData.Record(schema);
+    sensor.put("name", "probe");
+    sensor.put("count", count);
+    sensor.put("latest", latest);
+    sensor.put("history", List.of(latest, latest));
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    Encoder encoder = EncoderFactory.get().binaryEncoder(stream, null);
+    new GenericDatumWriter<GenericRecord>(schema).write(sensor, encoder);
+    encoder.flush();
+    return stream.toByteArray();
+  }
+
+  @Test
+  void testReaderSchemaProjection() throws IOException {
+    AvroSchemaConfig config = new AvroSchemaConfig();
+    config.setSchema(SENSOR_V1);
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+    byte[] payload = packSensor(new Schema.Parser().parse(SENSOR_V1), 7);
+
+    ParsedObject parsed = formatter.parse(payload, Projection.of("count", "latest.value", "history[1].label"));
+    Assertions.assertEquals(7, parsed.get("count"));
+    Assertions.assertEquals(10.5, parsed.getDouble("latest.value", 0));
+    Assertions.assertNull(parsed.get("latest.label"));
+    Assertions.assertEquals("reading-7", parsed.getString("history[1].label"));
+    Assertions.assertNull(parsed.get("history[1].value"));
+    Assertions.assertNull(parsed.get("name"));
+    Assertions.assertEquals(List.of("count", "latest", "history"), parsed.getKeys());
+
+    ParsedObject full = formatter.parse(payload);
+    Assertions.assertEquals("probe", full.get("name"));
+    Assertions.assertEquals("reading-7", full.getString("latest.label"));
+  }
+
+  @Test
+  void testSchemaEvolution() throws IOException {
+    AvroSchemaConfig config = new AvroSchemaConfig();
+    config.setSchema(SENSOR_V1);
+    config.setReaderSchema(SENSOR_V2);
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+    ParsedObject parsed = formatter.parse(packSensor(new Schema.Parser().parse(SENSOR_V1), 3));
+    Assertions.assertEquals("probe", parsed.get("name"));
+    Assertions.assertEquals(3L, parsed.get("count"));
+    Assertions.assertEquals("C", parsed.getString("unit"));
+    Assertions.assertNull(parsed.get("latest"));
+    Assertions.assertTrue(formatter.getFormat().containsKey("unit"));
+
+    // A formatter for the current schema can read messages written with an older one
+    AvroSchemaConfig current = new AvroSchemaConfig();
+    current.setSchema(SENSOR_V2);
+    AvroFormatter avroFormatter = (AvroFormatter) MessageFormatterFactory.getInstance().getFormatter(current);
+    byte[] payload = packSensor(new Schema.Parser().parse(SENSOR_V1), 4);
+    parsed = avroFormatter.parse(payload, 0, payload.length, new Schema.Parser().parse(SENSOR_V1));
+    Assertions.assertEquals(4L, parsed.get("count"));
+    Assertions.assertEquals("C", parsed.get("unit"));
+
+    AvroSchemaConfig incompatible = new AvroSchemaConfig();
+    incompatible.setSchema(SENSOR_V2);
+    incompatible.setReaderSchema(SENSOR_V1);
+    Assertions.assertThrows(IOException.class, () -> MessageFormatterFactory.getInstance().getFormatter(incompatible));
+  }
+
+  @Test
+  void testSingleObjectEncoding() throws IOException {
+    Schema v1 = new Schema.Parser().parse(SENSOR_V1);
+    byte[] body = packSensor(v1, 5);
+    GenericRecord sensor = new GenericDatumReader<GenericRecord>(v1).read(null, DecoderFactory.get().binaryDecoder(body, null));
+    ByteBuffer encoded = new BinaryMessageEncoder<GenericRecord>(GenericData.get(), v1).encode(sensor);
+    byte[] message = new byte[encoded.remaining()];
+    encoded.get(message);
+    Assertions.assertTrue(AvroSchemaIndex.hasHeader(message, 0, message.length));
+    Assertions.assertEquals(AvroSchemaIndex.fingerprint(v1), AvroSchemaIndex.readFingerprint(message, 0));
+
+    AvroSchemaConfig writerConfig = new AvroSchemaConfig();
+    writerConfig.setSchema(SENSOR_V1);
+    writerConfig.setSingleObjectEncoding(true);
+    MessageFormatter writer = MessageFormatterFactory.getInstance().getFormatter(writerConfig);
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    writer.pack(writer.parse(message), stream);
+    Assertions.assertArrayEquals(message, stream.toByteArray());
+
+    // The current version reads the older message by its fingerprint, the writer schema is known from its formatter
+    AvroSchemaConfig readerConfig = new AvroSchemaConfig();
+    readerConfig.setSchema(SENSOR_V2);
+    readerConfig.setSingleObjectEncoding(true);
+    MessageFormatter reader = MessageFormatterFactory.getInstance().getFormatter(readerConfig);
+    ParsedObject parsed = reader.parse(message);
+    Assertions.assertEquals(5L, parsed.get("count"));
+    Assertions.assertEquals("C", parsed.get("unit"));
+    Assertions.assertEquals(5L, reader.parse(message, Projection.of("count")).get("count"));
+    Assertions.assertEquals("probe", reader.parseToJson(message).get("name").getAsString());
+
+    byte[] unknown = message.clone();
+    unknown[9] ^= 0x55;
+    Assertions.assertNull(reader.parse(unknown).get("name"));
+
+    // A projected parse that fails hands back the whole message, header included
+    byte[] truncated = Arrays.copyOf(message, AvroSchemaIndex.HEADER_LENGTH + 1);
+    Assertions.assertArrayEquals(truncated, (byte[]) writer.parse(truncated, Projection.of("name")).getReferenced());
+  }
+
+  @Test
+  void testWriteJsonUnions() throws IOException {
+    AvroSchemaConfig config = new AvroSchemaConfig();
+    config.setSchema("{\"type\":\"record\",\"name\":\"Tagged\",\"namespace\":\"io.test\",\"fields\":[" +
+        "{\"name\":\"id\",\"type\":\"long\"}," +
+        "{\"name\":\"tag\",\"type\":[\"null\",\"string\"]}," +
+        "{\"name\":\"point\",\"type\":[\"null\",{\"type\":\"record\",\"name\":\"Point\",\"fields\":[" +
+        "{\"name\":\"x\",\"type\":\"double\"}]}]}]}");
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+    for (String tag : new String[]{"blue", null}) {
+      Map<String, Object> values = new LinkedHashMap<>();
+      values.put("id", 7L);
+      values.put("tag", tag);
+      values.put("point", tag != null ? Map.of("x", 1.5) : null);
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      formatter.pack(values, stream);
+      byte[] message = stream.toByteArray();
+
+      // Union values are wrapped as {"string": "blue"} by parseToJson, writeJson must produce the same document
+      stream.reset();
+      formatter.writeJson(message, stream);
+      JsonObject written = JsonParser.parseString(stream.toString(StandardCharsets.UTF_8)).getAsJsonObject();
+      Assertions.assertEquals(formatter.parseToJson(message), written);
+      StringWriter writer = new StringWriter();
+      formatter.writeJson(message, writer);
+      Assertions.assertEquals(written, JsonParser.parseString(writer.toString()));
+    }
+  }
+
+  @Test
+  void testSchemaRegistration() throws IOException {
+    String definition = SENSOR_V1.replace("\"Reading\"", "\"Reading4\"");
+    long fingerprint = AvroSchemaIndex.fingerprint(new Schema.Parser().parse(definition));
+    AvroSchemaConfig config = new AvroSchemaConfig();
+    config.setSchema(definition);
+    MessageFormatter first = MessageFormatterFactory.getInstance().getFormatter(config);
+    MessageFormatter second = MessageFormatterFactory.getInstance().getFormatter(config);
+    Assertions.assertNotNull(AvroSchemaIndex.getInstance().getSchema(fingerprint));
+
+    // The schema stays registered until the last formatter using it is released
+    first.release();
+    first.release();
+    Assertions.assertNotNull(AvroSchemaIndex.getInstance().getSchema(fingerprint));
+    second.release();
+    Assertions.assertNull(AvroSchemaIndex.getInstance().getSchema(fingerprint));
+  }
+
+  @Test
+  void testFingerprintDispatch() throws IOException {
+    String v3 = SENSOR_V2.replace("\"unit\"", "\"units\"");
+    AvroSchemaConfig current = new AvroSchemaConfig();
+    current.setUniqueId(UUID.randomUUID());
+    current.setSchema(v3);
+    current.setSingleObjectEncoding(true);
+    AvroSchemaConfig previous = new AvroSchemaConfig();
+    previous.setUniqueId(UUID.randomUUID());
+    previous.setSchema(SENSOR_V1.replace("\"Reading\"", "\"Reading3\""));
+    previous.setSingleObjectEncoding(true);
+    AtomicInteger scans = new AtomicInteger();
+    SimpleSchemaRepository repository = new SimpleSchemaRepository() {
+      @Override
+      public List<SchemaConfig> getSchemas(String type) {
+        scans.incrementAndGet();
+        return super.getSchemas(type);
+      }
+    };
+    repository.addSchema("/sensors", current);
+    repository.addSchema("/sensors", previous);
+
+    Schema writerSchema = new Schema.Parser().parse(previous.getSchema());
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    stream.write(AvroSchemaIndex.header(AvroSchemaIndex.fingerprint(writerSchema)));
+    stream.write(packSensor(writerSchema, 9));
+    byte[] message = stream.toByteArray();
+
+    MessageFormatterFactory factory = MessageFormatterFactory.getInstance();
+    Assertions.assertNull(AvroSchemaIndex.getInstance().getFormatter(message, 0, message.length));
+    factory.setSchemaRepository(repository);
+    try {
+      MessageFormatter formatter = AvroSchemaIndex.getInstance().getFormatter(message, 0, message.length);
+      Assertions.assertSame(factory.getFormatter(previous), formatter);
+      Assertions.assertEquals("reading-9", formatter.parse(message).getString("latest.label"));
+
+      ParsedObject parsed = factory.getFormatter(current).parse(message);
+      Assertions.assertEquals(9L, parsed.get("count"));
+      Assertions.assertEquals("C", parsed.get("units"));
+
+      // Unknown fingerprints are answered from the index, the repository is only scanned again after it changes
+      int scanned = scans.get();
+      byte[] unknown = message.clone();
+      for (int x = 0; x < 100; x++) {
+        unknown[2] = (byte) x;
+        unknown[9] = (byte) ~x;
+        Assertions.assertNull(AvroSchemaIndex.getInstance().getFormatter(unknown, 0, unknown.length));
+      }
+      Assertions.assertEquals(scanned, scans.get());
+
+      repository.removeSchema(previous.getUniqueId());
+      Assertions.assertNull(AvroSchemaIndex.getInstance().getFormatter(message, 0, message.length));
+      Assertions.assertEquals(scanned + 1, scans.get());
+    } finally {
+      factory.setSchemaRepository(null);
+    }
+  }
+
+  @Test
+  void testConcurrentParse() throws Exception {
+    List<io.mapsmessaging.schemas.formatters.Person> people = createList();
+    List<byte[]> packed = packList(people);
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(getSchema());
+    int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+    AtomicLong failures = new AtomicLong();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < 5; i++) {
+            for (int x = 0; x < packed.size(); x++) {
+              ParsedObject parsed = formatter.parse(packed.get(x));
+              if (people.get(x).getLongId() != (long) parsed.get("longId") || !people.get(x).getStringId().equals(parsed.get("stringId"))) {
+                failures.incrementAndGet();
+              }
+            }
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    // Throughput scaling across threads is measured by AvroConcurrencyJMH in the jmh profile
+    Assertions.assertEquals(0, failures.get());
+  }
+
+  @Test
+  void testByteBuffers() throws IOException {
+    AvroSchemaConfig config = new AvroSchemaConfig();
+    config.setSchema(SENSOR_V1);
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+    byte[] payload = packSensor(new Schema.Parser().parse(SENSOR_V1), 5);
+
+    ByteBuffer direct = ByteBuffer.allocateDirect(payload.length);
+    direct.put(payload).flip();
+    for (int i = 0; i < 2; i++) {
+      Assertions.assertEquals(5, formatter.parse(direct).get("count"));
+      Assertions.assertEquals(5, formatter.parseToJson(direct).get("count").getAsInt());
+      Assertions.assertEquals(payload.length, direct.remaining());
+    }
+
+    // A negative string length makes Avro throw an AvroRuntimeException rather than an IOException
+    byte[] malformed = {0x03, 0x01, 0x02};
+    ByteBuffer malformedDirect = ByteBuffer.allocateDirect(malformed.length);
+    malformedDirect.put(malformed).flip();
+    for (ByteBuffer buffer : List.of(ByteBuffer.wrap(malformed), malformedDirect)) {
+      ParsedObject parsed = formatter.parse(buffer);
+      Assertions.assertNull(parsed.get("count"));
+      Assertions.assertArrayEquals(malformed, (byte[]) parsed.getReferenced());
+      Assertions.assertThrows(IOException.class, () -> formatter.parseToJson(buffer));
+    }
+
+    // The pooled decoder is still usable after a failure
+    Assertions.assertEquals(5, formatter.parse(direct).get("count"));
+  }
 }
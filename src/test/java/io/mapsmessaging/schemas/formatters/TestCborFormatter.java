@@ -130,4 +130,25 @@ class TestCborFormatter extends BaseTest {
     Assertions.assertNull(parsed.get("arr[10]"));
     Assertions.assertNull(parsed.get("invalidEntry"));
   }
+
+  @Test
+  void testNestedArrayLookups() throws IOException {
+    SchemaConfig config = new CborSchemaConfig();
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+
+    Map<String, Object> map = new HashMap<>();
+    List<Object> array = new ArrayList<>();
+    for (int x = 0; x < 3; x++) {
+      array.add(Map.of("id", x, "name", "entry" + x));
+    }
+    map.put("entries", array);
+
+    byte[] payload = new ObjectMapper(new CBORFactory()).writeValueAsBytes(map);
+    ParsedObject parsed = formatter.parse(payload);
+
+    Assertions.assertEquals(2, ((Number) parsed.get("entries[2].id")).intValue());
+    Assertions.assertEquals("entry1", parsed.get("entries[1].name"));
+    Assertions.assertNull(parsed.get("entries[3].id"));
+    Assertions.assertEquals(List.of("entries"), parsed.getKeys());
+  }
 }
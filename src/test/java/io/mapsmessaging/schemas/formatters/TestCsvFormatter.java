@@ -23,8 +23,13 @@ package io.mapsmessaging.schemas.formatters;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.CsvSchemaConfig;
 
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 class TestCsvFormatter extends BaseTest {
@@ -47,4 +52,34 @@ class TestCsvFormatter extends BaseTest {
   SchemaConfig getSchema() throws IOException {
     return new CsvSchemaConfig("stringId, longId, intId, floatId, doubleId", true);
   }
+
+  @Test
+  void testQuotedValues() throws IOException {
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(new CsvSchemaConfig("name, note, count, empty", false));
+    byte[] payload = "  \"Smith, \"\"J\"\"\" , caf\u00e9 ,42,".getBytes(StandardCharsets.UTF_8);
+    ParsedObject parsedObject = formatter.parse(payload);
+    Assertions.assertEquals("Smith, \"J\"", parsedObject.get("name"));
+    Assertions.assertEquals("caf\u00e9", parsedObject.get("note"));
+    Assertions.assertEquals("42", parsedObject.get("count"));
+    Assertions.assertNull(parsedObject.get("empty"));
+    Assertions.assertNull(parsedObject.get("unknown"));
+  }
+
+  @Test
+  void testMultipleRows() throws IOException {
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(new CsvSchemaConfig("id, value", true));
+    StringBuilder sb = new StringBuilder();
+    for (int x = 0; x < 100; x++) {
+      sb.append(x).append(",").append(x * 1.5).append(x % 2 == 0 ? "\r\n" : "\n");
+    }
+    Iterator<ParsedObject> rows = formatter.parseRows(sb.toString().getBytes(StandardCharsets.UTF_8));
+    int count = 0;
+    while (rows.hasNext()) {
+      ParsedObject row = rows.next();
+      Assertions.assertEquals((long) count, row.get("id"));
+      Assertions.assertEquals(count * 1.5, ((Number) row.get("value")).doubleValue());
+      count++;
+    }
+    Assertions.assertEquals(100, count);
+  }
 }
@@ -0,0 +1,195 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters;
+
+import io.mapsmessaging.schemas.config.SchemaConfig;
+import io.mapsmessaging.schemas.config.impl.EnvelopeSchemaConfig;
+import io.mapsmessaging.schemas.config.impl.JsonSchemaConfig;
+import io.mapsmessaging.schemas.formatters.impl.EnvelopeFormatter;
+import io.mapsmessaging.schemas.repository.impl.SimpleSchemaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TestEnvelopeFormatter {
+
+  private static final int AVRO_ID = 1001;
+
+  private List<Person> data;
+  private SchemaConfig avroConfig;
+  private MessageFormatter envelope;
+
+  @BeforeEach
+  void setup() throws IOException {
+    data = BaseTest.createList().subList(0, 20);
+    SimpleSchemaRepository repository = new SimpleSchemaRepository();
+    JsonSchemaConfig jsonConfig = new JsonSchemaConfig();
+    jsonConfig.setUniqueId("7");
+    repository.addSchema("/mixed", jsonConfig);
+    avroConfig = new TestAvroFormatter().getSchema();
+    avroConfig.setUniqueId(UUID.randomUUID());
+    repository.addSchema("/mixed", avroConfig);
+    MessageFormatterFactory.getInstance().setSchemaRepository(repository);
+
+    EnvelopeSchemaConfig config = new EnvelopeSchemaConfig();
+    config.setUniqueId(UUID.randomUUID());
+    config.setSchemaIds(Map.of(AVRO_ID, avroConfig.getUniqueId()));
+    envelope = MessageFormatterFactory.getInstance().getFormatter(config);
+  }
+
+  @AfterEach
+  void reset() {
+    MessageFormatterFactory.getInstance().setSchemaRepository(null);
+  }
+
+  static byte[] wrap(int magic, int schemaId, byte[] payload) {
+    return ByteBuffer.allocate(EnvelopeFormatter.HEADER_LENGTH + payload.length)
+        .put((byte) magic)
+        .putInt(schemaId)
+        .put(payload)
+        .array();
+  }
+
+  private static void validate(Person p, ParsedObject parsedObject) {
+    Assertions.assertEquals(p.getStringId(), parsedObject.getString("stringId"));
+    Assertions.assertEquals(p.getLongId(), parsedObject.getLong("longId", 0));
+    Assertions.assertEquals(p.getIntId(), parsedObject.getLong("intId", 0));
+  }
+
+  @Test
+  void testMixedFormats() throws IOException {
+    List<byte[]> json = new TestJsonFormatter().packList(data);
+    List<byte[]> avro = new TestAvroFormatter().packList(data);
+    for (int x = 0; x < data.size(); x++) {
+      validate(data.get(x), envelope.parse(wrap(0, 7, json.get(x))));
+      validate(data.get(x), envelope.parse(wrap(0, AVRO_ID, avro.get(x))));
+      Assertions.assertEquals(data.get(x).getStringId(), envelope.parseToJson(wrap(0, AVRO_ID, avro.get(x))).get("stringId").getAsString());
+    }
+    EnvelopeFormatter formatter = (EnvelopeFormatter) envelope;
+    byte[] message = wrap(0, AVRO_ID, avro.get(0));
+    Assertions.assertSame(MessageFormatterFactory.getInstance().getFormatter(avroConfig), formatter.getFormatter(message, 0, message.length));
+  }
+
+  @Test
+  void testInPlace() throws IOException {
+    byte[] document = new TestJsonFormatter().packList(data).get(0);
+    byte[] message = wrap(0, 7, document);
+    byte[] framed = new byte[message.length + 16];
+    System.arraycopy(message, 0, framed, 8, message.length);
+    validate(data.get(0), envelope.parse(ByteBuffer.wrap(framed, 8, message.length)));
+    validate(data.get(0), envelope.parse(framed, 8, message.length, Projection.of("stringId", "longId", "intId")));
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    envelope.writeJson(framed, 8, message.length, stream);
+    Assertions.assertArrayEquals(document, stream.toByteArray());
+  }
+
+  @Test
+  void testUnresolved() throws IOException {
+    byte[] document = "{\"stringId\":\"abc\"}".getBytes(StandardCharsets.UTF_8);
+    Assertions.assertNull(envelope.parse(wrap(1, 7, document)).get("stringId"));
+    Assertions.assertNull(envelope.parse(wrap(0, 8, document)).get("stringId"));
+    Assertions.assertNull(envelope.parse(new byte[]{0, 0, 0}).get("stringId"));
+    Assertions.assertThrows(IOException.class, () -> envelope.parseToJson(wrap(0, 8, document)));
+
+    MessageFormatterFactory.getInstance().setSchemaRepository(null);
+    ((EnvelopeFormatter) envelope).clear();
+    Assertions.assertThrows(IOException.class, () -> envelope.parseToJson(wrap(0, 7, document)));
+  }
+
+  @Test
+  void testRepositoryChanges() throws IOException {
+    AtomicInteger lookups = new AtomicInteger();
+    SimpleSchemaRepository repository = new SimpleSchemaRepository() {
+      @Override
+      public SchemaConfig getSchema(String uuid) {
+        lookups.incrementAndGet();
+        return super.getSchema(uuid);
+      }
+    };
+    MessageFormatterFactory.getInstance().setSchemaRepository(repository);
+    byte[] document = "{\"stringId\":\"abc\"}".getBytes(StandardCharsets.UTF_8);
+
+    // Unknown ids are remembered, so repeated messages do not go back to the repository
+    for (int x = 0; x < 100; x++) {
+      Assertions.assertNull(envelope.parse(wrap(0, 9, document)).get("stringId"));
+    }
+    Assertions.assertEquals(1, lookups.get());
+
+    // Adding the schema changes the generation, so the id is resolved straight away
+    JsonSchemaConfig config = new JsonSchemaConfig();
+    config.setUniqueId("9");
+    repository.addSchema("/mixed", config);
+    Assertions.assertEquals("abc", envelope.parse(wrap(0, 9, document)).getString("stringId"));
+    EnvelopeFormatter formatter = (EnvelopeFormatter) envelope;
+    byte[] message = wrap(0, 9, document);
+    MessageFormatter resolved = formatter.getFormatter(message, 0, message.length);
+    Assertions.assertSame(resolved, formatter.getFormatter(message, 0, message.length));
+
+    // Removing it drops the resolved formatter
+    repository.removeSchema("9");
+    Assertions.assertNull(envelope.parse(message).get("stringId"));
+    repository.addSchema("/mixed", config);
+    Assertions.assertNotSame(resolved, formatter.getFormatter(message, 0, message.length));
+  }
+
+  @Test
+  void testEvictedFormatter() throws IOException {
+    MessageFormatterFactory factory = MessageFormatterFactory.getInstance();
+    EnvelopeFormatter formatter = (EnvelopeFormatter) envelope;
+    byte[] message = wrap(0, 7, "{\"stringId\":\"abc\"}".getBytes(StandardCharsets.UTF_8));
+    MessageFormatter resolved = formatter.getFormatter(message, 0, message.length);
+    long generation = factory.getGeneration();
+    try {
+      // Evicting the resolved formatter releases it without changing the generation, only that id is resolved again
+      factory.getFormatter(avroConfig); // Most recently used, so it is the entry that is kept
+      factory.configureCache(1, FormatterCache.DEFAULT_IDLE_TIME);
+      Assertions.assertTrue(resolved.isReleased());
+      MessageFormatter current = formatter.getFormatter(message, 0, message.length);
+      Assertions.assertNotSame(resolved, current);
+      Assertions.assertFalse(current.isReleased());
+      Assertions.assertSame(current, formatter.getFormatter(message, 0, message.length));
+      Assertions.assertEquals(generation, factory.getGeneration());
+    } finally {
+      factory.configureCache(FormatterCache.DEFAULT_MAX_ENTRIES, FormatterCache.DEFAULT_IDLE_TIME);
+    }
+  }
+
+  @Test
+  void testMagicByte() throws IOException {
+    EnvelopeSchemaConfig config = new EnvelopeSchemaConfig();
+    config.setMagicByte(0x7f);
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+    byte[] document = "{\"stringId\":\"abc\"}".getBytes(StandardCharsets.UTF_8);
+    Assertions.assertEquals("abc", formatter.parse(wrap(0x7f, 7, document)).getString("stringId"));
+    Assertions.assertNull(formatter.parse(wrap(0, 7, document)).get("stringId"));
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters;
+
+import io.mapsmessaging.schemas.config.SchemaConfig;
+import io.mapsmessaging.schemas.config.SchemaConfigFactory;
+import io.mapsmessaging.schemas.config.impl.JsonSchemaConfig;
+import io.mapsmessaging.schemas.repository.impl.SimpleSchemaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+class TestFormatterCache {
+
+  @AfterEach
+  void reset() {
+    MessageFormatterFactory.getInstance().configureCache(FormatterCache.DEFAULT_MAX_ENTRIES, FormatterCache.DEFAULT_IDLE_TIME);
+    MessageFormatterFactory.getInstance().invalidateAll();
+  }
+
+  @Test
+  void testCachedById() throws IOException {
+    MessageFormatterFactory factory = MessageFormatterFactory.getInstance();
+    JsonSchemaConfig config = new JsonSchemaConfig();
+    config.setUniqueId(UUID.randomUUID());
+    MessageFormatter formatter = factory.getFormatter(config);
+    Assertions.assertSame(formatter, factory.getFormatter(config));
+
+    // An equal config, loaded separately, should hit the same entry
+    SchemaConfig copy = SchemaConfigFactory.getInstance().constructConfig(config.pack());
+    Assertions.assertSame(formatter, factory.getFormatter(copy));
+
+    config.setVersion(2);
+    Assertions.assertNotSame(formatter, factory.getFormatter(config));
+  }
+
+  @Test
+  void testChangedContent() throws IOException {
+    MessageFormatterFactory factory = MessageFormatterFactory.getInstance();
+    JsonSchemaConfig config = new JsonSchemaConfig("{\"type\": \"object\"}");
+    config.setUniqueId(UUID.randomUUID());
+    MessageFormatter formatter = factory.getFormatter(config);
+
+    // Same id and version, but a different schema, must not be served the cached formatter
+    JsonSchemaConfig changed = new JsonSchemaConfig("{\"type\": \"object\", \"required\": [\"id\"]}");
+    changed.setUniqueId(config.getUniqueId());
+    Assertions.assertNotSame(formatter, factory.getFormatter(changed));
+  }
+
+  @Test
+  void testUncachedWithoutId() throws IOException {
+    MessageFormatterFactory factory = MessageFormatterFactory.getInstance();
+    JsonSchemaConfig config = new JsonSchemaConfig();
+    Assertions.assertNotSame(factory.getFormatter(config), factory.getFormatter(config));
+  }
+
+  @Test
+  void testInvalidate() throws IOException {
+    MessageFormatterFactory factory = MessageFormatterFactory.getInstance();
+    SimpleSchemaRepository repository = new SimpleSchemaRepository();
+    JsonSchemaConfig config = new JsonSchemaConfig();
+    config.setUniqueId(UUID.randomUUID());
+    repository.addSchema("test", config);
+    MessageFormatter formatter = factory.getFormatter(config);
+    repository.removeSchema(config.getUniqueId());
+    Assertions.assertNotSame(formatter, factory.getFormatter(config));
+  }
+
+  @Test
+  void testRepositoryChanges() throws IOException {
+    MessageFormatterFactory factory = MessageFormatterFactory.getInstance();
+    SimpleSchemaRepository repository = new SimpleSchemaRepository();
+    JsonSchemaConfig config = new JsonSchemaConfig();
+    config.setUniqueId(UUID.randomUUID());
+    MessageFormatter formatter = factory.getFormatter(config);
+    config.setVersion(2);
+    MessageFormatter second = factory.getFormatter(config);
+
+    // Adding a new schema only advances the generation, cached formatters are kept
+    long generation = factory.getGeneration();
+    JsonSchemaConfig other = new JsonSchemaConfig();
+    other.setUniqueId(UUID.randomUUID());
+    repository.addSchema("test", other);
+    Assertions.assertTrue(factory.getGeneration() > generation);
+    Assertions.assertFalse(formatter.isReleased());
+    Assertions.assertSame(second, factory.getFormatter(config));
+
+    // Removing a schema drops every cached version of it
+    repository.removeSchema(config.getUniqueId());
+    Assertions.assertTrue(formatter.isReleased());
+    Assertions.assertTrue(second.isReleased());
+
+    MessageFormatter otherFormatter = factory.getFormatter(other);
+    repository.removeAllSchemas();
+    Assertions.assertTrue(otherFormatter.isReleased());
+    Assertions.assertEquals(0, factory.getCacheSize());
+  }
+
+  @Test
+  void testPutIfAbsent() throws IOException {
+    FormatterCache cache = new FormatterCache();
+    JsonSchemaConfig config = new JsonSchemaConfig();
+    config.setUniqueId(UUID.randomUUID());
+    MessageFormatter first = MessageFormatterFactory.getInstance().getFormatter(new JsonSchemaConfig());
+    MessageFormatter duplicate = MessageFormatterFactory.getInstance().getFormatter(new JsonSchemaConfig());
+
+    // Two callers that missed the cache at the same time both build a formatter, the first one cached wins
+    Assertions.assertSame(first, cache.put(config, first));
+    Assertions.assertSame(first, cache.put(config, duplicate));
+    Assertions.assertTrue(duplicate.isReleased());
+    Assertions.assertFalse(first.isReleased());
+    Assertions.assertSame(first, cache.get(config));
+    Assertions.assertEquals(1, cache.size());
+
+    // A changed schema with the same id and version replaces the entry
+    JsonSchemaConfig changed = new JsonSchemaConfig("{\"type\": \"object\"}");
+    changed.setUniqueId(config.getUniqueId());
+    MessageFormatter rebuilt = MessageFormatterFactory.getInstance().getFormatter(new JsonSchemaConfig());
+    Assertions.assertSame(rebuilt, cache.put(changed, rebuilt));
+    Assertions.assertTrue(first.isReleased());
+    Assertions.assertEquals(1, cache.size());
+  }
+
+  @Test
+  void testEviction() throws IOException {
+    MessageFormatterFactory factory = MessageFormatterFactory.getInstance();
+    factory.invalidateAll();
+    factory.configureCache(2, FormatterCache.DEFAULT_IDLE_TIME);
+    long generation = factory.getGeneration();
+    List<MessageFormatter> formatters = new ArrayList<>();
+    for (int x = 0; x < 10; x++) {
+      JsonSchemaConfig config = new JsonSchemaConfig();
+      config.setUniqueId(UUID.randomUUID());
+      formatters.add(factory.getFormatter(config));
+    }
+    Assertions.assertEquals(2, factory.getCacheSize());
+    for (int x = 0; x < 10; x++) {
+      Assertions.assertEquals(x < 8, formatters.get(x).isReleased());
+    }
+    Assertions.assertEquals(generation, factory.getGeneration(), "Evicting formatters must not look like a repository change");
+
+    factory.configureCache(2, -1);
+    Assertions.assertEquals(0, factory.getCacheSize());
+    Assertions.assertTrue(formatters.get(9).isReleased());
+    Assertions.assertEquals(generation, factory.getGeneration());
+
+    factory.invalidateAll();
+    Assertions.assertTrue(factory.getGeneration() > generation);
+  }
+}
@@ -23,18 +23,46 @@ package io.mapsmessaging.schemas.formatters;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.JsonSchemaConfig;
+import io.mapsmessaging.schemas.config.impl.SchemaValidationConfig;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 class TestJsonFormatter extends BaseTest {
 
+  @Test
+  void testValidatedMatchesUnvalidated() throws IOException {
+    JsonSchemaConfig config = new JsonSchemaConfig("{\"type\": \"object\"}");
+    SchemaValidationConfig validation = new SchemaValidationConfig(SchemaValidationConfig.POLICY.SAMPLED);
+    validation.setSampleRate(2);
+    config.setValidation(validation);
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+    byte[] payload = ("{\"count\": 12, \"ratio\": 0.5, \"big\": 12345678901234, \"name\": \"probe\", " +
+        "\"tags\": [\"a\", \"b\"], \"inner\": {\"value\": 7, \"flag\": true}}").getBytes(StandardCharsets.UTF_8);
+
+    ParsedObject selected = formatter.parse(payload);
+    ParsedObject skipped = formatter.parse(payload);
+    Assertions.assertEquals(1, ((io.mapsmessaging.schemas.formatters.impl.JsonFormatter) formatter).getValidator().getValidatedCount());
+    Assertions.assertEquals(selected.getReferenced().getClass(), skipped.getReferenced().getClass());
+    Assertions.assertEquals(selected.getKeys(), skipped.getKeys());
+    for (String path : new String[]{"count", "ratio", "big", "name", "tags[1]", "inner.value", "inner.flag"}) {
+      Assertions.assertNotNull(selected.get(path), path);
+      Assertions.assertEquals(selected.get(path), skipped.get(path), path);
+      Assertions.assertEquals(selected.get(path).getClass(), skipped.get(path).getClass(), path);
+    }
+  }
+
 
   byte[] pack(io.mapsmessaging.schemas.formatters.Person p) {
     JsonObject jsonObject = new JsonObject();
@@ -106,6 +134,33 @@ class TestJsonFormatter extends BaseTest {
   }
 
 
+  @Test
+  void testProjectedLookups() throws IOException {
+    SchemaConfig config = new JsonSchemaConfig();
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+
+    JsonObject top = new JsonObject();
+    for (int x = 0; x < 10; x++) {
+      top.addProperty("" + x, x);
+    }
+    JsonObject next = new JsonObject();
+    for (int x = 0; x < 10; x++) {
+      next.addProperty("" + x, x + 10);
+    }
+    top.add("next", next);
+    JsonArray jsonArray = new JsonArray();
+    for (int x = 0; x < 10; x++) {
+      jsonArray.add(x);
+    }
+    top.add("arr", jsonArray);
+    ParsedObject parsed = formatter.parse(top.toString().getBytes(), Projection.of("next.1", "arr[2]"));
+    Assertions.assertEquals(11, ((Number) parsed.get("next.1")).intValue());
+    Assertions.assertEquals(2, ((Number) parsed.get("arr[2]")).intValue());
+    Assertions.assertNull(parsed.get("next.2"));
+    Assertions.assertNull(parsed.get("1"));
+  }
+
+
   @Test
   void testArrayLookups() throws IOException {
     SchemaConfig config = new JsonSchemaConfig();
@@ -125,4 +180,124 @@ class TestJsonFormatter extends BaseTest {
     Assertions.assertNull(parsed.get("invalidEntry"));
   }
 
+  @Test
+  void testLazyDecoding() throws IOException {
+    SchemaConfig config = new JsonSchemaConfig();
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+
+    String json = "{ \"text\": \"line\\n\\\"quoted\\\" \\u00e9\", \"caf\u00e9\": true, \"big\": 12345678901234567890,"
+        + " \"neg\": -42, \"dbl\": 1.5e3, \"none\": null,"
+        + " \"nested\": { \"list\": [ { \"id\": 7 }, [ 1, 2 ] ], \"empty\": {} } }";
+    byte[] payload = json.getBytes(StandardCharsets.UTF_8);
+    ParsedObject parsed = formatter.parse(payload);
+    Assertions.assertEquals("line\n\"quoted\" \u00e9", parsed.get("text"));
+    Assertions.assertEquals("true", parsed.get("caf\u00e9"));
+    Assertions.assertEquals(1.2345678901234567E19, parsed.get("big"));
+    Assertions.assertEquals(-42L, parsed.get("neg"));
+    Assertions.assertEquals(1500.0, parsed.get("dbl"));
+    Assertions.assertNull(parsed.get("none"));
+    Assertions.assertEquals(7L, parsed.get("nested.list[0].id"));
+    Assertions.assertNull(parsed.get("nested.list[2]"));
+    Assertions.assertSame(payload, parsed.getReferenced());
+
+    byte[] framed = new byte[payload.length + 8];
+    System.arraycopy(payload, 0, framed, 4, payload.length);
+    ParsedObject slice = formatter.parse(framed, 4, payload.length);
+    Assertions.assertArrayEquals(payload, (byte[]) slice.getReferenced());
+    Assertions.assertEquals(-42L, slice.get("neg"));
+
+    // Direct buffers are copied once and resolved from the same tape
+    ByteBuffer direct = ByteBuffer.allocateDirect(payload.length);
+    direct.put(payload).flip();
+    ParsedObject fromDirect = formatter.parse(direct);
+    Assertions.assertEquals(parsed.getClass(), fromDirect.getClass());
+    Assertions.assertEquals(7L, fromDirect.get("nested.list[0].id"));
+    Assertions.assertArrayEquals(payload, (byte[]) fromDirect.getReferenced());
+    Assertions.assertEquals(0, direct.position());
+    Assertions.assertEquals(formatter.parseToJson(payload, 0, payload.length), formatter.parseToJson(payload));
+
+    Assertions.assertNull(formatter.parse("[1, 2]".getBytes()).get("0"));
+    Assertions.assertNull(formatter.parse("{\"a\": 1,}".getBytes()).get("a"));
+  }
+
+  @Test
+  void testWriteJson() throws IOException {
+    byte[] document = "{\"id\": 7, \"name\": \"probe\"}".getBytes(StandardCharsets.UTF_8);
+    MessageFormatter plain = MessageFormatterFactory.getInstance().getFormatter(new JsonSchemaConfig());
+    JsonSchemaConfig config = new JsonSchemaConfig("{\"type\": \"object\"}");
+    config.setValidation(new SchemaValidationConfig(SchemaValidationConfig.POLICY.ALWAYS));
+    MessageFormatter validated = MessageFormatterFactory.getInstance().getFormatter(config);
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    plain.writeJson(document, stream);
+    Assertions.assertArrayEquals(document, stream.toByteArray());
+
+    stream.reset();
+    validated.writeJson(document, stream);
+    Assertions.assertEquals(JsonParser.parseString(new String(document, StandardCharsets.UTF_8)), JsonParser.parseString(stream.toString(StandardCharsets.UTF_8)));
+    Assertions.assertEquals(1, ((io.mapsmessaging.schemas.formatters.impl.JsonFormatter) validated).getValidator().getValidatedCount());
+
+    // Only well formed JSON objects are written
+    for (String invalid : new String[]{"[1, 2]", "42", "\"text\"", "{\"a\": ", "{\"a\": 1.2.3}", "{\"a\": 1} trailing"}) {
+      byte[] payload = invalid.getBytes(StandardCharsets.UTF_8);
+      for (MessageFormatter formatter : new MessageFormatter[]{plain, validated}) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StringWriter writer = new StringWriter();
+        Assertions.assertThrows(IOException.class, () -> formatter.writeJson(payload, output), invalid);
+        Assertions.assertThrows(IOException.class, () -> formatter.writeJson(payload, writer), invalid);
+        Assertions.assertEquals(0, output.size(), invalid);
+        Assertions.assertEquals(0, writer.getBuffer().length(), invalid);
+      }
+    }
+  }
+
+  @Test
+  void testMalformedScalars() throws IOException {
+    SchemaConfig config = new JsonSchemaConfig();
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+
+    String[] malformed = {"1.2.3", "1-", "1e", "1e+", "-", "1.", ".5", "01", "-01", "1E5E5", "\"\\u12\"", "\"\\u12G4\"", "\"\\x\"", "\"\\"};
+    for (String value : malformed) {
+      ParsedObject parsed = formatter.parse(("{\"a\": " + value + "}").getBytes(StandardCharsets.UTF_8));
+      Assertions.assertInstanceOf(MessageFormatter.DefaultParser.class, parsed, value);
+      Assertions.assertNull(parsed.get("a"), value);
+    }
+
+    ParsedObject parsed = formatter.parse("{\"a\": -0, \"b\": 0.5e-2, \"c\": 10E+2, \"d\": \"\\u00E9\\/\"}".getBytes(StandardCharsets.UTF_8));
+    Assertions.assertEquals(0L, parsed.get("a"));
+    Assertions.assertEquals(0.005, parsed.get("b"));
+    Assertions.assertEquals(1000.0, parsed.get("c"));
+    Assertions.assertEquals("\u00e9/", parsed.get("d"));
+  }
+
+  @Test
+  void testTypedAccessors() throws IOException {
+    SchemaConfig config = new JsonSchemaConfig();
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+
+    String json = "{ \"count\": 12, \"neg\": -7, \"price\": 19.99, \"exp\": 2.5E-3, \"flag\": true,"
+        + " \"text\": \"42\", \"none\": null, \"nested\": { \"vals\": [ 0.1, 0.30000000000000004, 123456.789012 ] } }";
+    ParsedObject parsed = formatter.parse(json.getBytes(StandardCharsets.UTF_8));
+    Assertions.assertEquals(12L, parsed.getLong("count", -1));
+    Assertions.assertEquals(-7L, parsed.getLong("neg", -1));
+    Assertions.assertEquals(19L, parsed.getLong("price", -1));
+    Assertions.assertEquals(42L, parsed.getLong("text", -1));
+    Assertions.assertEquals(-1L, parsed.getLong("flag", -1));
+    Assertions.assertEquals(-1L, parsed.getLong("missing", -1));
+    Assertions.assertEquals(19.99, parsed.getDouble("price", 0));
+    Assertions.assertEquals(0.0025, parsed.getDouble("exp", 0));
+    Assertions.assertEquals(0.1, parsed.getDouble("nested.vals[0]", 0));
+    Assertions.assertEquals(0.30000000000000004, parsed.getDouble("nested.vals[1]", 0));
+    Assertions.assertEquals(123456.789012, parsed.getDouble("nested.vals[2]", 0));
+    Assertions.assertEquals(-1.0, parsed.getDouble("nested.vals[3]", -1));
+    Assertions.assertTrue(parsed.getBoolean("flag", false));
+    Assertions.assertFalse(parsed.getBoolean("count", false));
+    Assertions.assertEquals("42", parsed.getString("text"));
+    Assertions.assertEquals("12", parsed.getString("count"));
+    Assertions.assertNull(parsed.getString("nested"));
+    Assertions.assertTrue(parsed.isPresent("nested.vals[2]"));
+    Assertions.assertFalse(parsed.isPresent("none"));
+    Assertions.assertFalse(parsed.isPresent("missing.child"));
+  }
+
 }
@@ -23,11 +23,14 @@ package io.mapsmessaging.schemas.formatters;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.MessagePackSchemaConfig;
+import io.mapsmessaging.schemas.config.impl.SchemaValidationConfig;
+import io.mapsmessaging.schemas.formatters.impl.MessagePackFormatter;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.msgpack.jackson.dataformat.MessagePackFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 class TestMessagePackFormatter extends BaseTest {
@@ -74,6 +77,35 @@ class TestMessagePackFormatter extends BaseTest {
     return new MessagePackSchemaConfig(jsonSchema);
   }
 
+  @Test
+  void testValidatedMatchesUnvalidated() throws IOException {
+    MessagePackSchemaConfig config = new MessagePackSchemaConfig("{\"type\": \"object\"}");
+    SchemaValidationConfig validation = new SchemaValidationConfig(SchemaValidationConfig.POLICY.SAMPLED);
+    validation.setSampleRate(2);
+    config.setValidation(validation);
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("count", 12);
+    map.put("ratio", 0.5);
+    map.put("big", 12345678901234L);
+    map.put("name", "probe");
+    map.put("tags", List.of("a", "b"));
+    map.put("inner", Map.of("value", 7, "flag", true));
+    map.put("data", new byte[]{1, 2, 3});
+    byte[] payload = new ObjectMapper(new MessagePackFactory()).writeValueAsBytes(map);
+
+    ParsedObject selected = formatter.parse(payload);
+    ParsedObject skipped = formatter.parse(payload);
+    Assertions.assertEquals(1, ((MessagePackFormatter) formatter).getValidator().getValidatedCount());
+    Assertions.assertEquals(selected.getReferenced().getClass(), skipped.getReferenced().getClass());
+    Assertions.assertEquals(selected.getKeys(), skipped.getKeys());
+    for (String path : new String[]{"count", "ratio", "big", "name", "tags[1]", "inner.value", "inner.flag", "data"}) {
+      Assertions.assertNotNull(selected.get(path), path);
+      Assertions.assertEquals(selected.get(path), skipped.get(path), path);
+      Assertions.assertEquals(selected.get(path).getClass(), skipped.get(path).getClass(), path);
+    }
+  }
+
   @Test
   void invalidMessagePack() throws IOException {
     SchemaConfig config = getSchema();
@@ -130,4 +162,45 @@ class TestMessagePackFormatter extends BaseTest {
     Assertions.assertNull(parsed.get("arr[10]"));
     Assertions.assertNull(parsed.get("invalidEntry"));
   }
+
+  @Test
+  void testCursorLookups() throws IOException {
+    SchemaConfig config = new MessagePackSchemaConfig();
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("blob", new byte[]{1, 2, 3, 4});
+    map.put("entries", List.of(Map.of("id", 5), Map.of("id", 6)));
+    map.put("nested", Map.of("name", "sensor", "reading", 21.5));
+    map.put("last", Long.MAX_VALUE);
+
+    byte[] payload = new ObjectMapper(new MessagePackFactory()).writeValueAsBytes(map);
+    ParsedObject parsed = formatter.parse(payload);
+
+    Assertions.assertEquals(Long.MAX_VALUE, parsed.get("last"));
+    Assertions.assertEquals("sensor", parsed.get("nested.name"));
+    Assertions.assertEquals(21.5, parsed.get("nested.reading"));
+    Assertions.assertEquals(6L, parsed.get("entries[1].id"));
+    Assertions.assertNull(parsed.get("entries[2].id"));
+    Assertions.assertEquals(List.of("blob", "entries", "nested", "last"), parsed.getKeys());
+    Assertions.assertSame(payload, parsed.getReferenced());
+    Assertions.assertEquals(Long.MAX_VALUE, parsed.getLong("last", 0));
+    Assertions.assertEquals(21.5, parsed.getDouble("nested.reading", 0));
+    Assertions.assertEquals(5L, parsed.getLong("entries[0].id", 0));
+    Assertions.assertEquals("sensor", parsed.getString("nested.name"));
+    Assertions.assertEquals(-1L, parsed.getLong("nested.name", -1));
+    Assertions.assertFalse(parsed.isPresent("entries[2]"));
+
+    // Direct buffers are copied once and resolved by the same cursor
+    ByteBuffer direct = ByteBuffer.allocateDirect(payload.length);
+    direct.put(payload).flip();
+    ParsedObject fromDirect = formatter.parse(direct);
+    Assertions.assertEquals(parsed.getClass(), fromDirect.getClass());
+    Assertions.assertEquals("sensor", fromDirect.get("nested.name"));
+    Assertions.assertArrayEquals(payload, (byte[]) fromDirect.getReferenced());
+    Assertions.assertEquals(0, direct.position());
+
+    // A fixarray at the top level is not a map
+    Assertions.assertNull(formatter.parse(new byte[]{(byte) 0x92, 1, 2}).get("0"));
+  }
 }
@@ -23,12 +23,19 @@ package io.mapsmessaging.schemas.formatters;
 import com.github.javafaker.Faker;
 import com.google.gson.JsonObject;
 import io.mapsmessaging.schemas.config.impl.NativeSchemaConfig;
+import io.mapsmessaging.schemas.config.impl.NativeSchemaConfig.BYTE_ORDER;
 import io.mapsmessaging.schemas.config.impl.NativeSchemaConfig.TYPE;
 import io.mapsmessaging.schemas.formatters.impl.NativeFormatter;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 class TestNativeFormatter {
 
@@ -38,6 +45,13 @@ class TestNativeFormatter {
     return (NativeFormatter) MessageFormatterFactory.getInstance().getFormatter(config);
   }
 
+  NativeFormatter getFormatter(TYPE type, BYTE_ORDER byteOrder) throws IOException {
+    NativeSchemaConfig config = new NativeSchemaConfig();
+    config.setType(type);
+    config.setByteOrder(byteOrder);
+    return (NativeFormatter) MessageFormatterFactory.getInstance().getFormatter(config);
+  }
+
   @Test
   void constructorExceptions() {
     Assertions.assertThrowsExactly(IOException.class, () -> new NativeFormatter(null));
@@ -145,6 +159,136 @@ class TestNativeFormatter {
     }
   }
 
+  @Test
+  void testSliceDecoders() throws IOException {
+    NativeFormatter formatter = getFormatter(TYPE.INT32);
+    byte[] framed = new byte[12];
+    System.arraycopy(packLong(Integer.MAX_VALUE, 4), 0, framed, 4, 4);
+    Assertions.assertEquals(Integer.MAX_VALUE, formatter.parse(framed, 4, 4).get("val"));
+    Assertions.assertEquals(Integer.MAX_VALUE, formatter.parse(ByteBuffer.wrap(framed, 4, 4)).get("val"));
+    ByteBuffer direct = ByteBuffer.allocateDirect(framed.length);
+    direct.put(framed).position(4).limit(8);
+    Assertions.assertEquals(Integer.MAX_VALUE, formatter.parse(direct).get("val"));
+    Assertions.assertArrayEquals(packLong(Integer.MAX_VALUE, 4), (byte[]) formatter.parse(framed, 4, 4).getReferenced());
+
+    // A direct buffer longer than the scalar decodes from the leading bytes and still references the whole message
+    direct.position(4).limit(12);
+    ParsedObject parsed = formatter.parse(direct);
+    Assertions.assertEquals(Integer.MAX_VALUE, parsed.get("val"));
+    Assertions.assertEquals(Integer.MAX_VALUE, parsed.getLong("val", 0));
+    Assertions.assertEquals(4, direct.position());
+    Assertions.assertArrayEquals(Arrays.copyOfRange(framed, 4, 12), (byte[]) parsed.getReferenced());
+    direct.position(4).limit(6);
+    Assertions.assertEquals(formatter.parse(framed, 4, 2).get("val"), formatter.parse(direct).get("val"));
+
+    formatter = getFormatter(TYPE.STRING);
+    byte[] text = "--value--".getBytes();
+    Assertions.assertEquals("value", formatter.parse(text, 2, 5).get("val"));
+  }
+
+  @Test
+  void testTypedAccessors() throws IOException {
+    NativeFormatter formatter = getFormatter(TYPE.INT16);
+    ParsedObject parsed = formatter.parse(packLong(Short.MIN_VALUE, 2));
+    Assertions.assertEquals(Short.MIN_VALUE, parsed.getLong("val", 0));
+    Assertions.assertEquals(Short.MIN_VALUE, parsed.getDouble("val", 0));
+    Assertions.assertEquals(Short.toString(Short.MIN_VALUE), parsed.getString("val"));
+    Assertions.assertTrue(parsed.isPresent("val"));
+
+    formatter = getFormatter(TYPE.DOUBLE);
+    parsed = formatter.parse(pack(-12.75));
+    Assertions.assertEquals(-12.75, parsed.getDouble("val", 0));
+    Assertions.assertEquals(-12L, parsed.getLong("val", 0));
+
+    formatter = getFormatter(TYPE.NUMERIC_STRING);
+    Assertions.assertEquals(1234L, formatter.parse("1234".getBytes()).getLong("val", 0));
+    Assertions.assertEquals(-1L, formatter.parse("abc".getBytes()).getLong("val", -1));
+  }
+
+  @Test
+  void testBigEndianDecoders() throws IOException {
+    NativeFormatter formatter = getFormatter(TYPE.INT32, BYTE_ORDER.BIG_ENDIAN);
+    byte[] payload = ByteBuffer.allocate(4).putInt(-123456).array();
+    Assertions.assertEquals(-123456, formatter.parse(payload).get("val"));
+    Assertions.assertEquals(0x0102, formatter.parse(new byte[]{1, 2}).get("val"));
+
+    formatter = getFormatter(TYPE.DOUBLE, BYTE_ORDER.BIG_ENDIAN);
+    payload = ByteBuffer.allocate(8).putDouble(Math.PI).array();
+    Assertions.assertEquals(Math.PI, formatter.parse(payload).getDouble("val", 0));
+  }
+
+  @Test
+  void testArrayDecoders() throws IOException {
+    float[] samples = new float[512];
+    for (int x = 0; x < samples.length; x++) {
+      samples[x] = (float) Math.sin(x / 10.0);
+    }
+    for (BYTE_ORDER byteOrder : BYTE_ORDER.values()) {
+      ByteBuffer buffer = ByteBuffer.allocate(samples.length * 4 + 4).order(byteOrder.toByteOrder());
+      buffer.position(4);
+      buffer.asFloatBuffer().put(samples);
+      byte[] framed = buffer.array();
+
+      NativeFormatter formatter = getFormatter(TYPE.FLOAT_ARRAY, byteOrder);
+      ParsedObject parsed = formatter.parse(framed, 4, samples.length * 4);
+      Assertions.assertArrayEquals(samples, (float[]) parsed.get("value"));
+      Assertions.assertEquals(samples[100], parsed.get("value[100]"));
+      Assertions.assertEquals(samples[511], parsed.getDouble("value[511]", 0), 0);
+      Assertions.assertTrue(parsed.isPresent("value[511]"));
+      Assertions.assertFalse(parsed.isPresent("value[512]"));
+      Assertions.assertNull(parsed.get("value[512]"));
+      Assertions.assertEquals(-1.0, parsed.getDouble("value[512]", -1));
+    }
+
+    NativeFormatter formatter = getFormatter(TYPE.INT16_ARRAY, BYTE_ORDER.BIG_ENDIAN);
+    ParsedObject parsed = formatter.parse(new byte[]{0, 1, (byte) 0xff, (byte) 0xfe, 7});
+    Assertions.assertArrayEquals(new short[]{1, -2}, (short[]) parsed.get("value"));
+    Assertions.assertEquals(-2L, parsed.getLong("value[1]", 0));
+    Assertions.assertFalse(parsed.isPresent("value[2]"));
+
+    formatter = getFormatter(TYPE.INT64_ARRAY);
+    byte[] payload = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN).putLong(Long.MIN_VALUE).putLong(42).array();
+    parsed = formatter.parse(payload);
+    Assertions.assertArrayEquals(new long[]{Long.MIN_VALUE, 42}, (long[]) parsed.get("value"));
+    Assertions.assertEquals(Long.MIN_VALUE, parsed.getLong("value[0]", 0));
+    Assertions.assertEquals("42", parsed.getString("value[1]"));
+    Assertions.assertEquals(2, formatter.parseToJson(payload).getAsJsonArray("value").size());
+  }
+
+  @Test
+  void testEncoders() throws IOException {
+    float[] samples = {1.5f, -2.25f, 1024f};
+    for (BYTE_ORDER byteOrder : BYTE_ORDER.values()) {
+      NativeFormatter formatter = getFormatter(TYPE.FLOAT_ARRAY, byteOrder);
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      formatter.pack(Map.of("value", samples), stream);
+      Assertions.assertArrayEquals(samples, (float[]) formatter.parse(stream.toByteArray()).get("value"));
+
+      stream.reset();
+      formatter.pack(Map.of("value", List.of(1.5, "-2.25", 1024)), stream);
+      Assertions.assertArrayEquals(samples, (float[]) formatter.parse(stream.toByteArray()).get("value"));
+    }
+
+    NativeFormatter formatter = getFormatter(TYPE.INT32, BYTE_ORDER.BIG_ENDIAN);
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    formatter.pack(Map.of("value", -123456), stream);
+    Assertions.assertArrayEquals(ByteBuffer.allocate(4).putInt(-123456).array(), stream.toByteArray());
+
+    formatter = getFormatter(TYPE.DOUBLE);
+    stream.reset();
+    formatter.pack(formatter.parse(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putDouble(Math.E).array()), stream);
+    Assertions.assertEquals(Math.E, formatter.parse(stream.toByteArray()).getDouble("value", 0));
+
+    formatter = getFormatter(TYPE.STRING);
+    stream.reset();
+    formatter.pack(Map.of("value", "hello"), stream);
+    Assertions.assertEquals("hello", stream.toString());
+
+    NativeFormatter intFormatter = getFormatter(TYPE.INT16_ARRAY);
+    Assertions.assertThrows(IOException.class, () -> intFormatter.pack(Map.of("value", List.of("x")), new ByteArrayOutputStream()));
+    Assertions.assertThrows(IOException.class, () -> intFormatter.pack(Map.of("other", 1), new ByteArrayOutputStream()));
+  }
+
   @Test
   void toJson() throws IOException {
     NativeFormatter formatter = getFormatter(TYPE.INT64);
@@ -153,6 +297,13 @@ class TestNativeFormatter {
     jsonObject = formatter.parseToJson(packLong(Long.MAX_VALUE, 8));
     Assertions.assertEquals(Long.MAX_VALUE, jsonObject.get("value").getAsLong());
 
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    formatter.writeJson(packLong(Long.MAX_VALUE, 8), stream);
+    Assertions.assertEquals("{\"value\":" + Long.MAX_VALUE + "}", stream.toString());
+
+    stream.reset();
+    getFormatter(TYPE.INT16_ARRAY).writeJson(new byte[]{1, 0, (byte) 0xfe, (byte) 0xff}, stream);
+    Assertions.assertEquals("{\"value\":[1,-2]}", stream.toString());
   }
 
   private byte[] pack(float val) {
@@ -20,9 +20,15 @@
  */
 package io.mapsmessaging.schemas.formatters;
 
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
 import io.mapsmessaging.schemas.config.SchemaConfig;
 import io.mapsmessaging.schemas.config.impl.ProtoBufSchemaConfig;
 import io.mapsmessaging.schemas.formatters.PersonProto.Person.Builder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -67,4 +73,101 @@ class TestProtobufFormatter extends BaseTest {
     config.setMessageName("Person");
     return config;
   }
+
+  @Test
+  void testGeneratedParser() throws IOException {
+    List<io.mapsmessaging.schemas.formatters.Person> people = createList().subList(0, 50);
+    List<byte[]> packed = packList(people);
+    ProtoBufSchemaConfig config = (ProtoBufSchemaConfig) getSchema();
+    config.setMessageClass(PersonProto.Person.class.getName());
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+    for (int x = 0; x < people.size(); x++) {
+      io.mapsmessaging.schemas.formatters.Person p = people.get(x);
+      ParsedObject parsed = formatter.parse(packed.get(x));
+      Assertions.assertInstanceOf(PersonProto.Person.class, parsed.getReferenced());
+      Assertions.assertEquals(p.getStringId(), parsed.get("stringId"));
+      Assertions.assertEquals(p.getLongId(), parsed.getLong("longId", 0));
+      Assertions.assertEquals(p.getDoubleId(), parsed.getDouble("doubleId", 0), 1e-9);
+      Assertions.assertEquals(p.getIntId(), formatter.parseToJson(packed.get(x)).get("intId").getAsInt());
+
+      ParsedObject projected = formatter.parse(packed.get(x), Projection.of("stringId"));
+      Assertions.assertEquals(p.getStringId(), projected.get("stringId"));
+      Assertions.assertNull(projected.get("longId"));
+
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      formatter.pack(parsed, stream);
+      Assertions.assertArrayEquals(packed.get(x), stream.toByteArray());
+    }
+  }
+
+  @Test
+  void testGeneratedParserFallback() throws IOException {
+    byte[] packed = packList(createList().subList(0, 1)).get(0);
+    for (String className : new String[]{"io.mapsmessaging.schemas.formatters.NoSuchMessage", String.class.getName(), DescriptorProtos.FileDescriptorSet.class.getName()}) {
+      ProtoBufSchemaConfig config = (ProtoBufSchemaConfig) getSchema();
+      config.setMessageClass(className);
+      ParsedObject parsed = MessageFormatterFactory.getInstance().getFormatter(config).parse(packed);
+      Assertions.assertInstanceOf(DynamicMessage.class, parsed.getReferenced());
+      Assertions.assertNotNull(parsed.get("stringId"));
+    }
+  }
+
+  @Test
+  void testNestedLookups() throws Exception {
+    DescriptorProtos.DescriptorProto reading = DescriptorProtos.DescriptorProto.newBuilder()
+        .setName("Reading")
+        .addField(field("value", 1, FieldDescriptorProto.Type.TYPE_DOUBLE, FieldDescriptorProto.Label.LABEL_OPTIONAL, null))
+        .build();
+    DescriptorProtos.DescriptorProto sensor = DescriptorProtos.DescriptorProto.newBuilder()
+        .setName("Sensor")
+        .addField(field("name", 1, FieldDescriptorProto.Type.TYPE_STRING, FieldDescriptorProto.Label.LABEL_OPTIONAL, null))
+        .addField(field("latest", 2, FieldDescriptorProto.Type.TYPE_MESSAGE, FieldDescriptorProto.Label.LABEL_OPTIONAL, "Reading"))
+        .addField(field("history", 3, FieldDescriptorProto.Type.TYPE_MESSAGE, FieldDescriptorProto.Label.LABEL_REPEATED, "Reading"))
+        .addField(field("flags", 4, FieldDescriptorProto.Type.TYPE_INT32, FieldDescriptorProto.Label.LABEL_REPEATED, null))
+        .build();
+    DescriptorProtos.FileDescriptorProto file = DescriptorProtos.FileDescriptorProto.newBuilder()
+        .setName("sensor.proto")
+        .addMessageType(reading)
+        .addMessageType(sensor)
+        .build();
+    Descriptors.Descriptor sensorType = Descriptors.FileDescriptor.buildFrom(file, new Descriptors.FileDescriptor[0]).findMessageTypeByName("Sensor");
+    Descriptors.Descriptor readingType = sensorType.findFieldByName("latest").getMessageType();
+
+    DynamicMessage.Builder builder = DynamicMessage.newBuilder(sensorType)
+        .setField(sensorType.findFieldByName("name"), "probe")
+        .setField(sensorType.findFieldByName("latest"), reading(readingType, 3.5));
+    for (int x = 0; x < 3; x++) {
+      builder.addRepeatedField(sensorType.findFieldByName("history"), reading(readingType, x));
+      builder.addRepeatedField(sensorType.findFieldByName("flags"), x * 10);
+    }
+
+    ProtoBufSchemaConfig config = new ProtoBufSchemaConfig();
+    config.setDescriptorValue(DescriptorProtos.FileDescriptorSet.newBuilder().addFile(file).build().toByteArray());
+    config.setMessageName("Sensor");
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+    ParsedObject parsed = formatter.parse(builder.build().toByteArray());
+
+    Assertions.assertEquals("probe", parsed.get("name"));
+    Assertions.assertEquals(3.5, parsed.get("latest.value"));
+    Assertions.assertEquals(2.0, parsed.get("history[2].value"));
+    Assertions.assertNull(parsed.get("history[3].value"));
+    Assertions.assertEquals(20, parsed.get("flags[2]"));
+    Assertions.assertNull(parsed.get("unknown"));
+  }
+
+  private static FieldDescriptorProto field(String name, int number, FieldDescriptorProto.Type type, FieldDescriptorProto.Label label, String typeName) {
+    FieldDescriptorProto.Builder builder = FieldDescriptorProto.newBuilder()
+        .setName(name)
+        .setNumber(number)
+        .setType(type)
+        .setLabel(label);
+    if (typeName != null) {
+      builder.setTypeName(typeName);
+    }
+    return builder.build();
+  }
+
+  private static DynamicMessage reading(Descriptors.Descriptor type, double value) {
+    return DynamicMessage.newBuilder(type).setField(type.findFieldByName("value"), value).build();
+  }
 }
@@ -21,11 +21,16 @@
 package io.mapsmessaging.schemas.formatters;
 
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import io.mapsmessaging.schemas.formatters.impl.RawFormatter;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Base64;
+import java.util.Map;
 
 class TestRawFormatter {
 
@@ -36,6 +41,35 @@ class TestRawFormatter {
     Assertions.assertEquals("Hi there", new String(Base64.getDecoder().decode((jsonObject.get("payload").getAsString()))));
   }
 
+  @Test
+  void testWriteJson() throws IOException {
+    RawFormatter rawFormatter = new RawFormatter();
+    byte[] payload = new byte[300];
+    for (int x = 0; x < payload.length; x++) {
+      payload[x] = (byte) x;
+    }
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    rawFormatter.writeJson(payload, stream);
+    Assertions.assertEquals(rawFormatter.parseToJson(payload), JsonParser.parseString(stream.toString()));
+  }
+
+  @Test
+  void testEncode() throws IOException {
+    RawFormatter rawFormatter = new RawFormatter();
+    byte[] payload = "Hi there".getBytes();
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    rawFormatter.pack(rawFormatter.parse(payload), stream);
+    Assertions.assertArrayEquals(payload, stream.toByteArray());
+
+    stream.reset();
+    rawFormatter.pack(rawFormatter.parseToJson(payload), stream);
+    Assertions.assertArrayEquals(payload, stream.toByteArray());
+
+    ByteBuffer buffer = ByteBuffer.allocate(4);
+    Assertions.assertThrows(IOException.class, () -> rawFormatter.pack(Map.of("payload", payload), buffer));
+    Assertions.assertEquals(0, buffer.position());
+  }
+
   @Test
   void testNullResponse() {
     RawFormatter rawFormatter = new RawFormatter();
@@ -0,0 +1,185 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.mapsmessaging.schemas.config.impl.NativeSchemaConfig.BYTE_ORDER;
+import io.mapsmessaging.schemas.config.impl.StructFieldConfig;
+import io.mapsmessaging.schemas.config.impl.StructFieldConfig.TYPE;
+import io.mapsmessaging.schemas.config.impl.StructSchemaConfig;
+import io.mapsmessaging.schemas.formatters.impl.StructFormatter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+class TestStructFormatter {
+
+  private StructSchemaConfig buildConfig() {
+    StructSchemaConfig config = new StructSchemaConfig();
+    config.setUniqueId(UUID.randomUUID());
+    config.setByteOrder(BYTE_ORDER.BIG_ENDIAN);
+    StructFieldConfig counter = new StructFieldConfig("counter", 12, TYPE.INT64);
+    counter.setByteOrder(BYTE_ORDER.LITTLE_ENDIAN);
+    config.setFields(List.of(
+        new StructFieldConfig("status", 0, TYPE.UINT8),
+        new StructFieldConfig("enabled", 1, TYPE.BOOLEAN),
+        new StructFieldConfig("id", 2, TYPE.UINT16),
+        new StructFieldConfig("delta", 4, TYPE.INT32),
+        new StructFieldConfig("temperature", 8, TYPE.FLOAT),
+        counter,
+        new StructFieldConfig("name", 20, TYPE.STRING, 8),
+        new StructFieldConfig("raw", 28, TYPE.BYTES, 4)
+    ));
+    return config;
+  }
+
+  private byte[] buildPayload() {
+    ByteBuffer buffer = ByteBuffer.allocate(32).order(ByteOrder.BIG_ENDIAN);
+    buffer.put((byte) 0xfe);
+    buffer.put((byte) 1);
+    buffer.putShort((short) 0xabcd);
+    buffer.putInt(-5000);
+    buffer.putFloat(21.5f);
+    buffer.order(ByteOrder.LITTLE_ENDIAN).putLong(1234567890123L);
+    buffer.put("sensor".getBytes(StandardCharsets.UTF_8));
+    buffer.position(28);
+    buffer.put(new byte[]{9, 8, 7, 6});
+    return buffer.array();
+  }
+
+  @Test
+  void testFieldAccess() throws IOException {
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(buildConfig());
+    Assertions.assertInstanceOf(StructFormatter.class, formatter);
+    byte[] payload = buildPayload();
+    ParsedObject parsed = formatter.parse(payload);
+
+    Assertions.assertEquals(254L, parsed.get("status"));
+    Assertions.assertEquals(Boolean.TRUE, parsed.get("enabled"));
+    Assertions.assertEquals(0xabcdL, parsed.get("id"));
+    Assertions.assertEquals(-5000L, parsed.get("delta"));
+    Assertions.assertEquals(21.5, parsed.get("temperature"));
+    Assertions.assertEquals(1234567890123L, parsed.get("counter"));
+    Assertions.assertEquals("sensor", parsed.get("name"));
+    Assertions.assertArrayEquals(new byte[]{9, 8, 7, 6}, (byte[]) parsed.get("raw"));
+    Assertions.assertEquals(8L, parsed.get("raw[1]"));
+    Assertions.assertNull(parsed.get("raw[4]"));
+    Assertions.assertNull(parsed.get("missing"));
+    Assertions.assertNull(parsed.get("name.child"));
+
+    Assertions.assertEquals(-5000L, parsed.getLong("delta", 0));
+    Assertions.assertEquals(21.5, parsed.getDouble("temperature", 0));
+    Assertions.assertEquals(21L, parsed.getLong("temperature", 0));
+    Assertions.assertTrue(parsed.getBoolean("enabled", false));
+    Assertions.assertEquals("sensor", parsed.getString("name"));
+    Assertions.assertEquals(7L, parsed.getLong("raw[2]", 0));
+    Assertions.assertEquals(-1L, parsed.getLong("missing", -1));
+    Assertions.assertEquals(List.of("status", "enabled", "id", "delta", "temperature", "counter", "name", "raw"), parsed.getKeys());
+    Assertions.assertSame(payload, parsed.getReferenced());
+
+    JsonObject json = formatter.parseToJson(payload);
+    Assertions.assertEquals(0xabcd, json.get("id").getAsInt());
+    Assertions.assertEquals("sensor", json.get("name").getAsString());
+
+    Map<String, Object> format = formatter.getFormat();
+    Assertions.assertEquals(Map.of("type", "float", "offset", 8, "length", 4), format.get("temperature"));
+  }
+
+  @Test
+  void testShortAndFramedPayloads() throws IOException {
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(buildConfig());
+    byte[] payload = buildPayload();
+
+    ParsedObject truncated = formatter.parse(payload, 0, 12);
+    Assertions.assertEquals(-5000L, truncated.get("delta"));
+    Assertions.assertTrue(truncated.isPresent("temperature"));
+    Assertions.assertFalse(truncated.isPresent("counter"));
+    Assertions.assertNull(truncated.get("counter"));
+    Assertions.assertEquals(-1L, truncated.getLong("counter", -1));
+    Assertions.assertFalse(formatter.parseToJson(payload, 0, 12).has("counter"));
+    StringWriter writer = new StringWriter();
+    formatter.writeJson(payload, 0, 12, writer);
+    Assertions.assertEquals(formatter.parseToJson(payload, 0, 12), JsonParser.parseString(writer.toString()));
+
+    byte[] framed = new byte[payload.length + 6];
+    System.arraycopy(payload, 0, framed, 3, payload.length);
+    ParsedObject slice = formatter.parse(ByteBuffer.wrap(framed, 3, payload.length));
+    Assertions.assertEquals(0xabcdL, slice.get("id"));
+    Assertions.assertEquals("sensor", slice.getString("name"));
+  }
+
+  @Test
+  void testEncode() throws IOException {
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(buildConfig());
+    Map<String, Object> values = new HashMap<>();
+    values.put("status", 254);
+    values.put("enabled", true);
+    values.put("id", 0xabcd);
+    values.put("delta", -5000);
+    values.put("temperature", 21.5);
+    values.put("counter", 1234567890123L);
+    values.put("name", "sensor");
+    values.put("raw", new byte[]{9, 8, 7, 6});
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    formatter.pack(values, stream);
+    Assertions.assertArrayEquals(buildPayload(), stream.toByteArray());
+
+    stream.reset();
+    formatter.pack(formatter.parse(buildPayload()), stream);
+    Assertions.assertArrayEquals(buildPayload(), stream.toByteArray());
+
+    stream.reset();
+    formatter.pack(Map.of("name", "a much longer name", "delta", "12"), stream);
+    ParsedObject parsed = formatter.parse(stream.toByteArray());
+    Assertions.assertEquals(32, stream.size());
+    Assertions.assertEquals("a much l", parsed.get("name"));
+    Assertions.assertEquals(12L, parsed.get("delta"));
+    Assertions.assertEquals(0L, parsed.get("counter"));
+
+    Assertions.assertThrows(IOException.class, () -> formatter.pack(Map.of("delta", "twelve"), new ByteArrayOutputStream()));
+  }
+
+  @Test
+  void testInvalidLayouts() {
+    StructSchemaConfig config = new StructSchemaConfig();
+    Assertions.assertThrowsExactly(IOException.class, () -> new StructFormatter(config));
+
+    config.setFields(List.of(new StructFieldConfig("text", 0, TYPE.STRING)));
+    Assertions.assertThrowsExactly(IOException.class, () -> new StructFormatter(config));
+
+    config.setFields(List.of(new StructFieldConfig("a", 0, TYPE.INT8), new StructFieldConfig("a", 1, TYPE.INT8)));
+    Assertions.assertThrowsExactly(IOException.class, () -> new StructFormatter(config));
+
+    config.setFields(List.of(new StructFieldConfig("a", -1, TYPE.INT8)));
+    Assertions.assertThrowsExactly(IOException.class, () -> new StructFormatter(config));
+  }
+}
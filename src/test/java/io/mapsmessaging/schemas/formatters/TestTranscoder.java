@@ -0,0 +1,151 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters;
+
+import com.google.gson.JsonParser;
+import io.mapsmessaging.schemas.formatters.impl.CborFormatter;
+import io.mapsmessaging.schemas.formatters.impl.JsonFormatter;
+import io.mapsmessaging.schemas.formatters.impl.MessagePackFormatter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+class TestTranscoder {
+
+  private static List<Person> data;
+
+  @BeforeAll
+  static void createData() {
+    data = BaseTest.createList().subList(0, 50);
+  }
+
+  private static MessageFormatter json() throws IOException {
+    return MessageFormatterFactory.getInstance().getFormatter(new TestJsonFormatter().getSchema());
+  }
+
+  private static void validate(Person p, ParsedObject parsedObject) {
+    Assertions.assertEquals(p.getStringId(), parsedObject.getString("stringId"));
+    Assertions.assertEquals(p.getLongId(), parsedObject.getLong("longId", 0));
+    Assertions.assertEquals(p.getIntId(), parsedObject.getLong("intId", 0));
+    Assertions.assertEquals(p.getFloatId(), parsedObject.getDouble("floatId", 0), 1e-6);
+    Assertions.assertEquals(p.getDoubleId(), parsedObject.getDouble("doubleId", 0), 1e-9);
+  }
+
+  @Test
+  void testAvroToJson() throws IOException {
+    TestAvroFormatter avro = new TestAvroFormatter();
+    Transcoder transcoder = new Transcoder(MessageFormatterFactory.getInstance().getFormatter(avro.getSchema()), json());
+    List<byte[]> packed = avro.packList(data);
+    for (int x = 0; x < data.size(); x++) {
+      byte[] document = transcoder.transcode(packed.get(x));
+      validate(data.get(x), transcoder.getTarget().parse(document));
+    }
+  }
+
+  @Test
+  void testProtoBufToCbor() throws IOException {
+    TestProtobufFormatter protobuf = new TestProtobufFormatter();
+    TestCborFormatter cbor = new TestCborFormatter();
+    MessageFormatter target = MessageFormatterFactory.getInstance().getFormatter(cbor.getSchema());
+    Transcoder transcoder = new Transcoder(MessageFormatterFactory.getInstance().getFormatter(protobuf.getSchema()), target);
+    List<byte[]> packed = protobuf.packList(data);
+    for (int x = 0; x < data.size(); x++) {
+      validate(data.get(x), target.parse(transcoder.transcode(packed.get(x))));
+    }
+  }
+
+  @Test
+  void testTokenFormats() throws IOException {
+    MessageFormatter cbor = MessageFormatterFactory.getInstance().getFormatter(new TestCborFormatter().getSchema());
+    MessageFormatter messagePack = MessageFormatterFactory.getInstance().getFormatter(new TestMessagePackFormatter().getSchema());
+    Transcoder toCbor = new Transcoder(json(), cbor);
+    Transcoder toMessagePack = new Transcoder(cbor, messagePack);
+    Transcoder toJson = new Transcoder(messagePack, json());
+    List<byte[]> packed = new TestJsonFormatter().packList(data);
+    for (int x = 0; x < data.size(); x++) {
+      byte[] framed = new byte[packed.get(x).length + 8];
+      System.arraycopy(packed.get(x), 0, framed, 4, packed.get(x).length);
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      toCbor.transcode(ByteBuffer.wrap(framed, 4, packed.get(x).length), stream);
+      byte[] document = toJson.transcode(toMessagePack.transcode(stream.toByteArray()));
+      validate(data.get(x), toJson.getTarget().parse(document));
+    }
+  }
+
+  @Test
+  void testToEncodedTarget() throws IOException {
+    TestAvroFormatter avro = new TestAvroFormatter();
+    MessageFormatter target = MessageFormatterFactory.getInstance().getFormatter(avro.getSchema());
+    Transcoder transcoder = new Transcoder(json(), target);
+    List<byte[]> packed = new TestJsonFormatter().packList(data);
+    for (int x = 0; x < data.size(); x++) {
+      validate(data.get(x), target.parse(transcoder.transcode(packed.get(x))));
+    }
+  }
+
+  @Test
+  void testNestedStructure() throws IOException {
+    byte[] document = "{\"name\":\"probe\",\"readings\":[1.5,2,{\"deep\":true}],\"meta\":{\"id\":7,\"tag\":null}}".getBytes(StandardCharsets.UTF_8);
+    JsonFormatter json = new JsonFormatter();
+    CborFormatter cbor = new CborFormatter();
+    byte[] roundTrip = new Transcoder(cbor, json).transcode(new Transcoder(json, cbor).transcode(document));
+    Assertions.assertEquals(JsonParser.parseString(new String(document, StandardCharsets.UTF_8)), json.parseToJson(roundTrip));
+  }
+
+  @Test
+  void testOnlyObjects() {
+    JsonFormatter json = new JsonFormatter();
+    CborFormatter cbor = new CborFormatter();
+    MessagePackFormatter messagePack = new MessagePackFormatter();
+    Transcoder transcoder = new Transcoder(json, messagePack);
+    for (String document : new String[]{"{\"a\":1} trailing garbage", "{\"a\":1} {\"b\":2}", "[1,2]", "42"}) {
+      byte[] payload = document.getBytes(StandardCharsets.UTF_8);
+      Assertions.assertThrows(IOException.class, () -> transcoder.transcode(payload), document);
+    }
+
+    // The binary formats stream writeJson through the same copy, so it rejects what parseToJson rejects
+    byte[][] messagePackPayloads = {{(byte) 0xff, (byte) 0xfe, 1, 2, 0x7f}, {(byte) 0x92, 1, 2}, {(byte) 0x81, (byte) 0xa1, 'a', 1, 1}};
+    for (byte[] payload : messagePackPayloads) {
+      Assertions.assertThrows(IOException.class, () -> messagePack.writeJson(payload, new ByteArrayOutputStream()));
+      Assertions.assertThrows(IOException.class, () -> new Transcoder(messagePack, cbor).transcode(payload));
+    }
+    byte[][] cborPayloads = {{(byte) 0x82, 1, 2}, {0x18, 0x2a}, {(byte) 0xa1, 0x61, 'a', 1, 1}};
+    for (byte[] payload : cborPayloads) {
+      Assertions.assertThrows(IOException.class, () -> cbor.writeJson(payload, new ByteArrayOutputStream()));
+      Assertions.assertThrows(IOException.class, () -> new Transcoder(cbor, json).transcode(payload));
+    }
+  }
+
+  @Test
+  void testInvalidPayload() throws IOException {
+    TestAvroFormatter avro = new TestAvroFormatter();
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(avro.getSchema());
+    byte[] invalid = "not a document".getBytes(StandardCharsets.UTF_8);
+    Assertions.assertThrows(IOException.class, () -> new Transcoder(json(), formatter).transcode(invalid));
+    Assertions.assertArrayEquals(invalid, new Transcoder(formatter, formatter).transcode(invalid));
+  }
+}
@@ -106,6 +106,19 @@ class TestXMLFormatter extends BaseTest {
     Assertions.assertEquals(39.95, xmlFormatter.parse(XML_STRING.getBytes()).get("product.catalog_item[0].price"));
   }
 
+  @Test
+  void testAttributesAndText() throws IOException {
+    XmlSchemaConfig config = new XmlSchemaConfig();
+    MessageFormatter formatter = MessageFormatterFactory.getInstance().getFormatter(config);
+    String xml = "<reading><sensor id=\"12\" unit=\"C\">21.5</sensor><sensor id=\"13\"/><note><![CDATA[a < b]]></note></reading>";
+    ParsedObject parsed = formatter.parse(xml.getBytes(StandardCharsets.UTF_8));
+    Assertions.assertEquals(12, parsed.get("sensor[0].id"));
+    Assertions.assertEquals("C", parsed.get("sensor[0].unit"));
+    Assertions.assertEquals(21.5, parsed.get("sensor[0]."));
+    Assertions.assertEquals(13, parsed.get("sensor[1].id"));
+    Assertions.assertEquals("a < b", parsed.get("note"));
+  }
+
   private static final String XML_STRING = "<?xml version=\"1.0\"?>\n"
       + "<?xml-stylesheet href=\"catalog.xsl\" type=\"text/xsl\"?>\n"
       + "<!DOCTYPE catalog  >\n"
@@ -0,0 +1,53 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import io.mapsmessaging.schemas.formatters.MessageFormatter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestIntFormatterMap {
+
+  @Test
+  void testPutAndGet() {
+    IntFormatterMap map = new IntFormatterMap();
+    MessageFormatter[] formatters = new MessageFormatter[100];
+    for (int x = 0; x < formatters.length; x++) {
+      formatters[x] = new RawFormatter();
+      map.put(x * 17 - 500, formatters[x]); // Includes negative and zero keys, forcing the table to grow
+    }
+    Assertions.assertEquals(formatters.length, map.size());
+    for (int x = 0; x < formatters.length; x++) {
+      Assertions.assertSame(formatters[x], map.get(x * 17 - 500));
+    }
+    Assertions.assertNull(map.get(1));
+    Assertions.assertNull(map.get(Integer.MIN_VALUE));
+
+    MessageFormatter replacement = new RawFormatter();
+    map.put(-500, replacement);
+    Assertions.assertSame(replacement, map.get(-500));
+    Assertions.assertEquals(formatters.length, map.size());
+
+    map.clear();
+    Assertions.assertEquals(0, map.size());
+    Assertions.assertNull(map.get(-500));
+  }
+}
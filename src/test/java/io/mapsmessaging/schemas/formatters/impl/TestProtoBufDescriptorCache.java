@@ -0,0 +1,111 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import io.mapsmessaging.schemas.formatters.MessageFormatter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+
+class TestProtoBufDescriptorCache {
+
+  private static byte[] descriptorImage(String fileName) {
+    DescriptorProtos.FileDescriptorProto file = DescriptorProtos.FileDescriptorProto.newBuilder()
+        .setName(fileName)
+        .addMessageType(message("First"))
+        .addMessageType(message("Second"))
+        .build();
+    return DescriptorProtos.FileDescriptorSet.newBuilder().addFile(file).build().toByteArray();
+  }
+
+  private static DescriptorProtos.DescriptorProto message(String name) {
+    return DescriptorProtos.DescriptorProto.newBuilder()
+        .setName(name)
+        .addField(FieldDescriptorProto.newBuilder()
+            .setName("id")
+            .setNumber(1)
+            .setType(FieldDescriptorProto.Type.TYPE_INT64)
+            .setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL))
+        .build();
+  }
+
+  @Test
+  void testSharedDescriptors() throws IOException {
+    byte[] image = descriptorImage("shared.proto");
+    String key = ProtoBufDescriptorCache.key(image);
+
+    FileDescriptor first = ProtoBufDescriptorCache.acquire(key, image);
+    FileDescriptor second = ProtoBufDescriptorCache.acquire(key, image.clone());
+    Assertions.assertSame(first, second);
+    Assertions.assertTrue(ProtoBufDescriptorCache.contains(key));
+
+    ProtoBufDescriptorCache.release(key);
+    Assertions.assertTrue(ProtoBufDescriptorCache.contains(key));
+    ProtoBufDescriptorCache.release(key);
+    Assertions.assertFalse(ProtoBufDescriptorCache.contains(key));
+  }
+
+  @Test
+  void testFormatterRelease() throws IOException {
+    byte[] image = descriptorImage("formatter.proto");
+    String key = ProtoBufDescriptorCache.key(image);
+
+    MessageFormatter first = new ProtoBufFormatter("First", image);
+    MessageFormatter second = new ProtoBufFormatter("Second", image);
+    Assertions.assertTrue(ProtoBufDescriptorCache.contains(key));
+
+    first.release();
+    first.release(); // Releasing twice must not drop the reference held by the second formatter
+    Assertions.assertTrue(ProtoBufDescriptorCache.contains(key));
+    second.release();
+    Assertions.assertFalse(ProtoBufDescriptorCache.contains(key));
+
+    // Released formatters keep working, they only stop sharing their descriptors
+    Assertions.assertEquals(Long.valueOf(7), first.parse(new byte[]{0x08, 0x07}).get("id"));
+  }
+
+  @Test
+  void testUnreleasedFormatterIsCollected() throws Exception {
+    byte[] image = descriptorImage("unreleased.proto");
+    // Other tests drop unreleased formatters at any time, so check for this key rather than the cache size
+    String key = ProtoBufDescriptorCache.key(image);
+    MessageFormatter strong = new ProtoBufFormatter("First", image);
+    WeakReference<MessageFormatter> formatter = new WeakReference<>(strong);
+    Assertions.assertTrue(ProtoBufDescriptorCache.contains(key));
+    Reference.reachabilityFence(strong); // Keep the formatter reachable until it has been checked
+    strong = null;
+
+    // Never released, the descriptor is dropped once the formatter has been collected
+    long end = System.currentTimeMillis() + 10_000;
+    while ((formatter.get() != null || ProtoBufDescriptorCache.contains(key)) && System.currentTimeMillis() < end) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    Assertions.assertNull(formatter.get());
+    Assertions.assertFalse(ProtoBufDescriptorCache.contains(key));
+  }
+}
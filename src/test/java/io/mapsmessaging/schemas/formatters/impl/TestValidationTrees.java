@@ -0,0 +1,61 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+class TestValidationTrees {
+
+  private static final String DOCUMENT = "{\"count\": 12, \"big\": 12345678901234, \"huge\": 123456789012345678901234567890, " +
+      "\"ratio\": -0.25, \"exp\": 1.5e3, \"name\": \"tab\\tquote\\\" \\u00e9\", \"utf\": \"h\u00e9llo\", " +
+      "\"tags\": [\"a\", 1, null, false], \"inner\": {\"flag\": true, \"empty\": {}, \"none\": []}}";
+
+  @Test
+  void testTapeTreeMatchesObjectMapper() throws IOException {
+    byte[] payload = ("  " + DOCUMENT + "  ").getBytes(StandardCharsets.UTF_8);
+    JsonNode expected = new ObjectMapper().readTree(payload);
+    JsonNode actual = JsonTape.build(payload, 0, payload.length).toTree(0);
+    Assertions.assertEquals(expected, actual);
+  }
+
+  @Test
+  void testMessagePackTreeMatchesObjectMapper() throws IOException {
+    ObjectMapper messagePackMapper = new ObjectMapper(new MessagePackFactory());
+    JsonNode source = new ObjectMapper().readTree(DOCUMENT);
+    ((com.fasterxml.jackson.databind.node.ObjectNode) source).remove("huge"); // MessagePack integers stop at 64 bits
+    byte[] packed = messagePackMapper.writeValueAsBytes(source);
+    byte[] payload = new byte[packed.length + 4];
+    System.arraycopy(packed, 0, payload, 2, packed.length);
+
+    JsonNode expected = messagePackMapper.readTree(packed);
+    Assertions.assertEquals(expected, MessagePackResolver.readTree(payload, 2, packed.length));
+    Assertions.assertThrows(IOException.class, () -> MessagePackResolver.readTree(payload, 2, packed.length + 1));
+    byte[] array = messagePackMapper.writeValueAsBytes(new int[]{1, 2});
+    Assertions.assertThrows(IOException.class, () -> MessagePackResolver.readTree(array, 0, array.length));
+  }
+}
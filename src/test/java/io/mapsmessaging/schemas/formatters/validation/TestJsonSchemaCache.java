@@ -0,0 +1,64 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+class TestJsonSchemaCache {
+
+  private static final String SCHEMA = "{\"type\": \"object\", \"properties\": {\"id\": {\"type\": \"number\"}}, \"required\": [\"id\"]}";
+
+  @Test
+  void testSharedCompiledSchema() throws IOException {
+    CompiledJsonSchema first = JsonSchemaCache.get(SCHEMA);
+    CompiledJsonSchema second = JsonSchemaCache.get(new String(SCHEMA.toCharArray()));
+    Assertions.assertSame(first, second);
+    Assertions.assertTrue(first.isValidating());
+
+    ObjectMapper mapper = new ObjectMapper();
+    Assertions.assertTrue(first.validate(mapper.readTree("{\"id\": 1}")).isEmpty());
+    Assertions.assertFalse(first.validate(mapper.readTree("{\"name\": \"x\"}")).isEmpty());
+  }
+
+  @Test
+  void testEmptySchema() throws IOException {
+    CompiledJsonSchema empty = JsonSchemaCache.get("{}");
+    Assertions.assertFalse(empty.isValidating());
+    Assertions.assertTrue(empty.validate(new ObjectMapper().readTree("[1, 2]")).isEmpty());
+  }
+
+  @Test
+  void testBooleanSchemas() throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    CompiledJsonSchema acceptAll = JsonSchemaCache.get("true");
+    Assertions.assertFalse(acceptAll.isValidating());
+    Assertions.assertTrue(acceptAll.validate(mapper.readTree("{\"id\": 1}")).isEmpty());
+
+    CompiledJsonSchema rejectAll = JsonSchemaCache.get("false");
+    Assertions.assertTrue(rejectAll.isValidating());
+    Assertions.assertFalse(rejectAll.validate(mapper.readTree("{\"id\": 1}")).isEmpty());
+    Assertions.assertFalse(rejectAll.validate(mapper.readTree("{}")).isEmpty());
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mapsmessaging.schemas.config.impl.SchemaValidationConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+class TestSchemaValidator {
+
+  private static final String SCHEMA = "{\"type\": \"object\", \"required\": [\"id\"]}";
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private int runAll(SchemaValidator validator, JsonNode document, int count) {
+    int failures = 0;
+    for (int x = 0; x < count; x++) {
+      if (validator.select() && !validator.validate(() -> document)) {
+        failures++;
+      }
+    }
+    return failures;
+  }
+
+  @Test
+  void testAlways() throws IOException {
+    SchemaValidator validator = new SchemaValidator("JSON", JsonSchemaCache.get(SCHEMA), null);
+    Assertions.assertEquals(10, runAll(validator, mapper.readTree("{\"name\": 1}"), 10));
+    Assertions.assertEquals(10, validator.getValidatedCount());
+    Assertions.assertEquals(10, validator.getFailedCount());
+    Assertions.assertEquals(0, validator.getSkippedCount());
+  }
+
+  @Test
+  void testSampled() throws IOException {
+    SchemaValidationConfig config = new SchemaValidationConfig(SchemaValidationConfig.POLICY.SAMPLED);
+    config.setSampleRate(4);
+    SchemaValidator validator = new SchemaValidator("JSON", JsonSchemaCache.get(SCHEMA), config);
+    Assertions.assertEquals(0, runAll(validator, mapper.readTree("{\"id\": 1}"), 8));
+    Assertions.assertEquals(2, validator.getValidatedCount());
+    Assertions.assertEquals(6, validator.getSkippedCount());
+  }
+
+  @Test
+  void testFirstNPerInterval() throws IOException {
+    SchemaValidationConfig config = new SchemaValidationConfig(SchemaValidationConfig.POLICY.FIRST_N_PER_INTERVAL);
+    config.setMaxPerInterval(3);
+    config.setInterval(60_000);
+    SchemaValidator validator = new SchemaValidator("JSON", JsonSchemaCache.get(SCHEMA), config);
+    Assertions.assertEquals(3, runAll(validator, mapper.readTree("{}"), 10));
+    Assertions.assertEquals(3, validator.getValidatedCount());
+    Assertions.assertEquals(7, validator.getSkippedCount());
+  }
+
+  @Test
+  void testAsync() throws Exception {
+    SchemaValidationConfig config = new SchemaValidationConfig(SchemaValidationConfig.POLICY.ASYNC);
+    SchemaValidator validator = new SchemaValidator("JSON", JsonSchemaCache.get(SCHEMA), config);
+    // Asynchronous validation never rejects the message, failures are only counted
+    Assertions.assertEquals(0, runAll(validator, mapper.readTree("{}"), 10));
+    long end = System.currentTimeMillis() + 10_000;
+    while (validator.getValidatedCount() + validator.getDroppedCount() < 10 && System.currentTimeMillis() < end) {
+      Thread.sleep(10);
+    }
+    Assertions.assertEquals(10, validator.getValidatedCount() + validator.getDroppedCount());
+    Assertions.assertEquals(validator.getValidatedCount(), validator.getFailedCount());
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ *
+ *  Copyright [ 2020 - 2024 ] Matthew Buckton
+ *  Copyright [ 2024 - 2025 ] MapsMessaging B.V.
+ *
+ *  Licensed under the Apache License, Version 2.0 with the Commons Clause
+ *  (the "License"); you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at:
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *      https://commonsclause.com/
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package io.mapsmessaging.schemas.formatters.walker;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class TestFieldPath {
+
+  @Test
+  void testCompile() {
+    FieldPath path = FieldPath.compile("a.b[3].c");
+    Assertions.assertSame(path, FieldPath.compile("a.b[3].c"));
+    Assertions.assertEquals(3, path.size());
+    Assertions.assertEquals("a", path.getStep(0).getName());
+    Assertions.assertFalse(path.getStep(0).isIndexed());
+    Assertions.assertEquals("b", path.getStep(1).getName());
+    Assertions.assertEquals(3, path.getStep(1).getIndex());
+    Assertions.assertEquals("b[3]", path.getStep(1).getSegment());
+    Assertions.assertEquals("c", path.getStep(2).getName());
+  }
+
+  @Test
+  void testInvalidIndex() {
+    FieldPath.Step step = FieldPath.compile("b[x]").getStep(0);
+    Assertions.assertFalse(step.isIndexed());
+    Assertions.assertEquals("b[x]", step.getName());
+  }
+
+  @Test
+  void testLookup() {
+    Map<String, Object> leaf = new LinkedHashMap<>();
+    leaf.put("c", 42);
+    Map<String, Object> top = new LinkedHashMap<>();
+    top.put("b", List.of(Map.of(), Map.of(), Map.of(), leaf));
+    top.put("a", 1);
+    StructuredResolver resolver = new StructuredResolver(new MapResolver(top), top);
+
+    Assertions.assertEquals(42, resolver.get(FieldPath.compile("b[3].c")));
+    Assertions.assertEquals(42, resolver.get("b[3].c"));
+    Assertions.assertEquals(1, resolver.get(FieldPath.compile("a")));
+    Assertions.assertNull(resolver.get(FieldPath.compile("b[4].c")));
+    Assertions.assertNull(resolver.get(FieldPath.compile("missing")));
+  }
+}